@@ -1,16 +1,23 @@
 package com.tarnof.enjoyrestapi.config;
 
+import com.tarnof.enjoyrestapi.services.storage.CacheDisqueObjectStorageService;
+import com.tarnof.enjoyrestapi.services.storage.ObjectStorageService;
+import com.tarnof.enjoyrestapi.services.storage.R2ObjectStorageServiceImpl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3Configuration;
 
 import java.net.URI;
+import java.nio.file.Path;
 
 @Configuration
 @EnableConfigurationProperties(StorageProperties.class)
@@ -31,4 +38,35 @@ public class ObjectStorageConfig {
                 .serviceConfiguration(serviceConfiguration)
                 .build();
     }
+
+    /** Client non bloquant pour les téléversements asynchrones (multipart) ; même configuration que {@link S3Client}. */
+    @Bean
+    @ConditionalOnProperty(name = "application.storage.r2.enabled", havingValue = "true")
+    S3AsyncClient r2S3AsyncClient(StorageProperties storageProperties) {
+        StorageProperties.R2 r2 = storageProperties.getR2();
+        S3Configuration serviceConfiguration = S3Configuration.builder()
+                .pathStyleAccessEnabled(true)
+                .build();
+        return S3AsyncClient.builder()
+                .endpointOverride(URI.create(r2.getEndpoint()))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(r2.getAccessKey(), r2.getSecretKey())))
+                .region(Region.of("auto"))
+                .serviceConfiguration(serviceConfiguration)
+                .build();
+    }
+
+    /**
+     * Cache disque devant R2 ({@code application.storage.cache.enabled}, actif par défaut) : bean principal,
+     * les services reçoivent le cache et le cache reçoit l'implémentation R2.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnExpression("${application.storage.r2.enabled:false} and ${application.storage.cache.enabled:true}")
+    ObjectStorageService objectStorageServiceEnCache(
+            R2ObjectStorageServiceImpl r2ObjectStorageService, StorageProperties storageProperties) {
+        StorageProperties.Cache cache = storageProperties.getCache();
+        return new CacheDisqueObjectStorageService(
+                r2ObjectStorageService, Path.of(cache.getDir()), cache.getMaxSize().toBytes());
+    }
 }
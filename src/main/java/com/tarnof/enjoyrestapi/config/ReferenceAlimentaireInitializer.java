@@ -3,6 +3,7 @@ package com.tarnof.enjoyrestapi.config;
 import com.tarnof.enjoyrestapi.entities.ReferenceAlimentaire;
 import com.tarnof.enjoyrestapi.enums.TypeReferenceAlimentaire;
 import com.tarnof.enjoyrestapi.repositories.ReferenceAlimentaireRepository;
+import com.tarnof.enjoyrestapi.services.CatalogueReferencesAlimentaires;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.core.annotation.Order;
@@ -10,16 +11,21 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Insertion idempotente des allergènes (référentiel UE) et des régimes / préférences les plus courants.
+ * Insertion idempotente des allergènes (référentiel UE) et des régimes / préférences les plus courants,
+ * puis chargement du catalogue en mémoire.
  */
 @Component
 @Order
 public class ReferenceAlimentaireInitializer implements ApplicationRunner {
 
     private final ReferenceAlimentaireRepository referenceAlimentaireRepository;
+    private final CatalogueReferencesAlimentaires catalogueReferencesAlimentaires;
 
-    public ReferenceAlimentaireInitializer(ReferenceAlimentaireRepository referenceAlimentaireRepository) {
+    public ReferenceAlimentaireInitializer(
+            ReferenceAlimentaireRepository referenceAlimentaireRepository,
+            CatalogueReferencesAlimentaires catalogueReferencesAlimentaires) {
         this.referenceAlimentaireRepository = referenceAlimentaireRepository;
+        this.catalogueReferencesAlimentaires = catalogueReferencesAlimentaires;
     }
 
     @Override
@@ -39,6 +45,8 @@ public class ReferenceAlimentaireInitializer implements ApplicationRunner {
 
         insererSiAbsent(TypeReferenceAlimentaire.REGIME_PREFERENCE, "Sans porc", 10);
         insererSiAbsent(TypeReferenceAlimentaire.REGIME_PREFERENCE, "Sans viande", 20);
+
+        catalogueReferencesAlimentaires.recharger();
     }
 
     private void insererSiAbsent(TypeReferenceAlimentaire type, String libelle, int ordre) {
@@ -10,11 +10,33 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.DispatcherTypeRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Arrays;
+
+import jakarta.servlet.DispatcherType;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfiguration {
+    /** Endpoints qui répondent par un {@code StreamingResponseBody} (listings {@code ?stream=true}, XLSX, photos). */
+    private static final String[] ROUTES_EN_FLUX = {
+            "/api/v1/sejours/*/activites",
+            "/api/v1/sejours/*/cahier-infirmerie",
+            "/api/v1/sejours/*/cahier-infirmerie/export.xlsx",
+            "/api/v1/sejours/*/chambres/export.xlsx",
+            "/api/v1/sejours/*/dossiers-enfants",
+            "/api/v1/sejours/*/dossiers-enfants/export.xlsx",
+            "/api/v1/sejours/*/planning-grilles/*/export.xlsx",
+            "/api/v1/utilisateurs/*/photo-profil",
+            "/api/v1/utilisateurs/photos-profil/lot"
+    };
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final AuthenticationProvider authenticationProvider;
     private final Http401UnauthorizedEntryPoint unauthorizedEntryPoint;
@@ -36,6 +58,8 @@ public class SecurityConfiguration {
                         .authenticationEntryPoint(unauthorizedEntryPoint)
                         .accessDeniedHandler(accessDeniedHandler))
                 .authorizeHttpRequests(request  -> request
+                        // Re-dispatch ASYNC des réponses en flux : l'accès a déjà été contrôlé sur la requête initiale.
+                        .requestMatchers(redispatchReponsesEnFlux()).permitAll()
                         .requestMatchers("/api/v1/auth/**","/error").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -47,4 +71,12 @@ public class SecurityConfiguration {
 
         return http.build();
     }
+
+    private static RequestMatcher redispatchReponsesEnFlux() {
+        RequestMatcher[] routes = Arrays.stream(ROUTES_EN_FLUX)
+                .map(route -> PathPatternRequestMatcher.withDefaults().matcher(route))
+                .toArray(RequestMatcher[]::new);
+        return new AndRequestMatcher(
+                new DispatcherTypeRequestMatcher(DispatcherType.ASYNC), new OrRequestMatcher(routes));
+    }
 }
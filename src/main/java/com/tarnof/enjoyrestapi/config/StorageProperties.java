@@ -1,12 +1,14 @@
 package com.tarnof.enjoyrestapi.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 @ConfigurationProperties(prefix = "application.storage")
 public class StorageProperties {
 
     private final R2 r2 = new R2();
     private final Local local = new Local();
+    private final Cache cache = new Cache();
 
     public R2 getR2() {
         return r2;
@@ -16,12 +18,18 @@ public class StorageProperties {
         return local;
     }
 
+    public Cache getCache() {
+        return cache;
+    }
+
     public static class R2 {
         private boolean enabled;
         private String endpoint;
         private String bucket;
         private String accessKey;
         private String secretKey;
+        /** Parties de téléversement multipart envoyées en même temps, tous envois confondus. */
+        private int uploadConcurrency = 4;
 
         public boolean isEnabled() {
             return enabled;
@@ -62,6 +70,14 @@ public class StorageProperties {
         public void setSecretKey(String secretKey) {
             this.secretKey = secretKey;
         }
+
+        public int getUploadConcurrency() {
+            return uploadConcurrency;
+        }
+
+        public void setUploadConcurrency(int uploadConcurrency) {
+            this.uploadConcurrency = uploadConcurrency;
+        }
     }
 
     public static class Local {
@@ -75,4 +91,35 @@ public class StorageProperties {
             this.uploadDir = uploadDir;
         }
     }
+
+    /** Cache disque des objets lus sur R2 (sans effet en stockage local). */
+    public static class Cache {
+        private boolean enabled = true;
+        private String dir = "./cache-stockage";
+        private DataSize maxSize = DataSize.ofMegabytes(512);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDir() {
+            return dir;
+        }
+
+        public void setDir(String dir) {
+            this.dir = dir;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
 }
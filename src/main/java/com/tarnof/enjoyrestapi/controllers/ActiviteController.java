@@ -5,13 +5,19 @@ import com.tarnof.enjoyrestapi.payload.request.CreateActiviteRequest;
 import com.tarnof.enjoyrestapi.payload.request.UpdateActiviteRequest;
 import com.tarnof.enjoyrestapi.payload.response.ActiviteDto;
 import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationActiviteDto;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
 import com.tarnof.enjoyrestapi.services.ActiviteService;
 import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
+import com.tarnof.enjoyrestapi.utils.JsonFlux;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,11 +27,15 @@ public class ActiviteController {
 
     private final ActiviteService activiteService;
     private final HistoriqueModificationService historiqueModificationService;
+    private final ObjectMapper objectMapper;
 
     public ActiviteController(
-            ActiviteService activiteService, HistoriqueModificationService historiqueModificationService) {
+            ActiviteService activiteService,
+            HistoriqueModificationService historiqueModificationService,
+            ObjectMapper objectMapper) {
         this.activiteService = activiteService;
         this.historiqueModificationService = historiqueModificationService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -35,6 +45,19 @@ public class ActiviteController {
         return activiteService.listerActivitesDuSejour(sejourId, utilisateur.getTokenId());
     }
 
+    /** Même réponse que {@link #lister}, écrite en flux ({@code ?stream=true}) pour les gros séjours. */
+    @GetMapping(params = "stream=true")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public ResponseEntity<StreamingResponseBody> listerEnFlux(
+            @PathVariable("sejourId") int sejourId, Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        String tokenId = utilisateur.getTokenId();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonFlux.<ActiviteDto>tableau(objectMapper,
+                        ecrivain -> activiteService.parcourirActivitesDuSejour(sejourId, tokenId, ecrivain)));
+    }
+
     @GetMapping("/{activiteId}")
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
     public ActiviteDto get(
@@ -45,6 +68,11 @@ public class ActiviteController {
         return activiteService.getActivite(sejourId, activiteId, utilisateur.getTokenId());
     }
 
+    /**
+     * @deprecated liste complète, sans borne : gardée pour les écrans existants, remplacée par
+     *     {@code .../historique/page}.
+     */
+    @Deprecated
     @GetMapping("/{activiteId}/historique")
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
     public List<HistoriqueModificationActiviteDto> historique(
@@ -56,6 +84,20 @@ public class ActiviteController {
                 sejourId, activiteId, utilisateur.getTokenId());
     }
 
+    /** Historique paginé par curseur (plus récentes d'abord). */
+    @GetMapping("/{activiteId}/historique/page")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public PageCurseurDto<HistoriqueModificationActiviteDto> historiquePage(
+            @PathVariable("sejourId") int sejourId,
+            @PathVariable("activiteId") int activiteId,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        return historiqueModificationService.listerPageHistoriqueActivite(
+                sejourId, activiteId, curseur, taille, utilisateur.getTokenId());
+    }
+
     @PostMapping
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
     @ResponseStatus(HttpStatus.CREATED)
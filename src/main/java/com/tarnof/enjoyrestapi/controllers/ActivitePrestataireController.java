@@ -4,6 +4,7 @@ import com.tarnof.enjoyrestapi.entities.Utilisateur;
 import com.tarnof.enjoyrestapi.payload.request.SaveActivitePrestataireRequest;
 import com.tarnof.enjoyrestapi.payload.response.ActivitePrestataireDto;
 import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationActivitePrestataireDto;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
 import com.tarnof.enjoyrestapi.services.ActivitePrestataireService;
 import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
 import jakarta.validation.Valid;
@@ -47,6 +48,11 @@ public class ActivitePrestataireController {
                 sejourId, activitePrestataireId, utilisateur.getTokenId());
     }
 
+    /**
+     * @deprecated liste complète, sans borne : gardée pour les écrans existants, remplacée par
+     *     {@code .../historique/page}.
+     */
+    @Deprecated
     @GetMapping("/{activitePrestataireId}/historique")
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
     public List<HistoriqueModificationActivitePrestataireDto> historique(
@@ -58,6 +64,20 @@ public class ActivitePrestataireController {
                 sejourId, activitePrestataireId, utilisateur.getTokenId());
     }
 
+    /** Historique paginé par curseur (plus récentes d'abord). */
+    @GetMapping("/{activitePrestataireId}/historique/page")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public PageCurseurDto<HistoriqueModificationActivitePrestataireDto> historiquePage(
+            @PathVariable("sejourId") int sejourId,
+            @PathVariable("activitePrestataireId") int activitePrestataireId,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        return historiqueModificationService.listerPageHistoriqueActivitePrestataire(
+                sejourId, activitePrestataireId, curseur, taille, utilisateur.getTokenId());
+    }
+
     @PostMapping
     @PreAuthorize("hasAuthority('GESTION_SEJOURS')")
     @ResponseStatus(HttpStatus.CREATED)
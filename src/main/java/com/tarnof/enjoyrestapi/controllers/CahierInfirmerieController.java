@@ -1,17 +1,32 @@
 package com.tarnof.enjoyrestapi.controllers;
 
 import com.tarnof.enjoyrestapi.entities.Utilisateur;
+import com.tarnof.enjoyrestapi.excel.ExcelExportSpecs;
+import com.tarnof.enjoyrestapi.enums.TypeSoinInfirmerie;
+import com.tarnof.enjoyrestapi.excel.ExcelExportWriter;
+import com.tarnof.enjoyrestapi.payload.request.FiltreCahierInfirmerieRequest;
 import com.tarnof.enjoyrestapi.payload.request.SaveCahierInfirmerieEntreeRequest;
 import com.tarnof.enjoyrestapi.payload.response.CahierInfirmerieEntreeDto;
 import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationCahierInfirmerieDto;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
+import com.tarnof.enjoyrestapi.payload.response.StatistiquesCahierInfirmerieDto;
 import com.tarnof.enjoyrestapi.services.CahierInfirmerieService;
 import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
+import com.tarnof.enjoyrestapi.utils.JsonFlux;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,12 +35,15 @@ public class CahierInfirmerieController {
 
     private final CahierInfirmerieService cahierInfirmerieService;
     private final HistoriqueModificationService historiqueModificationService;
+    private final ObjectMapper objectMapper;
 
     public CahierInfirmerieController(
             CahierInfirmerieService cahierInfirmerieService,
-            HistoriqueModificationService historiqueModificationService) {
+            HistoriqueModificationService historiqueModificationService,
+            ObjectMapper objectMapper) {
         this.cahierInfirmerieService = cahierInfirmerieService;
         this.historiqueModificationService = historiqueModificationService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -36,6 +54,68 @@ public class CahierInfirmerieController {
         return cahierInfirmerieService.listerEntreesDuSejour(sejourId, utilisateur.getTokenId());
     }
 
+    /** Entrées paginées par curseur (plus récentes d'abord), avec filtres optionnels. */
+    @GetMapping("/page")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public PageCurseurDto<CahierInfirmerieEntreeDto> listerPage(
+            @PathVariable("sejourId") int sejourId,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @RequestParam(required = false) Integer enfantId,
+            @RequestParam(required = false) String soigneurTokenId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant du,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant au,
+            @RequestParam(required = false) TypeSoinInfirmerie soin,
+            Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        return cahierInfirmerieService.listerPageEntreesDuSejour(
+                sejourId,
+                new FiltreCahierInfirmerieRequest(enfantId, soigneurTokenId, du, au, soin),
+                curseur,
+                taille,
+                utilisateur.getTokenId());
+    }
+
+    /** Statistiques par jour (soins, appels, fièvres) et enfants les plus vus sur la période. */
+    @GetMapping("/statistiques")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public StatistiquesCahierInfirmerieDto statistiques(
+            @PathVariable("sejourId") int sejourId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin,
+            @RequestParam(required = false) BigDecimal seuilFievre,
+            @RequestParam(required = false) Integer nombreEnfants,
+            Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        return cahierInfirmerieService.statistiques(
+                sejourId, dateDebut, dateFin, seuilFievre, nombreEnfants, utilisateur.getTokenId());
+    }
+
+    /** Même réponse que {@link #lister}, écrite en flux ({@code ?stream=true}) pour les gros séjours. */
+    @GetMapping(params = "stream=true")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public ResponseEntity<StreamingResponseBody> listerEnFlux(
+            @PathVariable("sejourId") int sejourId, Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        String tokenId = utilisateur.getTokenId();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonFlux.<CahierInfirmerieEntreeDto>tableau(objectMapper,
+                        ecrivain -> cahierInfirmerieService.parcourirEntreesDuSejour(sejourId, tokenId, ecrivain)));
+    }
+
+    /** Cahier d'infirmerie du séjour au format XLSX, du plus récent au plus ancien. */
+    @GetMapping("/export.xlsx")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public ResponseEntity<StreamingResponseBody> exporter(
+            @PathVariable("sejourId") int sejourId, Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        String tokenId = utilisateur.getTokenId();
+        return ExcelExportWriter.telechargement("cahier-infirmerie-sejour-" + sejourId + ".xlsx",
+                ExcelExportSpecs.CAHIER_INFIRMERIE,
+                lignes -> cahierInfirmerieService.parcourirEntreesDuSejour(sejourId, tokenId, lignes::ajouter));
+    }
+
     @GetMapping("/{entreeId}")
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
     public CahierInfirmerieEntreeDto get(
@@ -46,6 +126,11 @@ public class CahierInfirmerieController {
         return cahierInfirmerieService.getEntree(sejourId, entreeId, utilisateur.getTokenId());
     }
 
+    /**
+     * @deprecated liste complète, sans borne : gardée pour les écrans existants, remplacée par
+     *     {@code .../historique/page}.
+     */
+    @Deprecated
     @GetMapping("/{entreeId}/historique")
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
     public List<HistoriqueModificationCahierInfirmerieDto> historique(
@@ -57,6 +142,20 @@ public class CahierInfirmerieController {
                 sejourId, entreeId, utilisateur.getTokenId());
     }
 
+    /** Historique paginé par curseur (plus récentes d'abord). */
+    @GetMapping("/{entreeId}/historique/page")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public PageCurseurDto<HistoriqueModificationCahierInfirmerieDto> historiquePage(
+            @PathVariable("sejourId") int sejourId,
+            @PathVariable("entreeId") int entreeId,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        return historiqueModificationService.listerPageHistoriqueCahierInfirmerie(
+                sejourId, entreeId, curseur, taille, utilisateur.getTokenId());
+    }
+
     @PostMapping
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
     @ResponseStatus(HttpStatus.CREATED)
@@ -6,15 +6,20 @@ import com.tarnof.enjoyrestapi.payload.request.AffecterOccupantsEnfantsRequest;
 import com.tarnof.enjoyrestapi.payload.request.AffecterOccupantsEquipeRequest;
 import com.tarnof.enjoyrestapi.payload.request.AjouterReferentRequest;
 import com.tarnof.enjoyrestapi.payload.request.SaveChambreRequest;
+import com.tarnof.enjoyrestapi.excel.ExcelExportSpecs;
+import com.tarnof.enjoyrestapi.excel.ExcelExportWriter;
 import com.tarnof.enjoyrestapi.payload.response.ChambreDto;
 import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationChambreDto;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
 import com.tarnof.enjoyrestapi.services.ChambreService;
 import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -39,6 +44,18 @@ public class ChambreController {
         return chambreService.listerChambresDuSejour(sejourId, utilisateur.getTokenId());
     }
 
+    /** Chambres du séjour au format XLSX : une ligne par occupant (une ligne vide par chambre inoccupée). */
+    @GetMapping("/export.xlsx")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public ResponseEntity<StreamingResponseBody> exporter(
+            @PathVariable("sejourId") int sejourId, Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        return ExcelExportWriter.telechargement(
+                "chambres-sejour-" + sejourId + ".xlsx",
+                ExcelExportSpecs.CHAMBRES,
+                lignes -> chambreService.parcourirOccupantsDesChambres(sejourId, utilisateur.getTokenId(), lignes));
+    }
+
     @GetMapping("/{chambreId}")
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
     public ChambreDto get(
@@ -49,6 +66,11 @@ public class ChambreController {
         return chambreService.getChambre(sejourId, chambreId, utilisateur.getTokenId());
     }
 
+    /**
+     * @deprecated liste complète, sans borne : gardée pour les écrans existants, remplacée par
+     *     {@code .../historique/page}.
+     */
+    @Deprecated
     @GetMapping("/{chambreId}/historique")
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
     public List<HistoriqueModificationChambreDto> historique(
@@ -60,6 +82,20 @@ public class ChambreController {
                 sejourId, chambreId, utilisateur.getTokenId());
     }
 
+    /** Historique paginé par curseur (plus récentes d'abord). */
+    @GetMapping("/{chambreId}/historique/page")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public PageCurseurDto<HistoriqueModificationChambreDto> historiquePage(
+            @PathVariable("sejourId") int sejourId,
+            @PathVariable("chambreId") int chambreId,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        return historiqueModificationService.listerPageHistoriqueChambre(
+                sejourId, chambreId, curseur, taille, utilisateur.getTokenId());
+    }
+
     @PostMapping
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
     @ResponseStatus(HttpStatus.CREATED)
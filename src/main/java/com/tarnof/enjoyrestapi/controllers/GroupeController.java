@@ -4,6 +4,7 @@ import com.tarnof.enjoyrestapi.entities.Utilisateur;
 import com.tarnof.enjoyrestapi.payload.request.AjouterReferentRequest;
 import com.tarnof.enjoyrestapi.payload.request.CreateGroupeRequest;
 import com.tarnof.enjoyrestapi.payload.response.GroupeDto;
+import com.tarnof.enjoyrestapi.payload.response.RecalculGroupesDto;
 import com.tarnof.enjoyrestapi.services.GroupeService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -44,6 +45,13 @@ public class GroupeController {
         return groupeService.creerGroupe(sejourId, request);
     }
 
+    /** Resynchronise les groupes par âge / niveau scolaire avec les enfants inscrits. */
+    @PostMapping("/recalcul")
+    @PreAuthorize("hasAuthority('GESTION_SEJOURS')")
+    public RecalculGroupesDto recalculerGroupesAutomatiques(@PathVariable("sejourId") int sejourId) {
+        return groupeService.recalculerGroupesAutomatiques(sejourId);
+    }
+
     @PutMapping("/{groupeId}")
     @PreAuthorize("hasAuthority('GESTION_SEJOURS')")
     public GroupeDto modifierGroupe(
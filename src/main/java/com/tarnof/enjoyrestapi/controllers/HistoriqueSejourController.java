@@ -0,0 +1,50 @@
+package com.tarnof.enjoyrestapi.controllers;
+
+import com.tarnof.enjoyrestapi.entities.Utilisateur;
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationType;
+import com.tarnof.enjoyrestapi.payload.request.FiltreHistoriqueSejourRequest;
+import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationSejourDto;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
+import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("api/v1/sejours/{sejourId}/historique")
+public class HistoriqueSejourController {
+
+    private final HistoriqueModificationService historiqueModificationService;
+
+    public HistoriqueSejourController(HistoriqueModificationService historiqueModificationService) {
+        this.historiqueModificationService = historiqueModificationService;
+    }
+
+    /** Toutes les modifications du séjour, plus récentes d'abord, paginées par curseur avec filtres optionnels. */
+    @GetMapping
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public PageCurseurDto<HistoriqueModificationSejourDto> lister(
+            @PathVariable("sejourId") int sejourId,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @RequestParam(required = false) HistoriqueModificationType type,
+            @RequestParam(required = false) String modificateurTokenId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant du,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant au,
+            Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        return historiqueModificationService.listerHistoriqueSejour(
+                sejourId,
+                new FiltreHistoriqueSejourRequest(type, modificateurTokenId, du, au),
+                curseur,
+                taille,
+                utilisateur.getTokenId());
+    }
+}
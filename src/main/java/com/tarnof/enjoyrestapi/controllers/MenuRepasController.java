@@ -1,7 +1,10 @@
 package com.tarnof.enjoyrestapi.controllers;
 
 import com.tarnof.enjoyrestapi.entities.Utilisateur;
+import com.tarnof.enjoyrestapi.payload.request.AppliquerSemaineTypeMenusRequest;
 import com.tarnof.enjoyrestapi.payload.request.SaveMenuRepasRequest;
+import com.tarnof.enjoyrestapi.payload.response.AppliquerSemaineTypeMenusDto;
+import com.tarnof.enjoyrestapi.payload.response.MenuEnfantsConcernesDto;
 import com.tarnof.enjoyrestapi.payload.response.MenuRepasDto;
 import com.tarnof.enjoyrestapi.services.MenuRepasService;
 import jakarta.validation.Valid;
@@ -43,6 +46,18 @@ public class MenuRepasController {
                 "Indiquez le paramètre date (un jour) ou bien dateDebut et dateFin (une période).");
     }
 
+    /** Croisement menus / dossiers enfants sur une période (allergènes et régimes communs, groupes). */
+    @GetMapping("/enfants-concernes")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public List<MenuEnfantsConcernesDto> enfantsConcernes(
+            @PathVariable int sejourId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin,
+            Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        return menuRepasService.croiserAvecDossiersEnfants(sejourId, dateDebut, dateFin, utilisateur.getTokenId());
+    }
+
     @GetMapping("/{menuId}")
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
     public MenuRepasDto get(
@@ -58,6 +73,14 @@ public class MenuRepasController {
         return menuRepasService.creer(sejourId, request);
     }
 
+    /** Application d'une semaine type sur une période (création des menus en masse). */
+    @PostMapping("/semaine-type")
+    @PreAuthorize("hasAuthority('GESTION_SEJOURS')")
+    public AppliquerSemaineTypeMenusDto appliquerSemaineType(
+            @PathVariable int sejourId, @Valid @RequestBody AppliquerSemaineTypeMenusRequest request) {
+        return menuRepasService.appliquerSemaineType(sejourId, request);
+    }
+
     @PutMapping("/{menuId}")
     @PreAuthorize("hasAuthority('GESTION_SEJOURS')")
     public MenuRepasDto modifier(
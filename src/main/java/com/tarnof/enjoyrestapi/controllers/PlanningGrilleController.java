@@ -1,10 +1,14 @@
 package com.tarnof.enjoyrestapi.controllers;
 
 import com.tarnof.enjoyrestapi.entities.Utilisateur;
+import com.tarnof.enjoyrestapi.excel.ExcelExportSpecs;
+import com.tarnof.enjoyrestapi.excel.ExcelExportWriter;
 import com.tarnof.enjoyrestapi.payload.request.*;
 import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationPlanningCelluleDto;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
 import com.tarnof.enjoyrestapi.payload.response.PlanningCelluleDto;
 import com.tarnof.enjoyrestapi.payload.response.PlanningGrilleDetailDto;
+import com.tarnof.enjoyrestapi.payload.response.PlanningGrilleExportDto;
 import com.tarnof.enjoyrestapi.payload.response.PlanningGrilleSummaryDto;
 import com.tarnof.enjoyrestapi.payload.response.PlanningLigneDto;
 import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
@@ -16,6 +20,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -53,6 +58,24 @@ public class PlanningGrilleController {
         return planningGrilleService.getGrille(sejourId, grilleId, utilisateur.getTokenId());
     }
 
+    /** Grille au format XLSX : une ligne par ligne de planning, une colonne par jour. */
+    @GetMapping("/{grilleId}/export.xlsx")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public ResponseEntity<StreamingResponseBody> exporter(
+            @PathVariable("sejourId") int sejourId,
+            @PathVariable("grilleId") int grilleId,
+            Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        PlanningGrilleExportDto grille = planningGrilleService.exporterGrille(sejourId, grilleId, utilisateur.getTokenId());
+        return ExcelExportWriter.telechargement("planning-" + grilleId + ".xlsx",
+                ExcelExportSpecs.planning(grille),
+                lignes -> {
+                    for (PlanningGrilleExportDto.Ligne ligne : grille.lignes()) {
+                        lignes.ajouter(ligne);
+                    }
+                });
+    }
+
     @PostMapping
     @PreAuthorize("hasAuthority('GESTION_SEJOURS')")
     @ResponseStatus(HttpStatus.CREATED)
@@ -107,6 +130,11 @@ public class PlanningGrilleController {
         planningGrilleService.supprimerLigne(sejourId, grilleId, ligneId);
     }
 
+    /**
+     * @deprecated liste complète, sans borne : gardée pour les écrans existants, remplacée par
+     *     {@code .../historique-cellules/page}.
+     */
+    @Deprecated
     @GetMapping("/{grilleId}/lignes/{ligneId}/historique-cellules")
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
     public List<HistoriqueModificationPlanningCelluleDto> historiqueCellules(
@@ -120,6 +148,22 @@ public class PlanningGrilleController {
                 sejourId, grilleId, ligneId, jour, utilisateur.getTokenId());
     }
 
+    /** Historique des cellules paginé par curseur (plus récentes d'abord). */
+    @GetMapping("/{grilleId}/lignes/{ligneId}/historique-cellules/page")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public PageCurseurDto<HistoriqueModificationPlanningCelluleDto> historiqueCellulesPage(
+            @PathVariable("sejourId") int sejourId,
+            @PathVariable("grilleId") int grilleId,
+            @PathVariable("ligneId") int ligneId,
+            @RequestParam(value = "jour", required = false) LocalDate jour,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        return historiqueModificationService.listerPageHistoriquePlanningCellules(
+                sejourId, grilleId, ligneId, jour, curseur, taille, utilisateur.getTokenId());
+    }
+
     @PutMapping("/{grilleId}/lignes/{ligneId}/cellules")
     @PreAuthorize("hasAuthority('GESTION_SEJOURS')")
     public List<PlanningCelluleDto> remplacerCellules(
@@ -0,0 +1,35 @@
+package com.tarnof.enjoyrestapi.controllers;
+
+import com.tarnof.enjoyrestapi.entities.Utilisateur;
+import com.tarnof.enjoyrestapi.payload.response.ResultatRechercheSejourDto;
+import com.tarnof.enjoyrestapi.services.RechercheSejourService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("api/v1/sejours/{sejourId}/recherche")
+public class RechercheSejourController {
+
+    private final RechercheSejourService rechercheSejourService;
+
+    public RechercheSejourController(RechercheSejourService rechercheSejourService) {
+        this.rechercheSejourService = rechercheSejourService;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public List<ResultatRechercheSejourDto> rechercher(
+            @PathVariable("sejourId") int sejourId,
+            @RequestParam("q") String requete,
+            Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        return rechercheSejourService.rechercher(sejourId, requete, utilisateur.getTokenId());
+    }
+}
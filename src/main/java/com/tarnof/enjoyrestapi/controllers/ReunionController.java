@@ -3,6 +3,7 @@ package com.tarnof.enjoyrestapi.controllers;
 import com.tarnof.enjoyrestapi.entities.Utilisateur;
 import com.tarnof.enjoyrestapi.payload.request.SaveReunionRequest;
 import com.tarnof.enjoyrestapi.payload.response.ReunionDto;
+import com.tarnof.enjoyrestapi.payload.response.ReunionResumeDto;
 import com.tarnof.enjoyrestapi.services.ReunionService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -24,7 +25,7 @@ public class ReunionController {
 
     @GetMapping
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
-    public List<ReunionDto> lister(@PathVariable("sejourId") int sejourId, Authentication authentication) {
+    public List<ReunionResumeDto> lister(@PathVariable("sejourId") int sejourId, Authentication authentication) {
         Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
         return reunionService.listerReunionsDuSejour(sejourId, utilisateur.getTokenId());
     }
@@ -1,21 +1,36 @@
 package com.tarnof.enjoyrestapi.controllers;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.tarnof.enjoyrestapi.entities.Utilisateur;
+import com.tarnof.enjoyrestapi.enums.ChampDossierEnfant;
+import com.tarnof.enjoyrestapi.excel.ExcelExportSpecs;
+import com.tarnof.enjoyrestapi.excel.ExcelExportWriter;
 import com.tarnof.enjoyrestapi.payload.response.EnfantDossierSanitaireLigneDto;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
+import com.tarnof.enjoyrestapi.payload.response.SejourCatalogueDto;
 import com.tarnof.enjoyrestapi.payload.response.SejourDto;
 import com.tarnof.enjoyrestapi.payload.request.MembreEquipeRequest;
 import com.tarnof.enjoyrestapi.payload.request.UpdateMembreEquipeRoleRequest;
 import com.tarnof.enjoyrestapi.payload.request.CreateSejourRequest;
+import com.tarnof.enjoyrestapi.payload.request.FiltreSejoursRequest;
 import com.tarnof.enjoyrestapi.payload.request.RegisterRequest;
 import com.tarnof.enjoyrestapi.services.EnfantService;
 import com.tarnof.enjoyrestapi.services.SejourService;
+import com.tarnof.enjoyrestapi.utils.JsonFlux;
     
 import jakarta.validation.Valid;
 
@@ -25,10 +40,12 @@ public class SejourController {
     
     private final SejourService sejourService;
     private final EnfantService enfantService;
+    private final ObjectMapper objectMapper;
 
-    public SejourController(SejourService sejourService, EnfantService enfantService) {
+    public SejourController(SejourService sejourService, EnfantService enfantService, ObjectMapper objectMapper) {
         this.sejourService = sejourService;
         this.enfantService = enfantService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -37,6 +54,25 @@ public class SejourController {
         return sejourService.getAllSejours();
     }
 
+    /**
+     * Catalogue paginé par curseur (plus récents d'abord) avec effectifs : tous les séjours pour un administrateur,
+     * sinon ceux de l'utilisateur connecté.
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DIRECTION') or hasRole('BASIC_USER')")
+    public PageCurseurDto<SejourCatalogueDto> listerPageCatalogue(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate du,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate au,
+            @RequestParam(required = false) String directeurTokenId,
+            @RequestParam(required = false) String texte,
+            Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        return sejourService.listerPageCatalogue(
+                new FiltreSejoursRequest(du, au, directeurTokenId, texte), curseur, taille, utilisateur.getTokenId());
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
     public SejourDto getSejourById(@PathVariable int id, Authentication authentication) {
@@ -48,9 +84,42 @@ public class SejourController {
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
     public List<EnfantDossierSanitaireLigneDto> listerDossiersEnfantsDuSejour(
             @PathVariable int sejourId,
+            @RequestParam(required = false) List<String> fields,
+            Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        if (fields == null) {
+            return enfantService.listerDossiersEnfantsDuSejour(sejourId, utilisateur.getTokenId());
+        }
+        return enfantService.listerDossiersEnfantsDuSejour(
+                sejourId, utilisateur.getTokenId(), ChampDossierEnfant.depuisParametres(fields));
+    }
+
+    /** Même réponse que le listing sanitaire, écrite en flux ({@code ?stream=true}) pour les gros séjours. */
+    @GetMapping(value = "/{sejourId}/dossiers-enfants", params = "stream=true")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public ResponseEntity<StreamingResponseBody> listerDossiersEnfantsDuSejourEnFlux(
+            @PathVariable int sejourId,
+            @RequestParam(required = false) List<String> fields,
             Authentication authentication) {
         Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
-        return enfantService.listerDossiersEnfantsDuSejour(sejourId, utilisateur.getTokenId());
+        String tokenId = utilisateur.getTokenId();
+        Set<ChampDossierEnfant> champs = fields == null ? null : ChampDossierEnfant.depuisParametres(fields);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonFlux.<EnfantDossierSanitaireLigneDto>tableau(objectMapper,
+                        ecrivain -> enfantService.parcourirDossiersEnfantsDuSejour(sejourId, tokenId, champs, ecrivain)));
+    }
+
+    /** Dossiers sanitaires du séjour au format XLSX (mêmes colonnes que l'import). */
+    @GetMapping("/{sejourId}/dossiers-enfants/export.xlsx")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public ResponseEntity<StreamingResponseBody> exporterDossiersEnfantsDuSejour(
+            @PathVariable int sejourId, Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        String tokenId = utilisateur.getTokenId();
+        return ExcelExportWriter.telechargement("dossiers-enfants-sejour-" + sejourId + ".xlsx",
+                ExcelExportSpecs.DOSSIERS_ENFANTS,
+                lignes -> enfantService.parcourirDossiersEnfantsDuSejour(sejourId, tokenId, null, lignes::ajouter));
     }
 
     @PostMapping("/{id}/equipe/existant")
@@ -0,0 +1,27 @@
+package com.tarnof.enjoyrestapi.controllers;
+
+import com.tarnof.enjoyrestapi.entities.Utilisateur;
+import com.tarnof.enjoyrestapi.payload.response.TableauDeBordSejourDto;
+import com.tarnof.enjoyrestapi.services.TableauDeBordSejourService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("api/v1/sejours/{sejourId}/tableau-de-bord")
+public class TableauDeBordSejourController {
+
+    private final TableauDeBordSejourService tableauDeBordSejourService;
+
+    public TableauDeBordSejourController(TableauDeBordSejourService tableauDeBordSejourService) {
+        this.tableauDeBordSejourService = tableauDeBordSejourService;
+    }
+
+    /** Compteurs de l'écran d'accueil du séjour en un seul appel (mis en cache quelques secondes). */
+    @GetMapping
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public TableauDeBordSejourDto obtenir(@PathVariable("sejourId") int sejourId, Authentication authentication) {
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        return tableauDeBordSejourService.obtenirTableauDeBord(sejourId, utilisateur.getTokenId());
+    }
+}
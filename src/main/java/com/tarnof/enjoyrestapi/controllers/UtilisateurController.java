@@ -7,10 +7,12 @@ import com.tarnof.enjoyrestapi.enums.Role;
 import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
 import com.tarnof.enjoyrestapi.handlers.ErrorResponse;
 import com.tarnof.enjoyrestapi.payload.request.ChangePasswordRequest;
+import com.tarnof.enjoyrestapi.payload.request.LotPhotosProfilRequest;
 import com.tarnof.enjoyrestapi.payload.request.UpdateUserRequest;
 import com.tarnof.enjoyrestapi.services.UtilisateurService;
+import com.tarnof.enjoyrestapi.utils.EnveloppePhotosProfil;
+import com.tarnof.enjoyrestapi.utils.PlagesOctets;
 import jakarta.validation.Valid;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -21,10 +23,14 @@ import org.springframework.security.core.GrantedAuthority;
 
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -184,16 +190,88 @@ public class UtilisateurController {
         return ResponseEntity.ok(profil);
     }
 
+    /**
+     * Photo de profil ({@code ?taille=} : variante réduite). Validée par ETag ({@code If-None-Match} → 304 sans lecture
+     * du stockage) ; l'URL versionnée {@code ?v=} de {@code photoProfilUrl} est mise en cache sans revalidation.
+     * {@code Range} : une plage d'octets (206), {@code If-Range} comparé à l'ETag.
+     */
     @GetMapping("/{tokenId}/photo-profil")
     @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
-    public ResponseEntity<InputStreamResource> chargerPhotoProfil(@PathVariable String tokenId) {
-        PhotoProfilContenu photo = utilisateurService.chargerPhotoProfil(tokenId);
-        InputStreamResource resource = new InputStreamResource(photo.contenu());
-        return ResponseEntity.ok()
+    public ResponseEntity<StreamingResponseBody> chargerPhotoProfil(
+            @PathVariable String tokenId,
+            @RequestParam(required = false) Integer taille,
+            @RequestParam(name = "v", required = false) String version,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(name = HttpHeaders.IF_RANGE, required = false) String ifRange) throws IOException {
+        PhotoProfilContenu photo = utilisateurService.chargerPhotoProfil(tokenId, taille, ifNoneMatch);
+        String cacheControl = cacheControlPhotoProfil(photo, version);
+        if (photo.nonModifiee()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.ETAG, photo.etag())
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .build();
+        }
+
+        InputStream contenu = Objects.requireNonNull(photo.contenu());
+        // If-Range : comparaison forte ; la photo a changé depuis la première partie → réponse complète.
+        PlagesOctets.Plage plage = ifRange == null || ifRange.trim().equals(photo.etag())
+                ? PlagesOctets.lire(range, photo.taille())
+                : null;
+        if (plage == PlagesOctets.NON_SATISFIABLE) {
+            contenu.close();
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + photo.taille())
+                    .build();
+        }
+        long debut = plage == null ? 0 : plage.debut();
+        long longueur = plage == null ? photo.taille() : plage.longueur();
+        ResponseEntity.BodyBuilder reponse = plage == null
+                ? ResponseEntity.ok()
+                : ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                        .header(HttpHeaders.CONTENT_RANGE, plage.contentRange(photo.taille()));
+        if (photo.etag() != null) {
+            reponse.header(HttpHeaders.ETAG, photo.etag());
+        }
+        return reponse
                 .header(HttpHeaders.CONTENT_TYPE, photo.mimeType())
-                .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(photo.taille()))
-                .header(HttpHeaders.CACHE_CONTROL, "private, max-age=3600")
-                .body(resource);
+                .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(longueur))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .body(out -> {
+                    try (contenu) {
+                        PlagesOctets.copier(contenu, debut, longueur, out);
+                    }
+                });
+    }
+
+    /**
+     * Photos de plusieurs utilisateurs (équipe d'un séjour) en une réponse : voir {@link EnveloppePhotosProfil}
+     * pour le format. Les photos dont l'ETag est fourni dans {@code etagsConnus} ne sont pas renvoyées (statut 304).
+     */
+    @PostMapping("/photos-profil/lot")
+    @PreAuthorize("hasAuthority('ACCES_SEJOUR')")
+    public ResponseEntity<StreamingResponseBody> chargerPhotosProfil(@Valid @RequestBody LotPhotosProfilRequest request) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(EnveloppePhotosProfil.MEDIA_TYPE))
+                .header(HttpHeaders.CACHE_CONTROL, "private, no-store")
+                .body(out -> {
+                    EnveloppePhotosProfil enveloppe = new EnveloppePhotosProfil(out);
+                    utilisateurService.parcourirPhotosProfil(
+                            request.tokenIds(), request.taille(), request.etagsConnus(), enveloppe::ajouter);
+                    enveloppe.terminer();
+                });
+    }
+
+    /** Un an sur l'URL de la version courante ; revalidation par ETag sinon ; une heure sans ETag (photo ancienne). */
+    private static String cacheControlPhotoProfil(PhotoProfilContenu photo, String version) {
+        if (photo.version() != null && photo.version().equals(version)) {
+            return "private, max-age=31536000, immutable";
+        }
+        if (photo.etag() != null) {
+            return "private, no-cache";
+        }
+        return "private, max-age=3600";
     }
 
     @DeleteMapping("/{tokenId}/photo-profil")
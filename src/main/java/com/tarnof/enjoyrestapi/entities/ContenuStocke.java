@@ -0,0 +1,138 @@
+package com.tarnof.enjoyrestapi.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Contenu du stockage objet adressé par son empreinte SHA-256 (voir
+ * {@link com.tarnof.enjoyrestapi.services.storage.StockageContenuAdresse}) : un même contenu n'est stocké et
+ * transféré qu'une fois, quel que soit le nombre d'entités qui le référencent.
+ * <p>Un contenu sans référence est marqué {@code orphelinDepuis} ; le ramasse-miettes supprime ses objets (clé et
+ * clés dérivées) après un délai de grâce.</p>
+ */
+@Entity
+@Table(
+        name = "contenu_stocke",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_contenu_stocke_empreinte", columnNames = "empreinte"),
+                @UniqueConstraint(name = "uk_contenu_stocke_cle", columnNames = "cle")
+        },
+        indexes = @Index(name = "idx_contenu_stocke_orphelin", columnList = "nb_references, orphelin_depuis"))
+public class ContenuStocke {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    /** SHA-256 du contenu, en hexadécimal. */
+    @Column(name = "empreinte", nullable = false, length = 64)
+    private String empreinte;
+
+    @Column(name = "cle", nullable = false)
+    private String cle;
+
+    /** Objets calculés à partir du contenu (variantes), supprimés avec lui ; séparés par des virgules. */
+    @Column(name = "cles_derivees", length = 1000)
+    private String clesDerivees;
+
+    @Column(name = "taille", nullable = false)
+    private Long taille;
+
+    @Column(name = "mime_type", length = 100)
+    private String mimeType;
+
+    @Column(name = "nb_references", nullable = false)
+    private Integer nbReferences;
+
+    @Column(name = "date_creation", nullable = false)
+    private Instant dateCreation;
+
+    @Column(name = "orphelin_depuis")
+    private Instant orphelinDepuis;
+
+    public ContenuStocke() {}
+
+    public ContenuStocke(String empreinte, String cle, String clesDerivees, long taille, String mimeType,
+                         Instant dateCreation) {
+        this.empreinte = empreinte;
+        this.cle = cle;
+        this.clesDerivees = clesDerivees;
+        this.taille = taille;
+        this.mimeType = mimeType;
+        this.nbReferences = 1;
+        this.dateCreation = dateCreation;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getEmpreinte() {
+        return empreinte;
+    }
+
+    public void setEmpreinte(String empreinte) {
+        this.empreinte = empreinte;
+    }
+
+    public String getCle() {
+        return cle;
+    }
+
+    public void setCle(String cle) {
+        this.cle = cle;
+    }
+
+    public String getClesDerivees() {
+        return clesDerivees;
+    }
+
+    public void setClesDerivees(String clesDerivees) {
+        this.clesDerivees = clesDerivees;
+    }
+
+    public Long getTaille() {
+        return taille;
+    }
+
+    public void setTaille(Long taille) {
+        this.taille = taille;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public void setMimeType(String mimeType) {
+        this.mimeType = mimeType;
+    }
+
+    public Integer getNbReferences() {
+        return nbReferences;
+    }
+
+    public void setNbReferences(Integer nbReferences) {
+        this.nbReferences = nbReferences;
+    }
+
+    public Instant getDateCreation() {
+        return dateCreation;
+    }
+
+    public void setDateCreation(Instant dateCreation) {
+        this.dateCreation = dateCreation;
+    }
+
+    public Instant getOrphelinDepuis() {
+        return orphelinDepuis;
+    }
+
+    public void setOrphelinDepuis(Instant orphelinDepuis) {
+        this.orphelinDepuis = orphelinDepuis;
+    }
+}
@@ -0,0 +1,96 @@
+package com.tarnof.enjoyrestapi.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Segment d'archive de l'historique d'un séjour (voir {@link com.tarnof.enjoyrestapi.utils.SegmentHistorique}) :
+ * fichiers de données et d'index dans le stockage objet, lignes correspondantes supprimées de
+ * {@code historique_modification} dans la même transaction que l'enregistrement du segment.
+ */
+@Entity
+@Table(
+        name = "historique_archive_segment",
+        uniqueConstraints = @UniqueConstraint(name = "uk_hist_archive_sejour_numero", columnNames = {"sejour_id", "numero"}))
+public class HistoriqueArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "sejour_id", nullable = false)
+    private Integer sejourId;
+
+    /** Numéro d'ordre dans le séjour, à partir de 1 ; les segments ne sont jamais réécrits. */
+    @Column(name = "numero", nullable = false)
+    private Integer numero;
+
+    @Column(name = "nb_lignes", nullable = false)
+    private Integer nbLignes;
+
+    /** Taille du fichier de données (octets compressés). */
+    @Column(name = "taille_donnees", nullable = false)
+    private Long tailleDonnees;
+
+    @Column(name = "date_archivage", nullable = false)
+    private Instant dateArchivage;
+
+    public HistoriqueArchiveSegment() {}
+
+    public HistoriqueArchiveSegment(int sejourId, int numero, int nbLignes, long tailleDonnees, Instant dateArchivage) {
+        this.sejourId = sejourId;
+        this.numero = numero;
+        this.nbLignes = nbLignes;
+        this.tailleDonnees = tailleDonnees;
+        this.dateArchivage = dateArchivage;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getSejourId() {
+        return sejourId;
+    }
+
+    public void setSejourId(Integer sejourId) {
+        this.sejourId = sejourId;
+    }
+
+    public Integer getNumero() {
+        return numero;
+    }
+
+    public void setNumero(Integer numero) {
+        this.numero = numero;
+    }
+
+    public Integer getNbLignes() {
+        return nbLignes;
+    }
+
+    public void setNbLignes(Integer nbLignes) {
+        this.nbLignes = nbLignes;
+    }
+
+    public Long getTailleDonnees() {
+        return tailleDonnees;
+    }
+
+    public void setTailleDonnees(Long tailleDonnees) {
+        this.tailleDonnees = tailleDonnees;
+    }
+
+    public Instant getDateArchivage() {
+        return dateArchivage;
+    }
+
+    public void setDateArchivage(Instant dateArchivage) {
+        this.dateArchivage = dateArchivage;
+    }
+}
@@ -1,6 +1,7 @@
 package com.tarnof.enjoyrestapi.entities;
 
 import com.tarnof.enjoyrestapi.enums.HistoriqueModificationAction;
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationType;
 import jakarta.persistence.*;
 
 import java.time.Instant;
@@ -21,7 +22,8 @@ import java.time.Instant;
             @Index(name = "idx_hist_mod_chambre", columnList = "chambre_id,date_modification"),
             @Index(
                     name = "idx_hist_mod_ap",
-                    columnList = "activite_prestataire_id,date_modification")
+                    columnList = "activite_prestataire_id,date_modification"),
+            @Index(name = "idx_hist_mod_sejour", columnList = "sejour_id,date_modification,id")
         })
 public abstract class HistoriqueModification {
 
@@ -29,6 +31,18 @@ public abstract class HistoriqueModification {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
+    /** Discriminant en lecture seule, pour filtrer le fil du séjour par type. */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", length = 32, insertable = false, updatable = false)
+    private HistoriqueModificationType type;
+
+    /**
+     * Séjour de l'élément modifié, sans clé étrangère : l'historique reste lisible après suppression.
+     * {@code null} sur les anciennes lignes d'éléments supprimés avant l'ajout de la colonne.
+     */
+    @Column(name = "sejour_id")
+    private Integer sejourId;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "action", nullable = false, length = 32)
     private HistoriqueModificationAction action;
@@ -46,6 +60,14 @@ public abstract class HistoriqueModification {
     @Column(name = "nouvelle_valeur", columnDefinition = "TEXT")
     private String nouvelleValeur;
 
+    /**
+     * Ancienne et nouvelle valeurs encodées par {@link com.tarnof.enjoyrestapi.utils.CodecHistorique} ; les colonnes
+     * TEXT ne sont plus renseignées que sur les lignes pas encore migrées.
+     */
+    @Lob
+    @Column(name = "valeurs_compactes")
+    private byte[] valeursCompactes;
+
     protected HistoriqueModification() {}
 
     public Integer getId() {
@@ -56,6 +78,18 @@ public abstract class HistoriqueModification {
         this.id = id;
     }
 
+    public HistoriqueModificationType getType() {
+        return type;
+    }
+
+    public Integer getSejourId() {
+        return sejourId;
+    }
+
+    public void setSejourId(Integer sejourId) {
+        this.sejourId = sejourId;
+    }
+
     public HistoriqueModificationAction getAction() {
         return action;
     }
@@ -95,4 +129,12 @@ public abstract class HistoriqueModification {
     public void setNouvelleValeur(String nouvelleValeur) {
         this.nouvelleValeur = nouvelleValeur;
     }
+
+    public byte[] getValeursCompactes() {
+        return valeursCompactes;
+    }
+
+    public void setValeursCompactes(byte[] valeursCompactes) {
+        this.valeursCompactes = valeursCompactes;
+    }
 }
@@ -32,6 +32,13 @@ public class Reunion {
     @Column(name = "contenu_json", nullable = false, columnDefinition = "TEXT")
     private String contenuJson;
 
+    /**
+     * Début du texte du document, calculé à l'écriture pour la liste (qui ne lit pas {@link #contenuJson}) ;
+     * {@code null} pour une réunion enregistrée avant son introduction.
+     */
+    @Column(name = "extrait", length = 200)
+    private String extrait;
+
     public Reunion() {}
 
     public Integer getId() {
@@ -73,4 +80,12 @@ public class Reunion {
     public void setContenuJson(String contenuJson) {
         this.contenuJson = contenuJson;
     }
+
+    public String getExtrait() {
+        return extrait;
+    }
+
+    public void setExtrait(String extrait) {
+        this.extrait = extrait;
+    }
 }
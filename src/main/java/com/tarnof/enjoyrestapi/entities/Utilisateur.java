@@ -56,13 +56,17 @@ public class Utilisateur implements UserDetails {
     @ManyToMany(mappedBy = "referents")
     private List<Chambre> chambresReferent = new ArrayList<>();
 
-    /** Clé objet dans le stockage (R2 ou local), ex. utilisateurs/{tokenId}/photo-profil.jpg */
+    /** Clé objet dans le stockage (R2 ou local), ex. contenus/ab/{sha256}.jpg (partagée entre comptes, voir StockageContenuAdresse) */
     @Column(name = "photo_profil_cle", length = 500)
     private String photoProfilCle;
 
     @Column(name = "photo_profil_mime_type", length = 100)
     private String photoProfilMimeType;
 
+    /** SHA-256 (hex) de l'original envoyé ; base de l'ETag et de la version dans l'URL de la photo. */
+    @Column(name = "photo_profil_empreinte", length = 64)
+    private String photoProfilEmpreinte;
+
     public Utilisateur() {
     }
 
@@ -88,7 +92,8 @@ public class Utilisateur implements UserDetails {
                 .groupesReferent(this.groupesReferent)
                 .chambresReferent(this.chambresReferent)
                 .photoProfilCle(this.photoProfilCle)
-                .photoProfilMimeType(this.photoProfilMimeType);
+                .photoProfilMimeType(this.photoProfilMimeType)
+                .photoProfilEmpreinte(this.photoProfilEmpreinte);
     }
 
     public int getId() {
@@ -223,6 +228,14 @@ public class Utilisateur implements UserDetails {
         this.photoProfilMimeType = photoProfilMimeType;
     }
 
+    public String getPhotoProfilEmpreinte() {
+        return photoProfilEmpreinte;
+    }
+
+    public void setPhotoProfilEmpreinte(String photoProfilEmpreinte) {
+        this.photoProfilEmpreinte = photoProfilEmpreinte;
+    }
+
     @Override
     public String toString() {
         return "Utilisateur{" +
@@ -307,6 +320,7 @@ public class Utilisateur implements UserDetails {
         private List<Chambre> chambresReferent;
         private String photoProfilCle;
         private String photoProfilMimeType;
+        private String photoProfilEmpreinte;
 
         public UtilisateurBuilder id(int id) {
             this.id = id;
@@ -393,6 +407,11 @@ public class Utilisateur implements UserDetails {
             return this;
         }
 
+        public UtilisateurBuilder photoProfilEmpreinte(String photoProfilEmpreinte) {
+            this.photoProfilEmpreinte = photoProfilEmpreinte;
+            return this;
+        }
+
         public Utilisateur build() {
             Utilisateur u = new Utilisateur();
             u.setId(id);
@@ -412,6 +431,7 @@ public class Utilisateur implements UserDetails {
             u.setChambresReferent(chambresReferent != null ? chambresReferent : new ArrayList<>());
             u.setPhotoProfilCle(photoProfilCle);
             u.setPhotoProfilMimeType(photoProfilMimeType);
+            u.setPhotoProfilEmpreinte(photoProfilEmpreinte);
             return u;
         }
     }
@@ -0,0 +1,68 @@
+package com.tarnof.enjoyrestapi.enums;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Parties du dossier enfant sélectionnables via le paramètre {@code fields} du listing sanitaire.
+ * Les colonnes TEXT d'une partie ne sont lues en base que si elle est demandée.
+ */
+public enum ChampDossierEnfant {
+    /** E-mails et téléphones des parents. */
+    CONTACTS("contacts"),
+    /** Informations médicales et PAI. */
+    MEDICAL("medical"),
+    /** Traitements matin / midi / soir / si besoin. */
+    TRAITEMENTS("traitements"),
+    /** Informations alimentaires (texte libre). */
+    ALIMENTAIRE("alimentaire"),
+    ALLERGENES("allergenes"),
+    REGIMES("regimes"),
+    /** Autres informations et « à prendre en sortie ». */
+    AUTRES("autres");
+
+    private final String parametre;
+
+    ChampDossierEnfant(String parametre) {
+        this.parametre = parametre;
+    }
+
+    public String getParametre() {
+        return parametre;
+    }
+
+    /**
+     * Convertit les valeurs du paramètre {@code fields} (séparées par des virgules ou répétées).
+     * Une valeur inconnue lève une {@link IllegalArgumentException} (400).
+     */
+    public static Set<ChampDossierEnfant> depuisParametres(Collection<String> valeurs) {
+        Set<ChampDossierEnfant> champs = EnumSet.noneOf(ChampDossierEnfant.class);
+        if (valeurs == null) {
+            return champs;
+        }
+        for (String brut : valeurs) {
+            if (brut == null) {
+                continue;
+            }
+            for (String morceau : brut.split(",")) {
+                String valeur = morceau.trim().toLowerCase(Locale.ROOT);
+                if (valeur.isEmpty()) {
+                    continue;
+                }
+                champs.add(depuisParametre(valeur));
+            }
+        }
+        return champs;
+    }
+
+    private static ChampDossierEnfant depuisParametre(String valeur) {
+        for (ChampDossierEnfant champ : values()) {
+            if (champ.parametre.equals(valeur)) {
+                return champ;
+            }
+        }
+        throw new IllegalArgumentException("Champ de dossier inconnu : " + valeur);
+    }
+}
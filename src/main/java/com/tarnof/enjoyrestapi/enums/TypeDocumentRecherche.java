@@ -0,0 +1,13 @@
+package com.tarnof.enjoyrestapi.enums;
+
+/**
+ * Nature d'un document de la recherche plein texte d'un séjour.
+ */
+public enum TypeDocumentRecherche {
+    /** Entrée du cahier d'infirmerie (id de l'entrée). */
+    ENTREE_INFIRMERIE,
+    /** Compte rendu de réunion (id de la réunion). */
+    REUNION,
+    /** Champs libres du dossier d'un enfant inscrit (id de l'enfant). */
+    DOSSIER_ENFANT
+}
@@ -0,0 +1,62 @@
+package com.tarnof.enjoyrestapi.excel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Disposition déclarative d'une feuille d'export : nom de l'onglet et colonnes ordonnées.
+ * Chaque colonne extrait sa valeur de l'élément exporté ; le type de la valeur détermine le type de cellule
+ * (texte, nombre, date, collection jointe…), cf. {@link ExcelExportWriter}.
+ *
+ * @param <T> type d'une ligne exportée (DTO existant ou ligne dédiée)
+ */
+public final class ExcelExportSpec<T> {
+
+    /** Largeur par défaut d'une colonne, en caractères. */
+    private static final int LARGEUR_PAR_DEFAUT = 18;
+
+    public record Colonne<T>(String libelle, Function<T, Object> valeur, int largeur) {}
+
+    private final String nomFeuille;
+    private final List<Colonne<T>> colonnes;
+
+    private ExcelExportSpec(String nomFeuille, List<Colonne<T>> colonnes) {
+        this.nomFeuille = nomFeuille;
+        this.colonnes = List.copyOf(colonnes);
+    }
+
+    public String getNomFeuille() {
+        return nomFeuille;
+    }
+
+    public List<Colonne<T>> getColonnes() {
+        return colonnes;
+    }
+
+    public static <T> Builder<T> feuille(String nomFeuille) {
+        return new Builder<>(nomFeuille);
+    }
+
+    public static final class Builder<T> {
+        private final String nomFeuille;
+        private final List<Colonne<T>> colonnes = new ArrayList<>();
+
+        private Builder(String nomFeuille) {
+            this.nomFeuille = nomFeuille;
+        }
+
+        public Builder<T> colonne(String libelle, Function<T, Object> valeur) {
+            return colonne(libelle, valeur, LARGEUR_PAR_DEFAUT);
+        }
+
+        public Builder<T> colonne(String libelle, Function<T, Object> valeur, int largeur) {
+            colonnes.add(new Colonne<>(libelle, valeur, largeur));
+            return this;
+        }
+
+        public ExcelExportSpec<T> build() {
+            return new ExcelExportSpec<>(nomFeuille, colonnes);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.tarnof.enjoyrestapi.excel;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import com.tarnof.enjoyrestapi.payload.response.CahierInfirmerieEntreeDto;
+import com.tarnof.enjoyrestapi.payload.response.ChambreDto;
+import com.tarnof.enjoyrestapi.payload.response.ChambreOccupantDto;
+import com.tarnof.enjoyrestapi.payload.response.DossierEnfantDto;
+import com.tarnof.enjoyrestapi.payload.response.EnfantDossierSanitaireLigneDto;
+import com.tarnof.enjoyrestapi.payload.response.GroupeResumeDto;
+import com.tarnof.enjoyrestapi.payload.response.PlanningGrilleExportDto;
+import com.tarnof.enjoyrestapi.payload.response.ReferenceAlimentaireDto;
+import com.tarnof.enjoyrestapi.utils.DateFormatHelper;
+
+/**
+ * Dispositions des exports XLSX du séjour. Source unique des colonnes exportées, comme
+ * {@link ExcelImportSpec} pour l'import : les libellés du dossier enfant reprennent ceux de l'import.
+ */
+public final class ExcelExportSpecs {
+
+    private ExcelExportSpecs() {}
+
+    /** Une ligne par occupant ; une chambre vide produit une ligne sans occupant. */
+    public record OccupantChambreLigne(ChambreDto chambre, ChambreOccupantDto occupant) {}
+
+    public static final ExcelExportSpec<EnfantDossierSanitaireLigneDto> DOSSIERS_ENFANTS =
+            ExcelExportSpec.<EnfantDossierSanitaireLigneDto>feuille("Enfants")
+                    .colonne("Nom", EnfantDossierSanitaireLigneDto::nom)
+                    .colonne("Prénom", EnfantDossierSanitaireLigneDto::prenom)
+                    .colonne("Groupes", l -> l.groupes().stream().map(GroupeResumeDto::libelle).toList(), 24)
+                    .colonne("Email parent 1", dossier(DossierEnfantDto::emailParent1), 26)
+                    .colonne("Téléphone parent 1", dossier(DossierEnfantDto::telephoneParent1))
+                    .colonne("Email parent 2", dossier(DossierEnfantDto::emailParent2), 26)
+                    .colonne("Téléphone parent 2", dossier(DossierEnfantDto::telephoneParent2))
+                    .colonne("Informations médicales", dossier(DossierEnfantDto::informationsMedicales), 40)
+                    .colonne("PAI", dossier(DossierEnfantDto::pai), 30)
+                    .colonne("Allergènes", dossier(d -> libelles(d.allergenes())), 30)
+                    .colonne("Régimes et préférences", dossier(d -> libelles(d.regimesEtPreferences())), 30)
+                    .colonne("Informations alimentaires", dossier(DossierEnfantDto::informationsAlimentaires), 40)
+                    .colonne("Traitement matin", dossier(DossierEnfantDto::traitementMatin), 30)
+                    .colonne("Traitement midi", dossier(DossierEnfantDto::traitementMidi), 30)
+                    .colonne("Traitement soir", dossier(DossierEnfantDto::traitementSoir), 30)
+                    .colonne("Traitement si besoin", dossier(DossierEnfantDto::traitementSiBesoin), 30)
+                    .colonne("Autres informations", dossier(DossierEnfantDto::autresInformations), 40)
+                    .colonne("À prendre en sortie", dossier(DossierEnfantDto::aPrendreEnSortie), 30)
+                    .build();
+
+    public static final ExcelExportSpec<OccupantChambreLigne> CHAMBRES =
+            ExcelExportSpec.<OccupantChambreLigne>feuille("Chambres")
+                    .colonne("Chambre", l -> l.chambre().nom() != null ? l.chambre().nom() : l.chambre().identifiant(), 22)
+                    .colonne("Identifiant", l -> l.chambre().identifiant())
+                    .colonne("Type", l -> l.chambre().typeChambre())
+                    .colonne("Bâtiment", l -> l.chambre().batiment())
+                    .colonne("Couloir", l -> l.chambre().couloir())
+                    .colonne("Étage", l -> l.chambre().etage(), 8)
+                    .colonne("Capacité", l -> l.chambre().capaciteMax(), 10)
+                    .colonne("Genre autorisé", l -> l.chambre().genreAutorise())
+                    .colonne("Groupe", l -> l.chambre().groupe() == null ? null : l.chambre().groupe().libelle())
+                    .colonne("Référents", l -> l.chambre().referents() == null ? null : l.chambre().referents().stream()
+                            .map(r -> nomComplet(r.prenom(), r.nom())).toList(), 30)
+                    .colonne("Lit", l -> l.occupant() == null ? null : l.occupant().numeroLit(), 6)
+                    .colonne("Occupant", l -> l.occupant() == null ? null
+                            : nomComplet(l.occupant().prenom(), l.occupant().nom()), 26)
+                    .colonne("Type d'occupant", l -> l.occupant() == null ? null : l.occupant().typeOccupant())
+                    .build();
+
+    public static final ExcelExportSpec<CahierInfirmerieEntreeDto> CAHIER_INFIRMERIE =
+            ExcelExportSpec.<CahierInfirmerieEntreeDto>feuille("Cahier d'infirmerie")
+                    .colonne("Date et heure", CahierInfirmerieEntreeDto::dateHeure)
+                    .colonne("Enfant", e -> nomComplet(e.enfantPrenom(), e.enfantNom()), 24)
+                    .colonne("Description", CahierInfirmerieEntreeDto::description, 50)
+                    .colonne("Localisation", CahierInfirmerieEntreeDto::localisationCorps)
+                    .colonne("Soins", CahierInfirmerieEntreeDto::soins, 30)
+                    .colonne("Précision soins", CahierInfirmerieEntreeDto::soinsAutrePrecision, 24)
+                    .colonne("Température (°C)", CahierInfirmerieEntreeDto::temperatureCelsius, 10)
+                    .colonne("Appels", CahierInfirmerieEntreeDto::appels, 24)
+                    .colonne("Précision appel", CahierInfirmerieEntreeDto::appelAutrePrecision, 24)
+                    .colonne("Soigneur", e -> nomComplet(e.soigneurPrenom(), e.soigneurNom()), 24)
+                    .colonne("Saisi par", e -> nomComplet(e.createurPrenom(), e.createurNom()), 24)
+                    .build();
+
+    /** Grille de planning : colonnes de libellé puis une colonne par jour de la grille. */
+    public static ExcelExportSpec<PlanningGrilleExportDto.Ligne> planning(PlanningGrilleExportDto grille) {
+        ExcelExportSpec.Builder<PlanningGrilleExportDto.Ligne> builder =
+                ExcelExportSpec.<PlanningGrilleExportDto.Ligne>feuille(grille.titre() != null && !grille.titre().isBlank() ? grille.titre() : "Planning")
+                        .colonne("Regroupement", PlanningGrilleExportDto.Ligne::regroupement)
+                        .colonne("Ligne", PlanningGrilleExportDto.Ligne::libelle, 24);
+        for (LocalDate jour : grille.jours()) {
+            builder.colonne(DateFormatHelper.formatDdMmYyyy(jour), l -> l.contenus().get(jour), 28);
+        }
+        return builder.build();
+    }
+
+    private static Function<EnfantDossierSanitaireLigneDto, Object> dossier(Function<DossierEnfantDto, Object> champ) {
+        return l -> l.dossier() == null ? null : champ.apply(l.dossier());
+    }
+
+    private static List<String> libelles(List<ReferenceAlimentaireDto> references) {
+        return references == null ? null : references.stream().map(ReferenceAlimentaireDto::libelle).toList();
+    }
+
+    private static String nomComplet(String prenom, String nom) {
+        String p = prenom != null ? prenom.trim() : "";
+        String n = nom != null ? nom.trim() : "";
+        String s = (p + " " + n).trim();
+        return s.isEmpty() ? null : s;
+    }
+}
@@ -0,0 +1,155 @@
+package com.tarnof.enjoyrestapi.excel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Écriture XLSX en flux (SXSSF) : seules {@link #FENETRE_LIGNES} lignes restent en mémoire, les précédentes
+ * sont vidées dans un fichier temporaire. Le classeur n'est écrit dans {@code out} qu'à la fin : une erreur
+ * levée pendant le parcours (403, 404…) laisse la réponse intacte.
+ */
+public final class ExcelExportWriter {
+
+    public static final String CONTENT_TYPE_XLSX =
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private static final int FENETRE_LIGNES = 100;
+    /** Limite Excel du contenu d'une cellule. */
+    private static final int LONGUEUR_MAX_CELLULE = 32_767;
+
+    private ExcelExportWriter() {}
+
+    /** Reçoit les lignes du classeur au fil du parcours. */
+    @FunctionalInterface
+    public interface Lignes<T> {
+        void ajouter(T ligne) throws IOException;
+    }
+
+    /** Parcourt les éléments à exporter (typiquement une méthode de service transactionnelle). */
+    @FunctionalInterface
+    public interface Source<T> {
+        void parcourir(Lignes<T> lignes) throws IOException;
+    }
+
+    /** Réponse de téléchargement ({@code Content-Disposition: attachment}) écrite par {@link #ecrire}. */
+    public static <T> ResponseEntity<StreamingResponseBody> telechargement(
+            String nomFichier, ExcelExportSpec<T> spec, Source<T> source) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(nomFichier, StandardCharsets.UTF_8)
+                .build();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .contentType(MediaType.parseMediaType(CONTENT_TYPE_XLSX))
+                .body(out -> ecrire(out, spec, source));
+    }
+
+    public static <T> void ecrire(OutputStream out, ExcelExportSpec<T> spec, Source<T> source)
+            throws IOException {
+        SXSSFWorkbook classeur = new SXSSFWorkbook(FENETRE_LIGNES);
+        try {
+            Sheet feuille = classeur.createSheet(WorkbookUtil.createSafeSheetName(spec.getNomFeuille()));
+            Styles styles = new Styles(classeur);
+            List<ExcelExportSpec.Colonne<T>> colonnes = spec.getColonnes();
+
+            Row entete = feuille.createRow(0);
+            for (int i = 0; i < colonnes.size(); i++) {
+                Cell cellule = entete.createCell(i);
+                cellule.setCellValue(colonnes.get(i).libelle());
+                cellule.setCellStyle(styles.entete);
+                feuille.setColumnWidth(i, Math.min(255, colonnes.get(i).largeur()) * 256);
+            }
+            feuille.createFreezePane(0, 1);
+
+            int[] numeroLigne = {1};
+            source.parcourir(element -> {
+                Row ligne = feuille.createRow(numeroLigne[0]++);
+                for (int i = 0; i < colonnes.size(); i++) {
+                    ecrireValeur(ligne.createCell(i), colonnes.get(i).valeur().apply(element), styles);
+                }
+            });
+            classeur.write(out);
+        } finally {
+            classeur.dispose();
+            classeur.close();
+        }
+    }
+
+    private static void ecrireValeur(Cell cellule, Object valeur, Styles styles) {
+        if (valeur == null) {
+            return;
+        }
+        if (valeur instanceof Number nombre) {
+            cellule.setCellValue(nombre.doubleValue());
+        } else if (valeur instanceof Boolean booleen) {
+            cellule.setCellValue(booleen ? "Oui" : "Non");
+        } else if (valeur instanceof LocalDate date) {
+            cellule.setCellValue(date);
+            cellule.setCellStyle(styles.date);
+        } else if (valeur instanceof Instant instant) {
+            cellule.setCellValue(LocalDateTime.ofInstant(instant, ZoneId.systemDefault()));
+            cellule.setCellStyle(styles.dateHeure);
+        } else if (valeur instanceof Collection<?> collection) {
+            ecrireTexte(cellule, collection.stream()
+                    .filter(Objects::nonNull)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(", ")), styles);
+        } else {
+            ecrireTexte(cellule, String.valueOf(valeur), styles);
+        }
+    }
+
+    private static void ecrireTexte(Cell cellule, String texte, Styles styles) {
+        if (texte.isEmpty()) {
+            return;
+        }
+        cellule.setCellValue(texte.length() > LONGUEUR_MAX_CELLULE ? texte.substring(0, LONGUEUR_MAX_CELLULE) : texte);
+        if (texte.indexOf('\n') >= 0) {
+            cellule.setCellStyle(styles.texteMultiligne);
+        }
+    }
+
+    /** Styles partagés par toutes les cellules (un style par cellule épuiserait la limite du classeur). */
+    private static final class Styles {
+        private final CellStyle entete;
+        private final CellStyle date;
+        private final CellStyle dateHeure;
+        private final CellStyle texteMultiligne;
+
+        private Styles(SXSSFWorkbook classeur) {
+            Font gras = classeur.createFont();
+            gras.setBold(true);
+            entete = classeur.createCellStyle();
+            entete.setFont(gras);
+            short formatDate = classeur.createDataFormat().getFormat("dd/mm/yyyy");
+            date = classeur.createCellStyle();
+            date.setDataFormat(formatDate);
+            short formatDateHeure = classeur.createDataFormat().getFormat("dd/mm/yyyy hh:mm");
+            dateHeure = classeur.createCellStyle();
+            dateHeure.setDataFormat(formatDateHeure);
+            texteMultiligne = classeur.createCellStyle();
+            texteMultiligne.setWrapText(true);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.tarnof.enjoyrestapi.payload.request;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/**
+ * Recopie des menus de la semaine modèle (7 jours à partir de {@code semaineModeleDebut}) sur la période
+ * cible, jour de semaine par jour de semaine. Sans {@code remplacerExistants}, les créneaux déjà saisis
+ * sont conservés.
+ */
+public record AppliquerSemaineTypeMenusRequest(
+        @NotNull(message = "Le début de la semaine modèle est obligatoire") LocalDate semaineModeleDebut,
+        @NotNull(message = "La date de début est obligatoire") LocalDate dateDebut,
+        @NotNull(message = "La date de fin est obligatoire") LocalDate dateFin,
+        boolean remplacerExistants
+) {}
@@ -0,0 +1,14 @@
+package com.tarnof.enjoyrestapi.payload.request;
+
+import com.tarnof.enjoyrestapi.enums.TypeSoinInfirmerie;
+
+import java.time.Instant;
+
+/** Filtres optionnels du cahier d'infirmerie paginé ({@code null} = pas de filtre ; bornes de dates incluses). */
+public record FiltreCahierInfirmerieRequest(
+        Integer enfantId,
+        String soigneurTokenId,
+        Instant du,
+        Instant au,
+        TypeSoinInfirmerie soin
+) {}
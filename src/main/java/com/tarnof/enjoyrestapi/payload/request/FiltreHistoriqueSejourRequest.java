@@ -0,0 +1,13 @@
+package com.tarnof.enjoyrestapi.payload.request;
+
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationType;
+
+import java.time.Instant;
+
+/** Filtres optionnels du fil d'historique d'un séjour ({@code null} = pas de filtre ; bornes de dates incluses). */
+public record FiltreHistoriqueSejourRequest(
+        HistoriqueModificationType type,
+        String modificateurTokenId,
+        Instant du,
+        Instant au
+) {}
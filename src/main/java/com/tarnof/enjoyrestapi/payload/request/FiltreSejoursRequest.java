@@ -0,0 +1,14 @@
+package com.tarnof.enjoyrestapi.payload.request;
+
+import java.time.LocalDate;
+
+/**
+ * Filtres optionnels du catalogue de séjours paginé ({@code null} = pas de filtre). {@code du}/{@code au} : séjours
+ * qui chevauchent la période (bornes incluses) ; {@code texte} : contenu dans le nom ou le lieu, sans casse.
+ */
+public record FiltreSejoursRequest(
+        LocalDate du,
+        LocalDate au,
+        String directeurTokenId,
+        String texte
+) {}
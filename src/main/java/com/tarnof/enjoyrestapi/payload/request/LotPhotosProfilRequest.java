@@ -0,0 +1,23 @@
+package com.tarnof.enjoyrestapi.payload.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Photos de plusieurs utilisateurs en une requête. {@code taille} : comme {@code ?taille=} sur la photo seule.
+ * {@code etagsConnus} : ETag déjà en cache côté client, par tokenId ; la photo correspondante n'est pas renvoyée.
+ * Validée avant l'envoi du flux : une taille invalide donne un 400, pas une réponse 200 interrompue.
+ */
+public record LotPhotosProfilRequest(
+        @NotEmpty(message = "Au moins un utilisateur doit être demandé")
+        @Size(max = 100, message = "Au plus 100 photos par lot")
+        List<@NotBlank String> tokenIds,
+        @Positive(message = "La taille demandée doit être positive")
+        Integer taille,
+        Map<String, String> etagsConnus
+) {}
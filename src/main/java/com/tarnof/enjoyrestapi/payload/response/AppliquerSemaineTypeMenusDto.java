@@ -0,0 +1,8 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+/** Bilan de l'application d'une semaine type de menus sur une période. */
+public record AppliquerSemaineTypeMenusDto(
+        int menusCrees,
+        int menusRemplaces,
+        int creneauxConserves
+) {}
@@ -0,0 +1,15 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+import java.util.List;
+
+/**
+ * Enfant dont le dossier croise un menu : seules les références communes au dossier et au menu sont listées.
+ */
+public record EnfantConcerneMenuDto(
+        int enfantId,
+        String prenom,
+        String nom,
+        List<GroupeResumeDto> groupes,
+        List<ReferenceAlimentaireDto> allergenes,
+        List<ReferenceAlimentaireDto> regimesEtPreferences
+) {}
@@ -0,0 +1,8 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+public record EnfantPassagesInfirmerieDto(
+        int enfantId,
+        String prenom,
+        String nom,
+        long passages
+) {}
@@ -0,0 +1,15 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.time.LocalDate;
+
+/**
+ * Ligne du fil d'historique d'un séjour. {@code cibleId} : id de l'élément selon {@code type} (ligne de planning,
+ * activité, entrée du cahier d'infirmerie, chambre, activité prestataire) ; jour et cellule pour le planning seulement.
+ */
+public record HistoriqueModificationSejourDto(
+        @JsonUnwrapped HistoriqueModificationBaseDto base,
+        Integer cibleId,
+        LocalDate planningJour,
+        Integer planningCelluleId) {}
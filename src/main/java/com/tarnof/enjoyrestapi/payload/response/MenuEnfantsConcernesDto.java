@@ -0,0 +1,14 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+import com.tarnof.enjoyrestapi.enums.TypeRepas;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** Un menu de la période et les enfants concernés par ses allergènes / régimes. */
+public record MenuEnfantsConcernesDto(
+        int menuId,
+        LocalDate dateRepas,
+        TypeRepas typeRepas,
+        List<EnfantConcerneMenuDto> enfants
+) {}
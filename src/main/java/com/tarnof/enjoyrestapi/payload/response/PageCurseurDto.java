@@ -0,0 +1,12 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+import java.util.List;
+
+/**
+ * Page d'un listing paginé par curseur. {@code curseurSuivant} est à renvoyer pour obtenir la page
+ * suivante ; {@code null} lorsqu'il n'y en a plus.
+ */
+public record PageCurseurDto<T>(
+        List<T> elements,
+        String curseurSuivant
+) {}
@@ -1,11 +1,23 @@
 package com.tarnof.enjoyrestapi.payload.response;
 
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
 import java.io.InputStream;
 
+/**
+ * Photo à servir. {@code contenu} {@code null} : le client a déjà cette version ({@code If-None-Match}),
+ * rien n'a été lu dans le stockage. {@code etag} et {@code version} sont {@code null} pour une photo
+ * envoyée avant l'enregistrement de son empreinte.
+ */
 public record PhotoProfilContenu(
-        @NonNull InputStream contenu,
+        @Nullable InputStream contenu,
         long taille,
-        @NonNull String mimeType
-) {}
+        @NonNull String mimeType,
+        @Nullable String etag,
+        @Nullable String version
+) {
+    public boolean nonModifiee() {
+        return contenu == null;
+    }
+}
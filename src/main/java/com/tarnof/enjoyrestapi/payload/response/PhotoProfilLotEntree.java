@@ -0,0 +1,10 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/** Photo d'un utilisateur dans un lot ; {@code photo} {@code null} : utilisateur inconnu ou sans photo. */
+public record PhotoProfilLotEntree(
+        @NonNull String tokenId,
+        @Nullable PhotoProfilContenu photo
+) {}
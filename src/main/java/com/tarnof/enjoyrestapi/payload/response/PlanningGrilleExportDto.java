@@ -0,0 +1,14 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grille de planning mise à plat pour l'export tableur : libellés lisibles (pas d'ids),
+ * un contenu texte par jour et par ligne.
+ */
+public record PlanningGrilleExportDto(String titre, List<LocalDate> jours, List<Ligne> lignes) {
+
+    public record Ligne(String regroupement, String libelle, Map<LocalDate, String> contenus) {}
+}
@@ -0,0 +1,8 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+/** Bilan du recalcul des groupes par âge / niveau scolaire d'un séjour. */
+public record RecalculGroupesDto(
+        int groupesRecalcules,
+        int enfantsAjoutes,
+        int enfantsRetires
+) {}
@@ -0,0 +1,13 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+import com.tarnof.enjoyrestapi.enums.TypeReferenceAlimentaire;
+
+/** Champs de {@link ReferenceAlimentaireDto} et nombre d'enfants du séjour concernés. */
+public record ReferenceAlimentaireAgregeeDto(
+        int id,
+        TypeReferenceAlimentaire type,
+        String libelle,
+        Integer ordre,
+        boolean actif,
+        long nombreEnfants
+) {}
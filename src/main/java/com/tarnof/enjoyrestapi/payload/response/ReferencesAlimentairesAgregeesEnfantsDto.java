@@ -3,9 +3,10 @@ package com.tarnof.enjoyrestapi.payload.response;
 import java.util.List;
 
 /**
- * Union des références alimentaires (allergènes / régimes) présentes sur au moins un dossier enfant du séjour.
+ * Union des références alimentaires (allergènes / régimes) présentes sur au moins un dossier enfant du séjour,
+ * chacune avec le nombre d'enfants concernés.
  */
 public record ReferencesAlimentairesAgregeesEnfantsDto(
-        List<ReferenceAlimentaireDto> allergenes,
-        List<ReferenceAlimentaireDto> regimesEtPreferences
+        List<ReferenceAlimentaireAgregeeDto> allergenes,
+        List<ReferenceAlimentaireAgregeeDto> regimesEtPreferences
 ) {}
@@ -0,0 +1,18 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+import com.tarnof.enjoyrestapi.enums.TypeDocumentRecherche;
+
+import java.time.LocalDate;
+
+/**
+ * Document trouvé par la recherche plein texte d'un séjour. {@code id} : entrée, réunion ou enfant selon
+ * {@code type} ; {@code enfantId} nul pour une réunion ; {@code date} nulle pour un dossier.
+ */
+public record ResultatRechercheSejourDto(
+        TypeDocumentRecherche type,
+        int id,
+        Integer enfantId,
+        String titre,
+        LocalDate date,
+        String extrait
+) {}
@@ -1,14 +1,15 @@
 package com.tarnof.enjoyrestapi.payload.response;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.annotation.JsonRawValue;
 
 import java.time.LocalDate;
 
+/** {@code contenu} : JSON TipTap tel qu'enregistré, recopié tel quel dans la réponse (objet JSON, pas une chaîne). */
 public record ReunionDto(
         int id,
         int sejourId,
         @JsonFormat(pattern = "yyyy-MM-dd") LocalDate date,
         String ordreDuJour,
-        JsonNode contenu
+        @JsonRawValue String contenu
 ) {}
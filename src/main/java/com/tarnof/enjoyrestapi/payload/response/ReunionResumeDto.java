@@ -0,0 +1,14 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+
+/** Réunion dans la liste du séjour : sans le document, avec le début de son texte. */
+public record ReunionResumeDto(
+        int id,
+        int sejourId,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate date,
+        String ordreDuJour,
+        String extrait
+) {}
@@ -0,0 +1,16 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+import java.util.Date;
+
+/** Ligne du catalogue de séjours : séjour, directeur et effectifs (enfants inscrits, membres de l'équipe). */
+public record SejourCatalogueDto(
+    int id,
+    String nom,
+    String description,
+    Date dateDebut,
+    Date dateFin,
+    String lieuDuSejour,
+    SejourDto.DirecteurInfos directeur,
+    long nbEnfants,
+    long nbEquipe
+) {}
@@ -0,0 +1,14 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/** Statistiques du cahier d'infirmerie sur une période : compteurs par jour et enfants les plus vus. */
+public record StatistiquesCahierInfirmerieDto(
+        LocalDate dateDebut,
+        LocalDate dateFin,
+        BigDecimal seuilFievre,
+        List<StatistiquesJourInfirmerieDto> jours,
+        List<EnfantPassagesInfirmerieDto> enfantsLesPlusVus
+) {}
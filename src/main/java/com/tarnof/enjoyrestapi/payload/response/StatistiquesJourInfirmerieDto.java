@@ -0,0 +1,16 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+import com.tarnof.enjoyrestapi.enums.TypeAppelInfirmerie;
+import com.tarnof.enjoyrestapi.enums.TypeSoinInfirmerie;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/** Compteurs d'une journée du cahier d'infirmerie (tous les types présents, à 0 le cas échéant). */
+public record StatistiquesJourInfirmerieDto(
+        LocalDate jour,
+        long entrees,
+        long fievres,
+        Map<TypeSoinInfirmerie, Long> soins,
+        Map<TypeAppelInfirmerie, Long> appels
+) {}
@@ -0,0 +1,37 @@
+package com.tarnof.enjoyrestapi.payload.response;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Compteurs de l'accueil d'un séjour. {@code calculeLe} : instant du calcul (la réponse peut être servie depuis le
+ * cache pendant quelques secondes).
+ */
+public record TableauDeBordSejourDto(
+    int sejourId,
+    Instant calculeLe,
+    long nbEnfants,
+    long nbMembresEquipe,
+    long nbGroupes,
+    long nbChambres,
+    long nbActivites,
+    long nbSortiesPrestataires,
+    long nbMenus,
+    long nbReunions,
+    List<ActivitesMoment> activitesDuJour,
+    OccupationChambres occupationChambres,
+    long nbEntreesInfirmerie24h
+) {
+    public record ActivitesMoment(
+        int momentId,
+        String nom,
+        long nbActivites
+    ) {}
+
+    /** {@code tauxOccupation} : occupants / capacité totale, 0 sans chambre. */
+    public record OccupationChambres(
+        long capaciteTotale,
+        long nbOccupants,
+        double tauxOccupation
+    ) {}
+}
@@ -2,6 +2,7 @@ package com.tarnof.enjoyrestapi.repositories;
 
 import com.tarnof.enjoyrestapi.entities.Activite;
 import com.tarnof.enjoyrestapi.entities.Moment;
+import com.tarnof.enjoyrestapi.repositories.projections.ActivitesMomentCompteProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,8 +18,36 @@ public interface ActiviteRepository extends JpaRepository<Activite, Integer> {
 
     List<Activite> findBySejourIdOrderByDateAscIdAsc(int sejourId);
 
+    @Query("SELECT a.id FROM Activite a WHERE a.sejour.id = :sejourId ORDER BY a.date ASC, a.id ASC")
+    List<Integer> findIdsBySejourIdOrderByDateAscIdAsc(@Param("sejourId") int sejourId);
+
+    @Query("SELECT a FROM Activite a JOIN FETCH a.moment LEFT JOIN FETCH a.lieu LEFT JOIN FETCH a.typeActivite "
+            + "WHERE a.id IN :ids")
+    List<Activite> findByIdInFetchingMomentLieuType(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Charge les collections des activités déjà lues (même contexte de persistance), une requête par collection :
+     * Hibernate interdit deux JOIN FETCH sur des List (bags) dans la même requête.
+     */
+    @Query("SELECT DISTINCT a FROM Activite a LEFT JOIN FETCH a.membres WHERE a.id IN :ids")
+    List<Activite> fetchMembresByIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT DISTINCT a FROM Activite a LEFT JOIN FETCH a.groupes WHERE a.id IN :ids")
+    List<Activite> fetchGroupesByIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT DISTINCT a FROM Activite a LEFT JOIN FETCH a.enfants WHERE a.id IN :ids")
+    List<Activite> fetchEnfantsByIds(@Param("ids") Collection<Integer> ids);
+
     Optional<Activite> findByIdAndSejourId(int id, int sejourId);
 
+    /** Nombre d'activités du jour par moment (moments sans activité omis), dans l'ordre de la journée. */
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.ActivitesMomentCompteProjection("
+            + "m.id, m.nom, COUNT(a)) FROM Activite a JOIN a.moment m "
+            + "WHERE a.sejour.id = :sejourId AND a.date = :date "
+            + "GROUP BY m.id, m.nom, m.ordre ORDER BY COALESCE(m.ordre, m.id) ASC, m.id ASC")
+    List<ActivitesMomentCompteProjection> compterParMomentPourDate(
+            @Param("sejourId") int sejourId, @Param("date") LocalDate date);
+
     /**
      * Compte les activités sur ce lieu, ce jour, pour l'un des moments de {@code momentIds}
      * (moment visé, ancêtres et descendants — chevauchement hiérarchique).
@@ -1,10 +1,22 @@
 package com.tarnof.enjoyrestapi.repositories;
 
 import com.tarnof.enjoyrestapi.entities.CahierInfirmerieEntree;
+import com.tarnof.enjoyrestapi.enums.TypeSoinInfirmerie;
+import com.tarnof.enjoyrestapi.repositories.projections.AppelInfirmerieCompteProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieAppelProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieSoinProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieTexteProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieTotauxProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.EnfantPassagesInfirmerieProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.SoinInfirmerieCompteProjection;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,10 +28,111 @@ public interface CahierInfirmerieEntreeRepository extends JpaRepository<CahierIn
                     + "WHERE c.sejour.id = :sejourId ORDER BY c.dateHeure DESC, c.id DESC")
     List<CahierInfirmerieEntree> findBySejourIdWithEnfantOrderByDateHeureDesc(@Param("sejourId") int sejourId);
 
+    long countBySejourIdAndDateHeureGreaterThanEqual(int sejourId, Instant depuis);
+
+    @Query("SELECT c.id FROM CahierInfirmerieEntree c WHERE c.sejour.id = :sejourId ORDER BY c.dateHeure DESC, c.id DESC")
+    List<Integer> findIdsBySejourIdOrderByDateHeureDesc(@Param("sejourId") int sejourId);
+
+    @Query(
+            "SELECT c FROM CahierInfirmerieEntree c JOIN FETCH c.enfant LEFT JOIN FETCH c.createur "
+                    + "JOIN FETCH c.soigneur "
+                    + "WHERE c.id IN :ids")
+    List<CahierInfirmerieEntree> findByIdInWithEnfantAndCreateur(@Param("ids") Collection<Integer> ids);
+
     @Query(
             "SELECT c FROM CahierInfirmerieEntree c JOIN FETCH c.enfant LEFT JOIN FETCH c.createur "
                     + "JOIN FETCH c.soigneur "
                     + "WHERE c.id = :id AND c.sejour.id = :sejourId")
     Optional<CahierInfirmerieEntree> findByIdAndSejourIdWithEnfantAndCreateur(
             @Param("id") int id, @Param("sejourId") int sejourId);
+
+    /**
+     * Page d'ids (plus récentes d'abord) après la position {@code (apresDateHeure, apresId)}, filtres optionnels
+     * ({@code null} = pas de filtre). La taille de page est portée par {@code pageable} (sans requête de comptage).
+     */
+    @Query("SELECT c.id FROM CahierInfirmerieEntree c WHERE c.sejour.id = :sejourId "
+            + "AND (:enfantId IS NULL OR c.enfant.id = :enfantId) "
+            + "AND (:soigneurTokenId IS NULL OR c.soigneur.tokenId = :soigneurTokenId) "
+            + "AND (:du IS NULL OR c.dateHeure >= :du) "
+            + "AND (:au IS NULL OR c.dateHeure <= :au) "
+            + "AND (:soin IS NULL OR :soin MEMBER OF c.soins) "
+            + "AND (:apresDateHeure IS NULL OR c.dateHeure < :apresDateHeure "
+            + "OR (c.dateHeure = :apresDateHeure AND c.id < :apresId)) "
+            + "ORDER BY c.dateHeure DESC, c.id DESC")
+    List<Integer> findPageIds(
+            @Param("sejourId") int sejourId,
+            @Param("enfantId") Integer enfantId,
+            @Param("soigneurTokenId") String soigneurTokenId,
+            @Param("du") Instant du,
+            @Param("au") Instant au,
+            @Param("soin") TypeSoinInfirmerie soin,
+            @Param("apresDateHeure") Instant apresDateHeure,
+            @Param("apresId") Integer apresId,
+            Pageable pageable);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieSoinProjection(c.id, s) "
+            + "FROM CahierInfirmerieEntree c JOIN c.soins s WHERE c.id IN :ids")
+    List<CahierInfirmerieSoinProjection> findSoinsByEntreeIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieAppelProjection(c.id, a) "
+            + "FROM CahierInfirmerieEntree c JOIN c.appels a WHERE c.id IN :ids")
+    List<CahierInfirmerieAppelProjection> findAppelsByEntreeIdIn(@Param("ids") Collection<Integer> ids);
+
+    /*
+     * Statistiques : périodes semi-ouvertes [debut, fin), regroupées par heure (dateHeure tronquée) pour
+     * que l'appelant les replie en jours calendaires de son fuseau, une requête par indicateur.
+     */
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieTotauxProjection("
+            + "truncate(c.dateHeure, hour), COUNT(c), "
+            + "COUNT(CASE WHEN c.temperatureCelsius >= :seuilFievre THEN c.id END)) "
+            + "FROM CahierInfirmerieEntree c "
+            + "WHERE c.sejour.id = :sejourId AND c.dateHeure >= :debut AND c.dateHeure < :fin "
+            + "GROUP BY truncate(c.dateHeure, hour)")
+    List<CahierInfirmerieTotauxProjection> compterTotauxParHeure(
+            @Param("sejourId") int sejourId,
+            @Param("debut") Instant debut,
+            @Param("fin") Instant fin,
+            @Param("seuilFievre") BigDecimal seuilFievre);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.SoinInfirmerieCompteProjection("
+            + "truncate(c.dateHeure, hour), s, COUNT(c)) "
+            + "FROM CahierInfirmerieEntree c JOIN c.soins s "
+            + "WHERE c.sejour.id = :sejourId AND c.dateHeure >= :debut AND c.dateHeure < :fin "
+            + "GROUP BY truncate(c.dateHeure, hour), s")
+    List<SoinInfirmerieCompteProjection> compterSoinsParHeureEtType(
+            @Param("sejourId") int sejourId, @Param("debut") Instant debut, @Param("fin") Instant fin);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.AppelInfirmerieCompteProjection("
+            + "truncate(c.dateHeure, hour), a, COUNT(c)) "
+            + "FROM CahierInfirmerieEntree c JOIN c.appels a "
+            + "WHERE c.sejour.id = :sejourId AND c.dateHeure >= :debut AND c.dateHeure < :fin "
+            + "GROUP BY truncate(c.dateHeure, hour), a")
+    List<AppelInfirmerieCompteProjection> compterAppelsParHeureEtType(
+            @Param("sejourId") int sejourId, @Param("debut") Instant debut, @Param("fin") Instant fin);
+
+    /** Enfants les plus vus ({@code pageable} porte le nombre de lignes). */
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.EnfantPassagesInfirmerieProjection("
+            + "e.id, e.prenom, e.nom, COUNT(c)) "
+            + "FROM CahierInfirmerieEntree c JOIN c.enfant e "
+            + "WHERE c.sejour.id = :sejourId AND c.dateHeure >= :debut AND c.dateHeure < :fin "
+            + "GROUP BY e.id, e.prenom, e.nom ORDER BY COUNT(c) DESC, e.nom ASC, e.prenom ASC")
+    List<EnfantPassagesInfirmerieProjection> findEnfantsLesPlusVus(
+            @Param("sejourId") int sejourId,
+            @Param("debut") Instant debut,
+            @Param("fin") Instant fin,
+            Pageable pageable);
+
+    // Recherche plein texte : construction de l'index du séjour, puis extraits des entrées trouvées.
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieTexteProjection("
+            + "c.id, e.id, e.prenom, e.nom, c.dateHeure, c.description, c.localisationCorps) "
+            + "FROM CahierInfirmerieEntree c JOIN c.enfant e WHERE c.sejour.id = :sejourId")
+    List<CahierInfirmerieTexteProjection> findTextesBySejourId(@Param("sejourId") int sejourId);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieTexteProjection("
+            + "c.id, e.id, e.prenom, e.nom, c.dateHeure, c.description, c.localisationCorps) "
+            + "FROM CahierInfirmerieEntree c JOIN c.enfant e WHERE c.sejour.id = :sejourId AND c.id IN :ids")
+    List<CahierInfirmerieTexteProjection> findTextesBySejourIdAndIdIn(
+            @Param("sejourId") int sejourId, @Param("ids") Collection<Integer> ids);
 }
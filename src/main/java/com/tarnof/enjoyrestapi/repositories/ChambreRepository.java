@@ -1,6 +1,7 @@
 package com.tarnof.enjoyrestapi.repositories;
 
 import com.tarnof.enjoyrestapi.entities.Chambre;
+import com.tarnof.enjoyrestapi.repositories.projections.OccupationChambresProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,6 +13,13 @@ public interface ChambreRepository extends JpaRepository<Chambre, Integer> {
 
     Optional<Chambre> findByIdAndSejourId(int id, int sejourId);
 
+    /** Somme des capacités et nombre d'occupants (enfants et équipe) des chambres du séjour. */
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.OccupationChambresProjection("
+            + "COALESCE(SUM(c.capaciteMax), 0), "
+            + "(SELECT COUNT(o) FROM ChambreOccupant o WHERE o.chambre.sejour.id = :sejourId)) "
+            + "FROM Chambre c WHERE c.sejour.id = :sejourId")
+    OccupationChambresProjection findOccupationBySejourId(@Param("sejourId") int sejourId);
+
     @Query(
             "SELECT DISTINCT c FROM Chambre c "
                     + "LEFT JOIN FETCH c.occupants o "
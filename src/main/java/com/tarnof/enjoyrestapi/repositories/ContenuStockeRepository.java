@@ -0,0 +1,47 @@
+package com.tarnof.enjoyrestapi.repositories;
+
+import com.tarnof.enjoyrestapi.entities.ContenuStocke;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ContenuStockeRepository extends JpaRepository<ContenuStocke, Integer> {
+
+    /** 0 si le contenu n'est pas encore stocké. La ligne reste verrouillée jusqu'à la fin de la transaction. */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ContenuStocke c SET c.nbReferences = c.nbReferences + 1, c.orphelinDepuis = NULL "
+            + "WHERE c.empreinte = :empreinte")
+    int ajouterReference(@Param("empreinte") String empreinte);
+
+    Optional<ContenuStocke> findByEmpreinte(String empreinte);
+
+    /** 0 si la clé n'est pas un contenu adressé (ou déjà sans référence). */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ContenuStocke c SET c.nbReferences = c.nbReferences - 1 WHERE c.cle = :cle AND c.nbReferences > 0")
+    int retirerReference(@Param("cle") String cle);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ContenuStocke c SET c.orphelinDepuis = :maintenant "
+            + "WHERE c.cle = :cle AND c.nbReferences = 0 AND c.orphelinDepuis IS NULL")
+    int marquerOrphelin(@Param("cle") String cle, @Param("maintenant") Instant maintenant);
+
+    @Query("SELECT c.id FROM ContenuStocke c WHERE c.nbReferences = 0 AND c.orphelinDepuis < :limite "
+            + "AND c.id > :apresId ORDER BY c.id")
+    List<Integer> findIdsOrphelinsAvant(
+            @Param("limite") Instant limite, @Param("apresId") int apresId, Pageable pageable);
+
+    /** Relu sous verrou : un {@link #ajouterReference} concurrent attend la fin de la suppression. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ContenuStocke c WHERE c.id = :id AND c.nbReferences = 0")
+    Optional<ContenuStocke> findOrphelinPourSuppression(@Param("id") Integer id);
+}
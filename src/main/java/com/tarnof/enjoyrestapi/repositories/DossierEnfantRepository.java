@@ -10,6 +10,13 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.tarnof.enjoyrestapi.entities.DossierEnfant;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantAlimentaireProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantAutresProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantContactsProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantMedicalProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantReferenceProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantTraitementsProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.ReferenceAlimentaireCompteeProjection;
 
 public interface DossierEnfantRepository extends JpaRepository<DossierEnfant, Integer> {
     Optional<DossierEnfant> findByEnfantId(int enfantId);
@@ -21,4 +28,70 @@ public interface DossierEnfantRepository extends JpaRepository<DossierEnfant, In
     @EntityGraph(attributePaths = {"allergenes", "regimesEtPreferences"})
     @Query("SELECT d FROM DossierEnfant d WHERE d.enfant.id IN :enfantIds")
     List<DossierEnfant> findByEnfantIdInFetchingReferences(@Param("enfantIds") Collection<Integer> enfantIds);
+
+    // Projections du listing sanitaire partiel (paramètre fields) : chaque requête ne lit que sa partie.
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantContactsProjection("
+            + "d.id, d.enfant.id, d.emailParent1, d.telephoneParent1, d.emailParent2, d.telephoneParent2) "
+            + "FROM DossierEnfant d WHERE d.enfant.id IN :enfantIds")
+    List<DossierEnfantContactsProjection> findContactsByEnfantIdIn(@Param("enfantIds") Collection<Integer> enfantIds);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantMedicalProjection("
+            + "d.enfant.id, d.informationsMedicales, d.pai) "
+            + "FROM DossierEnfant d WHERE d.enfant.id IN :enfantIds")
+    List<DossierEnfantMedicalProjection> findMedicalByEnfantIdIn(@Param("enfantIds") Collection<Integer> enfantIds);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantTraitementsProjection("
+            + "d.enfant.id, d.traitementMatin, d.traitementMidi, d.traitementSoir, d.traitementSiBesoin) "
+            + "FROM DossierEnfant d WHERE d.enfant.id IN :enfantIds")
+    List<DossierEnfantTraitementsProjection> findTraitementsByEnfantIdIn(@Param("enfantIds") Collection<Integer> enfantIds);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantAlimentaireProjection("
+            + "d.enfant.id, d.informationsAlimentaires) "
+            + "FROM DossierEnfant d WHERE d.enfant.id IN :enfantIds")
+    List<DossierEnfantAlimentaireProjection> findAlimentaireByEnfantIdIn(@Param("enfantIds") Collection<Integer> enfantIds);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantAutresProjection("
+            + "d.enfant.id, d.autresInformations, d.aPrendreEnSortie) "
+            + "FROM DossierEnfant d WHERE d.enfant.id IN :enfantIds")
+    List<DossierEnfantAutresProjection> findAutresByEnfantIdIn(@Param("enfantIds") Collection<Integer> enfantIds);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantReferenceProjection("
+            + "d.enfant.id, r.id, r.type, r.libelle, r.ordre, r.actif) "
+            + "FROM DossierEnfant d JOIN d.allergenes r WHERE d.enfant.id IN :enfantIds "
+            + "ORDER BY r.ordre ASC NULLS LAST, r.id ASC")
+    List<DossierEnfantReferenceProjection> findAllergenesByEnfantIdIn(@Param("enfantIds") Collection<Integer> enfantIds);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantReferenceProjection("
+            + "d.enfant.id, r.id, r.type, r.libelle, r.ordre, r.actif) "
+            + "FROM DossierEnfant d JOIN d.regimesEtPreferences r WHERE d.enfant.id IN :enfantIds "
+            + "ORDER BY r.ordre ASC NULLS LAST, r.id ASC")
+    List<DossierEnfantReferenceProjection> findRegimesByEnfantIdIn(@Param("enfantIds") Collection<Integer> enfantIds);
+
+    /** Allergènes portés par au moins un enfant inscrit au séjour, avec le nombre d'enfants (GROUP BY en base). */
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.ReferenceAlimentaireCompteeProjection("
+            + "r.id, r.type, r.libelle, r.ordre, r.actif, COUNT(DISTINCT d.enfant.id)) "
+            + "FROM DossierEnfant d JOIN d.allergenes r "
+            + "WHERE d.enfant.id IN (SELECT se.enfant.id FROM SejourEnfant se WHERE se.sejour.id = :sejourId) "
+            + "GROUP BY r.id, r.type, r.libelle, r.ordre, r.actif "
+            + "ORDER BY r.ordre ASC NULLS LAST, r.id ASC")
+    List<ReferenceAlimentaireCompteeProjection> compterAllergenesParSejourId(@Param("sejourId") int sejourId);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.ReferenceAlimentaireCompteeProjection("
+            + "r.id, r.type, r.libelle, r.ordre, r.actif, COUNT(DISTINCT d.enfant.id)) "
+            + "FROM DossierEnfant d JOIN d.regimesEtPreferences r "
+            + "WHERE d.enfant.id IN (SELECT se.enfant.id FROM SejourEnfant se WHERE se.sejour.id = :sejourId) "
+            + "GROUP BY r.id, r.type, r.libelle, r.ordre, r.actif "
+            + "ORDER BY r.ordre ASC NULLS LAST, r.id ASC")
+    List<ReferenceAlimentaireCompteeProjection> compterRegimesParSejourId(@Param("sejourId") int sejourId);
+
+    /** Dossiers des enfants inscrits au séjour (recherche plein texte : champs libres et identité). */
+    @Query("SELECT d FROM DossierEnfant d JOIN FETCH d.enfant e "
+            + "WHERE e.id IN (SELECT se.enfant.id FROM SejourEnfant se WHERE se.sejour.id = :sejourId)")
+    List<DossierEnfant> findBySejourIdFetchingEnfant(@Param("sejourId") int sejourId);
+
+    @Query("SELECT d FROM DossierEnfant d JOIN FETCH d.enfant e WHERE e.id IN :enfantIds "
+            + "AND e.id IN (SELECT se.enfant.id FROM SejourEnfant se WHERE se.sejour.id = :sejourId)")
+    List<DossierEnfant> findBySejourIdAndEnfantIdInFetchingEnfant(
+            @Param("sejourId") int sejourId, @Param("enfantIds") Collection<Integer> enfantIds);
 }
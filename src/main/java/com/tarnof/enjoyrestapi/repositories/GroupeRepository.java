@@ -2,10 +2,13 @@ package com.tarnof.enjoyrestapi.repositories;
 
 import com.tarnof.enjoyrestapi.entities.Groupe;
 import com.tarnof.enjoyrestapi.entities.Sejour;
+import com.tarnof.enjoyrestapi.repositories.projections.GroupeEnfantProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +19,29 @@ public interface GroupeRepository extends JpaRepository<Groupe, Integer> {
     @Query("SELECT DISTINCT g FROM Groupe g LEFT JOIN FETCH g.enfants WHERE g.sejour.id = :sejourId")
     List<Groupe> findBySejourIdFetchingEnfants(@Param("sejourId") int sejourId);
 
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.GroupeEnfantProjection(e.id, g.id, g.nom) "
+            + "FROM Groupe g JOIN g.enfants e WHERE g.sejour.id = :sejourId AND e.id IN :enfantIds")
+    List<GroupeEnfantProjection> findAppartenancesBySejourIdAndEnfantIdIn(
+            @Param("sejourId") int sejourId, @Param("enfantIds") Collection<Integer> enfantIds);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.GroupeEnfantProjection(e.id, g.id, g.nom) "
+            + "FROM Groupe g JOIN g.enfants e WHERE g.sejour.id = :sejourId")
+    List<GroupeEnfantProjection> findAppartenancesBySejourId(@Param("sejourId") int sejourId);
+
+    /**
+     * Rattachements en masse directement dans la table de jointure (une requête par lot d'enfants).
+     * Contourne la collection {@code Groupe.enfants} : le contexte de persistance est vidé ensuite.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO groupe_enfant (groupe_id, enfant_id) "
+            + "SELECT :groupeId, e.id FROM enfant e WHERE e.id IN (:enfantIds)", nativeQuery = true)
+    int insererEnfantsDansGroupe(@Param("groupeId") int groupeId, @Param("enfantIds") Collection<Integer> enfantIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM groupe_enfant WHERE groupe_id = :groupeId AND enfant_id IN (:enfantIds)",
+            nativeQuery = true)
+    int retirerEnfantsDuGroupe(@Param("groupeId") int groupeId, @Param("enfantIds") Collection<Integer> enfantIds);
+
     Optional<Groupe> findByIdAndSejourId(int id, int sejourId);
 
     @Query(
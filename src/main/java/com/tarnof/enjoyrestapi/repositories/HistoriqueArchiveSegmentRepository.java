@@ -0,0 +1,16 @@
+package com.tarnof.enjoyrestapi.repositories;
+
+import com.tarnof.enjoyrestapi.entities.HistoriqueArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HistoriqueArchiveSegmentRepository extends JpaRepository<HistoriqueArchiveSegment, Integer> {
+
+    List<HistoriqueArchiveSegment> findBySejourIdOrderByNumeroAsc(int sejourId);
+
+    Optional<HistoriqueArchiveSegment> findFirstBySejourIdOrderByNumeroDesc(int sejourId);
+}
@@ -6,11 +6,15 @@ import com.tarnof.enjoyrestapi.entities.HistoriqueModificationCahierInfirmerie;
 import com.tarnof.enjoyrestapi.entities.HistoriqueModificationActivitePrestataire;
 import com.tarnof.enjoyrestapi.entities.HistoriqueModificationChambre;
 import com.tarnof.enjoyrestapi.entities.HistoriqueModificationPlanningCellule;
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Date;
 import java.util.List;
 
 public interface HistoriqueModificationRepository extends JpaRepository<HistoriqueModification, Integer> {
@@ -58,4 +62,110 @@ public interface HistoriqueModificationRepository extends JpaRepository<Historiq
                     + "ORDER BY h.dateModification DESC")
     List<HistoriqueModificationActivitePrestataire> findActivitePrestataireByActivitePrestataireId(
             @Param("activitePrestataireId") int activitePrestataireId);
+
+    /* Pages par curseur : plus récentes d'abord, après la position (apresDate, apresId) ; taille portée par pageable. */
+
+    /** Fil du séjour, filtres optionnels ({@code null} = pas de filtre). */
+    @Query(
+            "SELECT h FROM HistoriqueModification h "
+                    + "JOIN FETCH h.modificateur m "
+                    + "WHERE h.sejourId = :sejourId "
+                    + "AND (:type IS NULL OR h.type = :type) "
+                    + "AND (:modificateurTokenId IS NULL OR m.tokenId = :modificateurTokenId) "
+                    + "AND (:du IS NULL OR h.dateModification >= :du) "
+                    + "AND (:au IS NULL OR h.dateModification <= :au) "
+                    + "AND (:apresDate IS NULL OR h.dateModification < :apresDate "
+                    + "OR (h.dateModification = :apresDate AND h.id < :apresId)) "
+                    + "ORDER BY h.dateModification DESC, h.id DESC")
+    List<HistoriqueModification> findPageBySejourId(
+            @Param("sejourId") int sejourId,
+            @Param("type") HistoriqueModificationType type,
+            @Param("modificateurTokenId") String modificateurTokenId,
+            @Param("du") Instant du,
+            @Param("au") Instant au,
+            @Param("apresDate") Instant apresDate,
+            @Param("apresId") Integer apresId,
+            Pageable pageable);
+
+    @Query(
+            "SELECT h FROM HistoriqueModificationPlanningCellule h "
+                    + "JOIN FETCH h.modificateur "
+                    + "WHERE h.planningLigneId = :ligneId AND (:jour IS NULL OR h.planningJour = :jour) "
+                    + "AND (:apresDate IS NULL OR h.dateModification < :apresDate "
+                    + "OR (h.dateModification = :apresDate AND h.id < :apresId)) "
+                    + "ORDER BY h.dateModification DESC, h.id DESC")
+    List<HistoriqueModificationPlanningCellule> findPagePlanningByLigneId(
+            @Param("ligneId") int ligneId,
+            @Param("jour") LocalDate jour,
+            @Param("apresDate") Instant apresDate,
+            @Param("apresId") Integer apresId,
+            Pageable pageable);
+
+    @Query(
+            "SELECT h FROM HistoriqueModificationActivite h "
+                    + "JOIN FETCH h.modificateur "
+                    + "WHERE h.activiteId = :activiteId "
+                    + "AND (:apresDate IS NULL OR h.dateModification < :apresDate "
+                    + "OR (h.dateModification = :apresDate AND h.id < :apresId)) "
+                    + "ORDER BY h.dateModification DESC, h.id DESC")
+    List<HistoriqueModificationActivite> findPageActiviteByActiviteId(
+            @Param("activiteId") int activiteId,
+            @Param("apresDate") Instant apresDate,
+            @Param("apresId") Integer apresId,
+            Pageable pageable);
+
+    @Query(
+            "SELECT h FROM HistoriqueModificationCahierInfirmerie h "
+                    + "JOIN FETCH h.modificateur "
+                    + "WHERE h.cahierInfirmerieEntreeId = :entreeId "
+                    + "AND (:apresDate IS NULL OR h.dateModification < :apresDate "
+                    + "OR (h.dateModification = :apresDate AND h.id < :apresId)) "
+                    + "ORDER BY h.dateModification DESC, h.id DESC")
+    List<HistoriqueModificationCahierInfirmerie> findPageCahierInfirmerieByEntreeId(
+            @Param("entreeId") int entreeId,
+            @Param("apresDate") Instant apresDate,
+            @Param("apresId") Integer apresId,
+            Pageable pageable);
+
+    @Query(
+            "SELECT h FROM HistoriqueModificationChambre h "
+                    + "JOIN FETCH h.modificateur "
+                    + "WHERE h.chambreId = :chambreId "
+                    + "AND (:apresDate IS NULL OR h.dateModification < :apresDate "
+                    + "OR (h.dateModification = :apresDate AND h.id < :apresId)) "
+                    + "ORDER BY h.dateModification DESC, h.id DESC")
+    List<HistoriqueModificationChambre> findPageChambreByChambreId(
+            @Param("chambreId") int chambreId,
+            @Param("apresDate") Instant apresDate,
+            @Param("apresId") Integer apresId,
+            Pageable pageable);
+
+    @Query(
+            "SELECT h FROM HistoriqueModificationActivitePrestataire h "
+                    + "JOIN FETCH h.modificateur "
+                    + "WHERE h.activitePrestataireId = :activitePrestataireId "
+                    + "AND (:apresDate IS NULL OR h.dateModification < :apresDate "
+                    + "OR (h.dateModification = :apresDate AND h.id < :apresId)) "
+                    + "ORDER BY h.dateModification DESC, h.id DESC")
+    List<HistoriqueModificationActivitePrestataire> findPageActivitePrestataireByActivitePrestataireId(
+            @Param("activitePrestataireId") int activitePrestataireId,
+            @Param("apresDate") Instant apresDate,
+            @Param("apresId") Integer apresId,
+            Pageable pageable);
+
+    /* Archivage (voir ArchivageHistoriqueModifications). */
+
+    /** Séjours terminés avant {@code limite} qui ont encore de l'historique dans la table. */
+    @Query(
+            "SELECT DISTINCT h.sejourId FROM HistoriqueModification h "
+                    + "WHERE h.sejourId IN (SELECT s.id FROM Sejour s WHERE s.dateFin < :limite)")
+    List<Integer> findSejourIdsTerminesAvant(@Param("limite") Date limite);
+
+    /** Lignes les plus anciennes du séjour d'abord, pour former le prochain segment. */
+    @Query(
+            "SELECT h FROM HistoriqueModification h "
+                    + "JOIN FETCH h.modificateur "
+                    + "WHERE h.sejourId = :sejourId "
+                    + "ORDER BY h.id")
+    List<HistoriqueModification> findArchivablesBySejourId(@Param("sejourId") int sejourId, Pageable pageable);
 }
@@ -2,12 +2,16 @@ package com.tarnof.enjoyrestapi.repositories;
 
 import com.tarnof.enjoyrestapi.entities.MenuRepas;
 import com.tarnof.enjoyrestapi.enums.TypeRepas;
+import com.tarnof.enjoyrestapi.repositories.projections.MenuRepasCreneauProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.MenuRepasReferenceProjection;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,11 +23,100 @@ public interface MenuRepasRepository extends JpaRepository<MenuRepas, Integer> {
     @EntityGraph(attributePaths = {"allergenes", "regimesEtPreferences"})
     List<MenuRepas> findBySejour_IdAndDateRepasOrderByTypeRepasAsc(int sejourId, LocalDate dateRepas);
 
-    @EntityGraph(attributePaths = {"allergenes", "regimesEtPreferences"})
+    /**
+     * Menus seuls (sans les références) : celles-ci sont lues à part, une requête par table de jointure,
+     * pour éviter le produit cartésien allergènes × régimes sur une longue période.
+     */
     List<MenuRepas> findBySejour_IdAndDateRepasBetweenOrderByDateRepasAscTypeRepasAsc(
             int sejourId, LocalDate dateDebutInclusive, LocalDate dateFinInclusive);
 
     @EntityGraph(attributePaths = {"allergenes", "regimesEtPreferences"})
     @Query("SELECT m FROM MenuRepas m WHERE m.id = :id")
     Optional<MenuRepas> findByIdFetchingReferences(@Param("id") Integer id);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.MenuRepasCreneauProjection("
+            + "m.id, m.dateRepas, m.typeRepas) "
+            + "FROM MenuRepas m WHERE m.sejour.id = :sejourId AND m.dateRepas BETWEEN :dateDebut AND :dateFin "
+            + "ORDER BY m.dateRepas ASC, m.typeRepas ASC")
+    List<MenuRepasCreneauProjection> findCreneauxBySejourIdAndPeriode(
+            @Param("sejourId") int sejourId,
+            @Param("dateDebut") LocalDate dateDebutInclusive,
+            @Param("dateFin") LocalDate dateFinInclusive);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.MenuRepasReferenceProjection("
+            + "m.id, r.id, r.type, r.libelle, r.ordre, r.actif) "
+            + "FROM MenuRepas m JOIN m.allergenes r "
+            + "WHERE m.sejour.id = :sejourId AND m.dateRepas BETWEEN :dateDebut AND :dateFin "
+            + "ORDER BY r.ordre ASC NULLS LAST, r.id ASC")
+    List<MenuRepasReferenceProjection> findAllergenesBySejourIdAndPeriode(
+            @Param("sejourId") int sejourId,
+            @Param("dateDebut") LocalDate dateDebutInclusive,
+            @Param("dateFin") LocalDate dateFinInclusive);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.MenuRepasReferenceProjection("
+            + "m.id, r.id, r.type, r.libelle, r.ordre, r.actif) "
+            + "FROM MenuRepas m JOIN m.regimesEtPreferences r "
+            + "WHERE m.sejour.id = :sejourId AND m.dateRepas BETWEEN :dateDebut AND :dateFin "
+            + "ORDER BY r.ordre ASC NULLS LAST, r.id ASC")
+    List<MenuRepasReferenceProjection> findRegimesBySejourIdAndPeriode(
+            @Param("sejourId") int sejourId,
+            @Param("dateDebut") LocalDate dateDebutInclusive,
+            @Param("dateFin") LocalDate dateFinInclusive);
+
+    /**
+     * Copie en une requête les menus d'un jour modèle vers un jour cible (types de repas donnés),
+     * textes compris, sans les charger en mémoire. Les références sont copiées ensuite par
+     * {@link #copierAllergenes} et {@link #copierRegimes}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO menu_repas (sejour_id, date_repas, type_repas, detail_petit_dejeuner_ou_gouter, "
+            + "entree, plat, fromage_ou_entremet, dessert) "
+            + "SELECT m.sejour_id, :dateCible, m.type_repas, m.detail_petit_dejeuner_ou_gouter, "
+            + "m.entree, m.plat, m.fromage_ou_entremet, m.dessert "
+            + "FROM menu_repas m WHERE m.sejour_id = :sejourId AND m.date_repas = :dateModele "
+            + "AND m.type_repas IN (:typesRepas)", nativeQuery = true)
+    int copierMenus(
+            @Param("sejourId") int sejourId,
+            @Param("dateModele") LocalDate dateModele,
+            @Param("dateCible") LocalDate dateCible,
+            @Param("typesRepas") Collection<String> typesRepas);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO menu_repas_allergene (menu_repas_id, reference_alimentaire_id) "
+            + "SELECT c.id, a.reference_alimentaire_id FROM menu_repas c "
+            + "JOIN menu_repas m ON m.sejour_id = c.sejour_id AND m.type_repas = c.type_repas "
+            + "JOIN menu_repas_allergene a ON a.menu_repas_id = m.id "
+            + "WHERE c.sejour_id = :sejourId AND c.date_repas = :dateCible AND m.date_repas = :dateModele "
+            + "AND c.type_repas IN (:typesRepas)", nativeQuery = true)
+    int copierAllergenes(
+            @Param("sejourId") int sejourId,
+            @Param("dateModele") LocalDate dateModele,
+            @Param("dateCible") LocalDate dateCible,
+            @Param("typesRepas") Collection<String> typesRepas);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO menu_repas_regime_preference (menu_repas_id, reference_alimentaire_id) "
+            + "SELECT c.id, r.reference_alimentaire_id FROM menu_repas c "
+            + "JOIN menu_repas m ON m.sejour_id = c.sejour_id AND m.type_repas = c.type_repas "
+            + "JOIN menu_repas_regime_preference r ON r.menu_repas_id = m.id "
+            + "WHERE c.sejour_id = :sejourId AND c.date_repas = :dateCible AND m.date_repas = :dateModele "
+            + "AND c.type_repas IN (:typesRepas)", nativeQuery = true)
+    int copierRegimes(
+            @Param("sejourId") int sejourId,
+            @Param("dateModele") LocalDate dateModele,
+            @Param("dateCible") LocalDate dateCible,
+            @Param("typesRepas") Collection<String> typesRepas);
+
+    /** Suppression en masse (tables de jointure d'abord, puis les menus). */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM menu_repas_allergene WHERE menu_repas_id IN (:menuIds)", nativeQuery = true)
+    int supprimerAllergenesDesMenus(@Param("menuIds") Collection<Integer> menuIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM menu_repas_regime_preference WHERE menu_repas_id IN (:menuIds)", nativeQuery = true)
+    int supprimerRegimesDesMenus(@Param("menuIds") Collection<Integer> menuIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM menu_repas WHERE id IN (:menuIds)", nativeQuery = true)
+    int supprimerMenus(@Param("menuIds") Collection<Integer> menuIds);
 }
@@ -1,9 +1,13 @@
 package com.tarnof.enjoyrestapi.repositories;
 
 import com.tarnof.enjoyrestapi.entities.Reunion;
+import com.tarnof.enjoyrestapi.repositories.projections.ReunionResumeProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,5 +16,13 @@ public interface ReunionRepository extends JpaRepository<Reunion, Integer> {
 
     List<Reunion> findBySejour_IdOrderByDateReunionAscIdAsc(int sejourId);
 
+    /** Liste du séjour sans la colonne {@code contenu_json}. */
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.ReunionResumeProjection("
+            + "r.id, r.dateReunion, r.ordreDuJour, r.extrait) "
+            + "FROM Reunion r WHERE r.sejour.id = :sejourId ORDER BY r.dateReunion ASC, r.id ASC")
+    List<ReunionResumeProjection> findResumesBySejourId(@Param("sejourId") int sejourId);
+
     Optional<Reunion> findByIdAndSejour_Id(int id, int sejourId);
+
+    List<Reunion> findBySejour_IdAndIdIn(int sejourId, Collection<Integer> ids);
 }
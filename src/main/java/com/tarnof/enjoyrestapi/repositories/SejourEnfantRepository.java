@@ -2,6 +2,8 @@ package com.tarnof.enjoyrestapi.repositories;
 
 import com.tarnof.enjoyrestapi.entities.SejourEnfant;
 import com.tarnof.enjoyrestapi.entities.SejourEnfantId;
+import com.tarnof.enjoyrestapi.repositories.projections.EnfantIdentiteProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.EnfantTrancheProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,6 +16,21 @@ public interface SejourEnfantRepository extends JpaRepository<SejourEnfant, Sejo
 
     @Query("SELECT se FROM SejourEnfant se JOIN FETCH se.enfant e WHERE se.sejour.id = :sejourId ORDER BY e.nom, e.prenom")
     List<SejourEnfant> findBySejourIdWithEnfant(@Param("sejourId") int sejourId);
+
+    /** Même ordre que {@link #findBySejourIdWithEnfant}, sans entité chargée (listings en flux). */
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.EnfantIdentiteProjection(e.id, e.prenom, e.nom) "
+            + "FROM SejourEnfant se JOIN se.enfant e WHERE se.sejour.id = :sejourId ORDER BY e.nom, e.prenom")
+    List<EnfantIdentiteProjection> findIdentitesBySejourId(@Param("sejourId") int sejourId);
+
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.EnfantTrancheProjection("
+            + "e.id, e.dateNaissance, e.niveauScolaire) "
+            + "FROM SejourEnfant se JOIN se.enfant e WHERE se.sejour.id = :sejourId")
+    List<EnfantTrancheProjection> findTranchesBySejourId(@Param("sejourId") int sejourId);
+
+    /** Ids des séjours auxquels un enfant est inscrit. */
+    @Query("SELECT se.sejour.id FROM SejourEnfant se WHERE se.enfant.id = :enfantId")
+    List<Integer> findSejourIdsByEnfantId(@Param("enfantId") int enfantId);
+
     /**
      * Compte le nombre de séjours auxquels un enfant est inscrit
      * @param enfantId L'ID de l'enfant
@@ -1,13 +1,18 @@
 package com.tarnof.enjoyrestapi.repositories;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.tarnof.enjoyrestapi.entities.Sejour;
 import com.tarnof.enjoyrestapi.entities.Utilisateur;
+import com.tarnof.enjoyrestapi.repositories.projections.SejourCatalogueProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.SejourCompteursProjection;
 
 public interface SejourRepository extends JpaRepository<Sejour, Integer> {
     List<Sejour> findByDirecteur(Utilisateur directeur);
@@ -15,4 +20,53 @@ public interface SejourRepository extends JpaRepository<Sejour, Integer> {
     @Query("SELECT DISTINCT s FROM Sejour s LEFT JOIN s.equipeRoles se " +
            "WHERE s.directeur = :utilisateur OR se.utilisateur = :utilisateur")
     List<Sejour> findSejoursByUtilisateur(@Param("utilisateur") Utilisateur utilisateur);
+
+    /** Tous les séjours, directeur chargé dans la même requête. */
+    @Query("SELECT s FROM Sejour s LEFT JOIN FETCH s.directeur")
+    List<Sejour> findAllAvecDirecteur();
+
+    /**
+     * Page du catalogue (plus récents d'abord) après la position {@code (apresDateDebut, apresId)} : directeur joint
+     * et effectifs comptés dans la même requête. Filtres optionnels ({@code null} = pas de filtre) ; {@code membreId}
+     * restreint aux séjours dirigés par l'utilisateur ou dont il fait partie de l'équipe. {@code motif} est un motif
+     * LIKE en minuscules ({@code !} comme caractère d'échappement). La taille de page est portée par
+     * {@code pageable} (sans requête de comptage).
+     */
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.SejourCatalogueProjection("
+            + "s.id, s.nom, s.description, s.dateDebut, s.dateFin, s.lieuDuSejour, d.tokenId, d.nom, d.prenom, "
+            + "(SELECT COUNT(se) FROM SejourEnfant se WHERE se.sejour = s), "
+            + "(SELECT COUNT(eq) FROM SejourEquipe eq WHERE eq.sejour = s)) "
+            + "FROM Sejour s LEFT JOIN s.directeur d "
+            + "WHERE (:debutPeriode IS NULL OR s.dateFin >= :debutPeriode) "
+            + "AND (:finPeriode IS NULL OR s.dateDebut < :finPeriode) "
+            + "AND (:directeurTokenId IS NULL OR d.tokenId = :directeurTokenId) "
+            + "AND (:motif IS NULL OR LOWER(s.nom) LIKE :motif ESCAPE '!' "
+            + "OR LOWER(s.lieuDuSejour) LIKE :motif ESCAPE '!') "
+            + "AND (:membreId IS NULL OR d.id = :membreId OR EXISTS ("
+            + "SELECT m FROM SejourEquipe m WHERE m.sejour = s AND m.utilisateur.id = :membreId)) "
+            + "AND (:apresDateDebut IS NULL OR s.dateDebut < :apresDateDebut "
+            + "OR (s.dateDebut = :apresDateDebut AND s.id < :apresId)) "
+            + "ORDER BY s.dateDebut DESC, s.id DESC")
+    List<SejourCatalogueProjection> findPageCatalogue(
+            @Param("debutPeriode") Date debutPeriode,
+            @Param("finPeriode") Date finPeriode,
+            @Param("directeurTokenId") String directeurTokenId,
+            @Param("motif") String motif,
+            @Param("membreId") Integer membreId,
+            @Param("apresDateDebut") Date apresDateDebut,
+            @Param("apresId") Integer apresId,
+            Pageable pageable);
+
+    /** Effectifs et nombre d'éléments du séjour en une requête ; vide si le séjour n'existe pas. */
+    @Query("SELECT new com.tarnof.enjoyrestapi.repositories.projections.SejourCompteursProjection("
+            + "(SELECT COUNT(se) FROM SejourEnfant se WHERE se.sejour = s), "
+            + "(SELECT COUNT(eq) FROM SejourEquipe eq WHERE eq.sejour = s), "
+            + "(SELECT COUNT(g) FROM Groupe g WHERE g.sejour = s), "
+            + "(SELECT COUNT(c) FROM Chambre c WHERE c.sejour = s), "
+            + "(SELECT COUNT(a) FROM Activite a WHERE a.sejour = s), "
+            + "(SELECT COUNT(ap) FROM ActivitePrestataire ap WHERE ap.sejour = s), "
+            + "(SELECT COUNT(m) FROM MenuRepas m WHERE m.sejour = s), "
+            + "(SELECT COUNT(r) FROM Reunion r WHERE r.sejour = s)) "
+            + "FROM Sejour s WHERE s.id = :sejourId")
+    Optional<SejourCompteursProjection> findCompteurs(@Param("sejourId") int sejourId);
 }
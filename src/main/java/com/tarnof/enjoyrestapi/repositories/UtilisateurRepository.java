@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +14,7 @@ import java.util.Optional;
 public interface UtilisateurRepository extends JpaRepository<Utilisateur, Integer> {
     Optional<Utilisateur> findByEmail(String email);
     Optional<Utilisateur> findByTokenId(String tokenId);
+    List<Utilisateur> findByTokenIdIn(Collection<String> tokenIds);
 
     @EntityGraph(attributePaths = {"sejoursEquipe"})
     Optional<Utilisateur> findWithSejoursEquipeByEmail(String email);
@@ -0,0 +1,3 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+public record ActivitesMomentCompteProjection(int momentId, String momentNom, long nbActivites) {}
@@ -0,0 +1,8 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+import com.tarnof.enjoyrestapi.enums.TypeAppelInfirmerie;
+
+import java.time.Instant;
+
+/** Nombre d'entrées du cahier d'infirmerie d'une heure comportant un type d'appel. */
+public record AppelInfirmerieCompteProjection(Instant heure, TypeAppelInfirmerie type, long nombre) {}
@@ -0,0 +1,6 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+import com.tarnof.enjoyrestapi.enums.TypeAppelInfirmerie;
+
+/** Une ligne de la table cahier_infirmerie_appel. */
+public record CahierInfirmerieAppelProjection(int entreeId, TypeAppelInfirmerie type) {}
@@ -0,0 +1,6 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+import com.tarnof.enjoyrestapi.enums.TypeSoinInfirmerie;
+
+/** Une ligne de la table cahier_infirmerie_soin. */
+public record CahierInfirmerieSoinProjection(int entreeId, TypeSoinInfirmerie type) {}
@@ -0,0 +1,13 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+import java.time.Instant;
+
+/** Texte recherchable d'une entrée du cahier d'infirmerie, avec l'enfant concerné. */
+public record CahierInfirmerieTexteProjection(
+        int entreeId,
+        int enfantId,
+        String prenom,
+        String nom,
+        Instant dateHeure,
+        String description,
+        String localisationCorps) {}
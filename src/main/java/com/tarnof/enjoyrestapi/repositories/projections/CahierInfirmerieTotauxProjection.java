@@ -0,0 +1,6 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+import java.time.Instant;
+
+/** Totaux d'une heure du cahier d'infirmerie : entrées et relevés de température au-dessus du seuil. */
+public record CahierInfirmerieTotauxProjection(Instant heure, long entrees, long fievres) {}
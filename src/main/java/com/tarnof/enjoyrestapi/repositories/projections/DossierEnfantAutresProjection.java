@@ -0,0 +1,3 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+public record DossierEnfantAutresProjection(int enfantId, String autresInformations, String aPrendreEnSortie) {}
@@ -0,0 +1,10 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+/** Colonnes courtes d'un dossier enfant (sans TEXT), base du listing sanitaire partiel. */
+public record DossierEnfantContactsProjection(
+        int dossierId,
+        int enfantId,
+        String emailParent1,
+        String telephoneParent1,
+        String emailParent2,
+        String telephoneParent2) {}
@@ -0,0 +1,3 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+public record DossierEnfantMedicalProjection(int enfantId, String informationsMedicales, String pai) {}
@@ -0,0 +1,12 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+import com.tarnof.enjoyrestapi.enums.TypeReferenceAlimentaire;
+
+/** Une ligne de table de jointure dossier ↔ référence alimentaire, avec le libellé de la référence. */
+public record DossierEnfantReferenceProjection(
+        int enfantId,
+        int referenceId,
+        TypeReferenceAlimentaire type,
+        String libelle,
+        Integer ordre,
+        boolean actif) {}
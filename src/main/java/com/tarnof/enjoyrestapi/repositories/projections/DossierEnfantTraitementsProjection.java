@@ -0,0 +1,8 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+public record DossierEnfantTraitementsProjection(
+        int enfantId,
+        String traitementMatin,
+        String traitementMidi,
+        String traitementSoir,
+        String traitementSiBesoin) {}
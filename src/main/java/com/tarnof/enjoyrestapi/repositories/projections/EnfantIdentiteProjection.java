@@ -0,0 +1,3 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+public record EnfantIdentiteProjection(int enfantId, String prenom, String nom) {}
@@ -0,0 +1,4 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+/** Nombre de passages d'un enfant au cahier d'infirmerie. */
+public record EnfantPassagesInfirmerieProjection(int enfantId, String prenom, String nom, long passages) {}
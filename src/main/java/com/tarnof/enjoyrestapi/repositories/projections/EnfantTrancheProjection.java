@@ -0,0 +1,8 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+import com.tarnof.enjoyrestapi.enums.NiveauScolaire;
+
+import java.util.Date;
+
+/** Critères de rattachement automatique (groupes par âge / niveau scolaire) d'un enfant inscrit. */
+public record EnfantTrancheProjection(int enfantId, Date dateNaissance, NiveauScolaire niveauScolaire) {}
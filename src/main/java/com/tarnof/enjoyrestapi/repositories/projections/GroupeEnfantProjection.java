@@ -0,0 +1,4 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+/** Une ligne de la table groupe_enfant avec le nom du groupe. */
+public record GroupeEnfantProjection(int enfantId, int groupeId, String nomGroupe) {}
@@ -0,0 +1,8 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+import com.tarnof.enjoyrestapi.enums.TypeRepas;
+
+import java.time.LocalDate;
+
+/** Identité d'un menu (date et type de repas), sans les textes ni les références. */
+public record MenuRepasCreneauProjection(int menuId, LocalDate dateRepas, TypeRepas typeRepas) {}
@@ -0,0 +1,3 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+public record OccupationChambresProjection(long capaciteTotale, long nbOccupants) {}
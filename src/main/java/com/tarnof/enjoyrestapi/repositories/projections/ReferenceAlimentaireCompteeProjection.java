@@ -0,0 +1,12 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+import com.tarnof.enjoyrestapi.enums.TypeReferenceAlimentaire;
+
+/** Une référence alimentaire avec le nombre d'enfants (dossiers) qui la portent. */
+public record ReferenceAlimentaireCompteeProjection(
+        int referenceId,
+        TypeReferenceAlimentaire type,
+        String libelle,
+        Integer ordre,
+        boolean actif,
+        long nombreEnfants) {}
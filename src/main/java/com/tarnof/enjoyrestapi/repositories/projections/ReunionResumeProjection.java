@@ -0,0 +1,5 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+import java.time.LocalDate;
+
+public record ReunionResumeProjection(int id, LocalDate dateReunion, String ordreDuJour, String extrait) {}
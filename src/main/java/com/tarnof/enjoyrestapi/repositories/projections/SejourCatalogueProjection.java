@@ -0,0 +1,17 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+import java.util.Date;
+
+public record SejourCatalogueProjection(
+        int id,
+        String nom,
+        String description,
+        Date dateDebut,
+        Date dateFin,
+        String lieuDuSejour,
+        String directeurTokenId,
+        String directeurNom,
+        String directeurPrenom,
+        long nbEnfants,
+        long nbEquipe
+) {}
@@ -0,0 +1,12 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+public record SejourCompteursProjection(
+        long nbEnfants,
+        long nbMembresEquipe,
+        long nbGroupes,
+        long nbChambres,
+        long nbActivites,
+        long nbSortiesPrestataires,
+        long nbMenus,
+        long nbReunions
+) {}
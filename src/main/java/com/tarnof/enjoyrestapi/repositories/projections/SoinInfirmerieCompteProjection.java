@@ -0,0 +1,8 @@
+package com.tarnof.enjoyrestapi.repositories.projections;
+
+import com.tarnof.enjoyrestapi.enums.TypeSoinInfirmerie;
+
+import java.time.Instant;
+
+/** Nombre d'entrées du cahier d'infirmerie d'une heure comportant un type de soin. */
+public record SoinInfirmerieCompteProjection(Instant heure, TypeSoinInfirmerie type, long nombre) {}
@@ -3,13 +3,18 @@ package com.tarnof.enjoyrestapi.services;
 import com.tarnof.enjoyrestapi.payload.request.CreateActiviteRequest;
 import com.tarnof.enjoyrestapi.payload.request.UpdateActiviteRequest;
 import com.tarnof.enjoyrestapi.payload.response.ActiviteDto;
+import com.tarnof.enjoyrestapi.utils.JsonFlux;
 
+import java.io.IOException;
 import java.util.List;
 
 public interface ActiviteService {
 
     List<ActiviteDto> listerActivitesDuSejour(int sejourId, String utilisateurTokenId);
 
+    void parcourirActivitesDuSejour(int sejourId, String utilisateurTokenId, JsonFlux.Ecrivain<ActiviteDto> ecrivain)
+            throws IOException;
+
     ActiviteDto getActivite(int sejourId, int activiteId, String utilisateurTokenId);
 
     ActiviteDto creerActivite(int sejourId, CreateActiviteRequest request, String utilisateurTokenId);
@@ -0,0 +1,337 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.tarnof.enjoyrestapi.entities.HistoriqueArchiveSegment;
+import com.tarnof.enjoyrestapi.entities.HistoriqueModification;
+import com.tarnof.enjoyrestapi.entities.HistoriqueModificationActivite;
+import com.tarnof.enjoyrestapi.entities.HistoriqueModificationActivitePrestataire;
+import com.tarnof.enjoyrestapi.entities.HistoriqueModificationCahierInfirmerie;
+import com.tarnof.enjoyrestapi.entities.HistoriqueModificationChambre;
+import com.tarnof.enjoyrestapi.entities.HistoriqueModificationPlanningCellule;
+import com.tarnof.enjoyrestapi.entities.Utilisateur;
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationType;
+import com.tarnof.enjoyrestapi.repositories.HistoriqueArchiveSegmentRepository;
+import com.tarnof.enjoyrestapi.repositories.HistoriqueModificationRepository;
+import com.tarnof.enjoyrestapi.services.storage.ObjectStorageService;
+import com.tarnof.enjoyrestapi.utils.CodecHistorique;
+import com.tarnof.enjoyrestapi.utils.SegmentHistorique;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Rétention de l'historique : les lignes des séjours terminés depuis plus de
+ * {@code application.historique.archivage.retention-mois} mois quittent {@code historique_modification} pour des
+ * segments compressés ({@link SegmentHistorique}) dans le stockage objet (disque local ou R2).
+ * <p>Tâche planifiée ({@code application.historique.archivage.cron}, chaque nuit par défaut), reprise d'elle-même :
+ * chaque segment est envoyé puis enregistré avec la suppression de ses lignes dans une seule transaction. Un arrêt
+ * entre les deux laisse au plus des fichiers orphelins, réécrits au passage suivant sous le même numéro.</p>
+ * <p>Les services d'historique relisent les segments d'un séjour de façon transparente : index d'un segment lu une
+ * fois puis gardé en mémoire (quelques octets par élément), seuls les blocs retenus par l'index sont téléchargés
+ * (lecture de plage) et décompressés.</p>
+ */
+@Component
+public class ArchivageHistoriqueModifications {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivageHistoriqueModifications.class);
+
+    /** Lignes par segment. */
+    static final int TAILLE_SEGMENT = 2_000;
+    private static final int INDEX_EN_CACHE = 512;
+    private static final String TYPE_CONTENU = "application/octet-stream";
+
+    private final HistoriqueModificationRepository historiqueModificationRepository;
+    private final HistoriqueArchiveSegmentRepository segmentRepository;
+    private final ObjectStorageService objectStorageService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean actif;
+    private final int retentionMois;
+
+    /** Index des segments déjà lus, par clé de stockage (les segments ne changent jamais). */
+    private final Map<String, List<SegmentHistorique.Entree>> index = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<SegmentHistorique.Entree>> plusAncienne) {
+                    return size() > INDEX_EN_CACHE;
+                }
+            });
+
+    public ArchivageHistoriqueModifications(
+            HistoriqueModificationRepository historiqueModificationRepository,
+            HistoriqueArchiveSegmentRepository segmentRepository,
+            ObjectStorageService objectStorageService,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.historique.archivage.actif:true}") boolean actif,
+            @Value("${application.historique.archivage.retention-mois:12}") int retentionMois) {
+        this.historiqueModificationRepository = historiqueModificationRepository;
+        this.segmentRepository = segmentRepository;
+        this.objectStorageService = objectStorageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.actif = actif;
+        this.retentionMois = retentionMois;
+    }
+
+    @Scheduled(cron = "${application.historique.archivage.cron:0 30 3 * * *}")
+    public void archiverPlanifie() {
+        if (actif) {
+            archiver();
+        }
+    }
+
+    /** Nombre de segments écrits. Un séjour en échec est passé (retenté au passage suivant). */
+    public int archiver() {
+        ZoneId zone = ZoneId.systemDefault();
+        Date limite = Date.from(LocalDate.now(zone).minusMonths(retentionMois).atStartOfDay(zone).toInstant());
+        int segments = 0;
+        for (Integer sejourId : historiqueModificationRepository.findSejourIdsTerminesAvant(limite)) {
+            try {
+                segments += archiverSejour(sejourId);
+            } catch (RuntimeException e) {
+                log.warn("History archival of sejour {} stopped, will resume on next run: {}", sejourId, e.getMessage());
+            }
+        }
+        if (segments > 0) {
+            log.info("History archival: {} segment(s) written", segments);
+        }
+        return segments;
+    }
+
+    int archiverSejour(int sejourId) {
+        int segments = 0;
+        while (true) {
+            List<HistoriqueModification> lot = historiqueModificationRepository.findArchivablesBySejourId(
+                    sejourId, PageRequest.of(0, TAILLE_SEGMENT));
+            if (lot.isEmpty()) {
+                return segments;
+            }
+            int numero = segmentRepository.findFirstBySejourIdOrderByNumeroDesc(sejourId)
+                    .map(s -> s.getNumero() + 1)
+                    .orElse(1);
+            SegmentHistorique.Segment segment =
+                    SegmentHistorique.ecrire(lot.stream().map(ArchivageHistoriqueModifications::versLigne).toList());
+            envoyer(cleDonnees(sejourId, numero), segment.donnees());
+            envoyer(cleIndex(sejourId, numero), segment.index());
+            List<Integer> ids = lot.stream().map(HistoriqueModification::getId).toList();
+            transactionTemplate.executeWithoutResult(statut -> {
+                segmentRepository.save(new HistoriqueArchiveSegment(
+                        sejourId, numero, lot.size(), segment.donnees().length, Instant.now()));
+                historiqueModificationRepository.deleteAllByIdInBatch(ids);
+            });
+            segments++;
+        }
+    }
+
+    /**
+     * Filtre du fil du séjour appliqué aux archives ({@code null} : pas de filtre) : bornes de dates incluses, lignes
+     * strictement antérieures à la position ({@code apresDate}, {@code apresId}) du curseur.
+     */
+    public record FiltreFil(
+            HistoriqueModificationType type,
+            String modificateurTokenId,
+            Instant du,
+            Instant au,
+            Instant apresDate,
+            Integer apresId) {}
+
+    /** Historique archivé d'un élément (planning : {@code cibleId} = ligne), segment par segment (non trié). */
+    public List<HistoriqueModification> lireElement(int sejourId, HistoriqueModificationType type, int cibleId) {
+        List<HistoriqueModification> lues = new ArrayList<>();
+        for (HistoriqueArchiveSegment segment : segmentRepository.findBySejourIdOrderByNumeroAsc(sejourId)) {
+            for (SegmentHistorique.Entree entree : index(segment)) {
+                if (entree.type() == type && entree.cibleId() == cibleId) {
+                    lireBloc(segment, entree).forEach(ligne -> lues.add(versHistorique(sejourId, ligne)));
+                }
+            }
+        }
+        return lues;
+    }
+
+    /**
+     * Lignes archivées du fil du séjour retenues par {@code filtre}, dont au moins les {@code limite} plus récentes
+     * (non trié). Les blocs hors filtre sont écartés par l'index ; les autres sont lus du plus récent au plus ancien
+     * et la lecture s'arrête quand les blocs restants ne peuvent plus entrer dans la page.
+     */
+    public List<HistoriqueModification> lireSejour(int sejourId, FiltreFil filtre, int limite) {
+        record Bloc(HistoriqueArchiveSegment segment, SegmentHistorique.Entree entree) {}
+        List<Bloc> blocs = new ArrayList<>();
+        for (HistoriqueArchiveSegment segment : segmentRepository.findBySejourIdOrderByNumeroAsc(sejourId)) {
+            for (SegmentHistorique.Entree entree : index(segment)) {
+                if (candidat(entree, filtre)) {
+                    blocs.add(new Bloc(segment, entree));
+                }
+            }
+        }
+        blocs.sort(Comparator.comparing((Bloc b) -> b.entree().plusRecente()).reversed());
+        List<HistoriqueModification> lues = new ArrayList<>();
+        PriorityQueue<Instant> plusRecentes = new PriorityQueue<>();
+        for (Bloc bloc : blocs) {
+            Instant plusRecente = bloc.entree().plusRecente();
+            if (plusRecentes.size() >= limite && plusRecente.isBefore(plusRecentes.peek())) {
+                break;
+            }
+            for (SegmentHistorique.Ligne ligne : lireBloc(bloc.segment(), bloc.entree())) {
+                if (retenue(ligne, filtre)) {
+                    lues.add(versHistorique(sejourId, ligne));
+                    plusRecentes.add(ligne.dateModification());
+                    if (plusRecentes.size() > limite) {
+                        plusRecentes.poll();
+                    }
+                }
+            }
+        }
+        return lues;
+    }
+
+    /** Bloc pouvant contenir une ligne du filtre, d'après l'index seul. */
+    private static boolean candidat(SegmentHistorique.Entree entree, FiltreFil filtre) {
+        if (filtre.type() != null && entree.type() != filtre.type()) {
+            return false;
+        }
+        return (filtre.du() == null || !entree.plusRecente().isBefore(filtre.du()))
+                && (filtre.au() == null || !entree.plusAncienne().isAfter(filtre.au()))
+                && (filtre.apresDate() == null || !entree.plusAncienne().isAfter(filtre.apresDate()));
+    }
+
+    private static boolean retenue(SegmentHistorique.Ligne ligne, FiltreFil filtre) {
+        Instant date = ligne.dateModification();
+        return (filtre.modificateurTokenId() == null || filtre.modificateurTokenId().equals(ligne.modificateurTokenId()))
+                && (filtre.du() == null || !date.isBefore(filtre.du()))
+                && (filtre.au() == null || !date.isAfter(filtre.au()))
+                && (filtre.apresDate() == null
+                        || date.isBefore(filtre.apresDate())
+                        || (date.equals(filtre.apresDate()) && ligne.id() < filtre.apresId()));
+    }
+
+    private List<SegmentHistorique.Entree> index(HistoriqueArchiveSegment segment) {
+        String cle = cleIndex(segment.getSejourId(), segment.getNumero());
+        List<SegmentHistorique.Entree> entrees = index.get(cle);
+        if (entrees == null) {
+            entrees = SegmentHistorique.lireIndex(octets(cle, objectStorageService.download(cle)));
+            index.put(cle, entrees);
+        }
+        return entrees;
+    }
+
+    /** Seuls les octets du bloc sont transférés (lecture de plage). */
+    private List<SegmentHistorique.Ligne> lireBloc(HistoriqueArchiveSegment segment, SegmentHistorique.Entree entree) {
+        String cle = cleDonnees(segment.getSejourId(), segment.getNumero());
+        byte[] bloc = octets(cle, objectStorageService.downloadRange(cle, entree.position(), entree.longueur()));
+        return SegmentHistorique.lireBloc(entree, bloc);
+    }
+
+    private static byte[] octets(String cle, Optional<ObjectStorageService.StoredObject> objet) {
+        try (InputStream contenu = objet
+                .orElseThrow(() -> new IllegalStateException("Segment d'historique introuvable: " + cle))
+                .content()) {
+            return contenu.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture du segment d'historique impossible: " + cle, e);
+        }
+    }
+
+    private void envoyer(String cle, byte[] contenu) {
+        objectStorageService.upload(cle, new ByteArrayInputStream(contenu), contenu.length, TYPE_CONTENU);
+    }
+
+    static String cleDonnees(int sejourId, int numero) {
+        return "historique/sejours/" + sejourId + "/segment-" + numero + ".dat";
+    }
+
+    static String cleIndex(int sejourId, int numero) {
+        return "historique/sejours/" + sejourId + "/segment-" + numero + ".idx";
+    }
+
+    /** Lignes pas encore compactées ({@link MigrationHistoriqueModifications}) : compactées à l'archivage. */
+    private static SegmentHistorique.Ligne versLigne(HistoriqueModification h) {
+        Utilisateur m = h.getModificateur();
+        byte[] valeurs = h.getValeursCompactes() != null
+                ? h.getValeursCompactes()
+                : CodecHistorique.encoder(h.getAncienneValeur(), h.getNouvelleValeur());
+        return switch (h) {
+            case HistoriqueModificationPlanningCellule p -> new SegmentHistorique.Ligne(
+                    h.getId(), HistoriqueModificationType.PLANNING_CELLULE, p.getPlanningLigneId(), h.getAction(),
+                    h.getDateModification(), m.getTokenId(), m.getNom(), m.getPrenom(), p.getPlanningJour(),
+                    p.getPlanningCelluleId(), valeurs);
+            case HistoriqueModificationActivite a -> ligne(h, HistoriqueModificationType.ACTIVITE, a.getActiviteId(), valeurs);
+            case HistoriqueModificationCahierInfirmerie c ->
+                    ligne(h, HistoriqueModificationType.CAHIER_INFIRMERIE, c.getCahierInfirmerieEntreeId(), valeurs);
+            case HistoriqueModificationChambre c -> ligne(h, HistoriqueModificationType.CHAMBRE, c.getChambreId(), valeurs);
+            case HistoriqueModificationActivitePrestataire a ->
+                    ligne(h, HistoriqueModificationType.ACTIVITE_PRESTATAIRE, a.getActivitePrestataireId(), valeurs);
+            default -> throw new IllegalStateException("Type d'historique inattendu: " + h.getClass().getName());
+        };
+    }
+
+    private static SegmentHistorique.Ligne ligne(
+            HistoriqueModification h, HistoriqueModificationType type, int cibleId, byte[] valeurs) {
+        Utilisateur m = h.getModificateur();
+        return new SegmentHistorique.Ligne(
+                h.getId(), type, cibleId, h.getAction(), h.getDateModification(), m.getTokenId(), m.getNom(),
+                m.getPrenom(), null, null, valeurs);
+    }
+
+    /** Ligne détachée (jamais enregistrée), lue comme une ligne de la table par les services d'historique. */
+    private static HistoriqueModification versHistorique(int sejourId, SegmentHistorique.Ligne ligne) {
+        HistoriqueModification h = switch (ligne.type()) {
+            case PLANNING_CELLULE -> {
+                HistoriqueModificationPlanningCellule p = new HistoriqueModificationPlanningCellule();
+                p.setPlanningLigneId(ligne.cibleId());
+                p.setPlanningJour(ligne.planningJour());
+                p.setPlanningCelluleId(ligne.planningCelluleId());
+                yield p;
+            }
+            case ACTIVITE -> {
+                HistoriqueModificationActivite a = new HistoriqueModificationActivite();
+                a.setActiviteId(ligne.cibleId());
+                yield a;
+            }
+            case CAHIER_INFIRMERIE -> {
+                HistoriqueModificationCahierInfirmerie c = new HistoriqueModificationCahierInfirmerie();
+                c.setCahierInfirmerieEntreeId(ligne.cibleId());
+                yield c;
+            }
+            case CHAMBRE -> {
+                HistoriqueModificationChambre c = new HistoriqueModificationChambre();
+                c.setChambreId(ligne.cibleId());
+                yield c;
+            }
+            case ACTIVITE_PRESTATAIRE -> {
+                HistoriqueModificationActivitePrestataire a = new HistoriqueModificationActivitePrestataire();
+                a.setActivitePrestataireId(ligne.cibleId());
+                yield a;
+            }
+        };
+        h.setId(ligne.id());
+        h.setSejourId(sejourId);
+        h.setAction(ligne.action());
+        h.setDateModification(ligne.dateModification());
+        h.setModificateur(Utilisateur.builder()
+                .tokenId(ligne.modificateurTokenId())
+                .nom(ligne.modificateurNom())
+                .prenom(ligne.modificateurPrenom())
+                .build());
+        h.setValeursCompactes(ligne.valeursCompactes());
+        return h;
+    }
+}
@@ -1,14 +1,48 @@
 package com.tarnof.enjoyrestapi.services;
 
+import com.tarnof.enjoyrestapi.payload.request.FiltreCahierInfirmerieRequest;
 import com.tarnof.enjoyrestapi.payload.request.SaveCahierInfirmerieEntreeRequest;
 import com.tarnof.enjoyrestapi.payload.response.CahierInfirmerieEntreeDto;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
+import com.tarnof.enjoyrestapi.payload.response.StatistiquesCahierInfirmerieDto;
+import com.tarnof.enjoyrestapi.utils.JsonFlux;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface CahierInfirmerieService {
 
     List<CahierInfirmerieEntreeDto> listerEntreesDuSejour(int sejourId, String utilisateurTokenId);
 
+    /**
+     * Page d'entrées (plus récentes d'abord) après {@code curseur} ({@code null} : première page),
+     * filtrée par enfant, soigneur, période et type de soin.
+     */
+    PageCurseurDto<CahierInfirmerieEntreeDto> listerPageEntreesDuSejour(
+            int sejourId,
+            FiltreCahierInfirmerieRequest filtre,
+            String curseur,
+            Integer taille,
+            String utilisateurTokenId);
+
+    void parcourirEntreesDuSejour(
+            int sejourId, String utilisateurTokenId, JsonFlux.Ecrivain<CahierInfirmerieEntreeDto> ecrivain)
+            throws IOException;
+
+    /**
+     * Compteurs par jour (entrées, soins et appels par type, températures au-dessus de {@code seuilFievre})
+     * et enfants les plus vus sur la période. Paramètres optionnels {@code null} : valeurs par défaut.
+     */
+    StatistiquesCahierInfirmerieDto statistiques(
+            int sejourId,
+            LocalDate dateDebutInclusive,
+            LocalDate dateFinInclusive,
+            BigDecimal seuilFievre,
+            Integer nombreEnfants,
+            String utilisateurTokenId);
+
     CahierInfirmerieEntreeDto getEntree(int sejourId, int entreeId, String utilisateurTokenId);
 
     CahierInfirmerieEntreeDto creerEntree(int sejourId, SaveCahierInfirmerieEntreeRequest request, String utilisateurTokenId);
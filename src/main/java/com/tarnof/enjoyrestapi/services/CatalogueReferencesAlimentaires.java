@@ -0,0 +1,179 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.tarnof.enjoyrestapi.entities.ReferenceAlimentaire;
+import com.tarnof.enjoyrestapi.enums.TypeReferenceAlimentaire;
+import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
+import com.tarnof.enjoyrestapi.payload.response.ReferenceAlimentaireDto;
+import com.tarnof.enjoyrestapi.repositories.ReferenceAlimentaireRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Catalogue en mémoire des références alimentaires (table courte, rarement modifiée).
+ * Chargé au démarrage par {@link com.tarnof.enjoyrestapi.config.ReferenceAlimentaireInitializer}, puis remplacé
+ * en bloc (copie sur écriture) après chaque création, modification ou suppression : les lectures ne prennent
+ * aucun verrou et voient toujours un état cohérent.
+ */
+@Component
+public class CatalogueReferencesAlimentaires {
+
+    /** Ordre d'affichage des références d'un menu ou d'un dossier : {@code ordre} (nulls en dernier), puis id. */
+    public static final Comparator<ReferenceAlimentaireDto> ORDRE_AFFICHAGE =
+            Comparator.comparing(ReferenceAlimentaireDto::ordre, Comparator.nullsLast(Integer::compareTo))
+                    .thenComparingInt(ReferenceAlimentaireDto::id);
+
+    /** Ordre du listing du catalogue (celui des requêtes SQL d'origine : nulls en premier). */
+    private static final Comparator<ReferenceAlimentaireDto> ORDRE_LISTING =
+            Comparator.comparing(ReferenceAlimentaireDto::type)
+                    .thenComparing(ReferenceAlimentaireDto::ordre, Comparator.nullsFirst(Integer::compareTo))
+                    .thenComparingInt(ReferenceAlimentaireDto::id);
+
+    private final ReferenceAlimentaireRepository referenceAlimentaireRepository;
+    private final AtomicReference<Instantane> courant = new AtomicReference<>();
+
+    public CatalogueReferencesAlimentaires(ReferenceAlimentaireRepository referenceAlimentaireRepository) {
+        this.referenceAlimentaireRepository = referenceAlimentaireRepository;
+    }
+
+    /** Relit toute la table (démarrage, après l'insertion des références par défaut). */
+    public void recharger() {
+        List<ReferenceAlimentaireDto> references = referenceAlimentaireRepository.findAll().stream()
+                .map(CatalogueReferencesAlimentaires::versDto)
+                .toList();
+        courant.set(Instantane.de(references));
+    }
+
+    /** Références triées par type, ordre puis id ; filtrées sur {@code type} s'il est renseigné. */
+    public List<ReferenceAlimentaireDto> lister(TypeReferenceAlimentaire type) {
+        Instantane instantane = instantane();
+        return type != null ? instantane.parType().getOrDefault(type, List.of()) : instantane.toutes();
+    }
+
+    public Optional<ReferenceAlimentaireDto> trouver(int id) {
+        return Optional.ofNullable(instantane().parId().get(id));
+    }
+
+    /**
+     * Contrôle des ids reçus pour un menu ou un dossier : non nuls, existants et du type attendu.
+     * Renvoie les ids sans doublon, dans l'ordre reçu.
+     */
+    public Set<Integer> verifierIds(Collection<Integer> ids, TypeReferenceAlimentaire typeAttendu) {
+        Set<Integer> idsUniques = new LinkedHashSet<>();
+        if (ids == null) {
+            return idsUniques;
+        }
+        Map<Integer, ReferenceAlimentaireDto> parId = instantane().parId();
+        for (Integer refId : ids) {
+            if (refId == null) {
+                throw new IllegalArgumentException("Identifiant de référence alimentaire invalide.");
+            }
+            ReferenceAlimentaireDto ref = parId.get(refId);
+            if (ref == null) {
+                throw new ResourceNotFoundException("Référence alimentaire introuvable : " + refId);
+            }
+            if (ref.type() != typeAttendu) {
+                throw new IllegalArgumentException(
+                        "La référence " + refId + " n'est pas du type attendu (" + typeAttendu + ").");
+            }
+            idsUniques.add(refId);
+        }
+        return idsUniques;
+    }
+
+    /**
+     * DTO d'une référence liée à une entité : repris du catalogue par id, ce qui évite d'initialiser
+     * un proxy Hibernate ; à défaut, construit depuis l'entité.
+     */
+    public ReferenceAlimentaireDto dtoDe(ReferenceAlimentaire r) {
+        ReferenceAlimentaireDto connu = instantane().parId().get(r.getId());
+        return connu != null ? connu : versDto(r);
+    }
+
+    /** Ajoute ou remplace une référence, après le commit de la transaction courante. */
+    public void publier(ReferenceAlimentaireDto reference) {
+        remplacerApresCommit(instantane -> instantane.avec(reference));
+    }
+
+    /** Retire une référence, après le commit de la transaction courante. */
+    public void retirer(int id) {
+        remplacerApresCommit(instantane -> instantane.sans(id));
+    }
+
+    private void remplacerApresCommit(UnaryOperator<Instantane> modification) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remplacer(modification);
+                }
+            });
+        } else {
+            remplacer(modification);
+        }
+    }
+
+    private void remplacer(UnaryOperator<Instantane> modification) {
+        instantane();
+        courant.updateAndGet(modification);
+    }
+
+    /** Chargement paresseux si une lecture précède l'initialisation (tests, ordre des runners). */
+    private Instantane instantane() {
+        Instantane instantane = courant.get();
+        if (instantane == null) {
+            recharger();
+            instantane = courant.get();
+        }
+        return instantane;
+    }
+
+    private static ReferenceAlimentaireDto versDto(ReferenceAlimentaire r) {
+        return new ReferenceAlimentaireDto(r.getId(), r.getType(), r.getLibelle(), r.getOrdre(), r.isActif());
+    }
+
+    /** État immuable du catalogue ; toute modification produit un nouvel instantané. */
+    private record Instantane(
+            Map<Integer, ReferenceAlimentaireDto> parId,
+            List<ReferenceAlimentaireDto> toutes,
+            Map<TypeReferenceAlimentaire, List<ReferenceAlimentaireDto>> parType) {
+
+        static Instantane de(Collection<ReferenceAlimentaireDto> references) {
+            List<ReferenceAlimentaireDto> toutes = references.stream().sorted(ORDRE_LISTING).toList();
+            Map<Integer, ReferenceAlimentaireDto> parId = new HashMap<>();
+            Map<TypeReferenceAlimentaire, List<ReferenceAlimentaireDto>> parType =
+                    new EnumMap<>(TypeReferenceAlimentaire.class);
+            for (ReferenceAlimentaireDto r : toutes) {
+                parId.put(r.id(), r);
+            }
+            for (TypeReferenceAlimentaire type : TypeReferenceAlimentaire.values()) {
+                parType.put(type, toutes.stream().filter(r -> r.type() == type).toList());
+            }
+            return new Instantane(Map.copyOf(parId), toutes, parType);
+        }
+
+        Instantane avec(ReferenceAlimentaireDto reference) {
+            Map<Integer, ReferenceAlimentaireDto> copie = new HashMap<>(parId);
+            copie.put(reference.id(), reference);
+            return de(copie.values());
+        }
+
+        Instantane sans(int id) {
+            Map<Integer, ReferenceAlimentaireDto> copie = new HashMap<>(parId);
+            copie.remove(id);
+            return de(copie.values());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.tarnof.enjoyrestapi.services;
 
+import com.tarnof.enjoyrestapi.excel.ExcelExportSpecs;
+import com.tarnof.enjoyrestapi.excel.ExcelExportWriter;
 import com.tarnof.enjoyrestapi.payload.request.AffecterOccupantChambreRequest;
 import com.tarnof.enjoyrestapi.payload.request.AffecterOccupantsEnfantsRequest;
 import com.tarnof.enjoyrestapi.payload.request.AffecterOccupantsEquipeRequest;
@@ -7,12 +9,17 @@ import com.tarnof.enjoyrestapi.payload.request.AjouterReferentRequest;
 import com.tarnof.enjoyrestapi.payload.request.SaveChambreRequest;
 import com.tarnof.enjoyrestapi.payload.response.ChambreDto;
 
+import java.io.IOException;
 import java.util.List;
 
 public interface ChambreService {
 
     List<ChambreDto> listerChambresDuSejour(int sejourId, String utilisateurTokenId);
 
+    /** Lignes de l'export XLSX : une par occupant, une sans occupant pour chaque chambre vide. */
+    void parcourirOccupantsDesChambres(int sejourId, String utilisateurTokenId,
+                                       ExcelExportWriter.Lignes<ExcelExportSpecs.OccupantChambreLigne> lignes) throws IOException;
+
     ChambreDto getChambre(int sejourId, int chambreId, String utilisateurTokenId);
 
     ChambreDto creerChambre(int sejourId, SaveChambreRequest request, String utilisateurTokenId);
@@ -0,0 +1,72 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.tarnof.enjoyrestapi.payload.response.ReferencesAlimentairesAgregeesEnfantsDto;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache mémoire des données alimentaires dérivées des dossiers enfants, par séjour : références agrégées
+ * (tableau de bord cuisine) et profils pour le croisement avec les menus.
+ * Invalidé par les services qui modifient les dossiers, les inscriptions ou le catalogue, selon le contrat de
+ * {@link InvalidationCache}.
+ */
+@Component
+public class DonneesAlimentairesSejourCache {
+
+    private final ConcurrentHashMap<Integer, ReferencesAlimentairesAgregeesEnfantsDto> agregations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, ProfilsAlimentairesSejour> profils = new ConcurrentHashMap<>();
+    private final InvalidationCache invalidation = new InvalidationCache();
+
+    /**
+     * Valeur en cache, sinon calculée. Le calcul doit ouvrir ses propres lectures (pas de transaction englobante
+     * démarrée avant l'appel), pour voir tout commit antérieur à la génération relevée.
+     */
+    public ReferencesAlimentairesAgregeesEnfantsDto obtenirAgregation(
+            int sejourId, Supplier<ReferencesAlimentairesAgregeesEnfantsDto> calcul) {
+        return obtenir(agregations, sejourId, calcul);
+    }
+
+    /** Même contrat que {@link #obtenirAgregation}. */
+    public ProfilsAlimentairesSejour obtenirProfils(int sejourId, Supplier<ProfilsAlimentairesSejour> calcul) {
+        return obtenir(profils, sejourId, calcul);
+    }
+
+    public void invaliderSejour(int sejourId) {
+        invalidation.invalider(() -> {
+            agregations.remove(sejourId);
+            profils.remove(sejourId);
+        });
+    }
+
+    public void invaliderSejours(Collection<Integer> sejourIds) {
+        invalidation.invalider(() -> sejourIds.forEach(sejourId -> {
+            agregations.remove(sejourId);
+            profils.remove(sejourId);
+        }));
+    }
+
+    /** Modification du catalogue (libellé, ordre, activation) : toutes les données sont concernées. */
+    public void invaliderTout() {
+        invalidation.invalider(() -> {
+            agregations.clear();
+            profils.clear();
+        });
+    }
+
+    private <V> V obtenir(ConcurrentHashMap<Integer, V> cache, int sejourId, Supplier<V> calcul) {
+        V enCache = cache.get(sejourId);
+        if (enCache != null) {
+            return enCache;
+        }
+        long generationAvantCalcul = invalidation.generation();
+        V valeur = calcul.get();
+        cache.putIfAbsent(sejourId, valeur);
+        if (!invalidation.inchangee(generationAvantCalcul)) {
+            cache.remove(sejourId, valeur);
+        }
+        return valeur;
+    }
+}
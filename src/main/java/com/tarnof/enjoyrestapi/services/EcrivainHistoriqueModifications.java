@@ -0,0 +1,299 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationAction;
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationType;
+import com.tarnof.enjoyrestapi.utils.CodecHistorique;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Écriture différée de l'historique des modifications. Les événements sont mis en file au commit de la
+ * transaction métier, puis insérés par lots JDBC par un fil dédié : une requête
+ * préparée par lot, là où Hibernate ferait un INSERT par ligne à cause de l'id IDENTITY.
+ * <p>Une seule file et un seul écrivain : les lignes sont insérées dans l'ordre des commits, avec la date
+ * relevée lors de la modification. À l'arrêt de l'application, la file est vidée avant la fermeture de la base :
+ * si le fil dédié est encore occupé au-delà de {@code application.historique.ecriture.attente-arret}, il termine
+ * son lot en cours et le reste est écrit par le fil d'arrêt, qui attend la fin des deux. Hors service (arrêt,
+ * tests), les événements sont écrits immédiatement.</p>
+ */
+@Component
+public class EcrivainHistoriqueModifications implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EcrivainHistoriqueModifications.class);
+
+    static final int TAILLE_LOT = 200;
+    /** Attente maximale d'une lecture d'historique sur les événements déjà publiés. */
+    private static final long ATTENTE_LECTURE_MS = 2_000;
+    /** Arrêté après le serveur web : les dernières requêtes ont publié leurs événements. */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final String INSERTION = "INSERT INTO historique_modification (type, action, date_modification, "
+            + "modificateur_id, valeurs_compactes, planning_ligne_id, planning_jour, planning_cellule_id, "
+            + "activite_id, cahier_infirmerie_entree_id, chambre_id, activite_prestataire_id, sejour_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Une ligne d'historique. {@code cibleId} : ligne de planning, activité, entrée du cahier d'infirmerie, chambre
+     * ou activité prestataire selon {@code type} ; jour et cellule pour le planning seulement.
+     */
+    public record Evenement(
+            HistoriqueModificationType type,
+            HistoriqueModificationAction action,
+            int sejourId,
+            Instant dateModification,
+            int modificateurId,
+            int cibleId,
+            LocalDate planningJour,
+            Integer planningCelluleId,
+            String ancienneValeur,
+            String nouvelleValeur) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration attenteArret;
+    private final LinkedBlockingQueue<Evenement> file = new LinkedBlockingQueue<>();
+    private final AtomicLong publies = new AtomicLong();
+    /** Sérialise les écritures du fil dédié et celles faites hors de lui (arrêt, hors service). */
+    private final Object ecriture = new Object();
+    private final Object progression = new Object();
+    private long traites;
+
+    private volatile boolean enService;
+    private volatile boolean arretDemande;
+    /** Le fil d'arrêt reprend la file : le fil dédié s'arrête après son lot en cours. */
+    private volatile boolean releve;
+    private Thread travailleur;
+
+    public EcrivainHistoriqueModifications(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.historique.ecriture.attente-arret:PT30S}") Duration attenteArret) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.attenteArret = attenteArret;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Mise en file au commit de la transaction courante (les événements d'une même transaction ensemble, rien en
+     * cas de rollback), ou tout de suite hors transaction.
+     */
+    public void publier(Evenement evenement) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            mettreEnFile(List.of(evenement));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Evenement> enAttente = (List<Evenement>) TransactionSynchronizationManager.getResource(this);
+        if (enAttente == null) {
+            List<Evenement> transaction = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transaction);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(EcrivainHistoriqueModifications.this);
+                    if (status == STATUS_COMMITTED) {
+                        mettreEnFile(transaction);
+                    }
+                }
+            });
+            enAttente = transaction;
+        }
+        enAttente.add(evenement);
+    }
+
+    /**
+     * Attend que les événements publiés jusqu'ici soient écrits (lecture d'historique juste après une
+     * modification) ; au-delà de {@link #ATTENTE_LECTURE_MS}, la lecture se fait sans eux. À appeler avant la
+     * première requête de la transaction de lecture, dont l'instantané doit inclure ces lignes.
+     */
+    public void attendreEcriture() {
+        long cible = publies.get();
+        long limite = System.currentTimeMillis() + ATTENTE_LECTURE_MS;
+        synchronized (progression) {
+            long restant;
+            while (traites < cible && (restant = limite - System.currentTimeMillis()) > 0) {
+                try {
+                    progression.wait(restant);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        arretDemande = false;
+        releve = false;
+        enService = true;
+        travailleur = Thread.ofPlatform().name("historique-modifications").daemon(true).start(this::boucler);
+    }
+
+    @Override
+    public void stop() {
+        arretDemande = true;
+        try {
+            if (!travailleur.join(attenteArret)) {
+                log.warn("History writer still busy after {}, writing {} pending event(s) on the shutdown thread",
+                        attenteArret, file.size());
+                releve = true;
+                vider();
+                travailleur.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        enService = false;
+        vider();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return enService;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void mettreEnFile(List<Evenement> evenements) {
+        file.addAll(evenements);
+        publies.addAndGet(evenements.size());
+        if (!enService) {
+            vider();
+        }
+    }
+
+    private void boucler() {
+        List<Evenement> lot = new ArrayList<>(TAILLE_LOT);
+        while ((!arretDemande || !file.isEmpty()) && !releve) {
+            try {
+                // Prise et écriture sous le même verrou : vider() ne peut pas écrire entre-temps des événements plus récents.
+                synchronized (ecriture) {
+                    Evenement premier = file.poll(1, TimeUnit.SECONDS);
+                    if (premier == null) {
+                        continue;
+                    }
+                    lot.add(premier);
+                    file.drainTo(lot, TAILLE_LOT - 1);
+                    ecrire(lot);
+                    lot.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** Écrit tout ce qui reste en file, hors du fil dédié (arrêté, relevé ou pas démarré), après son lot en cours. */
+    void vider() {
+        synchronized (ecriture) {
+            List<Evenement> lot = new ArrayList<>(TAILLE_LOT);
+            while (file.drainTo(lot, TAILLE_LOT) > 0) {
+                ecrire(lot);
+                lot.clear();
+            }
+        }
+    }
+
+    /** Lot refusé (ex. modificateur supprimé entre-temps) : nouvel essai ligne à ligne, pour ne perdre que la fautive. */
+    private void ecrire(List<Evenement> lot) {
+        try {
+            inserer(lot);
+        } catch (DataAccessException e) {
+            for (Evenement evenement : lot) {
+                try {
+                    inserer(List.of(evenement));
+                } catch (DataAccessException erreur) {
+                    log.error("History event lost ({} {} #{}): {}", evenement.type(), evenement.action(),
+                            evenement.cibleId(), erreur.getMessage());
+                }
+            }
+        } finally {
+            synchronized (progression) {
+                traites += lot.size();
+                progression.notifyAll();
+            }
+        }
+    }
+
+    private void inserer(List<Evenement> evenements) {
+        List<Evenement> lot = List.copyOf(evenements);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERTION,
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        lier(ps, lot.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return lot.size();
+                    }
+                }));
+    }
+
+    /**
+     * Date en UTC : même conversion que Hibernate pour un {@link Instant} (TIMESTAMP_UTC). Libellés encodés ici,
+     * hors du fil de la requête.
+     */
+    static void lier(PreparedStatement ps, Evenement e) throws SQLException {
+        HistoriqueModificationType type = e.type();
+        ps.setString(1, type.name());
+        ps.setString(2, e.action().name());
+        ps.setTimestamp(3, Timestamp.from(e.dateModification()), Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+        ps.setInt(4, e.modificateurId());
+        ps.setBytes(5, CodecHistorique.encoder(e.ancienneValeur(), e.nouvelleValeur()));
+        lierEntier(ps, 6, type == HistoriqueModificationType.PLANNING_CELLULE ? e.cibleId() : null);
+        if (type == HistoriqueModificationType.PLANNING_CELLULE && e.planningJour() != null) {
+            ps.setDate(7, Date.valueOf(e.planningJour()));
+        } else {
+            ps.setNull(7, Types.DATE);
+        }
+        lierEntier(ps, 8, type == HistoriqueModificationType.PLANNING_CELLULE ? e.planningCelluleId() : null);
+        lierEntier(ps, 9, type == HistoriqueModificationType.ACTIVITE ? e.cibleId() : null);
+        lierEntier(ps, 10, type == HistoriqueModificationType.CAHIER_INFIRMERIE ? e.cibleId() : null);
+        lierEntier(ps, 11, type == HistoriqueModificationType.CHAMBRE ? e.cibleId() : null);
+        lierEntier(ps, 12, type == HistoriqueModificationType.ACTIVITE_PRESTATAIRE ? e.cibleId() : null);
+        ps.setInt(13, e.sejourId());
+    }
+
+    private static void lierEntier(PreparedStatement ps, int index, Integer valeur) throws SQLException {
+        if (valeur != null) {
+            ps.setInt(index, valeur);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package com.tarnof.enjoyrestapi.services;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import com.tarnof.enjoyrestapi.enums.ChampDossierEnfant;
 import com.tarnof.enjoyrestapi.payload.response.DossierEnfantDto;
 import com.tarnof.enjoyrestapi.payload.response.EnfantDossierSanitaireLigneDto;
 import com.tarnof.enjoyrestapi.payload.response.EnfantDto;
 import com.tarnof.enjoyrestapi.payload.response.ExcelImportResponse;
 import com.tarnof.enjoyrestapi.payload.request.CreateEnfantRequest;
 import com.tarnof.enjoyrestapi.payload.request.UpdateDossierEnfantRequest;
+import com.tarnof.enjoyrestapi.utils.JsonFlux;
 
 public interface EnfantService {
     void creerEtAjouterEnfantAuSejour(int sejourId, CreateEnfantRequest request, String utilisateurTokenId);
@@ -18,6 +22,11 @@ public interface EnfantService {
     void supprimerTousLesEnfantsDuSejour(int sejourId, String utilisateurTokenId);
     List<EnfantDto> getEnfantsDuSejour(int sejourId, String utilisateurTokenId);
     List<EnfantDossierSanitaireLigneDto> listerDossiersEnfantsDuSejour(int sejourId, String utilisateurTokenId);
+    /** {@code champs} null : dossiers complets ; sinon seules les parties listées sont chargées. */
+    List<EnfantDossierSanitaireLigneDto> listerDossiersEnfantsDuSejour(int sejourId, String utilisateurTokenId, Set<ChampDossierEnfant> champs);
+    /** Listing sanitaire en flux (même contenu et même ordre), pour les séjours volumineux. */
+    void parcourirDossiersEnfantsDuSejour(int sejourId, String utilisateurTokenId, Set<ChampDossierEnfant> champs,
+                                          JsonFlux.Ecrivain<EnfantDossierSanitaireLigneDto> ecrivain) throws IOException;
     DossierEnfantDto getDossierEnfant(int sejourId, int enfantId, String utilisateurTokenId);
     DossierEnfantDto modifierDossierEnfant(int sejourId, int enfantId, UpdateDossierEnfantRequest request, String utilisateurTokenId);
     ExcelImportResponse importerEnfantsDepuisExcel(int sejourId, MultipartFile file, String utilisateurTokenId);
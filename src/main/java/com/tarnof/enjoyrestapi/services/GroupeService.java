@@ -3,6 +3,7 @@ package com.tarnof.enjoyrestapi.services;
 import com.tarnof.enjoyrestapi.payload.request.AjouterReferentRequest;
 import com.tarnof.enjoyrestapi.payload.request.CreateGroupeRequest;
 import com.tarnof.enjoyrestapi.payload.response.GroupeDto;
+import com.tarnof.enjoyrestapi.payload.response.RecalculGroupesDto;
 
 import java.util.List;
 
@@ -16,4 +17,9 @@ public interface GroupeService {
     void retirerEnfantDuGroupe(int sejourId, int groupeId, int enfantId);
     void ajouterReferent(int sejourId, int groupeId, AjouterReferentRequest request);
     void retirerReferent(int sejourId, int groupeId, String referentTokenId);
+    /**
+     * Recalcule l'appartenance de tous les groupes {@code AGE} / {@code NIVEAU_SCOLAIRE} du séjour :
+     * enfants inscrits dans la tranche ajoutés, enfants hors tranche retirés. Les groupes thématiques sont ignorés.
+     */
+    RecalculGroupesDto recalculerGroupesAutomatiques(int sejourId);
 }
@@ -1,11 +1,14 @@
 package com.tarnof.enjoyrestapi.services;
 
 import com.tarnof.enjoyrestapi.enums.HistoriqueModificationAction;
+import com.tarnof.enjoyrestapi.payload.request.FiltreHistoriqueSejourRequest;
 import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationActiviteDto;
 import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationActivitePrestataireDto;
 import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationCahierInfirmerieDto;
 import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationChambreDto;
 import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationPlanningCelluleDto;
+import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationSejourDto;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -13,6 +16,7 @@ import java.util.List;
 public interface HistoriqueModificationService {
 
     void enregistrerPlanningCellule(
+            int sejourId,
             String modificateurTokenId,
             HistoriqueModificationAction action,
             int planningLigneId,
@@ -22,6 +26,7 @@ public interface HistoriqueModificationService {
             String nouvelleValeur);
 
     void enregistrerActivite(
+            int sejourId,
             String modificateurTokenId,
             HistoriqueModificationAction action,
             int activiteId,
@@ -29,6 +34,7 @@ public interface HistoriqueModificationService {
             String nouvelleValeur);
 
     void enregistrerCahierInfirmerie(
+            int sejourId,
             String modificateurTokenId,
             HistoriqueModificationAction action,
             int entreeId,
@@ -36,6 +42,7 @@ public interface HistoriqueModificationService {
             String nouvelleValeur);
 
     void enregistrerChambre(
+            int sejourId,
             String modificateurTokenId,
             HistoriqueModificationAction action,
             int chambreId,
@@ -43,24 +50,64 @@ public interface HistoriqueModificationService {
             String nouvelleValeur);
 
     void enregistrerActivitePrestataire(
+            int sejourId,
             String modificateurTokenId,
             HistoriqueModificationAction action,
             int activitePrestataireId,
             String ancienneValeur,
             String nouvelleValeur);
 
+    /** Fil des modifications du séjour, plus récentes d'abord, paginé par curseur. */
+    PageCurseurDto<HistoriqueModificationSejourDto> listerHistoriqueSejour(
+            int sejourId,
+            FiltreHistoriqueSejourRequest filtre,
+            String curseur,
+            Integer taille,
+            String utilisateurTokenId);
+
+    /** @deprecated historique complet sans borne ; utiliser la variante {@code listerPage...}. */
+    @Deprecated
     List<HistoriqueModificationPlanningCelluleDto> listerHistoriquePlanningCellules(
             int sejourId, int grilleId, int ligneId, LocalDate jour, String utilisateurTokenId);
 
+    /** @deprecated historique complet sans borne ; utiliser la variante {@code listerPage...}. */
+    @Deprecated
     List<HistoriqueModificationActiviteDto> listerHistoriqueActivite(
             int sejourId, int activiteId, String utilisateurTokenId);
 
+    /** @deprecated historique complet sans borne ; utiliser la variante {@code listerPage...}. */
+    @Deprecated
     List<HistoriqueModificationCahierInfirmerieDto> listerHistoriqueCahierInfirmerie(
             int sejourId, int entreeId, String utilisateurTokenId);
 
+    /** @deprecated historique complet sans borne ; utiliser la variante {@code listerPage...}. */
+    @Deprecated
     List<HistoriqueModificationChambreDto> listerHistoriqueChambre(
             int sejourId, int chambreId, String utilisateurTokenId);
 
+    /** @deprecated historique complet sans borne ; utiliser la variante {@code listerPage...}. */
+    @Deprecated
     List<HistoriqueModificationActivitePrestataireDto> listerHistoriqueActivitePrestataire(
             int sejourId, int activitePrestataireId, String utilisateurTokenId);
+
+    PageCurseurDto<HistoriqueModificationPlanningCelluleDto> listerPageHistoriquePlanningCellules(
+            int sejourId,
+            int grilleId,
+            int ligneId,
+            LocalDate jour,
+            String curseur,
+            Integer taille,
+            String utilisateurTokenId);
+
+    PageCurseurDto<HistoriqueModificationActiviteDto> listerPageHistoriqueActivite(
+            int sejourId, int activiteId, String curseur, Integer taille, String utilisateurTokenId);
+
+    PageCurseurDto<HistoriqueModificationCahierInfirmerieDto> listerPageHistoriqueCahierInfirmerie(
+            int sejourId, int entreeId, String curseur, Integer taille, String utilisateurTokenId);
+
+    PageCurseurDto<HistoriqueModificationChambreDto> listerPageHistoriqueChambre(
+            int sejourId, int chambreId, String curseur, Integer taille, String utilisateurTokenId);
+
+    PageCurseurDto<HistoriqueModificationActivitePrestataireDto> listerPageHistoriqueActivitePrestataire(
+            int sejourId, int activitePrestataireId, String curseur, Integer taille, String utilisateurTokenId);
 }
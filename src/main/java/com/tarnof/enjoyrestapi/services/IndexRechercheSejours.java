@@ -0,0 +1,510 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarnof.enjoyrestapi.entities.CahierInfirmerieEntree;
+import com.tarnof.enjoyrestapi.entities.DossierEnfant;
+import com.tarnof.enjoyrestapi.entities.Reunion;
+import com.tarnof.enjoyrestapi.enums.TypeDocumentRecherche;
+import com.tarnof.enjoyrestapi.utils.TexteRecherche;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Index plein texte en mémoire, un par séjour : entrées du cahier d'infirmerie, comptes rendus de réunion et
+ * dossiers des enfants inscrits. Index inversé des termes pliés (sans accents), doublé d'un index des trigrammes
+ * pour retrouver un terme mal orthographié.
+ * <p>Tenu à jour par les services d'écriture après le commit, et enregistré sur disque (un fichier par séjour)
+ * pour ne pas tout relire en base au redémarrage. Le fichier d'un séjour est retiré dès qu'une écriture est en
+ * cours et réécrit une fois toutes terminées : un arrêt brutal ne laisse jamais d'index périmé. Un séjour sans
+ * index, ni en mémoire ni sur disque, est reconstruit depuis la base à la première recherche.</p>
+ * <p>Les fichiers contiennent des données médicales des enfants : {@code application.recherche.repertoire} est
+ * obligatoire et doit désigner un répertoire de données hors du dépôt.</p>
+ */
+@Component
+public class IndexRechercheSejours {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexRechercheSejours.class);
+
+    private static final int MAGIQUE_FICHIER = 0x454E4A49;
+    private static final int VERSION_FICHIER = 1;
+    private static final String EXTENSION_FICHIER = ".idx";
+
+    private static final double POIDS_PREFIXE = 0.8;
+    private static final double POIDS_APPROCHE = 0.7;
+    /** Similarité de Dice minimale entre trigrammes pour retenir un terme approché. */
+    private static final double SIMILARITE_MIN = 0.5;
+    /** Variantes (préfixes, termes approchés) retenues par terme recherché. */
+    private static final int NB_VARIANTES_MAX = 10;
+    private static final int LONGUEUR_MIN_VARIANTES = 3;
+
+    /** Document de l'index : nature et id ({@link TypeDocumentRecherche}). */
+    public record CleDocument(TypeDocumentRecherche type, int id) {}
+
+    /** Document trouvé, avec les termes de l'index qui ont correspondu (pour l'extrait). */
+    public record Resultat(CleDocument cle, double score, Set<String> termes) {}
+
+    private final ObjectMapper objectMapper;
+    private final Path repertoire;
+    private final ConcurrentHashMap<Integer, IndexSejour> index = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, AtomicInteger> ecrituresEnCours = new ConcurrentHashMap<>();
+    /** Avancée à chaque écriture : un index reconstruit pendant une écriture n'est pas conservé. */
+    private final InvalidationCache invalidation = new InvalidationCache();
+
+    public IndexRechercheSejours(
+            ObjectMapper objectMapper,
+            @Value("${application.recherche.repertoire}") String repertoire) {
+        this.objectMapper = objectMapper;
+        this.repertoire = Paths.get(repertoire);
+    }
+
+    /**
+     * Documents contenant tous les termes (exacts, préfixes ou approchés), du plus pertinent au moins pertinent.
+     * {@code construction} fournit le texte de tous les documents du séjour si l'index doit être reconstruit
+     * (même contrat que les caches : pas de transaction englobante démarrée avant l'appel).
+     */
+    public List<Resultat> rechercher(
+            int sejourId, Collection<String> termes, int limite, Supplier<Map<CleDocument, String>> construction) {
+        return obtenir(sejourId, construction).rechercher(termes, limite);
+    }
+
+    public void indexerEntree(CahierInfirmerieEntree entree) {
+        CleDocument cle = new CleDocument(TypeDocumentRecherche.ENTREE_INFIRMERIE, entree.getId());
+        String texte = texteEntree(entree.getDescription(), entree.getLocalisationCorps());
+        modifier(entree.getSejour().getId(), indexSejour -> indexSejour.indexer(cle, texte));
+    }
+
+    public void indexerReunion(Reunion reunion) {
+        CleDocument cle = new CleDocument(TypeDocumentRecherche.REUNION, reunion.getId());
+        String texte = texteReunion(reunion.getOrdreDuJour(), reunion.getContenuJson());
+        modifier(reunion.getSejour().getId(), indexSejour -> indexSejour.indexer(cle, texte));
+    }
+
+    /** Le dossier est partagé par tous les séjours de l'enfant : chacun de leurs index est mis à jour. */
+    public void indexerDossier(Collection<Integer> sejourIds, DossierEnfant dossier) {
+        CleDocument cle = new CleDocument(TypeDocumentRecherche.DOSSIER_ENFANT, dossier.getEnfant().getId());
+        String texte = texteDossier(dossier);
+        for (int sejourId : sejourIds) {
+            modifier(sejourId, indexSejour -> indexSejour.indexer(cle, texte));
+        }
+    }
+
+    public void retirer(int sejourId, TypeDocumentRecherche type, int id) {
+        CleDocument cle = new CleDocument(type, id);
+        modifier(sejourId, indexSejour -> indexSejour.retirer(cle));
+    }
+
+    /** Inscriptions modifiées : l'index du séjour sera reconstruit à la prochaine recherche. */
+    public void invaliderSejour(int sejourId) {
+        invalidation.invalider(() -> {
+            index.remove(sejourId);
+            supprimerFichier(sejourId);
+        });
+    }
+
+    /** Dossiers modifiés en masse (import) : tous les index seront reconstruits. */
+    public void invaliderTout() {
+        invalidation.invalider(() -> {
+            index.clear();
+            supprimerFichiers();
+        });
+    }
+
+    public static String texteEntree(String description, String localisationCorps) {
+        return joindre(Stream.of(description, localisationCorps));
+    }
+
+    /** Ordre du jour et texte du document TipTap (nœuds {@code text}, un bloc par ligne). */
+    public String texteReunion(String ordreDuJour, String contenuJson) {
+        StringBuilder texte = new StringBuilder();
+        if (ordreDuJour != null) {
+            texte.append(ordreDuJour).append('\n');
+        }
+        if (contenuJson != null && !contenuJson.isBlank()) {
+            try {
+                ajouterTexteTipTap(objectMapper.readTree(contenuJson), texte);
+            } catch (JsonProcessingException e) {
+                log.warn("Unreadable meeting content ignored by the search index: {}", e.getOriginalMessage());
+            }
+        }
+        return texte.toString();
+    }
+
+    /** Texte d'un document TipTap déjà lu (nœuds {@code text}, un bloc par ligne). */
+    public static String texteTipTap(JsonNode document) {
+        StringBuilder texte = new StringBuilder();
+        ajouterTexteTipTap(document, texte);
+        return texte.toString();
+    }
+
+    /** Champs libres du dossier ; les coordonnées des parents ne sont pas indexées. */
+    public static String texteDossier(DossierEnfant dossier) {
+        return joindre(Stream.of(
+                dossier.getInformationsMedicales(),
+                dossier.getPai(),
+                dossier.getInformationsAlimentaires(),
+                dossier.getTraitementMatin(),
+                dossier.getTraitementMidi(),
+                dossier.getTraitementSoir(),
+                dossier.getTraitementSiBesoin(),
+                dossier.getAutresInformations(),
+                dossier.getAPrendreEnSortie()));
+    }
+
+    private static String joindre(Stream<String> champs) {
+        return champs.filter(c -> c != null && !c.isBlank()).collect(Collectors.joining("\n"));
+    }
+
+    private static void ajouterTexteTipTap(JsonNode noeud, StringBuilder texte) {
+        JsonNode valeur = noeud.get("text");
+        if (valeur != null && valeur.isTextual()) {
+            texte.append(valeur.asText());
+        }
+        JsonNode contenu = noeud.get("content");
+        if (contenu != null && contenu.isArray()) {
+            for (JsonNode enfant : contenu) {
+                ajouterTexteTipTap(enfant, texte);
+            }
+            texte.append('\n');
+        }
+    }
+
+    private IndexSejour obtenir(int sejourId, Supplier<Map<CleDocument, String>> construction) {
+        IndexSejour existant = index.get(sejourId);
+        if (existant != null) {
+            return existant;
+        }
+        long generationAvant = invalidation.generation();
+        IndexSejour charge = lire(sejourId);
+        boolean depuisDisque = charge != null;
+        if (charge == null) {
+            charge = new IndexSejour();
+            for (Map.Entry<CleDocument, String> document : construction.get().entrySet()) {
+                charge.indexer(document.getKey(), document.getValue());
+            }
+        }
+        if (!invalidation.inchangee(generationAvant)) {
+            return charge;
+        }
+        IndexSejour publie = index.putIfAbsent(sejourId, charge);
+        if (publie != null) {
+            return publie;
+        }
+        if (!depuisDisque) {
+            enregistrer(sejourId, charge);
+        }
+        return charge;
+    }
+
+    /**
+     * Dans une transaction, la modification est appliquée après le commit (rien en cas de rollback) ;
+     * le fichier du séjour est retiré d'ici là.
+     */
+    private void modifier(int sejourId, Consumer<IndexSejour> modification) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            appliquer(sejourId, modification);
+            return;
+        }
+        AtomicInteger enCours = ecrituresEnCours.computeIfAbsent(sejourId, k -> new AtomicInteger());
+        enCours.incrementAndGet();
+        chargerDepuisDisque(sejourId);
+        supprimerFichier(sejourId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                enCours.decrementAndGet();
+                appliquer(sejourId, status == STATUS_COMMITTED ? modification : indexSejour -> {});
+            }
+        });
+    }
+
+    private void appliquer(int sejourId, Consumer<IndexSejour> modification) {
+        invalidation.avancer();
+        IndexSejour indexSejour = chargerDepuisDisque(sejourId);
+        if (indexSejour == null) {
+            return;
+        }
+        modification.accept(indexSejour);
+        enregistrer(sejourId, indexSejour);
+    }
+
+    /** Index en mémoire, sinon relu sur disque ; {@code null} si le séjour n'a pas encore d'index. */
+    private IndexSejour chargerDepuisDisque(int sejourId) {
+        IndexSejour existant = index.get(sejourId);
+        if (existant != null) {
+            return existant;
+        }
+        IndexSejour lu = lire(sejourId);
+        if (lu == null) {
+            return null;
+        }
+        IndexSejour publie = index.putIfAbsent(sejourId, lu);
+        return publie != null ? publie : lu;
+    }
+
+    private Path fichier(int sejourId) {
+        return repertoire.resolve("sejour-" + sejourId + EXTENSION_FICHIER);
+    }
+
+    /** Écriture dans un fichier temporaire (droits du seul propriétaire) puis remplacement atomique. */
+    private void enregistrer(int sejourId, IndexSejour indexSejour) {
+        AtomicInteger enCours = ecrituresEnCours.get(sejourId);
+        if (enCours != null && enCours.get() > 0) {
+            return;
+        }
+        synchronized (indexSejour) {
+            if (index.get(sejourId) != indexSejour) {
+                return;
+            }
+            Path temporaire = null;
+            try {
+                Files.createDirectories(repertoire);
+                temporaire = Files.createTempFile(repertoire, "sejour-" + sejourId + "-", ".tmp");
+                try (DataOutputStream sortie = new DataOutputStream(new BufferedOutputStream(
+                        new GZIPOutputStream(Files.newOutputStream(temporaire))))) {
+                    sortie.writeInt(MAGIQUE_FICHIER);
+                    sortie.writeInt(VERSION_FICHIER);
+                    indexSejour.ecrire(sortie);
+                }
+                Files.move(temporaire, fichier(sejourId),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("Search index of stay {} not saved: {}", sejourId, e.getMessage());
+                supprimerSansErreur(temporaire);
+                supprimerFichier(sejourId);
+            }
+        }
+    }
+
+    /** Fichier absent, d'un autre format ou illisible : {@code null} (l'index sera reconstruit). */
+    private IndexSejour lire(int sejourId) {
+        Path chemin = fichier(sejourId);
+        if (!Files.isRegularFile(chemin)) {
+            return null;
+        }
+        try (DataInputStream entree = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(chemin))))) {
+            if (entree.readInt() != MAGIQUE_FICHIER || entree.readInt() != VERSION_FICHIER) {
+                return null;
+            }
+            return IndexSejour.lire(entree);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Search index of stay {} unreadable, it will be rebuilt: {}", sejourId, e.getMessage());
+            supprimerFichier(sejourId);
+            return null;
+        }
+    }
+
+    private void supprimerFichier(int sejourId) {
+        supprimerSansErreur(fichier(sejourId));
+    }
+
+    private void supprimerFichiers() {
+        if (!Files.isDirectory(repertoire)) {
+            return;
+        }
+        try (DirectoryStream<Path> fichiers = Files.newDirectoryStream(repertoire, "*" + EXTENSION_FICHIER)) {
+            fichiers.forEach(IndexRechercheSejours::supprimerSansErreur);
+        } catch (IOException e) {
+            log.warn("Search index directory not cleared: {}", e.getMessage());
+        }
+    }
+
+    private static void supprimerSansErreur(Path chemin) {
+        if (chemin == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(chemin);
+        } catch (IOException e) {
+            log.warn("Search index file {} not deleted: {}", chemin, e.getMessage());
+        }
+    }
+
+    /** Index d'un séjour ; toutes les opérations sont exclusives (le séjour est l'unité de contention). */
+    private static final class IndexSejour {
+
+        private final Map<CleDocument, Map<String, Integer>> documents = new HashMap<>();
+        /** Trié : les termes commençant par un préfixe forment une plage contiguë. */
+        private final TreeMap<String, Set<CleDocument>> postings = new TreeMap<>();
+        private final Map<String, Set<String>> termesParTrigramme = new HashMap<>();
+
+        synchronized void indexer(CleDocument cle, String texte) {
+            retirer(cle);
+            Map<String, Integer> frequences = new HashMap<>();
+            for (String terme : TexteRecherche.termes(texte)) {
+                frequences.merge(terme, 1, Integer::sum);
+            }
+            ajouter(cle, frequences);
+        }
+
+        synchronized void retirer(CleDocument cle) {
+            Map<String, Integer> frequences = documents.remove(cle);
+            if (frequences == null) {
+                return;
+            }
+            for (String terme : frequences.keySet()) {
+                Set<CleDocument> cles = postings.get(terme);
+                cles.remove(cle);
+                if (cles.isEmpty()) {
+                    postings.remove(terme);
+                    for (String trigramme : TexteRecherche.trigrammes(terme)) {
+                        Set<String> termes = termesParTrigramme.get(trigramme);
+                        termes.remove(terme);
+                        if (termes.isEmpty()) {
+                            termesParTrigramme.remove(trigramme);
+                        }
+                    }
+                }
+            }
+        }
+
+        synchronized List<Resultat> rechercher(Collection<String> termes, int limite) {
+            Map<CleDocument, Double> scores = null;
+            Map<CleDocument, Set<String>> trouves = new HashMap<>();
+            for (String terme : termes) {
+                Map<CleDocument, Double> scoresTerme = new HashMap<>();
+                for (Map.Entry<String, Double> variante : variantes(terme).entrySet()) {
+                    String termeIndex = variante.getKey();
+                    for (CleDocument cle : postings.get(termeIndex)) {
+                        double score = variante.getValue() * (1 + Math.log(documents.get(cle).get(termeIndex)));
+                        scoresTerme.merge(cle, score, Math::max);
+                        trouves.computeIfAbsent(cle, k -> new HashSet<>()).add(termeIndex);
+                    }
+                }
+                if (scores == null) {
+                    scores = scoresTerme;
+                } else {
+                    scores.keySet().retainAll(scoresTerme.keySet());
+                    scores.replaceAll((cle, score) -> score + scoresTerme.get(cle));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            if (scores == null) {
+                return List.of();
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<CleDocument, Double>comparingByValue().reversed()
+                            .thenComparing(e -> e.getKey().type())
+                            .thenComparing(e -> e.getKey().id(), Comparator.reverseOrder()))
+                    .limit(limite)
+                    .map(e -> new Resultat(e.getKey(), e.getValue(), Set.copyOf(trouves.get(e.getKey()))))
+                    .toList();
+        }
+
+        /** Termes de l'index acceptés pour un terme recherché, avec leur poids : exact, préfixe, puis approché. */
+        private Map<String, Double> variantes(String terme) {
+            Map<String, Double> variantes = new LinkedHashMap<>();
+            if (postings.containsKey(terme)) {
+                variantes.put(terme, 1.0);
+            }
+            if (terme.length() < LONGUEUR_MIN_VARIANTES) {
+                return variantes;
+            }
+            postings.subMap(terme, false, terme + Character.MAX_VALUE, false).keySet().stream()
+                    .limit(NB_VARIANTES_MAX)
+                    .forEach(t -> variantes.putIfAbsent(t, POIDS_PREFIXE));
+
+            Set<String> trigrammes = TexteRecherche.trigrammes(terme);
+            Map<String, Integer> communs = new HashMap<>();
+            for (String trigramme : trigrammes) {
+                for (String candidat : termesParTrigramme.getOrDefault(trigramme, Set.of())) {
+                    communs.merge(candidat, 1, Integer::sum);
+                }
+            }
+            List<Map.Entry<String, Double>> approches = new ArrayList<>();
+            for (Map.Entry<String, Integer> candidat : communs.entrySet()) {
+                int nbTrigrammes = TexteRecherche.trigrammes(candidat.getKey()).size();
+                double similarite = 2.0 * candidat.getValue() / (trigrammes.size() + nbTrigrammes);
+                if (similarite >= SIMILARITE_MIN) {
+                    approches.add(Map.entry(candidat.getKey(), similarite));
+                }
+            }
+            approches.stream()
+                    .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                    .limit(NB_VARIANTES_MAX)
+                    .forEach(a -> variantes.putIfAbsent(a.getKey(), POIDS_APPROCHE * a.getValue()));
+            return variantes;
+        }
+
+        private void ajouter(CleDocument cle, Map<String, Integer> frequences) {
+            if (frequences.isEmpty()) {
+                return;
+            }
+            documents.put(cle, frequences);
+            for (String terme : frequences.keySet()) {
+                postings.computeIfAbsent(terme, t -> {
+                    for (String trigramme : TexteRecherche.trigrammes(t)) {
+                        termesParTrigramme.computeIfAbsent(trigramme, k -> new HashSet<>()).add(t);
+                    }
+                    return new HashSet<>();
+                }).add(cle);
+            }
+        }
+
+        /** Seuls les documents et fréquences sont écrits ; postings et trigrammes sont recalculés à la lecture. */
+        synchronized void ecrire(DataOutputStream sortie) throws IOException {
+            sortie.writeInt(documents.size());
+            for (Map.Entry<CleDocument, Map<String, Integer>> document : documents.entrySet()) {
+                sortie.writeUTF(document.getKey().type().name());
+                sortie.writeInt(document.getKey().id());
+                sortie.writeInt(document.getValue().size());
+                for (Map.Entry<String, Integer> frequence : document.getValue().entrySet()) {
+                    sortie.writeUTF(frequence.getKey());
+                    sortie.writeInt(frequence.getValue());
+                }
+            }
+        }
+
+        static IndexSejour lire(DataInputStream entree) throws IOException {
+            IndexSejour indexSejour = new IndexSejour();
+            int nbDocuments = entree.readInt();
+            for (int i = 0; i < nbDocuments; i++) {
+                CleDocument cle = new CleDocument(TypeDocumentRecherche.valueOf(entree.readUTF()), entree.readInt());
+                int nbTermes = entree.readInt();
+                Map<String, Integer> frequences = new HashMap<>();
+                for (int j = 0; j < nbTermes; j++) {
+                    frequences.put(entree.readUTF(), entree.readInt());
+                }
+                indexSejour.ajouter(cle, frequences);
+            }
+            return indexSejour;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.tarnof.enjoyrestapi.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Génération d'un cache mémoire, incrémentée à chaque invalidation : une valeur calculée pendant une
+ * invalidation n'est pas conservée. Dans une transaction, l'invalidation est rejouée à la fin de celle-ci :
+ * une lecture concurrente ne peut pas remettre en cache l'état d'avant le commit.
+ */
+final class InvalidationCache {
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /** Génération à relever avant un calcul, puis à passer à {@link #inchangee}. */
+    long generation() {
+        return generation.get();
+    }
+
+    /** Vrai si aucune invalidation n'a eu lieu depuis le relevé {@code generationAvantCalcul}. */
+    boolean inchangee(long generationAvantCalcul) {
+        return generation.get() == generationAvantCalcul;
+    }
+
+    /** Écarte les calculs en cours sans rien retirer (écriture appliquée directement à la valeur en cache). */
+    void avancer() {
+        generation.incrementAndGet();
+    }
+
+    /** Retire les valeurs concernées maintenant et, dans une transaction, à nouveau après sa fin. */
+    void invalider(Runnable suppression) {
+        generation.incrementAndGet();
+        suppression.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                    suppression.run();
+                }
+            });
+        }
+    }
+}
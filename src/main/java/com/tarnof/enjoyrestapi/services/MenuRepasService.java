@@ -1,6 +1,9 @@
 package com.tarnof.enjoyrestapi.services;
 
+import com.tarnof.enjoyrestapi.payload.request.AppliquerSemaineTypeMenusRequest;
 import com.tarnof.enjoyrestapi.payload.request.SaveMenuRepasRequest;
+import com.tarnof.enjoyrestapi.payload.response.AppliquerSemaineTypeMenusDto;
+import com.tarnof.enjoyrestapi.payload.response.MenuEnfantsConcernesDto;
 import com.tarnof.enjoyrestapi.payload.response.MenuRepasDto;
 
 import java.time.LocalDate;
@@ -15,8 +18,18 @@ public interface MenuRepasService {
 
     MenuRepasDto get(int sejourId, int menuId, String utilisateurTokenId);
 
+    /**
+     * Pour chaque menu de la période, enfants inscrits dont les allergènes ou régimes du dossier croisent
+     * ceux du menu (avec leurs groupes). Les menus sans enfant concerné sont renvoyés avec une liste vide.
+     */
+    List<MenuEnfantsConcernesDto> croiserAvecDossiersEnfants(
+            int sejourId, LocalDate dateDebutInclusive, LocalDate dateFinInclusive, String utilisateurTokenId);
+
     MenuRepasDto creer(int sejourId, SaveMenuRepasRequest request);
 
+    /** Recopie en masse les menus d'une semaine modèle sur une période (voir {@link AppliquerSemaineTypeMenusRequest}). */
+    AppliquerSemaineTypeMenusDto appliquerSemaineType(int sejourId, AppliquerSemaineTypeMenusRequest request);
+
     MenuRepasDto modifier(int sejourId, int menuId, SaveMenuRepasRequest request);
 
     void supprimer(int sejourId, int menuId);
@@ -0,0 +1,150 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.tarnof.enjoyrestapi.utils.CodecHistorique;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mise à niveau des anciennes lignes d'historique, en arrière-plan au démarrage. Par lots croissants d'id, chaque
+ * lot validé seul : un arrêt en cours de route reprend au démarrage suivant sur les lignes restantes.
+ * <ul>
+ *     <li>{@code sejour_id} renseigné d'après l'élément modifié (reste {@code null} si l'élément a été supprimé) ;</li>
+ *     <li>libellés TEXT passés à la forme compacte de {@link CodecHistorique}, avec bilan des tailles. Sous InnoDB,
+ *     la place libérée est réutilisée par la table ; {@code OPTIMIZE TABLE} pour la rendre au disque.</li>
+ * </ul>
+ */
+@Component
+public class MigrationHistoriqueModifications {
+
+    private static final Logger log = LoggerFactory.getLogger(MigrationHistoriqueModifications.class);
+
+    static final int TAILLE_LOT = 500;
+    /** Plage d'ids par mise à jour ensembliste du séjour. */
+    static final int PLAGE_RATTACHEMENT = 5_000;
+
+    private static final String BORNES_SANS_SEJOUR =
+            "SELECT MIN(id), MAX(id) FROM historique_modification WHERE sejour_id IS NULL";
+    /** Séjour de l'élément modifié, par type ; {@code ?} : bornes de la plage d'ids. */
+    private static final List<String> RATTACHEMENTS = List.of(
+            rattachement("PLANNING_CELLULE", "SELECT g.sejour_id FROM planning_ligne l "
+                    + "JOIN planning_grille g ON g.id = l.grille_id WHERE l.id = historique_modification.planning_ligne_id"),
+            rattachement("ACTIVITE",
+                    "SELECT a.sejour_id FROM activite a WHERE a.id = historique_modification.activite_id"),
+            rattachement("CAHIER_INFIRMERIE", "SELECT c.sejour_id FROM cahier_infirmerie_entree c "
+                    + "WHERE c.id = historique_modification.cahier_infirmerie_entree_id"),
+            rattachement("CHAMBRE",
+                    "SELECT c.sejour_id FROM chambre c WHERE c.id = historique_modification.chambre_id"),
+            rattachement("ACTIVITE_PRESTATAIRE", "SELECT a.sejour_id FROM activite_prestataire a "
+                    + "WHERE a.id = historique_modification.activite_prestataire_id"));
+
+    private static final String SELECTION = "SELECT id, ancienne_valeur, nouvelle_valeur FROM historique_modification "
+            + "WHERE id > ? AND valeurs_compactes IS NULL "
+            + "AND (ancienne_valeur IS NOT NULL OR nouvelle_valeur IS NOT NULL) ORDER BY id LIMIT ?";
+    private static final String MISE_A_JOUR = "UPDATE historique_modification "
+            + "SET valeurs_compactes = ?, ancienne_valeur = NULL, nouvelle_valeur = NULL "
+            + "WHERE id = ? AND valeurs_compactes IS NULL";
+
+    /** Volumes migrés : octets UTF-8 des libellés avant, octets de la forme compacte après. */
+    public record Bilan(long lignes, long octetsTexte, long octetsCompactes) {}
+
+    private record Ligne(int id, String ancienne, String nouvelle) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean active;
+
+    public MigrationHistoriqueModifications(
+            JdbcTemplate jdbcTemplate,
+            @Value("${application.historique.migration-au-demarrage:true}") boolean active) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.active = active;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrer() {
+        if (active) {
+            Thread.ofVirtual().name("historique-migration").start(() -> {
+                rattacherAuxSejours();
+                compacter();
+            });
+        }
+    }
+
+    /** Nombre de lignes rattachées à leur séjour. */
+    public long rattacherAuxSejours() {
+        long rattachees = 0;
+        try {
+            long[] bornes = jdbcTemplate.queryForObject(
+                    BORNES_SANS_SEJOUR, (rs, i) -> new long[] {rs.getLong(1), rs.getLong(2)});
+            if (bornes == null || bornes[1] == 0) {
+                return 0;
+            }
+            for (long debut = bornes[0] - 1; debut < bornes[1]; debut += PLAGE_RATTACHEMENT) {
+                for (String rattachement : RATTACHEMENTS) {
+                    rattachees += jdbcTemplate.update(rattachement, debut, debut + PLAGE_RATTACHEMENT);
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("History sejour backfill stopped, will resume on next start: {}", e.getMessage());
+        }
+        if (rattachees > 0) {
+            log.info("History sejour backfill: {} row(s) attached to their sejour", rattachees);
+        }
+        return rattachees;
+    }
+
+    public Bilan compacter() {
+        long lignes = 0;
+        long octetsTexte = 0;
+        long octetsCompactes = 0;
+        int dernierId = 0;
+        try {
+            while (true) {
+                List<Ligne> lot = jdbcTemplate.query(
+                        SELECTION,
+                        (rs, i) -> new Ligne(rs.getInt("id"), rs.getString("ancienne_valeur"), rs.getString("nouvelle_valeur")),
+                        dernierId,
+                        TAILLE_LOT);
+                if (lot.isEmpty()) {
+                    break;
+                }
+                List<Object[]> miseAJour = new ArrayList<>(lot.size());
+                for (Ligne ligne : lot) {
+                    byte[] compacte = CodecHistorique.encoder(ligne.ancienne(), ligne.nouvelle());
+                    miseAJour.add(new Object[] {compacte, ligne.id()});
+                    octetsTexte += tailleUtf8(ligne.ancienne()) + tailleUtf8(ligne.nouvelle());
+                    octetsCompactes += compacte.length;
+                }
+                jdbcTemplate.batchUpdate(MISE_A_JOUR, miseAJour);
+                lignes += lot.size();
+                dernierId = lot.get(lot.size() - 1).id();
+            }
+        } catch (DataAccessException e) {
+            log.warn("History compaction stopped after id {}, will resume on next start: {}", dernierId, e.getMessage());
+        }
+        Bilan bilan = new Bilan(lignes, octetsTexte, octetsCompactes);
+        if (lignes > 0) {
+            log.info("History compaction: {} row(s), {} -> {} bytes ({}% of original)",
+                    lignes, octetsTexte, octetsCompactes, octetsTexte == 0 ? 100 : octetsCompactes * 100 / octetsTexte);
+        }
+        return bilan;
+    }
+
+    private static String rattachement(String type, String sejourDeLElement) {
+        return "UPDATE historique_modification SET sejour_id = (" + sejourDeLElement + ") "
+                + "WHERE type = '" + type + "' AND sejour_id IS NULL AND id > ? AND id <= ?";
+    }
+
+    private static long tailleUtf8(String valeur) {
+        return valeur == null ? 0 : valeur.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
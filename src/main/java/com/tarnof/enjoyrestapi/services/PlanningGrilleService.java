@@ -3,6 +3,7 @@ package com.tarnof.enjoyrestapi.services;
 import com.tarnof.enjoyrestapi.payload.request.*;
 import com.tarnof.enjoyrestapi.payload.response.PlanningCelluleDto;
 import com.tarnof.enjoyrestapi.payload.response.PlanningGrilleDetailDto;
+import com.tarnof.enjoyrestapi.payload.response.PlanningGrilleExportDto;
 import com.tarnof.enjoyrestapi.payload.response.PlanningGrilleSummaryDto;
 import com.tarnof.enjoyrestapi.payload.response.PlanningLigneDto;
 
@@ -16,6 +17,9 @@ public interface PlanningGrilleService {
 
     PlanningGrilleDetailDto getGrille(int sejourId, int grilleId, String utilisateurTokenId);
 
+    /** Grille mise à plat pour l'export XLSX (libellés lisibles, une colonne par jour). */
+    PlanningGrilleExportDto exporterGrille(int sejourId, int grilleId, String utilisateurTokenId);
+
     PlanningGrilleDetailDto creerGrille(int sejourId, SavePlanningGrilleRequest request);
 
     PlanningGrilleDetailDto modifierGrille(int sejourId, int grilleId, UpdatePlanningGrilleRequest request);
@@ -0,0 +1,37 @@
+package com.tarnof.enjoyrestapi.services;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Allergènes et régimes des enfants inscrits d'un séjour, encodés en {@link BitSet} indexés par id de
+ * {@link com.tarnof.enjoyrestapi.entities.ReferenceAlimentaire} : le croisement avec un menu est un ET bit à bit.
+ * Instance immuable (hors mémo), remplacée lors d'une invalidation de {@link DonneesAlimentairesSejourCache}.
+ */
+public final class ProfilsAlimentairesSejour {
+
+    /** Un enfant inscrit ; les ensembles de bits ne doivent pas être modifiés après construction. */
+    public record Profil(int enfantId, String prenom, String nom, BitSet allergenes, BitSet regimes) {}
+
+    /** Références d'un menu : deux menus aux mêmes références partagent le même résultat. */
+    public record SignatureMenu(BitSet allergenes, BitSet regimes) {}
+
+    private final List<Profil> profils;
+    private final ConcurrentHashMap<SignatureMenu, List<Profil>> concernesParSignature = new ConcurrentHashMap<>();
+
+    public ProfilsAlimentairesSejour(List<Profil> profils) {
+        this.profils = List.copyOf(profils);
+    }
+
+    /** Enfants dont au moins un allergène ou un régime figure sur le menu (mémorisé par signature). */
+    public List<Profil> concernesPar(SignatureMenu menu) {
+        if (menu.allergenes().isEmpty() && menu.regimes().isEmpty()) {
+            return List.of();
+        }
+        return concernesParSignature.computeIfAbsent(menu, signature -> profils.stream()
+                .filter(p -> p.allergenes().intersects(signature.allergenes())
+                        || p.regimes().intersects(signature.regimes()))
+                .toList());
+    }
+}
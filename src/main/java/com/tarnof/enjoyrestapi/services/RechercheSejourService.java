@@ -0,0 +1,11 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.tarnof.enjoyrestapi.payload.response.ResultatRechercheSejourDto;
+
+import java.util.List;
+
+public interface RechercheSejourService {
+
+    /** Recherche dans le cahier d'infirmerie, les réunions et les dossiers des enfants du séjour. */
+    List<ResultatRechercheSejourDto> rechercher(int sejourId, String requete, String utilisateurTokenId);
+}
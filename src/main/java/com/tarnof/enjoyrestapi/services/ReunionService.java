@@ -2,12 +2,13 @@ package com.tarnof.enjoyrestapi.services;
 
 import com.tarnof.enjoyrestapi.payload.request.SaveReunionRequest;
 import com.tarnof.enjoyrestapi.payload.response.ReunionDto;
+import com.tarnof.enjoyrestapi.payload.response.ReunionResumeDto;
 
 import java.util.List;
 
 public interface ReunionService {
 
-    List<ReunionDto> listerReunionsDuSejour(int sejourId, String utilisateurTokenId);
+    List<ReunionResumeDto> listerReunionsDuSejour(int sejourId, String utilisateurTokenId);
 
     ReunionDto getReunion(int sejourId, int reunionId, String utilisateurTokenId);
 
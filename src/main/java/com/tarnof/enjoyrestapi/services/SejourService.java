@@ -2,9 +2,12 @@ package com.tarnof.enjoyrestapi.services;
 
 import java.util.List;
 
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
+import com.tarnof.enjoyrestapi.payload.response.SejourCatalogueDto;
 import com.tarnof.enjoyrestapi.payload.response.SejourDto;
 import com.tarnof.enjoyrestapi.enums.RoleSejour;
 import com.tarnof.enjoyrestapi.payload.request.CreateSejourRequest;
+import com.tarnof.enjoyrestapi.payload.request.FiltreSejoursRequest;
 import com.tarnof.enjoyrestapi.payload.request.MembreEquipeRequest;
 import com.tarnof.enjoyrestapi.payload.request.RegisterRequest;
 
@@ -17,5 +20,12 @@ public interface SejourService {
     void modifierRoleMembreEquipe(int sejourId, String membreTokenId, RoleSejour nouveauRole);
     void supprimerMembreEquipe(int sejourId, String membreTokenId);
     List<SejourDto> getSejoursByUtilisateur(String utilisateurTokenId);
+
+    /**
+     * Page du catalogue de séjours (plus récents d'abord) après {@code curseur} ({@code null} : première page),
+     * avec effectifs. Tous les séjours pour un administrateur, sinon ceux que l'utilisateur dirige ou encadre.
+     */
+    PageCurseurDto<SejourCatalogueDto> listerPageCatalogue(
+            FiltreSejoursRequest filtre, String curseur, Integer taille, String utilisateurTokenId);
     void supprimerSejour(int id);
 }
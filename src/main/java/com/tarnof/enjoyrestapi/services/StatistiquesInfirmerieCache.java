@@ -0,0 +1,96 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.tarnof.enjoyrestapi.payload.response.StatistiquesJourInfirmerieDto;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Cache mémoire des statistiques du cahier d'infirmerie par séjour et par jour (puis par seuil de fièvre),
+ * limité aux {@value #NB_JOURS_MAX} journées les plus récemment lues. Une journée est invalidée par toute
+ * création, modification ou suppression d'entrée datée de ce jour, selon le contrat de
+ * {@link InvalidationCache}.
+ */
+@Component
+public class StatistiquesInfirmerieCache {
+
+    static final int NB_JOURS_MAX = 4096;
+
+    private record CleJour(int sejourId, LocalDate jour) {}
+
+    private final Map<CleJour, Map<BigDecimal, StatistiquesJourInfirmerieDto>> jours =
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<CleJour, Map<BigDecimal, StatistiquesJourInfirmerieDto>> plusAncienne) {
+                    return size() > NB_JOURS_MAX;
+                }
+            };
+    private final InvalidationCache invalidation = new InvalidationCache();
+
+    /**
+     * Statistiques des jours {@code [premierJour, dernierJour]} dans l'ordre, les jours absents du cache étant
+     * calculés en un seul appel à {@code calcul} sur l'intervalle qui les couvre (sans transaction englobante
+     * démarrée avant l'appel). {@code calcul} doit renvoyer une valeur pour chaque jour de cet intervalle.
+     */
+    public List<StatistiquesJourInfirmerieDto> obtenir(
+            int sejourId,
+            LocalDate premierJour,
+            LocalDate dernierJour,
+            BigDecimal seuilFievre,
+            BiFunction<LocalDate, LocalDate, Map<LocalDate, StatistiquesJourInfirmerieDto>> calcul) {
+        BigDecimal seuil = seuilFievre.stripTrailingZeros();
+        Map<LocalDate, StatistiquesJourInfirmerieDto> trouves = new HashMap<>();
+        LocalDate premierManquant = null;
+        LocalDate dernierManquant = null;
+        synchronized (jours) {
+            for (LocalDate jour = premierJour; !jour.isAfter(dernierJour); jour = jour.plusDays(1)) {
+                Map<BigDecimal, StatistiquesJourInfirmerieDto> parSeuil = jours.get(new CleJour(sejourId, jour));
+                StatistiquesJourInfirmerieDto enCache = parSeuil != null ? parSeuil.get(seuil) : null;
+                if (enCache != null) {
+                    trouves.put(jour, enCache);
+                } else {
+                    premierManquant = premierManquant != null ? premierManquant : jour;
+                    dernierManquant = jour;
+                }
+            }
+        }
+        if (premierManquant != null) {
+            long generationAvantCalcul = invalidation.generation();
+            Map<LocalDate, StatistiquesJourInfirmerieDto> calcules = calcul.apply(premierManquant, dernierManquant);
+            synchronized (jours) {
+                calcules.forEach((jour, valeur) -> {
+                    trouves.putIfAbsent(jour, valeur);
+                    jours.computeIfAbsent(new CleJour(sejourId, jour), k -> new HashMap<>()).putIfAbsent(seuil, valeur);
+                });
+            }
+            if (!invalidation.inchangee(generationAvantCalcul)) {
+                synchronized (jours) {
+                    calcules.keySet().forEach(jour -> jours.remove(new CleJour(sejourId, jour)));
+                }
+            }
+        }
+        List<StatistiquesJourInfirmerieDto> resultat = new ArrayList<>();
+        for (LocalDate jour = premierJour; !jour.isAfter(dernierJour); jour = jour.plusDays(1)) {
+            resultat.add(trouves.get(jour));
+        }
+        return resultat;
+    }
+
+    /** À appeler pour le jour d'une entrée créée, modifiée (ancien et nouveau jour) ou supprimée. */
+    public void invaliderJour(int sejourId, LocalDate jour) {
+        CleJour cle = new CleJour(sejourId, jour);
+        invalidation.invalider(() -> {
+            synchronized (jours) {
+                jours.remove(cle);
+            }
+        });
+    }
+}
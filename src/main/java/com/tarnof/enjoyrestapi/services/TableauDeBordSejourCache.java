@@ -0,0 +1,75 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.tarnof.enjoyrestapi.payload.response.TableauDeBordSejourDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache mémoire court du tableau de bord par séjour ({@code application.sejours.tableau-de-bord.duree-cache},
+ * 5 s par défaut). Pas d'invalidation : une modification apparaît au plus tard à l'expiration. Les appels
+ * simultanés pour un même séjour attendent le calcul en cours au lieu de le relancer. Les entrées expirées sont
+ * retirées lors des accès, au plus une fois par durée : le cache ne garde que les séjours consultés récemment.
+ */
+@Component
+public class TableauDeBordSejourCache {
+
+    private record Entree(CompletableFuture<TableauDeBordSejourDto> valeur, long expireA) {}
+
+    private final ConcurrentHashMap<Integer, Entree> entrees = new ConcurrentHashMap<>();
+    private final long dureeNanos;
+    private final AtomicLong prochainNettoyage = new AtomicLong(System.nanoTime());
+
+    public TableauDeBordSejourCache(
+            @Value("${application.sejours.tableau-de-bord.duree-cache:PT5S}") Duration duree) {
+        this.dureeNanos = duree.toNanos();
+    }
+
+    /** Tableau de bord en cache et non expiré, sinon calculé ; un calcul en échec n'est pas conservé. */
+    public TableauDeBordSejourDto obtenir(int sejourId, Supplier<TableauDeBordSejourDto> calcul) {
+        long maintenant = System.nanoTime();
+        nettoyer(maintenant);
+        CompletableFuture<TableauDeBordSejourDto> nouveau = new CompletableFuture<>();
+        Entree entree = entrees.compute(sejourId, (id, existante) ->
+                existante != null && existante.expireA() - maintenant > 0
+                        ? existante
+                        : new Entree(nouveau, maintenant + dureeNanos));
+        if (entree.valeur() == nouveau) {
+            try {
+                nouveau.complete(calcul.get());
+            } catch (RuntimeException | Error e) {
+                entrees.remove(sejourId, entree);
+                nouveau.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return entree.valeur().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** Nombre d'entrées conservées. */
+    int taille() {
+        return entrees.size();
+    }
+
+    /** Retire les entrées expirées dont le calcul est terminé (un calcul en cours reste partagé). */
+    private void nettoyer(long maintenant) {
+        long prevu = prochainNettoyage.get();
+        if (maintenant - prevu < 0 || !prochainNettoyage.compareAndSet(prevu, maintenant + dureeNanos)) {
+            return;
+        }
+        entrees.values().removeIf(e -> e.valeur().isDone() && e.expireA() - maintenant <= 0);
+    }
+}
@@ -0,0 +1,12 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.tarnof.enjoyrestapi.payload.response.TableauDeBordSejourDto;
+
+public interface TableauDeBordSejourService {
+
+    /**
+     * Compteurs du séjour, activités du jour par moment, occupation des chambres et entrées d'infirmerie des
+     * dernières 24 h, en un appel.
+     */
+    TableauDeBordSejourDto obtenirTableauDeBord(int sejourId, String utilisateurTokenId);
+}
@@ -3,11 +3,15 @@ package com.tarnof.enjoyrestapi.services;
 import com.tarnof.enjoyrestapi.entities.Utilisateur;
 import com.tarnof.enjoyrestapi.enums.Role;
 import com.tarnof.enjoyrestapi.payload.response.PhotoProfilContenu;
+import com.tarnof.enjoyrestapi.payload.response.PhotoProfilLotEntree;
 import com.tarnof.enjoyrestapi.payload.response.ProfilDto;
 import com.tarnof.enjoyrestapi.payload.request.UpdateUserRequest;
+import com.tarnof.enjoyrestapi.utils.JsonFlux;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.stereotype.Service;
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -26,5 +30,7 @@ public interface UtilisateurService {
     Utilisateur changerMotDePasseParUtilisateur(String tokenId, String ancienMotDePasse, String nouveauMotDePasse);
     ProfilDto mettreAJourPhotoProfil(String tokenId, MultipartFile file, String appelantTokenId, boolean appelantEstAdmin);
     void supprimerPhotoProfil(String tokenId, String appelantTokenId, boolean appelantEstAdmin);
-    PhotoProfilContenu chargerPhotoProfil(String tokenId);
+    PhotoProfilContenu chargerPhotoProfil(String tokenId, Integer taille, String siAucuneCorrespondance);
+    void parcourirPhotosProfil(List<String> tokenIds, Integer taille, Map<String, String> etagsConnus,
+                               JsonFlux.Ecrivain<PhotoProfilLotEntree> ecrivain) throws IOException;
 }
@@ -20,6 +20,7 @@ import com.tarnof.enjoyrestapi.services.ActivitePrestataireService;
 import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
 import com.tarnof.enjoyrestapi.services.SejourVerificationService;
 import com.tarnof.enjoyrestapi.utils.DateFormatHelper;
+import com.tarnof.enjoyrestapi.utils.EmpreinteHistorique;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -96,6 +97,7 @@ public class ActivitePrestataireServiceImpl implements ActivitePrestataireServic
         appliquerNonParticipations(activite, sejourId, request.nonParticipations(), moments, groupes, true);
         ActivitePrestataire sauve = activitePrestataireRepository.save(activite);
         historiqueModificationService.enregistrerActivitePrestataire(
+                sejourId,
                 utilisateurTokenId,
                 HistoriqueModificationAction.CREATION,
                 sauve.getId(),
@@ -112,7 +114,7 @@ public class ActivitePrestataireServiceImpl implements ActivitePrestataireServic
             SaveActivitePrestataireRequest request,
             String utilisateurTokenId) {
         ActivitePrestataire activite = findByIdAndSejourOrThrow(activitePrestataireId, sejourId);
-        String signatureAvant = signatureTechniqueActivitePrestataire(activite);
+        long signatureAvant = signatureTechniqueActivitePrestataire(activite);
         String ancienneValeur = libelleActivitePrestatairePourHistorique(activite);
         List<Moment> moments = resoudreMomentsDuSejour(sejourId, request.momentIds());
         verifierDateDansSejour(activite.getSejour(), request.date());
@@ -123,8 +125,9 @@ public class ActivitePrestataireServiceImpl implements ActivitePrestataireServic
         appliquerNonParticipations(
                 activite, sejourId, request.nonParticipations(), moments, groupes, request.nonParticipations() != null);
         ActivitePrestataire sauve = activitePrestataireRepository.save(activite);
-        if (!signatureAvant.equals(signatureTechniqueActivitePrestataire(sauve))) {
+        if (signatureAvant != signatureTechniqueActivitePrestataire(sauve)) {
             historiqueModificationService.enregistrerActivitePrestataire(
+                    sejourId,
                     utilisateurTokenId,
                     HistoriqueModificationAction.MODIFICATION,
                     sauve.getId(),
@@ -141,6 +144,7 @@ public class ActivitePrestataireServiceImpl implements ActivitePrestataireServic
         int idSupprime = activite.getId();
         String ancienneValeur = libelleActivitePrestatairePourHistorique(activite);
         historiqueModificationService.enregistrerActivitePrestataire(
+                sejourId,
                 utilisateurTokenId,
                 HistoriqueModificationAction.SUPPRESSION,
                 idSupprime,
@@ -486,56 +490,24 @@ public class ActivitePrestataireServiceImpl implements ActivitePrestataireServic
         return new MomentDto(moment.getId(), moment.getNom(), moment.getSejour().getId(), ordreAffiche, parentId);
     }
 
-    private String signatureTechniqueActivitePrestataire(ActivitePrestataire a) {
-        String moments =
-                a.getMoments() == null
-                        ? ""
-                        : a.getMoments().stream()
-                                .map(Moment::getId)
-                                .sorted()
-                                .map(String::valueOf)
-                                .collect(Collectors.joining(","));
-        String groupes =
-                a.getGroupes() == null
-                        ? ""
-                        : a.getGroupes().stream()
-                                .map(Groupe::getId)
-                                .sorted()
-                                .map(String::valueOf)
-                                .collect(Collectors.joining(","));
-        String nonParticipations =
-                a.getNonParticipations() == null
-                        ? ""
-                        : a.getNonParticipations().stream()
-                                .map(this::signatureNonParticipationActivitePrestataire)
-                                .sorted()
-                                .collect(Collectors.joining(","));
-        return nullToVide(a.getNom())
-                + "|"
-                + (a.getDate() == null ? "" : a.getDate())
-                + "|"
-                + moments
-                + "|"
-                + heurePourSignature(a.getHeureDepart())
-                + "|"
-                + heurePourSignature(a.getHeureRetour())
-                + "|"
-                + nullToVide(a.getInformations())
-                + "|"
-                + nullToVide(a.getTelephone())
-                + "|"
-                + groupes
-                + "|"
-                + nonParticipations;
+    private long signatureTechniqueActivitePrestataire(ActivitePrestataire a) {
+        return EmpreinteHistorique.nouvelle()
+                .texte(a.getNom())
+                .date(a.getDate())
+                .ids(a.getMoments(), Moment::getId)
+                .heure(a.getHeureDepart())
+                .heure(a.getHeureRetour())
+                .texte(a.getInformations())
+                .texte(a.getTelephone())
+                .ids(a.getGroupes(), Groupe::getId)
+                .elements(a.getNonParticipations(), ActivitePrestataireServiceImpl::cleNonParticipation)
+                .valeur();
     }
 
-    private String signatureNonParticipationActivitePrestataire(ActivitePrestataireNonParticipation np) {
-        String token =
-                np.getUtilisateur() != null && np.getUtilisateur().getTokenId() != null
-                        ? np.getUtilisateur().getTokenId().trim()
-                        : "";
+    private static long cleNonParticipation(ActivitePrestataireNonParticipation np) {
+        String token = np.getUtilisateur() != null ? np.getUtilisateur().getTokenId() : null;
         Integer momentId = np.getMoment() != null ? np.getMoment().getId() : null;
-        return token + "|" + (momentId == null ? "" : momentId);
+        return EmpreinteHistorique.cle(EmpreinteHistorique.cle(token), EmpreinteHistorique.cle(momentId));
     }
 
     private String libelleActivitePrestatairePourHistorique(ActivitePrestataire a) {
@@ -596,18 +568,10 @@ public class ActivitePrestataireServiceImpl implements ActivitePrestataireServic
         return s.isEmpty() ? "?" : s;
     }
 
-    private static String heurePourSignature(LocalTime heure) {
-        return heure == null ? "" : heure.toString();
-    }
-
     private static String heurePourLibelle(LocalTime heure) {
         return heure == null ? "-" : heure.toString();
     }
 
-    private static String nullToVide(String value) {
-        return value == null ? "" : value.trim();
-    }
-
     private static String texteHistorique(String value) {
         if (value == null || value.isBlank()) {
             return "-";
@@ -33,10 +33,14 @@ import com.tarnof.enjoyrestapi.services.ActiviteService;
 import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
 import com.tarnof.enjoyrestapi.services.SejourVerificationService;
 import com.tarnof.enjoyrestapi.utils.DateFormatHelper;
+import com.tarnof.enjoyrestapi.utils.EmpreinteHistorique;
+import com.tarnof.enjoyrestapi.utils.JsonFlux;
 import com.tarnof.enjoyrestapi.utils.LieuUsageRules;
+import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayDeque;
@@ -65,6 +69,7 @@ public class ActiviteServiceImpl implements ActiviteService {
     private final MomentRepository momentRepository;
     private final TypeActiviteRepository typeActiviteRepository;
     private final HistoriqueModificationService historiqueModificationService;
+    private final EntityManager entityManager;
 
     public ActiviteServiceImpl(
             ActiviteRepository activiteRepository,
@@ -77,7 +82,8 @@ public class ActiviteServiceImpl implements ActiviteService {
             LieuRepository lieuRepository,
             MomentRepository momentRepository,
             TypeActiviteRepository typeActiviteRepository,
-            HistoriqueModificationService historiqueModificationService) {
+            HistoriqueModificationService historiqueModificationService,
+            EntityManager entityManager) {
         this.activiteRepository = activiteRepository;
         this.sejourVerificationService = sejourVerificationService;
         this.utilisateurRepository = utilisateurRepository;
@@ -89,6 +95,7 @@ public class ActiviteServiceImpl implements ActiviteService {
         this.momentRepository = momentRepository;
         this.typeActiviteRepository = typeActiviteRepository;
         this.historiqueModificationService = historiqueModificationService;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -100,6 +107,33 @@ public class ActiviteServiceImpl implements ActiviteService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Variante en flux : activités chargées par lots de {@link JsonFlux#TAILLE_LOT} dans l'ordre du listing
+     * (quatre requêtes par lot, collections comprises), contexte de persistance vidé entre deux lots.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void parcourirActivitesDuSejour(
+            int sejourId, String utilisateurTokenId, JsonFlux.Ecrivain<ActiviteDto> ecrivain) throws IOException {
+        sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        List<Integer> ids = activiteRepository.findIdsBySejourIdOrderByDateAscIdAsc(sejourId);
+        for (int debut = 0; debut < ids.size(); debut += JsonFlux.TAILLE_LOT) {
+            List<Integer> lot = ids.subList(debut, Math.min(debut + JsonFlux.TAILLE_LOT, ids.size()));
+            Map<Integer, Activite> parId = activiteRepository.findByIdInFetchingMomentLieuType(lot).stream()
+                    .collect(Collectors.toMap(Activite::getId, a -> a));
+            activiteRepository.fetchMembresByIds(lot);
+            activiteRepository.fetchGroupesByIds(lot);
+            activiteRepository.fetchEnfantsByIds(lot);
+            for (Integer id : lot) {
+                Activite activite = parId.get(id);
+                if (activite != null) {
+                    ecrivain.ecrire(toDto(activite, null));
+                }
+            }
+            entityManager.clear();
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ActiviteDto getActivite(int sejourId, int activiteId, String utilisateurTokenId) {
@@ -142,6 +176,7 @@ public class ActiviteServiceImpl implements ActiviteService {
         activite = activiteRepository.save(activite);
         String nouvelleValeur = snapshotActivite(activite);
         historiqueModificationService.enregistrerActivite(
+                sejourId,
                 utilisateurTokenId, HistoriqueModificationAction.CREATION, activite.getId(), null, nouvelleValeur);
         return toDto(activite, avertissementLieu);
     }
@@ -155,7 +190,7 @@ public class ActiviteServiceImpl implements ActiviteService {
                         "Activité non trouvée pour ce séjour (id: " + activiteId + ")"));
         sejourVerificationService.verifierDroitModificationOuSuppressionActivite(sejourId, activite, utilisateurTokenId);
 
-        String signatureAvant = signatureActivite(activite);
+        long signatureAvant = signatureActivite(activite);
         String ancienneValeur = snapshotActivite(activite);
 
         verifierMomentsEtResolution(sejourId, request.momentId());
@@ -184,9 +219,10 @@ public class ActiviteServiceImpl implements ActiviteService {
         activite.getEnfants().clear();
         activite.getEnfants().addAll(enfants);
         activite = activiteRepository.save(activite);
-        if (!signatureAvant.equals(signatureActivite(activite))) {
+        if (signatureAvant != signatureActivite(activite)) {
             String nouvelleValeur = snapshotActivite(activite);
             historiqueModificationService.enregistrerActivite(
+                    sejourId,
                     utilisateurTokenId, HistoriqueModificationAction.MODIFICATION, activite.getId(), ancienneValeur, nouvelleValeur);
         }
         return toDto(activite, avertissementLieu);
@@ -202,51 +238,23 @@ public class ActiviteServiceImpl implements ActiviteService {
         int idSupprimee = activite.getId();
         String ancienneValeur = snapshotActivite(activite);
         historiqueModificationService.enregistrerActivite(
+                sejourId,
                 utilisateurTokenId, HistoriqueModificationAction.SUPPRESSION, idSupprimee, ancienneValeur, null);
         activiteRepository.delete(activite);
     }
 
-    private String signatureActivite(Activite a) {
-        String lieuPart = a.getLieu() == null ? "-" : String.valueOf(a.getLieu().getId());
-        String momentPart = a.getMoment() == null ? "-" : String.valueOf(a.getMoment().getId());
-        String typePart = a.getTypeActivite() == null ? "-" : String.valueOf(a.getTypeActivite().getId());
-        String membres =
-                a.getMembres().stream()
-                        .map(Utilisateur::getId)
-                        .sorted()
-                        .map(String::valueOf)
-                        .collect(Collectors.joining(","));
-        String groupes =
-                a.getGroupes().stream()
-                        .map(Groupe::getId)
-                        .filter(Objects::nonNull)
-                        .sorted()
-                        .map(String::valueOf)
-                        .collect(Collectors.joining(","));
-        String enfants =
-                a.getEnfants().stream()
-                        .map(Enfant::getId)
-                        .sorted()
-                        .map(String::valueOf)
-                        .collect(Collectors.joining(","));
-        String desc = a.getDescription() == null ? "" : a.getDescription();
-        return a.getDate()
-                + "|"
-                + a.getNom()
-                + "|"
-                + desc
-                + "|"
-                + lieuPart
-                + "|"
-                + momentPart
-                + "|"
-                + typePart
-                + "|"
-                + membres
-                + "|"
-                + groupes
-                + "|"
-                + enfants;
+    private long signatureActivite(Activite a) {
+        return EmpreinteHistorique.nouvelle()
+                .date(a.getDate())
+                .texte(a.getNom())
+                .texte(a.getDescription())
+                .reference(a.getLieu(), Lieu::getId)
+                .reference(a.getMoment(), Moment::getId)
+                .reference(a.getTypeActivite(), TypeActivite::getId)
+                .ids(a.getMembres(), Utilisateur::getId)
+                .ids(a.getGroupes(), Groupe::getId)
+                .ids(a.getEnfants(), Enfant::getId)
+                .valeur();
     }
 
     private String snapshotActivite(Activite a) {
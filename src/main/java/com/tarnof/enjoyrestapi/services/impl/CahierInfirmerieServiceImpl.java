@@ -8,55 +8,214 @@ import com.tarnof.enjoyrestapi.entities.SejourEnfantId;
 import com.tarnof.enjoyrestapi.entities.Utilisateur;
 import com.tarnof.enjoyrestapi.enums.HistoriqueModificationAction;
 import com.tarnof.enjoyrestapi.enums.TypeAppelInfirmerie;
+import com.tarnof.enjoyrestapi.enums.TypeDocumentRecherche;
 import com.tarnof.enjoyrestapi.enums.TypeSoinInfirmerie;
 import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
+import com.tarnof.enjoyrestapi.payload.request.FiltreCahierInfirmerieRequest;
 import com.tarnof.enjoyrestapi.payload.request.SaveCahierInfirmerieEntreeRequest;
 import com.tarnof.enjoyrestapi.payload.response.CahierInfirmerieEntreeDto;
+import com.tarnof.enjoyrestapi.payload.response.EnfantPassagesInfirmerieDto;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
+import com.tarnof.enjoyrestapi.payload.response.StatistiquesCahierInfirmerieDto;
+import com.tarnof.enjoyrestapi.payload.response.StatistiquesJourInfirmerieDto;
 import com.tarnof.enjoyrestapi.repositories.CahierInfirmerieEntreeRepository;
 import com.tarnof.enjoyrestapi.repositories.SejourEnfantRepository;
 import com.tarnof.enjoyrestapi.repositories.UtilisateurRepository;
+import com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieAppelProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieSoinProjection;
 import com.tarnof.enjoyrestapi.services.CahierInfirmerieService;
 import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
+import com.tarnof.enjoyrestapi.services.IndexRechercheSejours;
 import com.tarnof.enjoyrestapi.services.SejourVerificationService;
+import com.tarnof.enjoyrestapi.services.StatistiquesInfirmerieCache;
+import com.tarnof.enjoyrestapi.utils.CurseurPagination;
+import com.tarnof.enjoyrestapi.utils.EmpreinteHistorique;
+import com.tarnof.enjoyrestapi.utils.JsonFlux;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class CahierInfirmerieServiceImpl implements CahierInfirmerieService {
 
+    private static final BigDecimal SEUIL_FIEVRE_PAR_DEFAUT = new BigDecimal("38.0");
+    private static final int NOMBRE_ENFANTS_PAR_DEFAUT = 10;
+    private static final int NOMBRE_ENFANTS_MAX = 50;
+    private static final int NB_JOURS_MAX_STATISTIQUES = 366;
+    /** Entrées dont les soins et appels sont lus par une même requête {@code IN} (borne la liste d'ids). */
+    private static final int TAILLE_LOT_COLLECTIONS = 500;
+
     private final CahierInfirmerieEntreeRepository cahierInfirmerieEntreeRepository;
     private final SejourEnfantRepository sejourEnfantRepository;
     private final UtilisateurRepository utilisateurRepository;
     private final SejourVerificationService sejourVerificationService;
     private final HistoriqueModificationService historiqueModificationService;
+    private final EntityManager entityManager;
+    private final StatistiquesInfirmerieCache statistiquesInfirmerieCache;
+    private final IndexRechercheSejours indexRechercheSejours;
 
     public CahierInfirmerieServiceImpl(
             CahierInfirmerieEntreeRepository cahierInfirmerieEntreeRepository,
             SejourEnfantRepository sejourEnfantRepository,
             UtilisateurRepository utilisateurRepository,
             SejourVerificationService sejourVerificationService,
-            HistoriqueModificationService historiqueModificationService) {
+            HistoriqueModificationService historiqueModificationService,
+            EntityManager entityManager,
+            StatistiquesInfirmerieCache statistiquesInfirmerieCache,
+            IndexRechercheSejours indexRechercheSejours) {
         this.cahierInfirmerieEntreeRepository = cahierInfirmerieEntreeRepository;
         this.sejourEnfantRepository = sejourEnfantRepository;
         this.utilisateurRepository = utilisateurRepository;
         this.sejourVerificationService = sejourVerificationService;
         this.historiqueModificationService = historiqueModificationService;
+        this.entityManager = entityManager;
+        this.statistiquesInfirmerieCache = statistiquesInfirmerieCache;
+        this.indexRechercheSejours = indexRechercheSejours;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CahierInfirmerieEntreeDto> listerEntreesDuSejour(int sejourId, String utilisateurTokenId) {
         sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
-        return cahierInfirmerieEntreeRepository.findBySejourIdWithEnfantOrderByDateHeureDesc(sejourId).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return mapAvecCollections(cahierInfirmerieEntreeRepository.findBySejourIdWithEnfantOrderByDateHeureDesc(sejourId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDto<CahierInfirmerieEntreeDto> listerPageEntreesDuSejour(
+            int sejourId,
+            FiltreCahierInfirmerieRequest filtre,
+            String curseur,
+            Integer taille,
+            String utilisateurTokenId) {
+        sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        int taillePage = CurseurPagination.taille(taille);
+        if (filtre.du() != null && filtre.au() != null && filtre.du().isAfter(filtre.au())) {
+            throw new IllegalArgumentException("La date de début doit être antérieure ou égale à la date de fin.");
+        }
+        CurseurPagination.Position position = CurseurPagination.decoder(curseur);
+        Instant apresDateHeure = null;
+        Integer apresId = null;
+        if (position != null) {
+            try {
+                apresDateHeure = Instant.parse(position.cle());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Curseur de pagination invalide.");
+            }
+            apresId = position.id();
+        }
+        // Un id de plus que la taille demandée : indique s'il existe une page suivante
+        List<Integer> ids = cahierInfirmerieEntreeRepository.findPageIds(
+                sejourId,
+                filtre.enfantId(),
+                blankToNull(filtre.soigneurTokenId()),
+                filtre.du(),
+                filtre.au(),
+                filtre.soin(),
+                apresDateHeure,
+                apresId,
+                PageRequest.of(0, taillePage + 1));
+        boolean pageSuivante = ids.size() > taillePage;
+        List<CahierInfirmerieEntreeDto> entrees = chargerDansLOrdre(pageSuivante ? ids.subList(0, taillePage) : ids);
+        String curseurSuivant = null;
+        if (pageSuivante) {
+            CahierInfirmerieEntreeDto derniere = entrees.get(entrees.size() - 1);
+            curseurSuivant = CurseurPagination.encoder(derniere.dateHeure().toString(), derniere.id());
+        }
+        return new PageCurseurDto<>(entrees, curseurSuivant);
+    }
+
+    /**
+     * Variante en flux : entrées chargées par lots de {@link JsonFlux#TAILLE_LOT} (plus récentes d'abord),
+     * contexte de persistance vidé entre deux lots.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void parcourirEntreesDuSejour(
+            int sejourId, String utilisateurTokenId, JsonFlux.Ecrivain<CahierInfirmerieEntreeDto> ecrivain)
+            throws IOException {
+        sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        List<Integer> ids = cahierInfirmerieEntreeRepository.findIdsBySejourIdOrderByDateHeureDesc(sejourId);
+        for (int debut = 0; debut < ids.size(); debut += JsonFlux.TAILLE_LOT) {
+            List<Integer> lot = ids.subList(debut, Math.min(debut + JsonFlux.TAILLE_LOT, ids.size()));
+            for (CahierInfirmerieEntreeDto dto : chargerDansLOrdre(lot)) {
+                ecrivain.ecrire(dto);
+            }
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Pas de transaction englobante : les journées absentes du cache {@link StatistiquesInfirmerieCache} sont
+     * calculées ensemble (trois requêtes GROUP BY par heure sur tout l'intervalle manquant). Jours calendaires
+     * dans le fuseau du serveur.
+     */
+    @Override
+    public StatistiquesCahierInfirmerieDto statistiques(
+            int sejourId,
+            LocalDate dateDebutInclusive,
+            LocalDate dateFinInclusive,
+            BigDecimal seuilFievre,
+            Integer nombreEnfants,
+            String utilisateurTokenId) {
+        sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        if (dateDebutInclusive.isAfter(dateFinInclusive)) {
+            throw new IllegalArgumentException("La date de début doit être antérieure ou égale à la date de fin.");
+        }
+        if (ChronoUnit.DAYS.between(dateDebutInclusive, dateFinInclusive) >= NB_JOURS_MAX_STATISTIQUES) {
+            throw new IllegalArgumentException(
+                    "La période ne peut pas dépasser " + NB_JOURS_MAX_STATISTIQUES + " jours.");
+        }
+        BigDecimal seuil = seuilFievre != null ? seuilFievre : SEUIL_FIEVRE_PAR_DEFAUT;
+        if (seuil.scale() > 1
+                || seuil.compareTo(BigDecimal.valueOf(35)) < 0
+                || seuil.compareTo(BigDecimal.valueOf(42)) > 0) {
+            throw new IllegalArgumentException(
+                    "Le seuil de fièvre doit être compris entre 35 et 42 °C, avec au plus une décimale.");
+        }
+        int nombre = nombreEnfants != null ? nombreEnfants : NOMBRE_ENFANTS_PAR_DEFAUT;
+        if (nombre < 1 || nombre > NOMBRE_ENFANTS_MAX) {
+            throw new IllegalArgumentException(
+                    "Le nombre d'enfants doit être compris entre 1 et " + NOMBRE_ENFANTS_MAX + ".");
+        }
+
+        List<StatistiquesJourInfirmerieDto> jours = statistiquesInfirmerieCache.obtenir(
+                sejourId,
+                dateDebutInclusive,
+                dateFinInclusive,
+                seuil,
+                (premierJour, dernierJour) -> calculerStatistiquesJours(sejourId, premierJour, dernierJour, seuil));
+        List<EnfantPassagesInfirmerieDto> enfants = cahierInfirmerieEntreeRepository
+                .findEnfantsLesPlusVus(
+                        sejourId,
+                        debutDuJour(dateDebutInclusive),
+                        debutDuJour(dateFinInclusive.plusDays(1)),
+                        PageRequest.of(0, nombre))
+                .stream()
+                .map(e -> new EnfantPassagesInfirmerieDto(e.enfantId(), e.prenom(), e.nom(), e.passages()))
+                .toList();
+        return new StatistiquesCahierInfirmerieDto(dateDebutInclusive, dateFinInclusive, seuil, jours, enfants);
     }
 
     @Override
@@ -108,7 +267,10 @@ public class CahierInfirmerieServiceImpl implements CahierInfirmerieService {
         entree.setAppelAutrePrecision(blankToNull(request.appelAutrePrecision()));
 
         CahierInfirmerieEntree sauve = cahierInfirmerieEntreeRepository.save(entree);
+        statistiquesInfirmerieCache.invaliderJour(sejourId, jourDe(sauve.getDateHeure()));
+        indexRechercheSejours.indexerEntree(sauve);
         historiqueModificationService.enregistrerCahierInfirmerie(
+                sejourId,
                 utilisateurTokenId,
                 HistoriqueModificationAction.CREATION,
                 sauve.getId(),
@@ -138,8 +300,9 @@ public class CahierInfirmerieServiceImpl implements CahierInfirmerieService {
                 sejourVerificationService.exigerUtilisateurDirecteurOuMembreEquipeDuSejour(
                         sejourId, request.soigneurTokenId());
 
-        String signatureAvant = signatureTechniqueEntree(entree);
+        long signatureAvant = signatureTechniqueEntree(entree);
         String ancienneValeur = libelleEntreePourHistorique(entree);
+        LocalDate ancienJour = jourDe(entree.getDateHeure());
 
         entree.setEnfant(enfant);
         entree.setSoigneur(soigneur);
@@ -153,8 +316,12 @@ public class CahierInfirmerieServiceImpl implements CahierInfirmerieService {
         entree.setAppelAutrePrecision(blankToNull(request.appelAutrePrecision()));
 
         CahierInfirmerieEntree sauve = cahierInfirmerieEntreeRepository.save(entree);
-        if (!signatureAvant.equals(signatureTechniqueEntree(sauve))) {
+        statistiquesInfirmerieCache.invaliderJour(sejourId, ancienJour);
+        statistiquesInfirmerieCache.invaliderJour(sejourId, jourDe(sauve.getDateHeure()));
+        indexRechercheSejours.indexerEntree(sauve);
+        if (signatureAvant != signatureTechniqueEntree(sauve)) {
             historiqueModificationService.enregistrerCahierInfirmerie(
+                    sejourId,
                     utilisateurTokenId,
                     HistoriqueModificationAction.MODIFICATION,
                     sauve.getId(),
@@ -172,8 +339,113 @@ public class CahierInfirmerieServiceImpl implements CahierInfirmerieService {
         int idSupprimee = entree.getId();
         String ancienneValeur = libelleEntreePourHistorique(entree);
         historiqueModificationService.enregistrerCahierInfirmerie(
+                sejourId,
                 utilisateurTokenId, HistoriqueModificationAction.SUPPRESSION, idSupprimee, ancienneValeur, null);
         cahierInfirmerieEntreeRepository.delete(entree);
+        statistiquesInfirmerieCache.invaliderJour(sejourId, jourDe(entree.getDateHeure()));
+        indexRechercheSejours.retirer(sejourId, TypeDocumentRecherche.ENTREE_INFIRMERIE, idSupprimee);
+    }
+
+    /**
+     * Compteurs de chaque jour de {@code [premierJour, dernierJour]} : les heures renvoyées par les requêtes
+     * sont rattachées au jour local de leur début (fuseaux à décalage horaire entier).
+     */
+    private Map<LocalDate, StatistiquesJourInfirmerieDto> calculerStatistiquesJours(
+            int sejourId, LocalDate premierJour, LocalDate dernierJour, BigDecimal seuil) {
+        Instant debut = debutDuJour(premierJour);
+        Instant fin = debutDuJour(dernierJour.plusDays(1));
+        Map<LocalDate, CompteursJour> compteurs = new LinkedHashMap<>();
+        for (LocalDate jour = premierJour; !jour.isAfter(dernierJour); jour = jour.plusDays(1)) {
+            compteurs.put(jour, new CompteursJour());
+        }
+        cahierInfirmerieEntreeRepository.compterTotauxParHeure(sejourId, debut, fin, seuil).forEach(t -> {
+            CompteursJour jour = compteurs.get(jourDe(t.heure()));
+            jour.entrees += t.entrees();
+            jour.fievres += t.fievres();
+        });
+        cahierInfirmerieEntreeRepository.compterSoinsParHeureEtType(sejourId, debut, fin)
+                .forEach(c -> compteurs.get(jourDe(c.heure())).soins.merge(c.type(), c.nombre(), Long::sum));
+        cahierInfirmerieEntreeRepository.compterAppelsParHeureEtType(sejourId, debut, fin)
+                .forEach(c -> compteurs.get(jourDe(c.heure())).appels.merge(c.type(), c.nombre(), Long::sum));
+        Map<LocalDate, StatistiquesJourInfirmerieDto> jours = new LinkedHashMap<>();
+        compteurs.forEach((jour, c) -> jours.put(jour, new StatistiquesJourInfirmerieDto(
+                jour,
+                c.entrees,
+                c.fievres,
+                Collections.unmodifiableMap(c.soins),
+                Collections.unmodifiableMap(c.appels))));
+        return jours;
+    }
+
+    /** Accumulateur d'une journée, tous les types de soin et d'appel initialisés à 0. */
+    private static final class CompteursJour {
+        private long entrees;
+        private long fievres;
+        private final Map<TypeSoinInfirmerie, Long> soins = new EnumMap<>(TypeSoinInfirmerie.class);
+        private final Map<TypeAppelInfirmerie, Long> appels = new EnumMap<>(TypeAppelInfirmerie.class);
+
+        private CompteursJour() {
+            for (TypeSoinInfirmerie type : TypeSoinInfirmerie.values()) {
+                soins.put(type, 0L);
+            }
+            for (TypeAppelInfirmerie type : TypeAppelInfirmerie.values()) {
+                appels.put(type, 0L);
+            }
+        }
+    }
+
+    private static Instant debutDuJour(LocalDate jour) {
+        return jour.atStartOfDay(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static LocalDate jourDe(Instant dateHeure) {
+        return dateHeure.atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    /** Entrées des ids donnés, dans cet ordre (ids disparus ignorés), soins et appels lus par lot. */
+    private List<CahierInfirmerieEntreeDto> chargerDansLOrdre(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, CahierInfirmerieEntree> parId =
+                cahierInfirmerieEntreeRepository.findByIdInWithEnfantAndCreateur(ids).stream()
+                        .collect(Collectors.toMap(CahierInfirmerieEntree::getId, e -> e));
+        List<CahierInfirmerieEntree> ordonnees = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            CahierInfirmerieEntree entree = parId.get(id);
+            if (entree != null) {
+                ordonnees.add(entree);
+            }
+        }
+        return mapAvecCollections(ordonnees);
+    }
+
+    /**
+     * Conversion en DTO avec les collections {@code soins} / {@code appels} chargées par lots de
+     * {@link #TAILLE_LOT_COLLECTIONS} entrées (deux requêtes par lot) plutôt qu'entrée par entrée.
+     */
+    private List<CahierInfirmerieEntreeDto> mapAvecCollections(List<CahierInfirmerieEntree> entrees) {
+        List<CahierInfirmerieEntreeDto> dtos = new ArrayList<>(entrees.size());
+        for (int debut = 0; debut < entrees.size(); debut += TAILLE_LOT_COLLECTIONS) {
+            List<CahierInfirmerieEntree> lot =
+                    entrees.subList(debut, Math.min(debut + TAILLE_LOT_COLLECTIONS, entrees.size()));
+            List<Integer> ids = lot.stream().map(CahierInfirmerieEntree::getId).toList();
+            Map<Integer, Set<TypeSoinInfirmerie>> soins = new HashMap<>();
+            for (CahierInfirmerieSoinProjection ligne : cahierInfirmerieEntreeRepository.findSoinsByEntreeIdIn(ids)) {
+                soins.computeIfAbsent(ligne.entreeId(), k -> EnumSet.noneOf(TypeSoinInfirmerie.class)).add(ligne.type());
+            }
+            Map<Integer, Set<TypeAppelInfirmerie>> appels = new HashMap<>();
+            for (CahierInfirmerieAppelProjection ligne : cahierInfirmerieEntreeRepository.findAppelsByEntreeIdIn(ids)) {
+                appels.computeIfAbsent(ligne.entreeId(), k -> EnumSet.noneOf(TypeAppelInfirmerie.class)).add(ligne.type());
+            }
+            for (CahierInfirmerieEntree entree : lot) {
+                dtos.add(mapToDto(
+                        entree,
+                        soins.getOrDefault(entree.getId(), Set.of()),
+                        appels.getOrDefault(entree.getId(), Set.of())));
+            }
+        }
+        return dtos;
     }
 
     private CahierInfirmerieEntree chargerEntreePourLecture(int sejourId, int entreeId) {
@@ -259,35 +531,19 @@ public class CahierInfirmerieServiceImpl implements CahierInfirmerieService {
         return s == null ? "" : s;
     }
 
-    private String signatureTechniqueEntree(CahierInfirmerieEntree e) {
-        int enfantId = e.getEnfant() == null ? -1 : e.getEnfant().getId();
-        String soins =
-                e.getSoins() == null
-                        ? ""
-                        : e.getSoins().stream()
-                                .sorted(Comparator.comparing(TypeSoinInfirmerie::name))
-                                .map(TypeSoinInfirmerie::name)
-                                .collect(Collectors.joining(","));
-        String appels =
-                e.getAppels() == null
-                        ? ""
-                        : e.getAppels().stream()
-                                .sorted(Comparator.comparing(TypeAppelInfirmerie::name))
-                                .map(TypeAppelInfirmerie::name)
-                                .collect(Collectors.joining(","));
-        String soigneurToken = e.getSoigneur() == null ? "" : nullToEmpty(e.getSoigneur().getTokenId());
-        return String.join(
-                "|",
-                String.valueOf(enfantId),
-                String.valueOf(e.getDateHeure()),
-                nullToEmpty(e.getDescription()),
-                e.getLocalisationCorps() == null ? "" : e.getLocalisationCorps(),
-                soins,
-                e.getSoinsAutrePrecision() == null ? "" : e.getSoinsAutrePrecision(),
-                e.getTemperatureCelsius() == null ? "" : e.getTemperatureCelsius().toPlainString(),
-                appels,
-                e.getAppelAutrePrecision() == null ? "" : e.getAppelAutrePrecision(),
-                soigneurToken);
+    private long signatureTechniqueEntree(CahierInfirmerieEntree e) {
+        return EmpreinteHistorique.nouvelle()
+                .reference(e.getEnfant(), Enfant::getId)
+                .instant(e.getDateHeure())
+                .texte(e.getDescription())
+                .texte(e.getLocalisationCorps())
+                .elements(e.getSoins(), TypeSoinInfirmerie::ordinal)
+                .texte(e.getSoinsAutrePrecision())
+                .decimal(e.getTemperatureCelsius())
+                .elements(e.getAppels(), TypeAppelInfirmerie::ordinal)
+                .texte(e.getAppelAutrePrecision())
+                .reference(e.getSoigneur(), Utilisateur::getId)
+                .valeur();
     }
 
     private String libelleEntreePourHistorique(CahierInfirmerieEntree e) {
@@ -353,13 +609,16 @@ public class CahierInfirmerieServiceImpl implements CahierInfirmerieService {
     }
 
     private CahierInfirmerieEntreeDto mapToDto(CahierInfirmerieEntree entree) {
+        return mapToDto(entree, entree.getSoins(), entree.getAppels());
+    }
+
+    private CahierInfirmerieEntreeDto mapToDto(
+            CahierInfirmerieEntree entree, Set<TypeSoinInfirmerie> soinsEntree, Set<TypeAppelInfirmerie> appelsEntree) {
         Enfant enfant = entree.getEnfant();
         Utilisateur createur = entree.getCreateur();
         Utilisateur soigneur = entree.getSoigneur();
-        Set<TypeSoinInfirmerie> soins =
-                entree.getSoins() == null ? Set.of() : Set.copyOf(entree.getSoins());
-        Set<TypeAppelInfirmerie> appels =
-                entree.getAppels() == null ? Set.of() : Set.copyOf(entree.getAppels());
+        Set<TypeSoinInfirmerie> soins = soinsEntree == null ? Set.of() : Set.copyOf(soinsEntree);
+        Set<TypeAppelInfirmerie> appels = appelsEntree == null ? Set.of() : Set.copyOf(appelsEntree);
         return new CahierInfirmerieEntreeDto(
                 entree.getId(),
                 entree.getSejour().getId(),
@@ -9,6 +9,8 @@ import com.tarnof.enjoyrestapi.entities.SejourEnfantId;
 import com.tarnof.enjoyrestapi.entities.Utilisateur;
 import com.tarnof.enjoyrestapi.enums.HistoriqueModificationAction;
 import com.tarnof.enjoyrestapi.enums.TypeChambre;
+import com.tarnof.enjoyrestapi.excel.ExcelExportSpecs;
+import com.tarnof.enjoyrestapi.excel.ExcelExportWriter;
 import com.tarnof.enjoyrestapi.exceptions.ResourceAlreadyExistsException;
 import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
 import com.tarnof.enjoyrestapi.payload.request.AffecterOccupantChambreRequest;
@@ -31,9 +33,11 @@ import com.tarnof.enjoyrestapi.services.ChambreService;
 import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
 import com.tarnof.enjoyrestapi.services.SejourVerificationService;
 import com.tarnof.enjoyrestapi.utils.ChambreGenreRules;
+import com.tarnof.enjoyrestapi.utils.EmpreinteHistorique;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
@@ -82,6 +86,22 @@ public class ChambreServiceImpl implements ChambreService {
         return chambres.stream().map(this::mapToDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void parcourirOccupantsDesChambres(int sejourId, String utilisateurTokenId,
+                                              ExcelExportWriter.Lignes<ExcelExportSpecs.OccupantChambreLigne> lignes)
+            throws IOException {
+        for (ChambreDto chambre : listerChambresDuSejour(sejourId, utilisateurTokenId)) {
+            if (chambre.occupants() == null || chambre.occupants().isEmpty()) {
+                lignes.ajouter(new ExcelExportSpecs.OccupantChambreLigne(chambre, null));
+                continue;
+            }
+            for (ChambreOccupantDto occupant : chambre.occupants()) {
+                lignes.ajouter(new ExcelExportSpecs.OccupantChambreLigne(chambre, occupant));
+            }
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ChambreDto getChambre(int sejourId, int chambreId, String utilisateurTokenId) {
@@ -104,6 +124,7 @@ public class ChambreServiceImpl implements ChambreService {
         appliquerGroupe(chambre, sejourId, request);
         Chambre sauve = chambreRepository.save(chambre);
         historiqueModificationService.enregistrerChambre(
+                sejourId,
                 utilisateurTokenId,
                 HistoriqueModificationAction.CREATION,
                 sauve.getId(),
@@ -119,7 +140,7 @@ public class ChambreServiceImpl implements ChambreService {
         sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
         Chambre chambre = getChambreEtVerifierSejour(sejourId, chambreId);
         preparerChambrePourSnapshotHistorique(chambre);
-        String signatureAvant = signatureTechniqueChambre(chambre);
+        long signatureAvant = signatureTechniqueChambre(chambre);
         String ancienneValeur = libelleChambrePourHistorique(chambre);
         TypeChambre ancienType = chambre.getTypeChambre();
         String identifiant = normaliserIdentifiant(request.identifiant());
@@ -134,8 +155,9 @@ public class ChambreServiceImpl implements ChambreService {
         verifierCapaciteCoherenteAvecOccupants(chambre);
         Chambre sauve = chambreRepository.save(chambre);
         preparerChambrePourSnapshotHistorique(sauve);
-        if (!signatureAvant.equals(signatureTechniqueChambre(sauve))) {
+        if (signatureAvant != signatureTechniqueChambre(sauve)) {
             historiqueModificationService.enregistrerChambre(
+                    sejourId,
                     utilisateurTokenId,
                     HistoriqueModificationAction.MODIFICATION,
                     sauve.getId(),
@@ -154,6 +176,7 @@ public class ChambreServiceImpl implements ChambreService {
         int idSupprime = chambre.getId();
         String ancienneValeur = libelleChambrePourHistorique(chambre);
         historiqueModificationService.enregistrerChambre(
+                sejourId,
                 utilisateurTokenId,
                 HistoriqueModificationAction.SUPPRESSION,
                 idSupprime,
@@ -170,7 +193,7 @@ public class ChambreServiceImpl implements ChambreService {
         Chambre chambre = getChambreEtVerifierSejour(sejourId, chambreId);
         verifierChambreAccepteReferents(chambre);
         preparerChambrePourSnapshotHistorique(chambre);
-        String signatureAvant = signatureTechniqueChambre(chambre);
+        long signatureAvant = signatureTechniqueChambre(chambre);
         String ancienneValeur = libelleChambrePourHistorique(chambre);
         Utilisateur referent = utilisateurRepository.findByTokenId(request.referentTokenId())
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -180,8 +203,9 @@ public class ChambreServiceImpl implements ChambreService {
         }
         chambre.getReferents().add(referent);
         chambreRepository.save(chambre);
-        if (!signatureAvant.equals(signatureTechniqueChambre(chambre))) {
+        if (signatureAvant != signatureTechniqueChambre(chambre)) {
             historiqueModificationService.enregistrerChambre(
+                    sejourId,
                     utilisateurTokenId,
                     HistoriqueModificationAction.MODIFICATION,
                     chambre.getId(),
@@ -198,7 +222,7 @@ public class ChambreServiceImpl implements ChambreService {
         Chambre chambre = getChambreEtVerifierSejour(sejourId, chambreId);
         verifierChambreAccepteReferents(chambre);
         preparerChambrePourSnapshotHistorique(chambre);
-        String signatureAvant = signatureTechniqueChambre(chambre);
+        long signatureAvant = signatureTechniqueChambre(chambre);
         String ancienneValeur = libelleChambrePourHistorique(chambre);
         Utilisateur referent = utilisateurRepository.findByTokenId(referentTokenId)
                 .orElseThrow(() -> new ResourceNotFoundException("Référent non trouvé avec l'ID: " + referentTokenId));
@@ -207,8 +231,9 @@ public class ChambreServiceImpl implements ChambreService {
             throw new ResourceNotFoundException("Ce référent ne fait pas partie de la chambre");
         }
         chambreRepository.save(chambre);
-        if (!signatureAvant.equals(signatureTechniqueChambre(chambre))) {
+        if (signatureAvant != signatureTechniqueChambre(chambre)) {
             historiqueModificationService.enregistrerChambre(
+                    sejourId,
                     utilisateurTokenId,
                     HistoriqueModificationAction.MODIFICATION,
                     chambre.getId(),
@@ -241,7 +266,7 @@ public class ChambreServiceImpl implements ChambreService {
         Chambre chambre = getChambreEtVerifierSejour(sejourId, chambreId);
         verifierChambreAccepteEnfants(chambre);
         preparerChambrePourSnapshotHistorique(chambre);
-        String signatureAvant = signatureTechniqueChambre(chambre);
+        long signatureAvant = signatureTechniqueChambre(chambre);
         String ancienneValeur = libelleChambrePourHistorique(chambre);
         List<AffecterOccupantEnfantItemRequest> items = request.occupants();
         verifierDoublonsEnfantsDansRequete(items);
@@ -265,8 +290,9 @@ public class ChambreServiceImpl implements ChambreService {
         }
         chambreRepository.save(chambre);
         Chambre reloaded = rechargerChambreAvecOccupants(sejourId, chambreId);
-        if (!signatureAvant.equals(signatureTechniqueChambre(reloaded))) {
+        if (signatureAvant != signatureTechniqueChambre(reloaded)) {
             historiqueModificationService.enregistrerChambre(
+                    sejourId,
                     utilisateurTokenId,
                     HistoriqueModificationAction.MODIFICATION,
                     reloaded.getId(),
@@ -283,14 +309,15 @@ public class ChambreServiceImpl implements ChambreService {
         Chambre chambre = getChambreEtVerifierSejour(sejourId, chambreId);
         verifierChambreAccepteEnfants(chambre);
         preparerChambrePourSnapshotHistorique(chambre);
-        String signatureAvant = signatureTechniqueChambre(chambre);
+        long signatureAvant = signatureTechniqueChambre(chambre);
         String ancienneValeur = libelleChambrePourHistorique(chambre);
         ChambreOccupant occupant = trouverOccupantEnfantDansChambre(chambre, enfantId);
         chambre.getOccupants().remove(occupant);
         chambreOccupantRepository.delete(occupant);
         chambreRepository.save(chambre);
-        if (!signatureAvant.equals(signatureTechniqueChambre(chambre))) {
+        if (signatureAvant != signatureTechniqueChambre(chambre)) {
             historiqueModificationService.enregistrerChambre(
+                    sejourId,
                     utilisateurTokenId,
                     HistoriqueModificationAction.MODIFICATION,
                     chambre.getId(),
@@ -324,7 +351,7 @@ public class ChambreServiceImpl implements ChambreService {
         Chambre chambre = getChambreEtVerifierSejour(sejourId, chambreId);
         verifierChambreAccepteEquipe(chambre);
         preparerChambrePourSnapshotHistorique(chambre);
-        String signatureAvant = signatureTechniqueChambre(chambre);
+        long signatureAvant = signatureTechniqueChambre(chambre);
         String ancienneValeur = libelleChambrePourHistorique(chambre);
         List<AffecterOccupantEquipeItemRequest> items = request.occupants().stream()
                 .map(item -> new AffecterOccupantEquipeItemRequest(
@@ -348,8 +375,9 @@ public class ChambreServiceImpl implements ChambreService {
         }
         chambreRepository.save(chambre);
         Chambre reloaded = rechargerChambreAvecOccupants(sejourId, chambreId);
-        if (!signatureAvant.equals(signatureTechniqueChambre(reloaded))) {
+        if (signatureAvant != signatureTechniqueChambre(reloaded)) {
             historiqueModificationService.enregistrerChambre(
+                    sejourId,
                     utilisateurTokenId,
                     HistoriqueModificationAction.MODIFICATION,
                     reloaded.getId(),
@@ -366,7 +394,7 @@ public class ChambreServiceImpl implements ChambreService {
         Chambre chambre = getChambreEtVerifierSejour(sejourId, chambreId);
         verifierChambreAccepteEquipe(chambre);
         preparerChambrePourSnapshotHistorique(chambre);
-        String signatureAvant = signatureTechniqueChambre(chambre);
+        long signatureAvant = signatureTechniqueChambre(chambre);
         String ancienneValeur = libelleChambrePourHistorique(chambre);
         Utilisateur membre = utilisateurRepository.findByTokenId(membreTokenId)
                 .orElseThrow(() -> new ResourceNotFoundException("Membre non trouvé avec l'ID: " + membreTokenId));
@@ -377,8 +405,9 @@ public class ChambreServiceImpl implements ChambreService {
         chambre.getOccupants().remove(occupant);
         chambreOccupantRepository.delete(occupant);
         chambreRepository.save(chambre);
-        if (!signatureAvant.equals(signatureTechniqueChambre(chambre))) {
+        if (signatureAvant != signatureTechniqueChambre(chambre)) {
             historiqueModificationService.enregistrerChambre(
+                    sejourId,
                     utilisateurTokenId,
                     HistoriqueModificationAction.MODIFICATION,
                     chambre.getId(),
@@ -846,57 +875,32 @@ public class ChambreServiceImpl implements ChambreService {
         }
     }
 
-    private String signatureTechniqueChambre(Chambre c) {
-        String groupePart = c.getGroupe() == null ? "-" : String.valueOf(c.getGroupe().getId());
-        String referents =
-                c.getReferents() == null
-                        ? ""
-                        : c.getReferents().stream()
-                                .map(Utilisateur::getId)
-                                .sorted()
-                                .map(String::valueOf)
-                                .collect(Collectors.joining(","));
-        String occupants =
-                c.getOccupants() == null
-                        ? ""
-                        : c.getOccupants().stream()
-                                .map(this::signatureOccupantChambre)
-                                .sorted()
-                                .collect(Collectors.joining(","));
-        return c.getTypeChambre()
-                + "|"
-                + nullToVide(c.getIdentifiant())
-                + "|"
-                + nullToVide(c.getNom())
-                + "|"
-                + c.getCapaciteMax()
-                + "|"
-                + c.getGenreAutorise()
-                + "|"
-                + nullToVide(c.getDescription())
-                + "|"
-                + nullToVide(c.getBatiment())
-                + "|"
-                + nullToVide(c.getCouloir())
-                + "|"
-                + (c.getEtage() == null ? "" : c.getEtage())
-                + "|"
-                + groupePart
-                + "|"
-                + referents
-                + "|"
-                + occupants;
+    private long signatureTechniqueChambre(Chambre c) {
+        return EmpreinteHistorique.nouvelle()
+                .valeur(c.getTypeChambre())
+                .texte(c.getIdentifiant())
+                .texte(c.getNom())
+                .entier(c.getCapaciteMax())
+                .valeur(c.getGenreAutorise())
+                .texte(c.getDescription())
+                .texte(c.getBatiment())
+                .texte(c.getCouloir())
+                .entier(c.getEtage())
+                .reference(c.getGroupe(), Groupe::getId)
+                .ids(c.getReferents(), Utilisateur::getId)
+                .elements(c.getOccupants(), ChambreServiceImpl::cleOccupantChambre)
+                .valeur();
     }
 
-    private String signatureOccupantChambre(ChambreOccupant o) {
-        String lit = o.getNumeroLit() == null ? "" : String.valueOf(o.getNumeroLit());
+    private static long cleOccupantChambre(ChambreOccupant o) {
+        long lit = EmpreinteHistorique.cle(o.getNumeroLit());
         if (o.getEnfant() != null) {
-            return "E" + o.getEnfant().getId() + ":" + lit;
+            return EmpreinteHistorique.cle(EmpreinteHistorique.cle('E', o.getEnfant().getId()), lit);
         }
         if (o.getUtilisateur() != null) {
-            return "U" + o.getUtilisateur().getId() + ":" + lit;
+            return EmpreinteHistorique.cle(EmpreinteHistorique.cle('U', o.getUtilisateur().getId()), lit);
         }
-        return "?";
+        return 0;
     }
 
     private String libelleChambrePourHistorique(Chambre c) {
@@ -978,8 +982,4 @@ public class ChambreServiceImpl implements ChambreService {
         String t = s.trim();
         return t.isEmpty() ? "-" : t;
     }
-
-    private static String nullToVide(String s) {
-        return s == null ? "" : s.trim();
-    }
 }
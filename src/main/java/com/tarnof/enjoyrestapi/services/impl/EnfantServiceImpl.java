@@ -20,6 +20,7 @@ import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.tarnof.enjoyrestapi.enums.ChampDossierEnfant;
 import com.tarnof.enjoyrestapi.enums.Genre;
 import com.tarnof.enjoyrestapi.enums.NiveauScolaire;
 import com.tarnof.enjoyrestapi.enums.TypeReferenceAlimentaire;
@@ -48,11 +49,25 @@ import com.tarnof.enjoyrestapi.repositories.EnfantRepository;
 import com.tarnof.enjoyrestapi.repositories.GroupeRepository;
 import com.tarnof.enjoyrestapi.repositories.SejourRepository;
 import com.tarnof.enjoyrestapi.repositories.SejourEnfantRepository;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantAlimentaireProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantAutresProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantContactsProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantMedicalProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantReferenceProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantTraitementsProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.EnfantIdentiteProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.GroupeEnfantProjection;
 import com.tarnof.enjoyrestapi.excel.ExcelImportSpec;
 import com.tarnof.enjoyrestapi.services.EnfantService;
+import com.tarnof.enjoyrestapi.services.GroupeService;
+import com.tarnof.enjoyrestapi.services.CatalogueReferencesAlimentaires;
+import com.tarnof.enjoyrestapi.services.DonneesAlimentairesSejourCache;
+import com.tarnof.enjoyrestapi.services.IndexRechercheSejours;
 import com.tarnof.enjoyrestapi.services.SejourVerificationService;
 import com.tarnof.enjoyrestapi.utils.ExcelHelper;
+import com.tarnof.enjoyrestapi.utils.JsonFlux;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 
 @Service
@@ -65,12 +80,22 @@ public class EnfantServiceImpl implements EnfantService {
     private final DossierEnfantRepository dossierEnfantRepository;
     private final ReferenceAlimentaireRepository referenceAlimentaireRepository;
     private final SejourVerificationService sejourVerificationService;
+    private final GroupeService groupeService;
+    private final DonneesAlimentairesSejourCache donneesAlimentairesSejourCache;
+    private final CatalogueReferencesAlimentaires catalogueReferencesAlimentaires;
+    private final IndexRechercheSejours indexRechercheSejours;
+    private final EntityManager entityManager;
 
     public EnfantServiceImpl(EnfantRepository enfantRepository, SejourRepository sejourRepository,
                              SejourEnfantRepository sejourEnfantRepository, GroupeRepository groupeRepository,
                              DossierEnfantRepository dossierEnfantRepository,
                              ReferenceAlimentaireRepository referenceAlimentaireRepository,
-                             SejourVerificationService sejourVerificationService) {
+                             SejourVerificationService sejourVerificationService,
+                             GroupeService groupeService,
+                             DonneesAlimentairesSejourCache donneesAlimentairesSejourCache,
+                             CatalogueReferencesAlimentaires catalogueReferencesAlimentaires,
+                             IndexRechercheSejours indexRechercheSejours,
+                             EntityManager entityManager) {
         this.enfantRepository = enfantRepository;
         this.sejourRepository = sejourRepository;
         this.sejourEnfantRepository = sejourEnfantRepository;
@@ -78,6 +103,11 @@ public class EnfantServiceImpl implements EnfantService {
         this.dossierEnfantRepository = dossierEnfantRepository;
         this.referenceAlimentaireRepository = referenceAlimentaireRepository;
         this.sejourVerificationService = sejourVerificationService;
+        this.groupeService = groupeService;
+        this.donneesAlimentairesSejourCache = donneesAlimentairesSejourCache;
+        this.catalogueReferencesAlimentaires = catalogueReferencesAlimentaires;
+        this.indexRechercheSejours = indexRechercheSejours;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -143,6 +173,8 @@ public class EnfantServiceImpl implements EnfantService {
         
         sejour.getEnfants().add(sejourEnfant);
         sejourRepository.save(sejour);
+        donneesAlimentairesSejourCache.invaliderSejour(sejourId);
+        indexRechercheSejours.invaliderSejour(sejourId);
     }
 
     @Override
@@ -205,6 +237,8 @@ public class EnfantServiceImpl implements EnfantService {
                     enfantRepository.delete(enfantActuel);
                     enfantRepository.flush();
                 }
+                donneesAlimentairesSejourCache.invaliderSejour(sejourId);
+                indexRechercheSejours.invaliderSejour(sejourId);
                 
                 return mapToEnfantDto(enfantExistant);
             }
@@ -245,6 +279,8 @@ public class EnfantServiceImpl implements EnfantService {
             enfantRepository.delete(enfantASupprimer);
             enfantRepository.flush();
         }
+        donneesAlimentairesSejourCache.invaliderSejour(sejourId);
+        indexRechercheSejours.invaliderSejour(sejourId);
     }
 
     @Override
@@ -292,6 +328,8 @@ public class EnfantServiceImpl implements EnfantService {
             enfantRepository.delete(enfantASupprimer);
         }
         enfantRepository.flush();
+        donneesAlimentairesSejourCache.invaliderSejour(sejourId);
+        indexRechercheSejours.invaliderSejour(sejourId);
     }
 
     @Override
@@ -318,15 +356,13 @@ public class EnfantServiceImpl implements EnfantService {
 
     @Override
     public List<EnfantDossierSanitaireLigneDto> listerDossiersEnfantsDuSejour(int sejourId, String utilisateurTokenId) {
-        Sejour sejour = sejourRepository.findById(sejourId)
-                .orElseThrow(() -> new ResourceNotFoundException("Séjour non trouvé avec l'ID: " + sejourId));
+        return listerDossiersEnfantsDuSejour(sejourId, utilisateurTokenId, null);
+    }
 
-        boolean estDirecteur = sejour.getDirecteur() != null && sejour.getDirecteur().getTokenId().equals(utilisateurTokenId);
-        boolean estDansEquipe = sejour.getEquipeRoles() != null && sejour.getEquipeRoles().stream()
-                .anyMatch(se -> se.getUtilisateur() != null && se.getUtilisateur().getTokenId().equals(utilisateurTokenId));
-        if (!estDirecteur && !estDansEquipe) {
-            throw new AccessDeniedException("Vous ne participez pas à ce séjour");
-        }
+    @Override
+    public List<EnfantDossierSanitaireLigneDto> listerDossiersEnfantsDuSejour(
+            int sejourId, String utilisateurTokenId, Set<ChampDossierEnfant> champs) {
+        verifierParticipationAuSejour(sejourId, utilisateurTokenId);
 
         List<SejourEnfant> liens = sejourEnfantRepository.findBySejourIdWithEnfant(sejourId);
         if (liens.isEmpty()) {
@@ -335,10 +371,9 @@ public class EnfantServiceImpl implements EnfantService {
 
         List<Integer> enfantIds = liens.stream().map(se -> se.getEnfant().getId()).collect(Collectors.toList());
 
-        Map<Integer, DossierEnfant> dossierParEnfantId = dossierEnfantRepository
-                .findByEnfantIdInFetchingReferences(enfantIds)
-                .stream()
-                .collect(Collectors.toMap(d -> d.getEnfant().getId(), d -> d, (a, b) -> a));
+        Map<Integer, DossierEnfantDto> dossierParEnfantId = champs == null
+                ? chargerDossiersComplets(enfantIds)
+                : chargerDossiersPartiels(enfantIds, champs);
 
         Map<Integer, List<GroupeResumeDto>> groupesParEnfant = new HashMap<>();
         for (Groupe groupe : groupeRepository.findBySejourIdFetchingEnfants(sejourId)) {
@@ -357,8 +392,7 @@ public class EnfantServiceImpl implements EnfantService {
             List<GroupeResumeDto> groupes = new ArrayList<>(groupesParEnfant.getOrDefault(idEnfant, List.of()));
             groupes.sort(Comparator.comparingInt(GroupeResumeDto::id));
 
-            DossierEnfant dossierEnt = dossierParEnfantId.get(idEnfant);
-            DossierEnfantDto dossierDto = dossierEnt != null ? mapToDossierEnfantDto(dossierEnt) : null;
+            DossierEnfantDto dossierDto = dossierParEnfantId.get(idEnfant);
 
             lignes.add(new EnfantDossierSanitaireLigneDto(
                     idEnfant,
@@ -371,6 +405,138 @@ public class EnfantServiceImpl implements EnfantService {
         return lignes;
     }
 
+    /**
+     * Variante en flux du listing sanitaire : les enfants sont traités par lots de {@link JsonFlux#TAILLE_LOT}
+     * (dossiers + groupes du lot), puis le contexte de persistance est vidé avant le lot suivant.
+     */
+    @Override
+    @Transactional
+    public void parcourirDossiersEnfantsDuSejour(int sejourId, String utilisateurTokenId, Set<ChampDossierEnfant> champs,
+                                                 JsonFlux.Ecrivain<EnfantDossierSanitaireLigneDto> ecrivain) throws IOException {
+        verifierParticipationAuSejour(sejourId, utilisateurTokenId);
+
+        List<EnfantIdentiteProjection> identites = sejourEnfantRepository.findIdentitesBySejourId(sejourId);
+        for (int debut = 0; debut < identites.size(); debut += JsonFlux.TAILLE_LOT) {
+            List<EnfantIdentiteProjection> lot =
+                    identites.subList(debut, Math.min(debut + JsonFlux.TAILLE_LOT, identites.size()));
+            List<Integer> enfantIds = lot.stream().map(EnfantIdentiteProjection::enfantId).collect(Collectors.toList());
+
+            Map<Integer, DossierEnfantDto> dossierParEnfantId = champs == null
+                    ? chargerDossiersComplets(enfantIds)
+                    : chargerDossiersPartiels(enfantIds, champs);
+            Map<Integer, List<GroupeResumeDto>> groupesParEnfant = new HashMap<>();
+            for (GroupeEnfantProjection g : groupeRepository.findAppartenancesBySejourIdAndEnfantIdIn(sejourId, enfantIds)) {
+                groupesParEnfant.computeIfAbsent(g.enfantId(), k -> new ArrayList<>())
+                        .add(new GroupeResumeDto(g.groupeId(), g.nomGroupe()));
+            }
+
+            for (EnfantIdentiteProjection identite : lot) {
+                List<GroupeResumeDto> groupes = groupesParEnfant.getOrDefault(identite.enfantId(), new ArrayList<>());
+                groupes.sort(Comparator.comparingInt(GroupeResumeDto::id));
+                ecrivain.ecrire(new EnfantDossierSanitaireLigneDto(
+                        identite.enfantId(),
+                        identite.prenom(),
+                        identite.nom(),
+                        groupes,
+                        dossierParEnfantId.get(identite.enfantId())
+                ));
+            }
+            entityManager.clear();
+        }
+    }
+
+    private Sejour verifierParticipationAuSejour(int sejourId, String utilisateurTokenId) {
+        Sejour sejour = sejourRepository.findById(sejourId)
+                .orElseThrow(() -> new ResourceNotFoundException("Séjour non trouvé avec l'ID: " + sejourId));
+
+        boolean estDirecteur = sejour.getDirecteur() != null && sejour.getDirecteur().getTokenId().equals(utilisateurTokenId);
+        boolean estDansEquipe = sejour.getEquipeRoles() != null && sejour.getEquipeRoles().stream()
+                .anyMatch(se -> se.getUtilisateur() != null && se.getUtilisateur().getTokenId().equals(utilisateurTokenId));
+        if (!estDirecteur && !estDansEquipe) {
+            throw new AccessDeniedException("Vous ne participez pas à ce séjour");
+        }
+        return sejour;
+    }
+
+    private Map<Integer, DossierEnfantDto> chargerDossiersComplets(List<Integer> enfantIds) {
+        return dossierEnfantRepository.findByEnfantIdInFetchingReferences(enfantIds).stream()
+                .collect(Collectors.toMap(d -> d.getEnfant().getId(), this::mapToDossierEnfantDto, (a, b) -> a));
+    }
+
+    /**
+     * Dossiers réduits aux parties demandées : une requête de projection par partie, les colonnes TEXT
+     * et les tables de jointure des parties non demandées ne sont pas lues. Les parties absentes valent null.
+     */
+    private Map<Integer, DossierEnfantDto> chargerDossiersPartiels(List<Integer> enfantIds, Set<ChampDossierEnfant> champs) {
+        List<DossierEnfantContactsProjection> bases = dossierEnfantRepository.findContactsByEnfantIdIn(enfantIds);
+        if (bases.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<Integer, DossierEnfantMedicalProjection> medical = champs.contains(ChampDossierEnfant.MEDICAL)
+                ? dossierEnfantRepository.findMedicalByEnfantIdIn(enfantIds).stream()
+                        .collect(Collectors.toMap(DossierEnfantMedicalProjection::enfantId, p -> p, (a, b) -> a))
+                : Map.of();
+        Map<Integer, DossierEnfantTraitementsProjection> traitements = champs.contains(ChampDossierEnfant.TRAITEMENTS)
+                ? dossierEnfantRepository.findTraitementsByEnfantIdIn(enfantIds).stream()
+                        .collect(Collectors.toMap(DossierEnfantTraitementsProjection::enfantId, p -> p, (a, b) -> a))
+                : Map.of();
+        Map<Integer, DossierEnfantAlimentaireProjection> alimentaire = champs.contains(ChampDossierEnfant.ALIMENTAIRE)
+                ? dossierEnfantRepository.findAlimentaireByEnfantIdIn(enfantIds).stream()
+                        .collect(Collectors.toMap(DossierEnfantAlimentaireProjection::enfantId, p -> p, (a, b) -> a))
+                : Map.of();
+        Map<Integer, DossierEnfantAutresProjection> autres = champs.contains(ChampDossierEnfant.AUTRES)
+                ? dossierEnfantRepository.findAutresByEnfantIdIn(enfantIds).stream()
+                        .collect(Collectors.toMap(DossierEnfantAutresProjection::enfantId, p -> p, (a, b) -> a))
+                : Map.of();
+        Map<Integer, List<ReferenceAlimentaireDto>> allergenes = champs.contains(ChampDossierEnfant.ALLERGENES)
+                ? grouperReferencesParEnfant(dossierEnfantRepository.findAllergenesByEnfantIdIn(enfantIds))
+                : null;
+        Map<Integer, List<ReferenceAlimentaireDto>> regimes = champs.contains(ChampDossierEnfant.REGIMES)
+                ? grouperReferencesParEnfant(dossierEnfantRepository.findRegimesByEnfantIdIn(enfantIds))
+                : null;
+        boolean contacts = champs.contains(ChampDossierEnfant.CONTACTS);
+
+        Map<Integer, DossierEnfantDto> resultat = new HashMap<>();
+        for (DossierEnfantContactsProjection base : bases) {
+            int enfantId = base.enfantId();
+            DossierEnfantMedicalProjection med = medical.get(enfantId);
+            DossierEnfantTraitementsProjection trt = traitements.get(enfantId);
+            DossierEnfantAlimentaireProjection ali = alimentaire.get(enfantId);
+            DossierEnfantAutresProjection aut = autres.get(enfantId);
+            resultat.putIfAbsent(enfantId, new DossierEnfantDto(
+                base.dossierId(),
+                enfantId,
+                contacts ? base.emailParent1() : null,
+                contacts ? base.telephoneParent1() : null,
+                contacts ? base.emailParent2() : null,
+                contacts ? base.telephoneParent2() : null,
+                med != null ? med.informationsMedicales() : null,
+                med != null ? med.pai() : null,
+                allergenes != null ? allergenes.getOrDefault(enfantId, List.of()) : null,
+                regimes != null ? regimes.getOrDefault(enfantId, List.of()) : null,
+                ali != null ? ali.informationsAlimentaires() : null,
+                trt != null ? trt.traitementMatin() : null,
+                trt != null ? trt.traitementMidi() : null,
+                trt != null ? trt.traitementSoir() : null,
+                trt != null ? trt.traitementSiBesoin() : null,
+                aut != null ? aut.autresInformations() : null,
+                aut != null ? aut.aPrendreEnSortie() : null
+            ));
+        }
+        return resultat;
+    }
+
+    /** Les projections arrivent déjà triées par ordre puis id (cf. requêtes du repository). */
+    private Map<Integer, List<ReferenceAlimentaireDto>> grouperReferencesParEnfant(
+            List<DossierEnfantReferenceProjection> lignes) {
+        Map<Integer, List<ReferenceAlimentaireDto>> parEnfant = new HashMap<>();
+        for (DossierEnfantReferenceProjection l : lignes) {
+            parEnfant.computeIfAbsent(l.enfantId(), k -> new ArrayList<>())
+                    .add(new ReferenceAlimentaireDto(l.referenceId(), l.type(), l.libelle(), l.ordre(), l.actif()));
+        }
+        return parEnfant;
+    }
+
     @Override
     public DossierEnfantDto getDossierEnfant(int sejourId, int enfantId, String utilisateurTokenId) {
         SejourEnfantId sejourEnfantId = new SejourEnfantId(sejourId, enfantId);
@@ -434,6 +600,10 @@ public class EnfantServiceImpl implements EnfantService {
         }
 
         DossierEnfant dossierModifie = dossierEnfantRepository.save(dossier);
+        // Le dossier est partagé par tous les séjours de l'enfant
+        List<Integer> sejourIdsDeLEnfant = sejourEnfantRepository.findSejourIdsByEnfantId(enfantId);
+        donneesAlimentairesSejourCache.invaliderSejours(sejourIdsDeLEnfant);
+        indexRechercheSejours.indexerDossier(sejourIdsDeLEnfant, dossierModifie);
         return mapToDossierEnfantDto(dossierModifie);
     }
 
@@ -441,33 +611,11 @@ public class EnfantServiceImpl implements EnfantService {
         return value != null && value.isBlank() ? null : value;
     }
 
+    /** Ids contrôlés sur le catalogue en mémoire ; les entités sont de simples références (aucun SELECT). */
     private Set<ReferenceAlimentaire> resoudreReferences(List<Integer> ids, TypeReferenceAlimentaire typeAttendu) {
-        Set<ReferenceAlimentaire> ensemble = new HashSet<>();
-        if (ids == null) {
-            return ensemble;
-        }
-        for (Integer refId : ids) {
-            if (refId == null) {
-                throw new IllegalArgumentException("Identifiant de référence alimentaire invalide.");
-            }
-            ReferenceAlimentaire ref =
-                    referenceAlimentaireRepository
-                            .findById(refId)
-                            .orElseThrow(
-                                    () ->
-                                            new ResourceNotFoundException(
-                                                    "Référence alimentaire introuvable : " + refId));
-            if (ref.getType() != typeAttendu) {
-                throw new IllegalArgumentException(
-                        "La référence "
-                                + refId
-                                + " n'est pas du type attendu ("
-                                + typeAttendu
-                                + ").");
-            }
-            ensemble.add(ref);
-        }
-        return ensemble;
+        return catalogueReferencesAlimentaires.verifierIds(ids, typeAttendu).stream()
+                .map(referenceAlimentaireRepository::getReferenceById)
+                .collect(Collectors.toCollection(HashSet::new));
     }
 
     /** Retire un enfant de tous les groupes du séjour (règle métier : enfant supprimé du séjour = retiré de tous les groupes). */
@@ -651,6 +799,14 @@ public class EnfantServiceImpl implements EnfantService {
         } catch (IOException e) {
             throw new RuntimeException("Erreur lors de la lecture du fichier Excel: " + e.getMessage(), e);
         }
+
+        // Les nouveaux inscrits rejoignent les groupes par âge / niveau scolaire (en masse, une fois l'import terminé)
+        if (enfantsCrees > 0) {
+            groupeService.recalculerGroupesAutomatiques(sejourId);
+            // Les dossiers d'enfants déjà connus sont mis à jour : leurs autres séjours sont aussi concernés
+            donneesAlimentairesSejourCache.invaliderTout();
+            indexRechercheSejours.invaliderTout();
+        }
         
         return new ExcelImportResponse(
             totalLignes,
@@ -696,16 +852,8 @@ public class EnfantServiceImpl implements EnfantService {
     }
 
     private DossierEnfantDto mapToDossierEnfantDto(DossierEnfant dossier) {
-        Comparator<ReferenceAlimentaire> ordre =
-                Comparator.comparing(ReferenceAlimentaire::getOrdre, Comparator.nullsLast(Integer::compareTo))
-                        .thenComparing(ReferenceAlimentaire::getId);
-        List<ReferenceAlimentaireDto> allergenes =
-                dossier.getAllergenes().stream().sorted(ordre).map(this::mapReferenceDto).collect(Collectors.toList());
-        List<ReferenceAlimentaireDto> regimes =
-                dossier.getRegimesEtPreferences().stream()
-                        .sorted(ordre)
-                        .map(this::mapReferenceDto)
-                        .collect(Collectors.toList());
+        List<ReferenceAlimentaireDto> allergenes = mapReferencesDto(dossier.getAllergenes());
+        List<ReferenceAlimentaireDto> regimes = mapReferencesDto(dossier.getRegimesEtPreferences());
         return new DossierEnfantDto(
             dossier.getId(),
             dossier.getEnfant().getId(),
@@ -727,7 +875,10 @@ public class EnfantServiceImpl implements EnfantService {
         );
     }
 
-    private ReferenceAlimentaireDto mapReferenceDto(ReferenceAlimentaire r) {
-        return new ReferenceAlimentaireDto(r.getId(), r.getType(), r.getLibelle(), r.getOrdre(), r.isActif());
+    private List<ReferenceAlimentaireDto> mapReferencesDto(Set<ReferenceAlimentaire> references) {
+        return references.stream()
+                .map(catalogueReferencesAlimentaires::dtoDe)
+                .sorted(CatalogueReferencesAlimentaires.ORDRE_AFFICHAGE)
+                .collect(Collectors.toList());
     }
 }
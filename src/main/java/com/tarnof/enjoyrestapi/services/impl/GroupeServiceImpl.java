@@ -1,6 +1,7 @@
 package com.tarnof.enjoyrestapi.services.impl;
 
 import com.tarnof.enjoyrestapi.entities.*;
+import com.tarnof.enjoyrestapi.enums.NiveauScolaire;
 import com.tarnof.enjoyrestapi.enums.TypeGroupe;
 import com.tarnof.enjoyrestapi.exceptions.ResourceAlreadyExistsException;
 import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
@@ -8,7 +9,10 @@ import com.tarnof.enjoyrestapi.payload.request.AjouterReferentRequest;
 import com.tarnof.enjoyrestapi.payload.request.CreateGroupeRequest;
 import com.tarnof.enjoyrestapi.payload.response.EnfantDto;
 import com.tarnof.enjoyrestapi.payload.response.GroupeDto;
+import com.tarnof.enjoyrestapi.payload.response.RecalculGroupesDto;
 import com.tarnof.enjoyrestapi.repositories.*;
+import com.tarnof.enjoyrestapi.repositories.projections.EnfantTrancheProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.GroupeEnfantProjection;
 import com.tarnof.enjoyrestapi.services.GroupeService;
 import com.tarnof.enjoyrestapi.services.SejourVerificationService;
 import org.springframework.security.access.AccessDeniedException;
@@ -19,14 +23,23 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @SuppressWarnings("null") // save(), findById().orElseThrow() garantissent des retours non-null à l'exécution
 public class GroupeServiceImpl implements GroupeService {
 
+    /** Nombre d'enfants par requête d'insertion / suppression dans groupe_enfant. */
+    private static final int TAILLE_LOT_JOINTURE = 500;
+
     private final GroupeRepository groupeRepository;
     private final SejourVerificationService sejourVerificationService;
     private final EnfantRepository enfantRepository;
@@ -184,6 +197,92 @@ public class GroupeServiceImpl implements GroupeService {
         groupeRepository.save(groupe);
     }
 
+    @Override
+    @Transactional
+    public RecalculGroupesDto recalculerGroupesAutomatiques(int sejourId) {
+        Sejour sejour = sejourVerificationService.verifierSejourExiste(sejourId);
+        List<Groupe> groupesAuto = groupeRepository.findBySejourId(sejourId).stream()
+                .filter(this::aTrancheComplete)
+                .toList();
+        if (groupesAuto.isEmpty()) {
+            return new RecalculGroupesDto(0, 0, 0);
+        }
+
+        // Un seul passage sur les inscrits : âge calculé une fois par enfant, puis index âge / niveau -> ids
+        LocalDate refDate = dateReference(sejour);
+        Map<Integer, List<Integer>> enfantsParAge = new HashMap<>();
+        Map<NiveauScolaire, List<Integer>> enfantsParNiveau = new EnumMap<>(NiveauScolaire.class);
+        for (EnfantTrancheProjection enfant : sejourEnfantRepository.findTranchesBySejourId(sejourId)) {
+            if (enfant.dateNaissance() != null) {
+                int age = (int) ChronoUnit.YEARS.between(toLocalDate(enfant.dateNaissance()), refDate);
+                enfantsParAge.computeIfAbsent(age, k -> new ArrayList<>()).add(enfant.enfantId());
+            }
+            if (enfant.niveauScolaire() != null) {
+                enfantsParNiveau.computeIfAbsent(enfant.niveauScolaire(), k -> new ArrayList<>()).add(enfant.enfantId());
+            }
+        }
+
+        Map<Integer, Set<Integer>> membresActuels = new HashMap<>();
+        for (GroupeEnfantProjection appartenance : groupeRepository.findAppartenancesBySejourId(sejourId)) {
+            membresActuels.computeIfAbsent(appartenance.groupeId(), k -> new HashSet<>()).add(appartenance.enfantId());
+        }
+
+        int ajouts = 0;
+        int retraits = 0;
+        for (Groupe groupe : groupesAuto) {
+            Set<Integer> cible = membresCibles(groupe, enfantsParAge, enfantsParNiveau);
+            Set<Integer> actuels = membresActuels.getOrDefault(groupe.getId(), Set.of());
+
+            List<Integer> aAjouter = cible.stream().filter(id -> !actuels.contains(id)).toList();
+            List<Integer> aRetirer = actuels.stream().filter(id -> !cible.contains(id)).toList();
+            for (List<Integer> lot : parLots(aRetirer)) {
+                retraits += groupeRepository.retirerEnfantsDuGroupe(groupe.getId(), lot);
+            }
+            for (List<Integer> lot : parLots(aAjouter)) {
+                ajouts += groupeRepository.insererEnfantsDansGroupe(groupe.getId(), lot);
+            }
+        }
+        return new RecalculGroupesDto(groupesAuto.size(), ajouts, retraits);
+    }
+
+    private Set<Integer> membresCibles(Groupe groupe, Map<Integer, List<Integer>> enfantsParAge,
+                                       Map<NiveauScolaire, List<Integer>> enfantsParNiveau) {
+        Set<Integer> cible = new HashSet<>();
+        if (groupe.getTypeGroupe() == TypeGroupe.AGE) {
+            for (int age = groupe.getAgeMin(); age <= groupe.getAgeMax(); age++) {
+                cible.addAll(enfantsParAge.getOrDefault(age, List.of()));
+            }
+        } else {
+            for (NiveauScolaire niveau : NiveauScolaire.values()) {
+                if (niveau.ordinal() >= groupe.getNiveauScolaireMin().ordinal()
+                        && niveau.ordinal() <= groupe.getNiveauScolaireMax().ordinal()) {
+                    cible.addAll(enfantsParNiveau.getOrDefault(niveau, List.of()));
+                }
+            }
+        }
+        return cible;
+    }
+
+    private static List<List<Integer>> parLots(List<Integer> ids) {
+        List<List<Integer>> lots = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += TAILLE_LOT_JOINTURE) {
+            lots.add(ids.subList(i, Math.min(i + TAILLE_LOT_JOINTURE, ids.size())));
+        }
+        return lots;
+    }
+
+    /** Groupe par âge ou par niveau dont la tranche est renseignée (rattachement automatique). */
+    private boolean aTrancheComplete(Groupe groupe) {
+        return (groupe.getTypeGroupe() == TypeGroupe.AGE && groupe.getAgeMin() != null && groupe.getAgeMax() != null)
+                || (groupe.getTypeGroupe() == TypeGroupe.NIVEAU_SCOLAIRE
+                        && groupe.getNiveauScolaireMin() != null && groupe.getNiveauScolaireMax() != null);
+    }
+
+    private LocalDate dateReference(Sejour sejour) {
+        Date dateReference = sejour.getDateDebut() != null ? sejour.getDateDebut() : new Date();
+        return toLocalDate(dateReference);
+    }
+
     private void validerTranche(CreateGroupeRequest request) {
         switch (request.typeGroupe()) {
             case THEMATIQUE -> { /* Aucune tranche requise, enfants ajoutés manuellement */ }
@@ -208,8 +307,8 @@ public class GroupeServiceImpl implements GroupeService {
 
     private void ajouterEnfantsSelonTranche(Groupe groupe, Sejour sejour) {
         List<SejourEnfant> sejourEnfants = sejourEnfantRepository.findBySejourIdWithEnfant(sejour.getId());
-        Date dateReference = sejour.getDateDebut() != null ? sejour.getDateDebut() : new Date();
-        LocalDate refDate = toLocalDate(dateReference);
+        LocalDate refDate = dateReference(sejour);
+        Set<Integer> dejaMembres = groupe.getEnfants().stream().map(Enfant::getId).collect(Collectors.toSet());
 
         for (SejourEnfant se : sejourEnfants) {
             Enfant enfant = se.getEnfant();
@@ -227,7 +326,7 @@ public class GroupeServiceImpl implements GroupeService {
                         && ord <= groupe.getNiveauScolaireMax().ordinal();
             }
 
-            if (correspond && groupe.getEnfants().stream().noneMatch(e -> e.getId() == enfant.getId())) {
+            if (correspond && dejaMembres.add(enfant.getId())) {
                 groupe.getEnfants().add(enfant);
             }
         }
@@ -9,6 +9,7 @@ import com.tarnof.enjoyrestapi.entities.HistoriqueModificationPlanningCellule;
 import com.tarnof.enjoyrestapi.entities.PlanningLigne;
 import com.tarnof.enjoyrestapi.entities.Utilisateur;
 import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
+import com.tarnof.enjoyrestapi.payload.request.FiltreHistoriqueSejourRequest;
 import com.tarnof.enjoyrestapi.enums.HistoriqueModificationAction;
 import com.tarnof.enjoyrestapi.enums.HistoriqueModificationType;
 import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationActiviteDto;
@@ -17,6 +18,8 @@ import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationBaseDto;
 import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationCahierInfirmerieDto;
 import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationChambreDto;
 import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationPlanningCelluleDto;
+import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationSejourDto;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
 import com.tarnof.enjoyrestapi.repositories.ActivitePrestataireRepository;
 import com.tarnof.enjoyrestapi.repositories.ActiviteRepository;
 import com.tarnof.enjoyrestapi.repositories.CahierInfirmerieEntreeRepository;
@@ -24,14 +27,26 @@ import com.tarnof.enjoyrestapi.repositories.ChambreRepository;
 import com.tarnof.enjoyrestapi.repositories.HistoriqueModificationRepository;
 import com.tarnof.enjoyrestapi.repositories.PlanningLigneRepository;
 import com.tarnof.enjoyrestapi.repositories.UtilisateurRepository;
+import com.tarnof.enjoyrestapi.services.ArchivageHistoriqueModifications;
+import com.tarnof.enjoyrestapi.services.EcrivainHistoriqueModifications;
 import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
 import com.tarnof.enjoyrestapi.services.SejourVerificationService;
+import com.tarnof.enjoyrestapi.utils.CodecHistorique;
+import com.tarnof.enjoyrestapi.utils.CurseurPagination;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Function;
 
 @Service
 public class HistoriqueModificationServiceImpl implements HistoriqueModificationService {
@@ -44,6 +59,8 @@ public class HistoriqueModificationServiceImpl implements HistoriqueModification
     private final ChambreRepository chambreRepository;
     private final ActivitePrestataireRepository activitePrestataireRepository;
     private final SejourVerificationService sejourVerificationService;
+    private final EcrivainHistoriqueModifications ecrivainHistoriqueModifications;
+    private final ArchivageHistoriqueModifications archivageHistoriqueModifications;
 
     public HistoriqueModificationServiceImpl(
             HistoriqueModificationRepository historiqueModificationRepository,
@@ -53,7 +70,9 @@ public class HistoriqueModificationServiceImpl implements HistoriqueModification
             CahierInfirmerieEntreeRepository cahierInfirmerieEntreeRepository,
             ChambreRepository chambreRepository,
             ActivitePrestataireRepository activitePrestataireRepository,
-            SejourVerificationService sejourVerificationService) {
+            SejourVerificationService sejourVerificationService,
+            EcrivainHistoriqueModifications ecrivainHistoriqueModifications,
+            ArchivageHistoriqueModifications archivageHistoriqueModifications) {
         this.historiqueModificationRepository = historiqueModificationRepository;
         this.utilisateurRepository = utilisateurRepository;
         this.planningLigneRepository = planningLigneRepository;
@@ -62,11 +81,13 @@ public class HistoriqueModificationServiceImpl implements HistoriqueModification
         this.chambreRepository = chambreRepository;
         this.activitePrestataireRepository = activitePrestataireRepository;
         this.sejourVerificationService = sejourVerificationService;
+        this.ecrivainHistoriqueModifications = ecrivainHistoriqueModifications;
+        this.archivageHistoriqueModifications = archivageHistoriqueModifications;
     }
 
     @Override
-    @Transactional
     public void enregistrerPlanningCellule(
+            int sejourId,
             String modificateurTokenId,
             HistoriqueModificationAction action,
             int planningLigneId,
@@ -74,174 +95,448 @@ public class HistoriqueModificationServiceImpl implements HistoriqueModification
             int planningCelluleId,
             String ancienneValeur,
             String nouvelleValeur) {
-        Utilisateur modificateur = resoudreModificateur(modificateurTokenId);
-        HistoriqueModificationPlanningCellule entree = new HistoriqueModificationPlanningCellule();
-        entree.setAction(action);
-        entree.setDateModification(Instant.now());
-        entree.setModificateur(modificateur);
-        entree.setPlanningLigneId(planningLigneId);
-        entree.setPlanningJour(jour);
-        entree.setPlanningCelluleId(planningCelluleId);
-        entree.setAncienneValeur(ancienneValeur);
-        entree.setNouvelleValeur(nouvelleValeur);
-        historiqueModificationRepository.save(entree);
+        publier(
+                HistoriqueModificationType.PLANNING_CELLULE,
+                sejourId,
+                modificateurTokenId,
+                action,
+                planningLigneId,
+                jour,
+                planningCelluleId,
+                ancienneValeur,
+                nouvelleValeur);
     }
 
     @Override
-    @Transactional
     public void enregistrerActivite(
+            int sejourId,
             String modificateurTokenId,
             HistoriqueModificationAction action,
             int activiteId,
             String ancienneValeur,
             String nouvelleValeur) {
-        Utilisateur modificateur = resoudreModificateur(modificateurTokenId);
-        HistoriqueModificationActivite entree = new HistoriqueModificationActivite();
-        entree.setAction(action);
-        entree.setDateModification(Instant.now());
-        entree.setModificateur(modificateur);
-        entree.setActiviteId(activiteId);
-        entree.setAncienneValeur(ancienneValeur);
-        entree.setNouvelleValeur(nouvelleValeur);
-        historiqueModificationRepository.save(entree);
+        publier(HistoriqueModificationType.ACTIVITE, sejourId, modificateurTokenId, action, activiteId, null, null,
+                ancienneValeur, nouvelleValeur);
     }
 
     @Override
-    @Transactional
     public void enregistrerCahierInfirmerie(
+            int sejourId,
             String modificateurTokenId,
             HistoriqueModificationAction action,
             int entreeId,
             String ancienneValeur,
             String nouvelleValeur) {
-        Utilisateur modificateur = resoudreModificateur(modificateurTokenId);
-        HistoriqueModificationCahierInfirmerie entree = new HistoriqueModificationCahierInfirmerie();
-        entree.setAction(action);
-        entree.setDateModification(Instant.now());
-        entree.setModificateur(modificateur);
-        entree.setCahierInfirmerieEntreeId(entreeId);
-        entree.setAncienneValeur(ancienneValeur);
-        entree.setNouvelleValeur(nouvelleValeur);
-        historiqueModificationRepository.save(entree);
+        publier(HistoriqueModificationType.CAHIER_INFIRMERIE, sejourId, modificateurTokenId, action, entreeId,
+                null, null, ancienneValeur, nouvelleValeur);
     }
 
     @Override
-    @Transactional
     public void enregistrerChambre(
+            int sejourId,
             String modificateurTokenId,
             HistoriqueModificationAction action,
             int chambreId,
             String ancienneValeur,
             String nouvelleValeur) {
-        Utilisateur modificateur = resoudreModificateur(modificateurTokenId);
-        HistoriqueModificationChambre entree = new HistoriqueModificationChambre();
-        entree.setAction(action);
-        entree.setDateModification(Instant.now());
-        entree.setModificateur(modificateur);
-        entree.setChambreId(chambreId);
-        entree.setAncienneValeur(ancienneValeur);
-        entree.setNouvelleValeur(nouvelleValeur);
-        historiqueModificationRepository.save(entree);
+        publier(HistoriqueModificationType.CHAMBRE, sejourId, modificateurTokenId, action, chambreId, null, null,
+                ancienneValeur, nouvelleValeur);
     }
 
     @Override
-    @Transactional
     public void enregistrerActivitePrestataire(
+            int sejourId,
             String modificateurTokenId,
             HistoriqueModificationAction action,
             int activitePrestataireId,
             String ancienneValeur,
             String nouvelleValeur) {
-        Utilisateur modificateur = resoudreModificateur(modificateurTokenId);
-        HistoriqueModificationActivitePrestataire entree = new HistoriqueModificationActivitePrestataire();
-        entree.setAction(action);
-        entree.setDateModification(Instant.now());
-        entree.setModificateur(modificateur);
-        entree.setActivitePrestataireId(activitePrestataireId);
-        entree.setAncienneValeur(ancienneValeur);
-        entree.setNouvelleValeur(nouvelleValeur);
-        historiqueModificationRepository.save(entree);
+        publier(HistoriqueModificationType.ACTIVITE_PRESTATAIRE, sejourId, modificateurTokenId, action,
+                activitePrestataireId, null, null, ancienneValeur, nouvelleValeur);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDto<HistoriqueModificationSejourDto> listerHistoriqueSejour(
+            int sejourId,
+            FiltreHistoriqueSejourRequest filtre,
+            String curseur,
+            Integer taille,
+            String utilisateurTokenId) {
+        ecrivainHistoriqueModifications.attendreEcriture();
+        sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        int taillePage = CurseurPagination.taille(taille);
+        if (filtre.du() != null && filtre.au() != null && filtre.du().isAfter(filtre.au())) {
+            throw new IllegalArgumentException("La date de début doit être antérieure ou égale à la date de fin.");
+        }
+        Apres apres = apres(curseur);
+        String modificateurTokenId = blankToNull(filtre.modificateurTokenId());
+        List<HistoriqueModification> lus = historiqueModificationRepository.findPageBySejourId(
+                sejourId,
+                filtre.type(),
+                modificateurTokenId,
+                filtre.du(),
+                filtre.au(),
+                apres.date(),
+                apres.id(),
+                PageRequest.of(0, taillePage + 1));
+        List<HistoriqueModification> archivees = archivageHistoriqueModifications.lireSejour(
+                sejourId,
+                new ArchivageHistoriqueModifications.FiltreFil(
+                        filtre.type(), modificateurTokenId, filtre.du(), filtre.au(), apres.date(), apres.id()),
+                taillePage + 1);
+        return page(avecArchives(lus, archivees, apres, taillePage + 1), taillePage, this::toDtoSejour);
+    }
+
+    @Deprecated
     @Override
     @Transactional(readOnly = true)
     public List<HistoriqueModificationPlanningCelluleDto> listerHistoriquePlanningCellules(
             int sejourId, int grilleId, int ligneId, LocalDate jour, String utilisateurTokenId) {
+        ecrivainHistoriqueModifications.attendreEcriture();
         sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
-        PlanningLigne planningLigne =
-                planningLigneRepository
-                        .findByIdAndGrille_Id(ligneId, grilleId)
-                        .orElseThrow(
-                                () ->
-                                        new ResourceNotFoundException(
-                                                "Ligne de planning non trouvée avec l'ID: " + ligneId));
-        if (planningLigne.getGrille().getSejour().getId() != sejourId) {
-            throw new ResourceNotFoundException("Ligne de planning non trouvée avec l'ID: " + ligneId);
-        }
+        verifierLigneDuSejour(sejourId, grilleId, ligneId);
         List<? extends HistoriqueModification> entrees =
                 jour != null
                         ? historiqueModificationRepository.findPlanningByLigneIdAndJour(ligneId, jour)
                         : historiqueModificationRepository.findPlanningByLigneId(ligneId);
-        return entrees.stream().map(this::toDtoPlanningCellule).toList();
+        return avecArchives(entrees, archivesPlanning(sejourId, ligneId, jour), SANS_POSITION, Integer.MAX_VALUE)
+                .stream()
+                .map(this::toDtoPlanningCellule)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDto<HistoriqueModificationPlanningCelluleDto> listerPageHistoriquePlanningCellules(
+            int sejourId,
+            int grilleId,
+            int ligneId,
+            LocalDate jour,
+            String curseur,
+            Integer taille,
+            String utilisateurTokenId) {
+        ecrivainHistoriqueModifications.attendreEcriture();
+        sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        int taillePage = CurseurPagination.taille(taille);
+        Apres apres = apres(curseur);
+        verifierLigneDuSejour(sejourId, grilleId, ligneId);
+        return page(
+                avecArchives(
+                        historiqueModificationRepository.findPagePlanningByLigneId(
+                                ligneId, jour, apres.date(), apres.id(), PageRequest.of(0, taillePage + 1)),
+                        archivesPlanning(sejourId, ligneId, jour),
+                        apres,
+                        taillePage + 1),
+                taillePage,
+                this::toDtoPlanningCellule);
     }
 
+    @Deprecated
     @Override
     @Transactional(readOnly = true)
     public List<HistoriqueModificationActiviteDto> listerHistoriqueActivite(
             int sejourId, int activiteId, String utilisateurTokenId) {
+        ecrivainHistoriqueModifications.attendreEcriture();
         sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
-        if (activiteRepository.findByIdAndSejourId(activiteId, sejourId).isEmpty()) {
-            throw new ResourceNotFoundException(
-                    "Activité non trouvée pour ce séjour (id: " + activiteId + ")");
-        }
-        return historiqueModificationRepository.findActiviteByActiviteId(activiteId).stream()
+        verifierActiviteDuSejour(sejourId, activiteId);
+        return avecArchives(
+                        historiqueModificationRepository.findActiviteByActiviteId(activiteId),
+                        archivageHistoriqueModifications.lireElement(sejourId, HistoriqueModificationType.ACTIVITE, activiteId),
+                        SANS_POSITION,
+                        Integer.MAX_VALUE)
+                .stream()
                 .map(this::toDtoActivite)
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDto<HistoriqueModificationActiviteDto> listerPageHistoriqueActivite(
+            int sejourId, int activiteId, String curseur, Integer taille, String utilisateurTokenId) {
+        ecrivainHistoriqueModifications.attendreEcriture();
+        sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        int taillePage = CurseurPagination.taille(taille);
+        Apres apres = apres(curseur);
+        verifierActiviteDuSejour(sejourId, activiteId);
+        return page(
+                avecArchives(
+                        historiqueModificationRepository.findPageActiviteByActiviteId(
+                                activiteId, apres.date(), apres.id(), PageRequest.of(0, taillePage + 1)),
+                        archivageHistoriqueModifications.lireElement(sejourId, HistoriqueModificationType.ACTIVITE, activiteId),
+                        apres,
+                        taillePage + 1),
+                taillePage,
+                this::toDtoActivite);
+    }
+
+    @Deprecated
     @Override
     @Transactional(readOnly = true)
     public List<HistoriqueModificationCahierInfirmerieDto> listerHistoriqueCahierInfirmerie(
             int sejourId, int entreeId, String utilisateurTokenId) {
+        ecrivainHistoriqueModifications.attendreEcriture();
         sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
-        if (cahierInfirmerieEntreeRepository.findByIdAndSejourIdWithEnfantAndCreateur(entreeId, sejourId).isEmpty()) {
-            throw new ResourceNotFoundException(
-                    "Entrée de cahier d'infirmerie non trouvée pour ce séjour (id: " + entreeId + ")");
-        }
-        return historiqueModificationRepository.findCahierInfirmerieByEntreeId(entreeId).stream()
+        verifierEntreeDuSejour(sejourId, entreeId);
+        return avecArchives(
+                        historiqueModificationRepository.findCahierInfirmerieByEntreeId(entreeId),
+                        archivageHistoriqueModifications.lireElement(sejourId, HistoriqueModificationType.CAHIER_INFIRMERIE, entreeId),
+                        SANS_POSITION,
+                        Integer.MAX_VALUE)
+                .stream()
                 .map(this::toDtoCahierInfirmerie)
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDto<HistoriqueModificationCahierInfirmerieDto> listerPageHistoriqueCahierInfirmerie(
+            int sejourId, int entreeId, String curseur, Integer taille, String utilisateurTokenId) {
+        ecrivainHistoriqueModifications.attendreEcriture();
+        sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        int taillePage = CurseurPagination.taille(taille);
+        Apres apres = apres(curseur);
+        verifierEntreeDuSejour(sejourId, entreeId);
+        return page(
+                avecArchives(
+                        historiqueModificationRepository.findPageCahierInfirmerieByEntreeId(
+                                entreeId, apres.date(), apres.id(), PageRequest.of(0, taillePage + 1)),
+                        archivageHistoriqueModifications.lireElement(sejourId, HistoriqueModificationType.CAHIER_INFIRMERIE, entreeId),
+                        apres,
+                        taillePage + 1),
+                taillePage,
+                this::toDtoCahierInfirmerie);
+    }
+
+    @Deprecated
     @Override
     @Transactional(readOnly = true)
     public List<HistoriqueModificationChambreDto> listerHistoriqueChambre(
             int sejourId, int chambreId, String utilisateurTokenId) {
+        ecrivainHistoriqueModifications.attendreEcriture();
         sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
-        if (chambreRepository.findByIdAndSejourId(chambreId, sejourId).isEmpty()) {
-            throw new ResourceNotFoundException("Chambre non trouvée avec l'ID: " + chambreId);
-        }
-        return historiqueModificationRepository.findChambreByChambreId(chambreId).stream()
+        verifierChambreDuSejour(sejourId, chambreId);
+        return avecArchives(
+                        historiqueModificationRepository.findChambreByChambreId(chambreId),
+                        archivageHistoriqueModifications.lireElement(sejourId, HistoriqueModificationType.CHAMBRE, chambreId),
+                        SANS_POSITION,
+                        Integer.MAX_VALUE)
+                .stream()
                 .map(this::toDtoChambre)
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDto<HistoriqueModificationChambreDto> listerPageHistoriqueChambre(
+            int sejourId, int chambreId, String curseur, Integer taille, String utilisateurTokenId) {
+        ecrivainHistoriqueModifications.attendreEcriture();
+        sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        int taillePage = CurseurPagination.taille(taille);
+        Apres apres = apres(curseur);
+        verifierChambreDuSejour(sejourId, chambreId);
+        return page(
+                avecArchives(
+                        historiqueModificationRepository.findPageChambreByChambreId(
+                                chambreId, apres.date(), apres.id(), PageRequest.of(0, taillePage + 1)),
+                        archivageHistoriqueModifications.lireElement(sejourId, HistoriqueModificationType.CHAMBRE, chambreId),
+                        apres,
+                        taillePage + 1),
+                taillePage,
+                this::toDtoChambre);
+    }
+
+    @Deprecated
     @Override
     @Transactional(readOnly = true)
     public List<HistoriqueModificationActivitePrestataireDto> listerHistoriqueActivitePrestataire(
             int sejourId, int activitePrestataireId, String utilisateurTokenId) {
+        ecrivainHistoriqueModifications.attendreEcriture();
         sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        verifierActivitePrestataireDuSejour(sejourId, activitePrestataireId);
+        return avecArchives(
+                        historiqueModificationRepository.findActivitePrestataireByActivitePrestataireId(
+                                activitePrestataireId),
+                        archivageHistoriqueModifications.lireElement(
+                                sejourId, HistoriqueModificationType.ACTIVITE_PRESTATAIRE, activitePrestataireId),
+                        SANS_POSITION,
+                        Integer.MAX_VALUE)
+                .stream()
+                .map(this::toDtoActivitePrestataire)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDto<HistoriqueModificationActivitePrestataireDto> listerPageHistoriqueActivitePrestataire(
+            int sejourId, int activitePrestataireId, String curseur, Integer taille, String utilisateurTokenId) {
+        ecrivainHistoriqueModifications.attendreEcriture();
+        sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        int taillePage = CurseurPagination.taille(taille);
+        Apres apres = apres(curseur);
+        verifierActivitePrestataireDuSejour(sejourId, activitePrestataireId);
+        return page(
+                avecArchives(
+                        historiqueModificationRepository.findPageActivitePrestataireByActivitePrestataireId(
+                                activitePrestataireId, apres.date(), apres.id(), PageRequest.of(0, taillePage + 1)),
+                        archivageHistoriqueModifications.lireElement(
+                                sejourId, HistoriqueModificationType.ACTIVITE_PRESTATAIRE, activitePrestataireId),
+                        apres,
+                        taillePage + 1),
+                taillePage,
+                this::toDtoActivitePrestataire);
+    }
+
+    private void verifierLigneDuSejour(int sejourId, int grilleId, int ligneId) {
+        PlanningLigne planningLigne =
+                planningLigneRepository
+                        .findByIdAndGrille_Id(ligneId, grilleId)
+                        .orElseThrow(
+                                () ->
+                                        new ResourceNotFoundException(
+                                                "Ligne de planning non trouvée avec l'ID: " + ligneId));
+        if (planningLigne.getGrille().getSejour().getId() != sejourId) {
+            throw new ResourceNotFoundException("Ligne de planning non trouvée avec l'ID: " + ligneId);
+        }
+    }
+
+    private void verifierActiviteDuSejour(int sejourId, int activiteId) {
+        if (activiteRepository.findByIdAndSejourId(activiteId, sejourId).isEmpty()) {
+            throw new ResourceNotFoundException(
+                    "Activité non trouvée pour ce séjour (id: " + activiteId + ")");
+        }
+    }
+
+    private void verifierEntreeDuSejour(int sejourId, int entreeId) {
+        if (cahierInfirmerieEntreeRepository.findByIdAndSejourIdWithEnfantAndCreateur(entreeId, sejourId).isEmpty()) {
+            throw new ResourceNotFoundException(
+                    "Entrée de cahier d'infirmerie non trouvée pour ce séjour (id: " + entreeId + ")");
+        }
+    }
+
+    private void verifierChambreDuSejour(int sejourId, int chambreId) {
+        if (chambreRepository.findByIdAndSejourId(chambreId, sejourId).isEmpty()) {
+            throw new ResourceNotFoundException("Chambre non trouvée avec l'ID: " + chambreId);
+        }
+    }
+
+    private void verifierActivitePrestataireDuSejour(int sejourId, int activitePrestataireId) {
         if (activitePrestataireRepository.findByIdAndSejour_Id(activitePrestataireId, sejourId).isEmpty()) {
             throw new ResourceNotFoundException(
                     "Activité prestataire non trouvée pour ce séjour (id: " + activitePrestataireId + ")");
         }
-        return historiqueModificationRepository
-                .findActivitePrestataireByActivitePrestataireId(activitePrestataireId)
+    }
+
+    /** Position après laquelle reprendre ; première page : champs {@code null}. */
+    private record Apres(Instant date, Integer id) {}
+
+    private static final Apres SANS_POSITION = new Apres(null, null);
+
+    private static final Comparator<HistoriqueModification> PLUS_RECENTES_D_ABORD =
+            Comparator.comparing(HistoriqueModification::getDateModification)
+                    .thenComparing(HistoriqueModification::getId)
+                    .reversed();
+
+    /**
+     * Lignes lues dans la table complétées par les lignes archivées ({@link ArchivageHistoriqueModifications}) situées
+     * après la même position, dans l'ordre des pages ; {@code limite} lignes au plus.
+     */
+    private static List<HistoriqueModification> avecArchives(
+            List<? extends HistoriqueModification> lues,
+            List<HistoriqueModification> archivees,
+            Apres apres,
+            int limite) {
+        if (archivees.isEmpty()) {
+            return Collections.unmodifiableList(lues);
+        }
+        List<HistoriqueModification> toutes = new ArrayList<>(lues);
+        for (HistoriqueModification h : archivees) {
+            if (apres.date() == null
+                    || h.getDateModification().isBefore(apres.date())
+                    || (h.getDateModification().equals(apres.date()) && h.getId() < apres.id())) {
+                toutes.add(h);
+            }
+        }
+        toutes.sort(PLUS_RECENTES_D_ABORD);
+        return toutes.size() > limite ? toutes.subList(0, limite) : toutes;
+    }
+
+    private List<HistoriqueModification> archivesPlanning(int sejourId, int ligneId, LocalDate jour) {
+        return archivageHistoriqueModifications
+                .lireElement(sejourId, HistoriqueModificationType.PLANNING_CELLULE, ligneId)
                 .stream()
-                .map(this::toDtoActivitePrestataire)
+                .filter(h -> jour == null || jour.equals(((HistoriqueModificationPlanningCellule) h).getPlanningJour()))
                 .toList();
     }
 
+    private static Apres apres(String curseur) {
+        CurseurPagination.Position position = CurseurPagination.decoder(curseur);
+        if (position == null) {
+            return new Apres(null, null);
+        }
+        try {
+            return new Apres(Instant.parse(position.cle()), position.id());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide.");
+        }
+    }
+
+    /** {@code lus} contient une ligne de plus que la page quand il existe une page suivante. */
+    private static <H extends HistoriqueModification, D> PageCurseurDto<D> page(
+            List<H> lus, int taillePage, Function<? super H, D> versDto) {
+        boolean pageSuivante = lus.size() > taillePage;
+        List<H> retenus = pageSuivante ? lus.subList(0, taillePage) : lus;
+        String curseurSuivant = null;
+        if (pageSuivante) {
+            H dernier = retenus.get(retenus.size() - 1);
+            curseurSuivant = CurseurPagination.encoder(dernier.getDateModification().toString(), dernier.getId());
+        }
+        return new PageCurseurDto<>(retenus.stream().map(versDto).toList(), curseurSuivant);
+    }
+
+    private static String blankToNull(String valeur) {
+        return valeur == null || valeur.isBlank() ? null : valeur.trim();
+    }
+
+    /**
+     * Date relevée maintenant : l'ordre de l'historique reste celui des modifications, même si l'écriture est
+     * différée au commit de la transaction appelante.
+     */
+    private void publier(
+            HistoriqueModificationType type,
+            int sejourId,
+            String modificateurTokenId,
+            HistoriqueModificationAction action,
+            int cibleId,
+            LocalDate planningJour,
+            Integer planningCelluleId,
+            String ancienneValeur,
+            String nouvelleValeur) {
+        ecrivainHistoriqueModifications.publier(new EcrivainHistoriqueModifications.Evenement(
+                type,
+                action,
+                sejourId,
+                Instant.now(),
+                resoudreModificateurId(modificateurTokenId),
+                cibleId,
+                planningJour,
+                planningCelluleId,
+                ancienneValeur,
+                nouvelleValeur));
+    }
+
+    /** L'utilisateur de la requête est déjà chargé par le filtre JWT : pas de requête s'il s'agit du modificateur. */
+    private int resoudreModificateurId(String modificateurTokenId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null
+                && authentication.getPrincipal() instanceof Utilisateur utilisateur
+                && modificateurTokenId != null
+                && modificateurTokenId.equals(utilisateur.getTokenId())) {
+            return utilisateur.getId();
+        }
+        return resoudreModificateur(modificateurTokenId).getId();
+    }
+
     private Utilisateur resoudreModificateur(String modificateurTokenId) {
         return utilisateurRepository
                 .findByTokenId(modificateurTokenId)
@@ -253,6 +548,7 @@ public class HistoriqueModificationServiceImpl implements HistoriqueModification
 
     private HistoriqueModificationBaseDto toBaseDto(HistoriqueModification h, HistoriqueModificationType type) {
         Utilisateur u = h.getModificateur();
+        CodecHistorique.Valeurs valeurs = valeurs(h);
         return new HistoriqueModificationBaseDto(
                 h.getId(),
                 type,
@@ -261,8 +557,34 @@ public class HistoriqueModificationServiceImpl implements HistoriqueModification
                 u.getNom(),
                 u.getPrenom(),
                 h.getAction(),
-                h.getAncienneValeur(),
-                h.getNouvelleValeur());
+                valeurs.ancienne(),
+                valeurs.nouvelle());
+    }
+
+    /** Libellés reconstruits depuis la forme compacte ; lignes pas encore migrées : colonnes TEXT. */
+    private static CodecHistorique.Valeurs valeurs(HistoriqueModification h) {
+        return h.getValeursCompactes() != null
+                ? CodecHistorique.decoder(h.getValeursCompactes())
+                : new CodecHistorique.Valeurs(h.getAncienneValeur(), h.getNouvelleValeur());
+    }
+
+    private HistoriqueModificationSejourDto toDtoSejour(HistoriqueModification h) {
+        return switch (h) {
+            case HistoriqueModificationPlanningCellule p -> new HistoriqueModificationSejourDto(
+                    toBaseDto(h, HistoriqueModificationType.PLANNING_CELLULE),
+                    p.getPlanningLigneId(),
+                    p.getPlanningJour(),
+                    p.getPlanningCelluleId());
+            case HistoriqueModificationActivite a -> new HistoriqueModificationSejourDto(
+                    toBaseDto(h, HistoriqueModificationType.ACTIVITE), a.getActiviteId(), null, null);
+            case HistoriqueModificationCahierInfirmerie c -> new HistoriqueModificationSejourDto(
+                    toBaseDto(h, HistoriqueModificationType.CAHIER_INFIRMERIE), c.getCahierInfirmerieEntreeId(), null, null);
+            case HistoriqueModificationChambre c -> new HistoriqueModificationSejourDto(
+                    toBaseDto(h, HistoriqueModificationType.CHAMBRE), c.getChambreId(), null, null);
+            case HistoriqueModificationActivitePrestataire a -> new HistoriqueModificationSejourDto(
+                    toBaseDto(h, HistoriqueModificationType.ACTIVITE_PRESTATAIRE), a.getActivitePrestataireId(), null, null);
+            default -> throw new IllegalStateException("Type d'historique inattendu: " + h.getClass().getName());
+        };
     }
 
     private HistoriqueModificationPlanningCelluleDto toDtoPlanningCellule(HistoriqueModification h) {
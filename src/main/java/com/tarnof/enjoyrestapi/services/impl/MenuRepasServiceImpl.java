@@ -4,22 +4,44 @@ import com.tarnof.enjoyrestapi.entities.MenuRepas;
 import com.tarnof.enjoyrestapi.entities.ReferenceAlimentaire;
 import com.tarnof.enjoyrestapi.entities.Sejour;
 import com.tarnof.enjoyrestapi.enums.TypeReferenceAlimentaire;
+import com.tarnof.enjoyrestapi.enums.TypeRepas;
 import com.tarnof.enjoyrestapi.exceptions.ResourceAlreadyExistsException;
 import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
+import com.tarnof.enjoyrestapi.payload.request.AppliquerSemaineTypeMenusRequest;
 import com.tarnof.enjoyrestapi.payload.request.SaveMenuRepasRequest;
+import com.tarnof.enjoyrestapi.payload.response.AppliquerSemaineTypeMenusDto;
+import com.tarnof.enjoyrestapi.payload.response.EnfantConcerneMenuDto;
+import com.tarnof.enjoyrestapi.payload.response.GroupeResumeDto;
+import com.tarnof.enjoyrestapi.payload.response.MenuEnfantsConcernesDto;
 import com.tarnof.enjoyrestapi.payload.response.MenuRepasDto;
 import com.tarnof.enjoyrestapi.payload.response.ReferenceAlimentaireDto;
+import com.tarnof.enjoyrestapi.repositories.DossierEnfantRepository;
+import com.tarnof.enjoyrestapi.repositories.GroupeRepository;
 import com.tarnof.enjoyrestapi.repositories.MenuRepasRepository;
 import com.tarnof.enjoyrestapi.repositories.ReferenceAlimentaireRepository;
+import com.tarnof.enjoyrestapi.repositories.SejourEnfantRepository;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantReferenceProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.EnfantIdentiteProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.GroupeEnfantProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.MenuRepasCreneauProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.MenuRepasReferenceProjection;
+import com.tarnof.enjoyrestapi.services.CatalogueReferencesAlimentaires;
+import com.tarnof.enjoyrestapi.services.DonneesAlimentairesSejourCache;
 import com.tarnof.enjoyrestapi.services.MenuRepasService;
+import com.tarnof.enjoyrestapi.services.ProfilsAlimentairesSejour;
 import com.tarnof.enjoyrestapi.services.SejourVerificationService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.util.Comparator;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -29,17 +51,37 @@ import java.util.stream.Collectors;
 @SuppressWarnings("null")
 public class MenuRepasServiceImpl implements MenuRepasService {
 
+    /** Nombre de menus par requête de suppression (semaine type en mode remplacement). */
+    private static final int TAILLE_LOT_SUPPRESSION = 500;
+    /** Garde-fou contre une date de fin erronée lors de l'application d'une semaine type. */
+    private static final int NB_JOURS_MAX_SEMAINE_TYPE = 366;
+
     private final MenuRepasRepository menuRepasRepository;
     private final SejourVerificationService sejourVerificationService;
     private final ReferenceAlimentaireRepository referenceAlimentaireRepository;
+    private final SejourEnfantRepository sejourEnfantRepository;
+    private final DossierEnfantRepository dossierEnfantRepository;
+    private final GroupeRepository groupeRepository;
+    private final DonneesAlimentairesSejourCache donneesAlimentairesSejourCache;
+    private final CatalogueReferencesAlimentaires catalogueReferencesAlimentaires;
 
     public MenuRepasServiceImpl(
             MenuRepasRepository menuRepasRepository,
             SejourVerificationService sejourVerificationService,
-            ReferenceAlimentaireRepository referenceAlimentaireRepository) {
+            ReferenceAlimentaireRepository referenceAlimentaireRepository,
+            SejourEnfantRepository sejourEnfantRepository,
+            DossierEnfantRepository dossierEnfantRepository,
+            GroupeRepository groupeRepository,
+            DonneesAlimentairesSejourCache donneesAlimentairesSejourCache,
+            CatalogueReferencesAlimentaires catalogueReferencesAlimentaires) {
         this.menuRepasRepository = menuRepasRepository;
         this.sejourVerificationService = sejourVerificationService;
         this.referenceAlimentaireRepository = referenceAlimentaireRepository;
+        this.sejourEnfantRepository = sejourEnfantRepository;
+        this.dossierEnfantRepository = dossierEnfantRepository;
+        this.groupeRepository = groupeRepository;
+        this.donneesAlimentairesSejourCache = donneesAlimentairesSejourCache;
+        this.catalogueReferencesAlimentaires = catalogueReferencesAlimentaires;
     }
 
     @Override
@@ -59,11 +101,20 @@ public class MenuRepasServiceImpl implements MenuRepasService {
         if (dateDebutInclusive.isAfter(dateFinInclusive)) {
             throw new IllegalArgumentException("La date de début doit être antérieure ou égale à la date de fin.");
         }
-        return menuRepasRepository
-                .findBySejour_IdAndDateRepasBetweenOrderByDateRepasAscTypeRepasAsc(
-                        sejourId, dateDebutInclusive, dateFinInclusive)
-                .stream()
-                .map(this::mapToDto)
+        List<MenuRepas> menus = menuRepasRepository.findBySejour_IdAndDateRepasBetweenOrderByDateRepasAscTypeRepasAsc(
+                sejourId, dateDebutInclusive, dateFinInclusive);
+        if (menus.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, List<ReferenceAlimentaireDto>> allergenes = referencesDtoParMenu(
+                menuRepasRepository.findAllergenesBySejourIdAndPeriode(sejourId, dateDebutInclusive, dateFinInclusive));
+        Map<Integer, List<ReferenceAlimentaireDto>> regimes = referencesDtoParMenu(
+                menuRepasRepository.findRegimesBySejourIdAndPeriode(sejourId, dateDebutInclusive, dateFinInclusive));
+        return menus.stream()
+                .map(m -> mapToDto(
+                        m,
+                        allergenes.getOrDefault(m.getId(), List.of()),
+                        regimes.getOrDefault(m.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
@@ -74,6 +125,64 @@ public class MenuRepasServiceImpl implements MenuRepasService {
         return mapToDto(getMenuDuSejour(sejourId, menuId));
     }
 
+    /**
+     * Pas de transaction englobante : les profils des enfants sont mis en cache par séjour
+     * (cf. {@link DonneesAlimentairesSejourCache#obtenirProfils}) et les menus sont relus à chaque appel.
+     */
+    @Override
+    public List<MenuEnfantsConcernesDto> croiserAvecDossiersEnfants(
+            int sejourId, LocalDate dateDebutInclusive, LocalDate dateFinInclusive, String utilisateurTokenId) {
+        sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        if (dateDebutInclusive.isAfter(dateFinInclusive)) {
+            throw new IllegalArgumentException("La date de début doit être antérieure ou égale à la date de fin.");
+        }
+        ProfilsAlimentairesSejour profils =
+                donneesAlimentairesSejourCache.obtenirProfils(sejourId, () -> chargerProfils(sejourId));
+
+        List<MenuRepasCreneauProjection> menus =
+                menuRepasRepository.findCreneauxBySejourIdAndPeriode(sejourId, dateDebutInclusive, dateFinInclusive);
+        Map<Integer, List<MenuRepasReferenceProjection>> allergenesParMenu = grouperParMenu(
+                menuRepasRepository.findAllergenesBySejourIdAndPeriode(sejourId, dateDebutInclusive, dateFinInclusive));
+        Map<Integer, List<MenuRepasReferenceProjection>> regimesParMenu = grouperParMenu(
+                menuRepasRepository.findRegimesBySejourIdAndPeriode(sejourId, dateDebutInclusive, dateFinInclusive));
+
+        Map<Integer, List<ProfilsAlimentairesSejour.Profil>> concernesParMenu = new HashMap<>();
+        Set<Integer> enfantsConcernes = new HashSet<>();
+        for (MenuRepasCreneauProjection menu : menus) {
+            ProfilsAlimentairesSejour.SignatureMenu signature = new ProfilsAlimentairesSejour.SignatureMenu(
+                    enBits(allergenesParMenu.getOrDefault(menu.menuId(), List.of())),
+                    enBits(regimesParMenu.getOrDefault(menu.menuId(), List.of())));
+            List<ProfilsAlimentairesSejour.Profil> concernes = profils.concernesPar(signature);
+            concernesParMenu.put(menu.menuId(), concernes);
+            concernes.forEach(p -> enfantsConcernes.add(p.enfantId()));
+        }
+
+        Map<Integer, List<GroupeResumeDto>> groupesParEnfant = new HashMap<>();
+        if (!enfantsConcernes.isEmpty()) {
+            for (GroupeEnfantProjection g : groupeRepository.findAppartenancesBySejourIdAndEnfantIdIn(sejourId, enfantsConcernes)) {
+                groupesParEnfant.computeIfAbsent(g.enfantId(), k -> new ArrayList<>())
+                        .add(new GroupeResumeDto(g.groupeId(), g.nomGroupe()));
+            }
+        }
+
+        List<MenuEnfantsConcernesDto> resultat = new ArrayList<>(menus.size());
+        for (MenuRepasCreneauProjection menu : menus) {
+            List<MenuRepasReferenceProjection> allergenesMenu = allergenesParMenu.getOrDefault(menu.menuId(), List.of());
+            List<MenuRepasReferenceProjection> regimesMenu = regimesParMenu.getOrDefault(menu.menuId(), List.of());
+            List<EnfantConcerneMenuDto> enfants = concernesParMenu.get(menu.menuId()).stream()
+                    .map(p -> new EnfantConcerneMenuDto(
+                            p.enfantId(),
+                            p.prenom(),
+                            p.nom(),
+                            groupesParEnfant.getOrDefault(p.enfantId(), List.of()),
+                            referencesCommunes(allergenesMenu, p.allergenes()),
+                            referencesCommunes(regimesMenu, p.regimes())))
+                    .toList();
+            resultat.add(new MenuEnfantsConcernesDto(menu.menuId(), menu.dateRepas(), menu.typeRepas(), enfants));
+        }
+        return resultat;
+    }
+
     @Override
     @Transactional
     public MenuRepasDto creer(int sejourId, SaveMenuRepasRequest request) {
@@ -93,6 +202,87 @@ public class MenuRepasServiceImpl implements MenuRepasService {
         return mapToDto(rechargerAvecReferences(sauve.getId()));
     }
 
+    @Override
+    @Transactional
+    public AppliquerSemaineTypeMenusDto appliquerSemaineType(int sejourId, AppliquerSemaineTypeMenusRequest request) {
+        sejourVerificationService.verifierSejourExiste(sejourId);
+        LocalDate modeleDebut = request.semaineModeleDebut();
+        LocalDate modeleFin = modeleDebut.plusDays(6);
+        LocalDate dateDebut = request.dateDebut();
+        LocalDate dateFin = request.dateFin();
+        if (dateDebut.isAfter(dateFin)) {
+            throw new IllegalArgumentException("La date de début doit être antérieure ou égale à la date de fin.");
+        }
+        if (ChronoUnit.DAYS.between(dateDebut, dateFin) >= NB_JOURS_MAX_SEMAINE_TYPE) {
+            throw new IllegalArgumentException(
+                    "La période cible ne peut pas dépasser " + NB_JOURS_MAX_SEMAINE_TYPE + " jours.");
+        }
+        if (!dateDebut.isAfter(modeleFin) && !dateFin.isBefore(modeleDebut)) {
+            throw new IllegalArgumentException("La période cible ne doit pas chevaucher la semaine modèle.");
+        }
+
+        // Jour modèle et types de repas à recopier, par jour de semaine
+        Map<DayOfWeek, LocalDate> dateModeleParJour = new EnumMap<>(DayOfWeek.class);
+        Map<DayOfWeek, List<TypeRepas>> typesModeleParJour = new EnumMap<>(DayOfWeek.class);
+        for (MenuRepasCreneauProjection menu : menuRepasRepository.findCreneauxBySejourIdAndPeriode(sejourId, modeleDebut, modeleFin)) {
+            DayOfWeek jour = menu.dateRepas().getDayOfWeek();
+            dateModeleParJour.put(jour, menu.dateRepas());
+            typesModeleParJour.computeIfAbsent(jour, k -> new ArrayList<>()).add(menu.typeRepas());
+        }
+        if (dateModeleParJour.isEmpty()) {
+            throw new IllegalArgumentException("La semaine modèle ne contient aucun menu.");
+        }
+
+        Map<LocalDate, Map<TypeRepas, Integer>> existants = new HashMap<>();
+        for (MenuRepasCreneauProjection menu : menuRepasRepository.findCreneauxBySejourIdAndPeriode(sejourId, dateDebut, dateFin)) {
+            existants.computeIfAbsent(menu.dateRepas(), k -> new EnumMap<>(TypeRepas.class))
+                    .put(menu.typeRepas(), menu.menuId());
+        }
+
+        List<Integer> aRemplacer = new ArrayList<>();
+        int conserves = 0;
+        Map<LocalDate, List<String>> typesACopierParDate = new LinkedHashMap<>();
+        for (LocalDate date = dateDebut; !date.isAfter(dateFin); date = date.plusDays(1)) {
+            List<TypeRepas> typesModele = typesModeleParJour.get(date.getDayOfWeek());
+            if (typesModele == null) {
+                continue;
+            }
+            Map<TypeRepas, Integer> existantsDuJour = existants.getOrDefault(date, Map.of());
+            List<String> typesACopier = new ArrayList<>();
+            for (TypeRepas type : typesModele) {
+                Integer existant = existantsDuJour.get(type);
+                if (existant != null && !request.remplacerExistants()) {
+                    conserves++;
+                    continue;
+                }
+                if (existant != null) {
+                    aRemplacer.add(existant);
+                }
+                typesACopier.add(type.name());
+            }
+            if (!typesACopier.isEmpty()) {
+                typesACopierParDate.put(date, typesACopier);
+            }
+        }
+
+        for (int debut = 0; debut < aRemplacer.size(); debut += TAILLE_LOT_SUPPRESSION) {
+            List<Integer> lot = aRemplacer.subList(debut, Math.min(debut + TAILLE_LOT_SUPPRESSION, aRemplacer.size()));
+            menuRepasRepository.supprimerAllergenesDesMenus(lot);
+            menuRepasRepository.supprimerRegimesDesMenus(lot);
+            menuRepasRepository.supprimerMenus(lot);
+        }
+        // Trois INSERT ... SELECT par jour cible (menus, allergènes, régimes), quel que soit le nombre de repas
+        int crees = 0;
+        for (Map.Entry<LocalDate, List<String>> entree : typesACopierParDate.entrySet()) {
+            LocalDate dateCible = entree.getKey();
+            LocalDate dateModele = dateModeleParJour.get(dateCible.getDayOfWeek());
+            crees += menuRepasRepository.copierMenus(sejourId, dateModele, dateCible, entree.getValue());
+            menuRepasRepository.copierAllergenes(sejourId, dateModele, dateCible, entree.getValue());
+            menuRepasRepository.copierRegimes(sejourId, dateModele, dateCible, entree.getValue());
+        }
+        return new AppliquerSemaineTypeMenusDto(crees, aRemplacer.size(), conserves);
+    }
+
     @Override
     @Transactional
     public MenuRepasDto modifier(int sejourId, int menuId, SaveMenuRepasRequest request) {
@@ -169,43 +359,77 @@ public class MenuRepasServiceImpl implements MenuRepasService {
         }
     }
 
+    /** Ids contrôlés sur le catalogue en mémoire ; les entités sont de simples références (aucun SELECT). */
     private Set<ReferenceAlimentaire> resoudreReferences(List<Integer> ids, TypeReferenceAlimentaire typeAttendu) {
-        Set<ReferenceAlimentaire> ensemble = new HashSet<>();
-        if (ids == null || ids.isEmpty()) {
-            return ensemble;
-        }
-        LinkedHashSet<Integer> idsUniques = new LinkedHashSet<>();
-        for (Integer refId : ids) {
-            if (refId == null) {
-                throw new IllegalArgumentException("Identifiant de référence alimentaire invalide.");
-            }
-            idsUniques.add(refId);
-        }
-        List<ReferenceAlimentaire> chargees = referenceAlimentaireRepository.findAllById(idsUniques);
-        if (chargees.size() != idsUniques.size()) {
-            Set<Integer> trouves =
-                    chargees.stream().map(ReferenceAlimentaire::getId).collect(Collectors.toSet());
-            for (Integer refId : idsUniques) {
-                if (!trouves.contains(refId)) {
-                    throw new ResourceNotFoundException("Référence alimentaire introuvable : " + refId);
-                }
-            }
+        return catalogueReferencesAlimentaires.verifierIds(ids, typeAttendu).stream()
+                .map(referenceAlimentaireRepository::getReferenceById)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    /** Profils des enfants inscrits (ordre nom, prénom) : allergènes et régimes du dossier en bits. */
+    private ProfilsAlimentairesSejour chargerProfils(int sejourId) {
+        List<EnfantIdentiteProjection> identites = sejourEnfantRepository.findIdentitesBySejourId(sejourId);
+        if (identites.isEmpty()) {
+            return new ProfilsAlimentairesSejour(List.of());
         }
-        Map<Integer, ReferenceAlimentaire> parId =
-                chargees.stream().collect(Collectors.toMap(ReferenceAlimentaire::getId, r -> r));
-        for (Integer refId : idsUniques) {
-            ReferenceAlimentaire ref = parId.get(refId);
-            if (ref.getType() != typeAttendu) {
-                throw new IllegalArgumentException(
-                        "La référence "
-                                + refId
-                                + " n'est pas du type attendu ("
-                                + typeAttendu
-                                + ").");
+        List<Integer> enfantIds = identites.stream().map(EnfantIdentiteProjection::enfantId).toList();
+        Map<Integer, BitSet> allergenes = bitsParEnfant(dossierEnfantRepository.findAllergenesByEnfantIdIn(enfantIds));
+        Map<Integer, BitSet> regimes = bitsParEnfant(dossierEnfantRepository.findRegimesByEnfantIdIn(enfantIds));
+        List<ProfilsAlimentairesSejour.Profil> profils = new ArrayList<>(identites.size());
+        for (EnfantIdentiteProjection enfant : identites) {
+            BitSet a = allergenes.getOrDefault(enfant.enfantId(), new BitSet());
+            BitSet r = regimes.getOrDefault(enfant.enfantId(), new BitSet());
+            if (!a.isEmpty() || !r.isEmpty()) {
+                profils.add(new ProfilsAlimentairesSejour.Profil(enfant.enfantId(), enfant.prenom(), enfant.nom(), a, r));
             }
-            ensemble.add(ref);
         }
-        return ensemble;
+        return new ProfilsAlimentairesSejour(profils);
+    }
+
+    private static Map<Integer, BitSet> bitsParEnfant(List<DossierEnfantReferenceProjection> lignes) {
+        Map<Integer, BitSet> parEnfant = new HashMap<>();
+        for (DossierEnfantReferenceProjection ligne : lignes) {
+            parEnfant.computeIfAbsent(ligne.enfantId(), k -> new BitSet()).set(ligne.referenceId());
+        }
+        return parEnfant;
+    }
+
+    private static Map<Integer, List<MenuRepasReferenceProjection>> grouperParMenu(
+            List<MenuRepasReferenceProjection> lignes) {
+        Map<Integer, List<MenuRepasReferenceProjection>> parMenu = new HashMap<>();
+        for (MenuRepasReferenceProjection ligne : lignes) {
+            parMenu.computeIfAbsent(ligne.menuId(), k -> new ArrayList<>()).add(ligne);
+        }
+        return parMenu;
+    }
+
+    /** Références par menu, dans l'ordre des requêtes (ordre d'affichage). */
+    private static Map<Integer, List<ReferenceAlimentaireDto>> referencesDtoParMenu(
+            List<MenuRepasReferenceProjection> lignes) {
+        Map<Integer, List<ReferenceAlimentaireDto>> parMenu = new HashMap<>();
+        for (MenuRepasReferenceProjection ligne : lignes) {
+            parMenu.computeIfAbsent(ligne.menuId(), k -> new ArrayList<>()).add(versDto(ligne));
+        }
+        return parMenu;
+    }
+
+    private static ReferenceAlimentaireDto versDto(MenuRepasReferenceProjection r) {
+        return new ReferenceAlimentaireDto(r.referenceId(), r.type(), r.libelle(), r.ordre(), r.actif());
+    }
+
+    private static BitSet enBits(List<MenuRepasReferenceProjection> references) {
+        BitSet bits = new BitSet();
+        references.forEach(r -> bits.set(r.referenceId()));
+        return bits;
+    }
+
+    /** Références du menu (déjà triées) présentes dans le dossier de l'enfant. */
+    private static List<ReferenceAlimentaireDto> referencesCommunes(
+            List<MenuRepasReferenceProjection> referencesMenu, BitSet referencesEnfant) {
+        return referencesMenu.stream()
+                .filter(r -> referencesEnfant.get(r.referenceId()))
+                .map(MenuRepasServiceImpl::versDto)
+                .toList();
     }
 
     private static String emptyToNull(String value) {
@@ -213,16 +437,11 @@ public class MenuRepasServiceImpl implements MenuRepasService {
     }
 
     private MenuRepasDto mapToDto(MenuRepas m) {
-        Comparator<ReferenceAlimentaire> ordre =
-                Comparator.comparing(ReferenceAlimentaire::getOrdre, Comparator.nullsLast(Integer::compareTo))
-                        .thenComparing(ReferenceAlimentaire::getId);
-        List<ReferenceAlimentaireDto> allergenes =
-                m.getAllergenes().stream().sorted(ordre).map(this::mapReferenceDto).collect(Collectors.toList());
-        List<ReferenceAlimentaireDto> regimes =
-                m.getRegimesEtPreferences().stream()
-                        .sorted(ordre)
-                        .map(this::mapReferenceDto)
-                        .collect(Collectors.toList());
+        return mapToDto(m, mapReferencesDto(m.getAllergenes()), mapReferencesDto(m.getRegimesEtPreferences()));
+    }
+
+    private MenuRepasDto mapToDto(
+            MenuRepas m, List<ReferenceAlimentaireDto> allergenes, List<ReferenceAlimentaireDto> regimes) {
         return new MenuRepasDto(
                 m.getId(),
                 m.getSejour().getId(),
@@ -237,7 +456,10 @@ public class MenuRepasServiceImpl implements MenuRepasService {
                 regimes);
     }
 
-    private ReferenceAlimentaireDto mapReferenceDto(ReferenceAlimentaire r) {
-        return new ReferenceAlimentaireDto(r.getId(), r.getType(), r.getLibelle(), r.getOrdre(), r.isActif());
+    private List<ReferenceAlimentaireDto> mapReferencesDto(Set<ReferenceAlimentaire> references) {
+        return references.stream()
+                .map(catalogueReferencesAlimentaires::dtoDe)
+                .sorted(CatalogueReferencesAlimentaires.ORDRE_AFFICHAGE)
+                .collect(Collectors.toList());
     }
 }
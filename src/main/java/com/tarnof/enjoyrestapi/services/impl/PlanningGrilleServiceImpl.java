@@ -7,12 +7,14 @@ import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
 import com.tarnof.enjoyrestapi.payload.request.*;
 import com.tarnof.enjoyrestapi.payload.response.PlanningCelluleDto;
 import com.tarnof.enjoyrestapi.payload.response.PlanningGrilleDetailDto;
+import com.tarnof.enjoyrestapi.payload.response.PlanningGrilleExportDto;
 import com.tarnof.enjoyrestapi.payload.response.PlanningGrilleSummaryDto;
 import com.tarnof.enjoyrestapi.payload.response.PlanningLigneDto;
 import com.tarnof.enjoyrestapi.repositories.*;
 import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
 import com.tarnof.enjoyrestapi.services.PlanningGrilleService;
 import com.tarnof.enjoyrestapi.services.SejourVerificationService;
+import com.tarnof.enjoyrestapi.utils.EmpreinteHistorique;
 import com.tarnof.enjoyrestapi.utils.LieuUsageRules;
 import org.springframework.lang.NonNull;
 import org.springframework.security.access.AccessDeniedException;
@@ -21,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -81,6 +84,32 @@ public class PlanningGrilleServiceImpl implements PlanningGrilleService {
         return construireDetail(sejourId, grille);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PlanningGrilleExportDto exporterGrille(int sejourId, int grilleId, String utilisateurTokenId) {
+        sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        PlanningGrille grille = getGrilleEtVerifierSejour(sejourId, grilleId);
+        List<PlanningLigne> lignes = trierLignesPourAffichage(planningLigneRepository.findByGrille_Id(grille.getId()));
+        Map<Integer, List<PlanningCellule>> parLigne =
+                chargerCellulesPourLignes(lignes.stream().map(PlanningLigne::getId).toList());
+
+        TreeSet<LocalDate> jours = new TreeSet<>(joursDuSejour(grille.getSejour()));
+        List<PlanningGrilleExportDto.Ligne> lignesExport = new ArrayList<>(lignes.size());
+        for (PlanningLigne ligne : lignes) {
+            Map<LocalDate, String> contenus = new HashMap<>();
+            for (PlanningCellule cellule : parLigne.getOrDefault(ligne.getId(), List.of())) {
+                jours.add(cellule.getJour());
+                String contenu = partiesLibellesCellule(cellule).stream()
+                        .filter(partie -> !partie.isBlank())
+                        .collect(Collectors.joining("\n"));
+                contenus.put(cellule.getJour(), contenu);
+            }
+            lignesExport.add(new PlanningGrilleExportDto.Ligne(
+                    ligne.getLibelleRegroupement(), libelleLignePourExport(ligne), contenus));
+        }
+        return new PlanningGrilleExportDto(grille.getTitre(), new ArrayList<>(jours), lignesExport);
+    }
+
     @Override
     @Transactional
     public PlanningGrilleDetailDto creerGrille(int sejourId, SavePlanningGrilleRequest request) {
@@ -199,6 +228,7 @@ public class PlanningGrilleServiceImpl implements PlanningGrilleService {
                                 existing -> {
                                     String ancienneValeur = snapshotPlanningCellule(existing);
                                     historiqueModificationService.enregistrerPlanningCellule(
+                                            sejourId,
                                             modificateurTokenId,
                                             HistoriqueModificationAction.SUPPRESSION,
                                             ligneId,
@@ -211,7 +241,7 @@ public class PlanningGrilleServiceImpl implements PlanningGrilleService {
             } else {
                 Optional<PlanningCellule> existOpt =
                         planningCelluleRepository.findByLigne_IdAndJour(ligneId, payload.jour());
-                String signatureAvant = existOpt.map(this::signatureContenuCellule).orElse(null);
+                Long signatureAvant = existOpt.map(this::signatureContenuCellule).orElse(null);
                 String ancienneValeur = existOpt.map(this::snapshotPlanningCellule).orElse(null);
                 PlanningCellule cellule =
                         existOpt.orElseGet(() -> nouvelleCellule(ligne, payload.jour()));
@@ -222,10 +252,11 @@ public class PlanningGrilleServiceImpl implements PlanningGrilleService {
                 cellule.getAnimateursAssignes().clear();
                 cellule.getAnimateursAssignes().addAll(chargerMembresCelluleValides(sejour, payload.membreTokenIds()));
                 planningCelluleRepository.save(cellule);
-                String signatureApres = signatureContenuCellule(cellule);
+                long signatureApres = signatureContenuCellule(cellule);
                 if (signatureAvant == null) {
                     String nouvelleValeur = snapshotPlanningCellule(cellule);
                     historiqueModificationService.enregistrerPlanningCellule(
+                            sejourId,
                             modificateurTokenId,
                             HistoriqueModificationAction.CREATION,
                             ligneId,
@@ -233,9 +264,10 @@ public class PlanningGrilleServiceImpl implements PlanningGrilleService {
                             cellule.getId(),
                             null,
                             nouvelleValeur);
-                } else if (!signatureAvant.equals(signatureApres)) {
+                } else if (signatureAvant != signatureApres) {
                     String nouvelleValeur = snapshotPlanningCellule(cellule);
                     historiqueModificationService.enregistrerPlanningCellule(
+                            sejourId,
                             modificateurTokenId,
                             HistoriqueModificationAction.MODIFICATION,
                             ligneId,
@@ -286,13 +318,14 @@ public class PlanningGrilleServiceImpl implements PlanningGrilleService {
                         .anyMatch(u -> utilisateurTokenId.equals(u.getTokenId()))) {
                     return Optional.of(toCelluleDto(cellule));
                 }
-                String signatureAvant = signatureContenuCellule(cellule);
+                long signatureAvant = signatureContenuCellule(cellule);
                 String ancienneValeur = snapshotPlanningCellule(cellule);
                 cellule.getAnimateursAssignes().add(moi);
                 planningCelluleRepository.save(cellule);
-                String signatureApres = signatureContenuCellule(cellule);
-                if (!signatureAvant.equals(signatureApres)) {
+                long signatureApres = signatureContenuCellule(cellule);
+                if (signatureAvant != signatureApres) {
                     historiqueModificationService.enregistrerPlanningCellule(
+                            sejourId,
                             utilisateurTokenId,
                             HistoriqueModificationAction.MODIFICATION,
                             ligneId,
@@ -310,6 +343,7 @@ public class PlanningGrilleServiceImpl implements PlanningGrilleService {
             cellule.getAnimateursAssignes().add(moi);
             planningCelluleRepository.save(cellule);
             historiqueModificationService.enregistrerPlanningCellule(
+                    sejourId,
                     utilisateurTokenId,
                     HistoriqueModificationAction.CREATION,
                     ligneId,
@@ -334,6 +368,7 @@ public class PlanningGrilleServiceImpl implements PlanningGrilleService {
         if (cellule.getAnimateursAssignes().isEmpty()) {
             int cellId = Objects.requireNonNull(cellule.getId());
             historiqueModificationService.enregistrerPlanningCellule(
+                    sejourId,
                     utilisateurTokenId,
                     HistoriqueModificationAction.SUPPRESSION,
                     ligneId,
@@ -347,6 +382,7 @@ public class PlanningGrilleServiceImpl implements PlanningGrilleService {
         }
         planningCelluleRepository.save(cellule);
         historiqueModificationService.enregistrerPlanningCellule(
+                sejourId,
                 utilisateurTokenId,
                 HistoriqueModificationAction.MODIFICATION,
                 ligneId,
@@ -899,48 +935,17 @@ public class PlanningGrilleServiceImpl implements PlanningGrilleService {
     }
 
     /**
-     * Signature stable du contenu métier d'une cellule (hors id), pour détecter une vraie modification.
+     * Empreinte du contenu métier d'une cellule (hors id), pour détecter une vraie modification.
      */
-    private String signatureContenuCellule(PlanningCellule c) {
-        List<String> membreTokenIds =
-                c.getAnimateursAssignes().stream()
-                        .map(Utilisateur::getTokenId)
-                        .filter(Objects::nonNull)
-                        .sorted()
-                        .toList();
-        List<Integer> horaireIds =
-                c.getHoraires().stream()
-                        .map(Horaire::getId)
-                        .filter(Objects::nonNull)
-                        .sorted()
-                        .toList();
-        List<Integer> momentIds =
-                c.getMoments().stream()
-                        .map(Moment::getId)
-                        .filter(Objects::nonNull)
-                        .sorted()
-                        .toList();
-        List<Integer> groupeIds =
-                c.getGroupes().stream()
-                        .map(Groupe::getId)
-                        .filter(Objects::nonNull)
-                        .sorted()
-                        .toList();
-        List<Integer> lieuIds =
-                c.getLieux().stream()
-                        .map(Lieu::getId)
-                        .filter(Objects::nonNull)
-                        .sorted()
-                        .toList();
-        String texte = c.getTexteLibre() == null ? "" : c.getTexteLibre();
-        return String.join(
-                "|",
-                texte,
-                membreTokenIds.toString(),
-                horaireIds.toString(),
-                momentIds.toString(),
-                groupeIds.toString(),
-                lieuIds.toString());
+    private long signatureContenuCellule(PlanningCellule c) {
+        return EmpreinteHistorique.nouvelle()
+                .texte(c.getTexteLibre())
+                .ids(c.getAnimateursAssignes(), Utilisateur::getId)
+                .ids(c.getHoraires(), Horaire::getId)
+                .ids(c.getMoments(), Moment::getId)
+                .ids(c.getGroupes(), Groupe::getId)
+                .ids(c.getLieux(), Lieu::getId)
+                .valeur();
     }
 
     private String snapshotPlanningCellule(PlanningCellule c) {
@@ -949,6 +954,11 @@ public class PlanningGrilleServiceImpl implements PlanningGrilleService {
 
     /** Libellés lisibles pour l'historique (prénom/nom, libellés, noms — pas d'ids). */
     private String contenuCelluleLibellePourHistorique(PlanningCellule c) {
+        return String.join("|", partiesLibellesCellule(c));
+    }
+
+    /** Texte, membres, horaires, moments, groupes, lieux : une chaîne lisible par partie (éventuellement vide). */
+    private List<String> partiesLibellesCellule(PlanningCellule c) {
         List<String> membresLibelles =
                 c.getAnimateursAssignes().stream()
                         .map(this::libelleUtilisateurPourHistorique)
@@ -987,8 +997,7 @@ public class PlanningGrilleServiceImpl implements PlanningGrilleService {
                         .sorted()
                         .toList();
         String texte = c.getTexteLibre() == null ? "" : c.getTexteLibre();
-        return String.join(
-                "|",
+        return List.of(
                 texte,
                 String.join(", ", membresLibelles),
                 String.join(", ", horaireLibelles),
@@ -997,6 +1006,49 @@ public class PlanningGrilleServiceImpl implements PlanningGrilleService {
                 String.join(", ", lieuNoms));
     }
 
+    /** Libellé affiché d'une ligne : saisie libre, sinon l'entité de référence (moment, horaire, groupe…). */
+    private String libelleLignePourExport(PlanningLigne ligne) {
+        if (ligne.getLibelleSaisieLibre() != null && !ligne.getLibelleSaisieLibre().isBlank()) {
+            return ligne.getLibelleSaisieLibre().trim();
+        }
+        if (ligne.getLibelleMoment() != null) {
+            return ligne.getLibelleMoment().getNom();
+        }
+        if (ligne.getLibelleHoraire() != null) {
+            return ligne.getLibelleHoraire().getLibelle();
+        }
+        if (ligne.getLibelleGroupe() != null) {
+            return ligne.getLibelleGroupe().getNom();
+        }
+        if (ligne.getLibelleLieu() != null) {
+            return ligne.getLibelleLieu().getNom();
+        }
+        if (ligne.getLibelleUtilisateur() != null) {
+            return libelleUtilisateurPourHistorique(ligne.getLibelleUtilisateur());
+        }
+        return null;
+    }
+
+    /** Jours calendaires du séjour (bornes incluses) ; vide si les dates ne sont pas renseignées. */
+    private static List<LocalDate> joursDuSejour(Sejour sejour) {
+        if (sejour == null || sejour.getDateDebut() == null || sejour.getDateFin() == null) {
+            return List.of();
+        }
+        LocalDate debut = versJourCalendaire(sejour.getDateDebut());
+        LocalDate fin = versJourCalendaire(sejour.getDateFin());
+        if (fin.isBefore(debut)) {
+            return List.of();
+        }
+        return debut.datesUntil(fin.plusDays(1)).toList();
+    }
+
+    private static LocalDate versJourCalendaire(Date date) {
+        if (date instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate();
+        }
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
     private String libelleUtilisateurPourHistorique(Utilisateur u) {
         String p = u.getPrenom() != null ? u.getPrenom().trim() : "";
         String n = u.getNom() != null ? u.getNom().trim() : "";
@@ -0,0 +1,167 @@
+package com.tarnof.enjoyrestapi.services.impl;
+
+import com.tarnof.enjoyrestapi.entities.DossierEnfant;
+import com.tarnof.enjoyrestapi.entities.Reunion;
+import com.tarnof.enjoyrestapi.enums.TypeDocumentRecherche;
+import com.tarnof.enjoyrestapi.payload.response.ResultatRechercheSejourDto;
+import com.tarnof.enjoyrestapi.repositories.CahierInfirmerieEntreeRepository;
+import com.tarnof.enjoyrestapi.repositories.DossierEnfantRepository;
+import com.tarnof.enjoyrestapi.repositories.ReunionRepository;
+import com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieTexteProjection;
+import com.tarnof.enjoyrestapi.services.IndexRechercheSejours;
+import com.tarnof.enjoyrestapi.services.IndexRechercheSejours.CleDocument;
+import com.tarnof.enjoyrestapi.services.IndexRechercheSejours.Resultat;
+import com.tarnof.enjoyrestapi.services.RechercheSejourService;
+import com.tarnof.enjoyrestapi.services.SejourVerificationService;
+import com.tarnof.enjoyrestapi.utils.TexteRecherche;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class RechercheSejourServiceImpl implements RechercheSejourService {
+
+    static final int NB_RESULTATS_MAX = 30;
+    static final int LONGUEUR_MAX_REQUETE = 200;
+    static final int NB_TERMES_MAX = 8;
+
+    private final SejourVerificationService sejourVerificationService;
+    private final IndexRechercheSejours indexRechercheSejours;
+    private final CahierInfirmerieEntreeRepository cahierInfirmerieEntreeRepository;
+    private final ReunionRepository reunionRepository;
+    private final DossierEnfantRepository dossierEnfantRepository;
+
+    public RechercheSejourServiceImpl(
+            SejourVerificationService sejourVerificationService,
+            IndexRechercheSejours indexRechercheSejours,
+            CahierInfirmerieEntreeRepository cahierInfirmerieEntreeRepository,
+            ReunionRepository reunionRepository,
+            DossierEnfantRepository dossierEnfantRepository) {
+        this.sejourVerificationService = sejourVerificationService;
+        this.indexRechercheSejours = indexRechercheSejours;
+        this.cahierInfirmerieEntreeRepository = cahierInfirmerieEntreeRepository;
+        this.reunionRepository = reunionRepository;
+        this.dossierEnfantRepository = dossierEnfantRepository;
+    }
+
+    /**
+     * Même droit de lecture que le cahier, les réunions et les dossiers : appartenance au séjour.
+     * Pas de transaction englobante (contrat de {@link IndexRechercheSejours}) ; les documents trouvés sont relus
+     * en base, ceux qui n'existent plus ou ne relèvent plus du séjour sont écartés.
+     */
+    @Override
+    public List<ResultatRechercheSejourDto> rechercher(int sejourId, String requete, String utilisateurTokenId) {
+        sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        Set<String> termes = termesDeLaRequete(requete);
+        List<Resultat> resultats = indexRechercheSejours.rechercher(
+                sejourId, termes, NB_RESULTATS_MAX, () -> documentsDuSejour(sejourId));
+        return versDtos(sejourId, resultats);
+    }
+
+    private static Set<String> termesDeLaRequete(String requete) {
+        if (requete == null || requete.isBlank()) {
+            throw new IllegalArgumentException("Le texte recherché est obligatoire.");
+        }
+        if (requete.length() > LONGUEUR_MAX_REQUETE) {
+            throw new IllegalArgumentException(
+                    "Le texte recherché ne doit pas dépasser " + LONGUEUR_MAX_REQUETE + " caractères.");
+        }
+        Set<String> termes = new LinkedHashSet<>();
+        for (String terme : TexteRecherche.termes(requete)) {
+            if (termes.size() == NB_TERMES_MAX) {
+                break;
+            }
+            termes.add(terme);
+        }
+        if (termes.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Le texte recherché doit contenir au moins un mot de "
+                            + TexteRecherche.LONGUEUR_MIN_TERME + " caractères.");
+        }
+        return termes;
+    }
+
+    /** Texte de tous les documents du séjour, pour (re)construire son index. */
+    private Map<CleDocument, String> documentsDuSejour(int sejourId) {
+        Map<CleDocument, String> documents = new LinkedHashMap<>();
+        for (CahierInfirmerieTexteProjection e : cahierInfirmerieEntreeRepository.findTextesBySejourId(sejourId)) {
+            documents.put(new CleDocument(TypeDocumentRecherche.ENTREE_INFIRMERIE, e.entreeId()),
+                    IndexRechercheSejours.texteEntree(e.description(), e.localisationCorps()));
+        }
+        for (Reunion r : reunionRepository.findBySejour_IdOrderByDateReunionAscIdAsc(sejourId)) {
+            documents.put(new CleDocument(TypeDocumentRecherche.REUNION, r.getId()),
+                    indexRechercheSejours.texteReunion(r.getOrdreDuJour(), r.getContenuJson()));
+        }
+        for (DossierEnfant d : dossierEnfantRepository.findBySejourIdFetchingEnfant(sejourId)) {
+            documents.put(new CleDocument(TypeDocumentRecherche.DOSSIER_ENFANT, d.getEnfant().getId()),
+                    IndexRechercheSejours.texteDossier(d));
+        }
+        return documents;
+    }
+
+    /** Une requête par nature de document trouvée ; l'ordre de pertinence est conservé. */
+    private List<ResultatRechercheSejourDto> versDtos(int sejourId, List<Resultat> resultats) {
+        Map<TypeDocumentRecherche, List<Integer>> idsParType = new EnumMap<>(TypeDocumentRecherche.class);
+        for (Resultat r : resultats) {
+            idsParType.computeIfAbsent(r.cle().type(), k -> new ArrayList<>()).add(r.cle().id());
+        }
+        Map<CleDocument, DocumentTrouve> trouves = new HashMap<>();
+        List<Integer> entreeIds = idsParType.get(TypeDocumentRecherche.ENTREE_INFIRMERIE);
+        if (entreeIds != null) {
+            for (CahierInfirmerieTexteProjection e :
+                    cahierInfirmerieEntreeRepository.findTextesBySejourIdAndIdIn(sejourId, entreeIds)) {
+                trouves.put(new CleDocument(TypeDocumentRecherche.ENTREE_INFIRMERIE, e.entreeId()), new DocumentTrouve(
+                        e.enfantId(),
+                        e.prenom() + " " + e.nom(),
+                        LocalDate.ofInstant(e.dateHeure(), ZoneId.systemDefault()),
+                        IndexRechercheSejours.texteEntree(e.description(), e.localisationCorps())));
+            }
+        }
+        List<Integer> reunionIds = idsParType.get(TypeDocumentRecherche.REUNION);
+        if (reunionIds != null) {
+            for (Reunion r : reunionRepository.findBySejour_IdAndIdIn(sejourId, reunionIds)) {
+                trouves.put(new CleDocument(TypeDocumentRecherche.REUNION, r.getId()), new DocumentTrouve(
+                        null,
+                        r.getOrdreDuJour(),
+                        r.getDateReunion(),
+                        indexRechercheSejours.texteReunion(r.getOrdreDuJour(), r.getContenuJson())));
+            }
+        }
+        List<Integer> enfantIds = idsParType.get(TypeDocumentRecherche.DOSSIER_ENFANT);
+        if (enfantIds != null) {
+            for (DossierEnfant d : dossierEnfantRepository.findBySejourIdAndEnfantIdInFetchingEnfant(sejourId, enfantIds)) {
+                trouves.put(new CleDocument(TypeDocumentRecherche.DOSSIER_ENFANT, d.getEnfant().getId()), new DocumentTrouve(
+                        d.getEnfant().getId(),
+                        d.getEnfant().getPrenom() + " " + d.getEnfant().getNom(),
+                        null,
+                        IndexRechercheSejours.texteDossier(d)));
+            }
+        }
+
+        List<ResultatRechercheSejourDto> dtos = new ArrayList<>(resultats.size());
+        for (Resultat r : resultats) {
+            DocumentTrouve document = trouves.get(r.cle());
+            if (document != null) {
+                dtos.add(new ResultatRechercheSejourDto(
+                        r.cle().type(),
+                        r.cle().id(),
+                        document.enfantId(),
+                        document.titre(),
+                        document.date(),
+                        TexteRecherche.extrait(document.texte(), r.termes())));
+            }
+        }
+        return dtos;
+    }
+
+    private record DocumentTrouve(Integer enfantId, String titre, LocalDate date, String texte) {}
+}
@@ -8,39 +8,41 @@ import com.tarnof.enjoyrestapi.payload.request.SaveReferenceAlimentaireRequest;
 import com.tarnof.enjoyrestapi.payload.request.UpdateReferenceAlimentaireRequest;
 import com.tarnof.enjoyrestapi.payload.response.ReferenceAlimentaireDto;
 import com.tarnof.enjoyrestapi.repositories.ReferenceAlimentaireRepository;
+import com.tarnof.enjoyrestapi.services.CatalogueReferencesAlimentaires;
 import com.tarnof.enjoyrestapi.services.ReferenceAlimentaireService;
+import com.tarnof.enjoyrestapi.services.DonneesAlimentairesSejourCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class ReferenceAlimentaireServiceImpl implements ReferenceAlimentaireService {
 
     private final ReferenceAlimentaireRepository referenceAlimentaireRepository;
+    private final DonneesAlimentairesSejourCache donneesAlimentairesSejourCache;
+    private final CatalogueReferencesAlimentaires catalogueReferencesAlimentaires;
 
-    public ReferenceAlimentaireServiceImpl(ReferenceAlimentaireRepository referenceAlimentaireRepository) {
+    public ReferenceAlimentaireServiceImpl(
+            ReferenceAlimentaireRepository referenceAlimentaireRepository,
+            DonneesAlimentairesSejourCache donneesAlimentairesSejourCache,
+            CatalogueReferencesAlimentaires catalogueReferencesAlimentaires) {
         this.referenceAlimentaireRepository = referenceAlimentaireRepository;
+        this.donneesAlimentairesSejourCache = donneesAlimentairesSejourCache;
+        this.catalogueReferencesAlimentaires = catalogueReferencesAlimentaires;
     }
 
+    /** Lectures servies par le catalogue en mémoire, sans requête. */
     @Override
-    @Transactional(readOnly = true)
     public List<ReferenceAlimentaireDto> lister(TypeReferenceAlimentaire type) {
-        List<ReferenceAlimentaire> liste =
-                type != null
-                        ? referenceAlimentaireRepository.findByTypeOrderByOrdreAscIdAsc(type)
-                        : referenceAlimentaireRepository.findAllByOrderByTypeAscOrdreAscIdAsc();
-        return liste.stream().map(this::mapToDto).collect(Collectors.toList());
+        return catalogueReferencesAlimentaires.lister(type);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ReferenceAlimentaireDto getById(int id) {
-        return mapToDto(
-                referenceAlimentaireRepository
-                        .findById(id)
-                        .orElseThrow(() -> new ResourceNotFoundException("Référence alimentaire introuvable : " + id)));
+        return catalogueReferencesAlimentaires
+                .trouver(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Référence alimentaire introuvable : " + id));
     }
 
     @Override
@@ -56,7 +58,9 @@ public class ReferenceAlimentaireServiceImpl implements ReferenceAlimentaireServ
         r.setLibelle(libelle);
         r.setOrdre(request.ordre());
         r.setActif(true);
-        return mapToDto(referenceAlimentaireRepository.save(r));
+        ReferenceAlimentaireDto dto = mapToDto(referenceAlimentaireRepository.save(r));
+        catalogueReferencesAlimentaires.publier(dto);
+        return dto;
     }
 
     @Override
@@ -78,7 +82,10 @@ public class ReferenceAlimentaireServiceImpl implements ReferenceAlimentaireServ
         r.setLibelle(libelle);
         r.setOrdre(request.ordre());
         r.setActif(request.actif());
-        return mapToDto(referenceAlimentaireRepository.save(r));
+        ReferenceAlimentaireDto dto = mapToDto(referenceAlimentaireRepository.save(r));
+        catalogueReferencesAlimentaires.publier(dto);
+        donneesAlimentairesSejourCache.invaliderTout();
+        return dto;
     }
 
     @Override
@@ -97,6 +104,7 @@ public class ReferenceAlimentaireServiceImpl implements ReferenceAlimentaireServ
                     "Impossible de supprimer cette référence : elle est encore utilisée dans un dossier enfant ou un menu.");
         }
         referenceAlimentaireRepository.deleteById(id);
+        catalogueReferencesAlimentaires.retirer(id);
     }
 
     private static String normaliserLibelle(String libelle) {
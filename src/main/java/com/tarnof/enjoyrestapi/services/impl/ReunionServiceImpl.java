@@ -5,43 +5,60 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tarnof.enjoyrestapi.entities.Reunion;
 import com.tarnof.enjoyrestapi.entities.Sejour;
+import com.tarnof.enjoyrestapi.enums.TypeDocumentRecherche;
 import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
 import com.tarnof.enjoyrestapi.payload.request.SaveReunionRequest;
 import com.tarnof.enjoyrestapi.payload.response.ReunionDto;
+import com.tarnof.enjoyrestapi.payload.response.ReunionResumeDto;
 import com.tarnof.enjoyrestapi.repositories.ReunionRepository;
+import com.tarnof.enjoyrestapi.repositories.projections.ReunionResumeProjection;
+import com.tarnof.enjoyrestapi.services.IndexRechercheSejours;
 import com.tarnof.enjoyrestapi.services.ReunionService;
 import com.tarnof.enjoyrestapi.services.SejourVerificationService;
+import com.tarnof.enjoyrestapi.utils.TexteRecherche;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @SuppressWarnings("null")
 public class ReunionServiceImpl implements ReunionService {
 
-    private static final JsonNode DOCUMENT_VIDE_PAR_DEFAUT = defaultDocumentVide();
+    private static final String DOCUMENT_VIDE_PAR_DEFAUT = "{\"type\":\"doc\",\"content\":[]}";
 
     private final ReunionRepository reunionRepository;
     private final SejourVerificationService sejourVerificationService;
     private final ObjectMapper objectMapper;
+    private final IndexRechercheSejours indexRechercheSejours;
 
     public ReunionServiceImpl(
             ReunionRepository reunionRepository,
             SejourVerificationService sejourVerificationService,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            IndexRechercheSejours indexRechercheSejours) {
         this.reunionRepository = reunionRepository;
         this.sejourVerificationService = sejourVerificationService;
         this.objectMapper = objectMapper;
+        this.indexRechercheSejours = indexRechercheSejours;
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<ReunionDto> listerReunionsDuSejour(int sejourId, String utilisateurTokenId) {
+    @Transactional
+    public List<ReunionResumeDto> listerReunionsDuSejour(int sejourId, String utilisateurTokenId) {
         sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
-        return reunionRepository.findBySejour_IdOrderByDateReunionAscIdAsc(sejourId).stream()
-                .map(this::mapToDto)
+        List<ReunionResumeProjection> resumes = reunionRepository.findResumesBySejourId(sejourId);
+        Map<Integer, String> extraitsCalcules = completerExtraits(sejourId, resumes);
+        return resumes.stream()
+                .map(r -> new ReunionResumeDto(
+                        r.id(),
+                        sejourId,
+                        r.dateReunion(),
+                        r.ordreDuJour(),
+                        r.extrait() != null ? r.extrait() : extraitsCalcules.get(r.id())))
                 .collect(Collectors.toList());
     }
 
@@ -65,7 +82,10 @@ public class ReunionServiceImpl implements ReunionService {
         reunion.setDateReunion(request.date());
         reunion.setOrdreDuJour(normaliserOrdreDuJour(request.ordreDuJour()));
         reunion.setContenuJson(serializeContenu(request.contenu()));
-        return mapToDto(reunionRepository.save(reunion));
+        reunion.setExtrait(extrait(request.contenu()));
+        Reunion sauvee = reunionRepository.save(reunion);
+        indexRechercheSejours.indexerReunion(sauvee);
+        return mapToDto(sauvee);
     }
 
     @Override
@@ -78,7 +98,10 @@ public class ReunionServiceImpl implements ReunionService {
         reunion.setDateReunion(request.date());
         reunion.setOrdreDuJour(normaliserOrdreDuJour(request.ordreDuJour()));
         reunion.setContenuJson(serializeContenu(request.contenu()));
-        return mapToDto(reunionRepository.save(reunion));
+        reunion.setExtrait(extrait(request.contenu()));
+        Reunion sauvee = reunionRepository.save(reunion);
+        indexRechercheSejours.indexerReunion(sauvee);
+        return mapToDto(sauvee);
     }
 
     @Override
@@ -89,6 +112,7 @@ public class ReunionServiceImpl implements ReunionService {
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Réunion non trouvée avec l'ID: " + reunionId + " pour ce séjour"));
         reunionRepository.delete(reunion);
+        indexRechercheSejours.retirer(sejourId, TypeDocumentRecherche.REUNION, reunionId);
     }
 
     private static String normaliserOrdreDuJour(String ordreDuJour) {
@@ -98,13 +122,39 @@ public class ReunionServiceImpl implements ReunionService {
         return ordreDuJour.trim();
     }
 
+    /** Le document enregistré part tel quel dans la réponse ({@code @JsonRawValue}), sans être relu. */
     private ReunionDto mapToDto(Reunion reunion) {
+        String contenuJson = reunion.getContenuJson();
         return new ReunionDto(
                 reunion.getId(),
                 reunion.getSejour().getId(),
                 reunion.getDateReunion(),
                 reunion.getOrdreDuJour(),
-                parseContenu(reunion.getContenuJson()));
+                contenuJson == null || contenuJson.isBlank() ? DOCUMENT_VIDE_PAR_DEFAUT : contenuJson);
+    }
+
+    /**
+     * Extraits des réunions enregistrées avant leur introduction : calculés une fois depuis le document, puis
+     * enregistrés avec la transaction de la liste.
+     */
+    private Map<Integer, String> completerExtraits(int sejourId, List<ReunionResumeProjection> resumes) {
+        List<Integer> sansExtrait = resumes.stream()
+                .filter(r -> r.extrait() == null)
+                .map(ReunionResumeProjection::id)
+                .toList();
+        if (sansExtrait.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, String> extraits = new HashMap<>();
+        for (Reunion reunion : reunionRepository.findBySejour_IdAndIdIn(sejourId, sansExtrait)) {
+            reunion.setExtrait(extrait(parseContenu(reunion.getContenuJson())));
+            extraits.put(reunion.getId(), reunion.getExtrait());
+        }
+        return extraits;
+    }
+
+    private static String extrait(JsonNode contenu) {
+        return TexteRecherche.extrait(IndexRechercheSejours.texteTipTap(contenu), List.of());
     }
 
     private String serializeContenu(JsonNode contenu) {
@@ -116,21 +166,10 @@ public class ReunionServiceImpl implements ReunionService {
     }
 
     private JsonNode parseContenu(String json) {
-        if (json == null || json.isBlank()) {
-            return DOCUMENT_VIDE_PAR_DEFAUT;
-        }
         try {
-            return objectMapper.readTree(json);
+            return objectMapper.readTree(json == null || json.isBlank() ? DOCUMENT_VIDE_PAR_DEFAUT : json);
         } catch (JsonProcessingException e) {
             throw new IllegalStateException("Contenu JSON en base illisible pour la réunion.", e);
         }
     }
-
-    private static JsonNode defaultDocumentVide() {
-        try {
-            return new ObjectMapper().readTree("{\"type\":\"doc\",\"content\":[]}");
-        } catch (JsonProcessingException e) {
-            throw new IllegalStateException("Impossible de construire le document vide par défaut.", e);
-        }
-    }
 }
@@ -1,18 +1,26 @@
 package com.tarnof.enjoyrestapi.services.impl;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import com.tarnof.enjoyrestapi.utils.CurseurPagination;
 import com.tarnof.enjoyrestapi.utils.PhotoProfilUrls;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
 import com.tarnof.enjoyrestapi.payload.response.ProfilDto;
+import com.tarnof.enjoyrestapi.payload.response.SejourCatalogueDto;
 import com.tarnof.enjoyrestapi.payload.response.SejourDto;
 import com.tarnof.enjoyrestapi.entities.Activite;
 import com.tarnof.enjoyrestapi.entities.Groupe;
@@ -26,6 +34,7 @@ import com.tarnof.enjoyrestapi.exceptions.ResourceAlreadyExistsException;
 import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
 import com.tarnof.enjoyrestapi.payload.request.MembreEquipeRequest;
 import com.tarnof.enjoyrestapi.payload.request.CreateSejourRequest;
+import com.tarnof.enjoyrestapi.payload.request.FiltreSejoursRequest;
 import com.tarnof.enjoyrestapi.payload.request.RegisterRequest;
 import com.tarnof.enjoyrestapi.payload.response.AuthenticationResponse;
 import com.tarnof.enjoyrestapi.repositories.GroupeRepository;
@@ -34,8 +43,10 @@ import com.tarnof.enjoyrestapi.repositories.ActiviteRepository;
 import com.tarnof.enjoyrestapi.repositories.SejourRepository;
 import com.tarnof.enjoyrestapi.repositories.SejourEquipeRepository;
 import com.tarnof.enjoyrestapi.repositories.UtilisateurRepository;
+import com.tarnof.enjoyrestapi.repositories.projections.SejourCatalogueProjection;
 import com.tarnof.enjoyrestapi.entities.SejourEquipeId;
 import com.tarnof.enjoyrestapi.services.AuthenticationService;
+import com.tarnof.enjoyrestapi.services.IndexRechercheSejours;
 import com.tarnof.enjoyrestapi.services.SejourService;
 import com.tarnof.enjoyrestapi.services.TypeActiviteService;
 
@@ -52,11 +63,13 @@ public class SejourServiceImpl implements SejourService {
     private final GroupeRepository groupeRepository;
     private final ActiviteRepository activiteRepository;
     private final TypeActiviteService typeActiviteService;
+    private final IndexRechercheSejours indexRechercheSejours;
 
     public SejourServiceImpl(SejourRepository sejourRepository, UtilisateurRepository utilisateurRepository,
                              AuthenticationService authenticationService, RefreshTokenRepository refreshTokenRepository,
                              SejourEquipeRepository sejourEquipeRepository, GroupeRepository groupeRepository,
-                             ActiviteRepository activiteRepository, TypeActiviteService typeActiviteService) {
+                             ActiviteRepository activiteRepository, TypeActiviteService typeActiviteService,
+                             IndexRechercheSejours indexRechercheSejours) {
         this.sejourRepository = sejourRepository;
         this.utilisateurRepository = utilisateurRepository;
         this.authenticationService = authenticationService;
@@ -65,11 +78,12 @@ public class SejourServiceImpl implements SejourService {
         this.groupeRepository = groupeRepository;
         this.activiteRepository = activiteRepository;
         this.typeActiviteService = typeActiviteService;
+        this.indexRechercheSejours = indexRechercheSejours;
     }
 
     @Override
     public List<SejourDto> getAllSejours() {
-        return sejourRepository.findAll().stream()
+        return sejourRepository.findAllAvecDirecteur().stream()
                 .map(sejour -> mapToDTO(sejour, false))
                 .collect(Collectors.toList());
     }
@@ -296,6 +310,7 @@ public class SejourServiceImpl implements SejourService {
         Optional<Sejour> sejour = sejourRepository.findById(id);
         if (sejour.isPresent()) {
             sejourRepository.deleteById(id);
+            indexRechercheSejours.invaliderSejour(id);
         } else {
             throw new ResourceNotFoundException("Séjour non trouvé avec l'ID: " + id);
         }
@@ -307,7 +322,7 @@ public class SejourServiceImpl implements SejourService {
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé avec le token ID: " + utilisateurTokenId));
         
         if (utilisateur.getRole() == Role.ADMIN) {
-            return sejourRepository.findAll().stream()
+            return sejourRepository.findAllAvecDirecteur().stream()
                     .map(sejour -> mapToDTO(sejour, false))
                     .collect(Collectors.toList());
         }
@@ -317,6 +332,85 @@ public class SejourServiceImpl implements SejourService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public PageCurseurDto<SejourCatalogueDto> listerPageCatalogue(
+            FiltreSejoursRequest filtre, String curseur, Integer taille, String utilisateurTokenId) {
+        Utilisateur utilisateur = utilisateurRepository.findByTokenId(utilisateurTokenId)
+                .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé avec le token ID: " + utilisateurTokenId));
+        int taillePage = CurseurPagination.taille(taille);
+        if (filtre.du() != null && filtre.au() != null && filtre.du().isAfter(filtre.au())) {
+            throw new IllegalArgumentException("La date de début doit être antérieure ou égale à la date de fin.");
+        }
+        CurseurPagination.Position position = CurseurPagination.decoder(curseur);
+        Date apresDateDebut = null;
+        Integer apresId = null;
+        if (position != null) {
+            try {
+                apresDateDebut = Date.from(Instant.parse(position.cle()));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Curseur de pagination invalide.");
+            }
+            apresId = position.id();
+        }
+        // Un séjour de plus que la taille demandée : indique s'il existe une page suivante
+        List<SejourCatalogueProjection> lignes = sejourRepository.findPageCatalogue(
+                debutDeJour(filtre.du()),
+                filtre.au() == null ? null : debutDeJour(filtre.au().plusDays(1)),
+                blankToNull(filtre.directeurTokenId()),
+                motifLike(filtre.texte()),
+                utilisateur.getRole() == Role.ADMIN ? null : utilisateur.getId(),
+                apresDateDebut,
+                apresId,
+                PageRequest.of(0, taillePage + 1));
+        boolean pageSuivante = lignes.size() > taillePage;
+        List<SejourCatalogueDto> sejours = (pageSuivante ? lignes.subList(0, taillePage) : lignes).stream()
+                .map(SejourServiceImpl::mapToCatalogueDTO)
+                .toList();
+        String curseurSuivant = null;
+        if (pageSuivante) {
+            SejourCatalogueDto dernier = sejours.get(sejours.size() - 1);
+            curseurSuivant = CurseurPagination.encoder(dernier.dateDebut().toInstant().toString(), dernier.id());
+        }
+        return new PageCurseurDto<>(sejours, curseurSuivant);
+    }
+
+    private static SejourCatalogueDto mapToCatalogueDTO(SejourCatalogueProjection ligne) {
+        SejourDto.DirecteurInfos directeurInfos = ligne.directeurTokenId() == null ? null
+                : new SejourDto.DirecteurInfos(ligne.directeurTokenId(), ligne.directeurNom(), ligne.directeurPrenom());
+        return new SejourCatalogueDto(
+            ligne.id(),
+            ligne.nom(),
+            ligne.description(),
+            ligne.dateDebut(),
+            ligne.dateFin(),
+            ligne.lieuDuSejour(),
+            directeurInfos,
+            ligne.nbEnfants(),
+            ligne.nbEquipe()
+        );
+    }
+
+    private static Date debutDeJour(LocalDate jour) {
+        return jour == null ? null : Date.from(jour.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    /** Motif LIKE « contient », en minuscules, jokers saisis échappés par {@code !} ; {@code null} si vide. */
+    private static String motifLike(String texte) {
+        String valeur = blankToNull(texte);
+        if (valeur == null) {
+            return null;
+        }
+        String echappe = valeur.toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + echappe + "%";
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+
     private void retirerMembreDesActivitesDuSejour(int sejourId, int membreId) {
         List<Activite> activites = activiteRepository.findBySejourIdOrderByDateAscIdAsc(sejourId);
         for (Activite activite : activites) {
@@ -352,7 +446,8 @@ public class SejourServiceImpl implements SejourService {
                         membre.getTelephone(),
                         membre.getDateNaissance(),
                         membre.getDateExpirationCompte(),
-                        PhotoProfilUrls.urlPhotoProfilUtilisateur(membre.getTokenId(), membre.getPhotoProfilCle())
+                        PhotoProfilUrls.urlPhotoProfilUtilisateur(
+                                membre.getTokenId(), membre.getPhotoProfilCle(), membre.getPhotoProfilEmpreinte())
                     );
                 })
                 .collect(Collectors.toList());
@@ -0,0 +1,122 @@
+package com.tarnof.enjoyrestapi.services.impl;
+
+import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
+import com.tarnof.enjoyrestapi.payload.response.TableauDeBordSejourDto;
+import com.tarnof.enjoyrestapi.repositories.ActiviteRepository;
+import com.tarnof.enjoyrestapi.repositories.CahierInfirmerieEntreeRepository;
+import com.tarnof.enjoyrestapi.repositories.ChambreRepository;
+import com.tarnof.enjoyrestapi.repositories.SejourRepository;
+import com.tarnof.enjoyrestapi.repositories.projections.ActivitesMomentCompteProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.OccupationChambresProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.SejourCompteursProjection;
+import com.tarnof.enjoyrestapi.services.SejourVerificationService;
+import com.tarnof.enjoyrestapi.services.TableauDeBordSejourCache;
+import com.tarnof.enjoyrestapi.services.TableauDeBordSejourService;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tableau de bord d'un séjour : quatre requêtes d'agrégat indépendantes, lancées en parallèle sur des threads
+ * virtuels (une connexion chacune, sans transaction englobante), puis mises en cache quelques secondes par
+ * {@link TableauDeBordSejourCache}.
+ */
+@Service
+public class TableauDeBordSejourServiceImpl implements TableauDeBordSejourService {
+
+    private static final Duration FENETRE_INFIRMERIE = Duration.ofHours(24);
+
+    private final SejourRepository sejourRepository;
+    private final ActiviteRepository activiteRepository;
+    private final ChambreRepository chambreRepository;
+    private final CahierInfirmerieEntreeRepository cahierInfirmerieEntreeRepository;
+    private final SejourVerificationService sejourVerificationService;
+    private final TableauDeBordSejourCache tableauDeBordSejourCache;
+
+    public TableauDeBordSejourServiceImpl(
+            SejourRepository sejourRepository,
+            ActiviteRepository activiteRepository,
+            ChambreRepository chambreRepository,
+            CahierInfirmerieEntreeRepository cahierInfirmerieEntreeRepository,
+            SejourVerificationService sejourVerificationService,
+            TableauDeBordSejourCache tableauDeBordSejourCache) {
+        this.sejourRepository = sejourRepository;
+        this.activiteRepository = activiteRepository;
+        this.chambreRepository = chambreRepository;
+        this.cahierInfirmerieEntreeRepository = cahierInfirmerieEntreeRepository;
+        this.sejourVerificationService = sejourVerificationService;
+        this.tableauDeBordSejourCache = tableauDeBordSejourCache;
+    }
+
+    @Override
+    public TableauDeBordSejourDto obtenirTableauDeBord(int sejourId, String utilisateurTokenId) {
+        sejourVerificationService.verifierAppartenanceAuSejour(sejourId, utilisateurTokenId);
+        return tableauDeBordSejourCache.obtenir(sejourId, () -> calculer(sejourId));
+    }
+
+    private TableauDeBordSejourDto calculer(int sejourId) {
+        Instant maintenant = Instant.now();
+        LocalDate aujourdhui = LocalDate.ofInstant(maintenant, ZoneId.systemDefault());
+        // La fermeture de l'exécuteur attend les quatre requêtes, y compris quand l'une d'elles échoue
+        try (ExecutorService executeur = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Optional<SejourCompteursProjection>> compteurs = CompletableFuture.supplyAsync(
+                    () -> sejourRepository.findCompteurs(sejourId), executeur);
+            CompletableFuture<List<ActivitesMomentCompteProjection>> activitesDuJour = CompletableFuture.supplyAsync(
+                    () -> activiteRepository.compterParMomentPourDate(sejourId, aujourdhui), executeur);
+            CompletableFuture<OccupationChambresProjection> occupation = CompletableFuture.supplyAsync(
+                    () -> chambreRepository.findOccupationBySejourId(sejourId), executeur);
+            CompletableFuture<Long> entreesInfirmerie = CompletableFuture.supplyAsync(
+                    () -> cahierInfirmerieEntreeRepository.countBySejourIdAndDateHeureGreaterThanEqual(
+                            sejourId, maintenant.minus(FENETRE_INFIRMERIE)), executeur);
+
+            SejourCompteursProjection c = resultat(compteurs)
+                    .orElseThrow(() -> new ResourceNotFoundException("Séjour non trouvé avec l'ID: " + sejourId));
+            return new TableauDeBordSejourDto(
+                    sejourId,
+                    maintenant,
+                    c.nbEnfants(),
+                    c.nbMembresEquipe(),
+                    c.nbGroupes(),
+                    c.nbChambres(),
+                    c.nbActivites(),
+                    c.nbSortiesPrestataires(),
+                    c.nbMenus(),
+                    c.nbReunions(),
+                    resultat(activitesDuJour).stream()
+                            .map(a -> new TableauDeBordSejourDto.ActivitesMoment(
+                                    a.momentId(), a.momentNom(), a.nbActivites()))
+                            .toList(),
+                    mapOccupation(resultat(occupation)),
+                    resultat(entreesInfirmerie));
+        }
+    }
+
+    private static TableauDeBordSejourDto.OccupationChambres mapOccupation(OccupationChambresProjection occupation) {
+        double taux = occupation.capaciteTotale() == 0
+                ? 0
+                : (double) occupation.nbOccupants() / occupation.capaciteTotale();
+        return new TableauDeBordSejourDto.OccupationChambres(
+                occupation.capaciteTotale(), occupation.nbOccupants(), taux);
+    }
+
+    /** Résultat de la requête ; son exception d'origine si elle a échoué (404, accès base...). */
+    private static <T> T resultat(CompletableFuture<T> requete) {
+        try {
+            return requete.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
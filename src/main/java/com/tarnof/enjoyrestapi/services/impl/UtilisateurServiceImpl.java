@@ -10,14 +10,19 @@ import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
 import com.tarnof.enjoyrestapi.exceptions.UtilisateurException;
 import com.tarnof.enjoyrestapi.payload.request.UpdateUserRequest;
 import com.tarnof.enjoyrestapi.payload.response.PhotoProfilContenu;
+import com.tarnof.enjoyrestapi.payload.response.PhotoProfilLotEntree;
 import com.tarnof.enjoyrestapi.payload.response.ProfilDto;
 import com.tarnof.enjoyrestapi.repositories.RefreshTokenRepository;
 import com.tarnof.enjoyrestapi.repositories.SejourRepository;
 import com.tarnof.enjoyrestapi.repositories.UtilisateurRepository;
 import com.tarnof.enjoyrestapi.services.UtilisateurService;
 import com.tarnof.enjoyrestapi.services.storage.ObjectStorageService;
+import com.tarnof.enjoyrestapi.services.storage.StockageContenuAdresse;
+import com.tarnof.enjoyrestapi.utils.EtagPhotoProfil;
 import com.tarnof.enjoyrestapi.utils.ImageUploadValidator;
+import com.tarnof.enjoyrestapi.utils.JsonFlux;
 import com.tarnof.enjoyrestapi.utils.PhotoProfilUrls;
+import com.tarnof.enjoyrestapi.utils.VariantesPhotoProfil;
 
 import jakarta.transaction.Transactional;
 
@@ -25,8 +30,11 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -38,15 +46,17 @@ public class UtilisateurServiceImpl implements UtilisateurService {
     private final SejourRepository sejourRepository;
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
     private final ObjectStorageService objectStorageService;
+    private final StockageContenuAdresse stockageContenuAdresse;
 
     public UtilisateurServiceImpl(UtilisateurRepository utilisateurRepository, RefreshTokenRepository refreshTokenRepository,
                                   SejourRepository sejourRepository, BCryptPasswordEncoder bCryptPasswordEncoder,
-                                  ObjectStorageService objectStorageService) {
+                                  ObjectStorageService objectStorageService, StockageContenuAdresse stockageContenuAdresse) {
         this.utilisateurRepository = utilisateurRepository;
         this.refreshTokenRepository = refreshTokenRepository;
         this.sejourRepository = sejourRepository;
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
         this.objectStorageService = objectStorageService;
+        this.stockageContenuAdresse = stockageContenuAdresse;
     }
 
     @Override
@@ -97,7 +107,8 @@ public class UtilisateurServiceImpl implements UtilisateurService {
             utilisateur.getTelephone(),
             utilisateur.getDateNaissance(),
             utilisateur.getDateExpirationCompte(),
-            PhotoProfilUrls.urlPhotoProfilUtilisateur(utilisateur.getTokenId(), utilisateur.getPhotoProfilCle())
+            PhotoProfilUrls.urlPhotoProfilUtilisateur(
+                utilisateur.getTokenId(), utilisateur.getPhotoProfilCle(), utilisateur.getPhotoProfilEmpreinte())
         );
     }
 
@@ -181,18 +192,26 @@ public class UtilisateurServiceImpl implements UtilisateurService {
 
         String mimeType = file.getContentType();
         String extension = ImageUploadValidator.extensionDepuisMimeType(mimeType);
-        String nouvelleCle = objectStorageService.buildPhotoProfilUtilisateurKey(tokenId, extension);
-
-        supprimerPhotoProfilStockage(utilisateur);
 
+        // Photo déjà stockée (même avatar renvoyé, même image qu'un autre compte) : ni envoi ni variantes recalculées.
+        StockageContenuAdresse.Reference photo;
         try {
-            objectStorageService.upload(nouvelleCle, file.getInputStream(), file.getSize(), mimeType);
+            byte[] original = file.getBytes();
+            photo = stockageContenuAdresse.acquerir(original, extension, mimeType, cle -> {
+                Map<String, byte[]> variantes = new LinkedHashMap<>();
+                VariantesPhotoProfil.generer(original, mimeType)
+                        .forEach((taille, contenu) -> variantes.put(VariantesPhotoProfil.cleVariante(cle, taille), contenu));
+                return variantes;
+            });
         } catch (Exception e) {
             throw new RuntimeException("Impossible d'enregistrer la photo de profil", e);
         }
+        // Après l'acquisition : renvoyer la photo actuelle ne fait pas tomber son compteur à zéro.
+        supprimerPhotoProfilStockage(utilisateur);
 
-        utilisateur.setPhotoProfilCle(nouvelleCle);
-        utilisateur.setPhotoProfilMimeType(mimeType);
+        utilisateur.setPhotoProfilCle(photo.cle());
+        utilisateur.setPhotoProfilMimeType(photo.mimeType());
+        utilisateur.setPhotoProfilEmpreinte(photo.empreinte());
         Utilisateur saved = utilisateurRepository.save(utilisateur);
         return mapUtilisateurToProfilDTO(saved);
     }
@@ -208,11 +227,13 @@ public class UtilisateurServiceImpl implements UtilisateurService {
         supprimerPhotoProfilStockage(utilisateur);
         utilisateur.setPhotoProfilCle(null);
         utilisateur.setPhotoProfilMimeType(null);
+        utilisateur.setPhotoProfilEmpreinte(null);
         utilisateurRepository.save(utilisateur);
     }
 
     @Override
-    public PhotoProfilContenu chargerPhotoProfil(String tokenId) {
+    public PhotoProfilContenu chargerPhotoProfil(String tokenId, Integer taille, String siAucuneCorrespondance) {
+        Integer tailleServie = VariantesPhotoProfil.tailleServie(taille);
         Utilisateur utilisateur = utilisateurRepository.findByTokenId(tokenId)
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé avec le token ID: " + tokenId));
 
@@ -220,15 +241,56 @@ public class UtilisateurServiceImpl implements UtilisateurService {
         if (cle == null || cle.isBlank()) {
             throw new ResourceNotFoundException("Aucune photo de profil pour cet utilisateur");
         }
-
-        ObjectStorageService.StoredObject storedObject = objectStorageService.download(cle)
+        return contenuPhotoProfil(utilisateur, tailleServie, siAucuneCorrespondance)
                 .orElseThrow(() -> new ResourceNotFoundException("Photo de profil introuvable"));
+    }
 
-        String mimeType = Objects.requireNonNull(Objects.requireNonNullElse(
-                utilisateur.getPhotoProfilMimeType(),
-                storedObject.contentType()));
+    @Override
+    public void parcourirPhotosProfil(List<String> tokenIds, Integer taille, Map<String, String> etagsConnus,
+                                      JsonFlux.Ecrivain<PhotoProfilLotEntree> ecrivain) throws IOException {
+        Integer tailleServie = VariantesPhotoProfil.tailleServie(taille);
+        List<String> demandes = tokenIds.stream().distinct().toList();
+        Map<String, String> connus = etagsConnus == null ? Map.of() : etagsConnus;
+        // Une requête pour tout le lot ; les photos sont ensuite lues une à une, dans l'ordre demandé.
+        Map<String, Utilisateur> parTokenId = utilisateurRepository.findByTokenIdIn(demandes).stream()
+                .collect(Collectors.toMap(Utilisateur::getTokenId, u -> u));
+        for (String tokenId : demandes) {
+            Utilisateur utilisateur = parTokenId.get(tokenId);
+            PhotoProfilContenu photo = utilisateur == null
+                    ? null
+                    : contenuPhotoProfil(utilisateur, tailleServie, connus.get(tokenId)).orElse(null);
+            ecrivain.ecrire(new PhotoProfilLotEntree(tokenId, photo));
+        }
+    }
 
-        return new PhotoProfilContenu(storedObject.content(), storedObject.size(), mimeType);
+    /** Vide si l'utilisateur n'a pas de photo ou si l'objet manque dans le stockage. */
+    private Optional<PhotoProfilContenu> contenuPhotoProfil(
+            Utilisateur utilisateur, Integer tailleServie, String siAucuneCorrespondance) {
+        String cle = utilisateur.getPhotoProfilCle();
+        if (cle == null || cle.isBlank()) {
+            return Optional.empty();
+        }
+
+        String cleServie = tailleServie == null ? cle : VariantesPhotoProfil.cleVariante(cle, tailleServie);
+        String etag = EtagPhotoProfil.etag(cleServie, utilisateur.getPhotoProfilEmpreinte());
+        String version = EtagPhotoProfil.version(utilisateur.getPhotoProfilEmpreinte());
+        if (EtagPhotoProfil.correspond(siAucuneCorrespondance, etag)) {
+            return Optional.of(new PhotoProfilContenu(null, 0, Objects.requireNonNullElse(
+                    utilisateur.getPhotoProfilMimeType(), "application/octet-stream"), etag, version));
+        }
+
+        // Variante absente (WebP, photo antérieure aux variantes) : l'original, que le client réduit à l'affichage.
+        Optional<ObjectStorageService.StoredObject> variante = tailleServie == null
+                ? Optional.empty()
+                : objectStorageService.download(cleServie);
+        return variante.or(() -> objectStorageService.download(cle))
+                .map(storedObject -> new PhotoProfilContenu(
+                        storedObject.content(),
+                        storedObject.size(),
+                        Objects.requireNonNull(Objects.requireNonNullElse(
+                                utilisateur.getPhotoProfilMimeType(), storedObject.contentType())),
+                        etag,
+                        version));
     }
 
     private void verifierDroitModificationPhotoProfil(String tokenId, String appelantTokenId, boolean appelantEstAdmin) {
@@ -238,10 +300,14 @@ public class UtilisateurServiceImpl implements UtilisateurService {
         throw new AccessDeniedException("Vous ne pouvez modifier que votre propre photo de profil");
     }
 
+    /** Libère la photo partagée ; une photo envoyée avant le stockage adressé (clé par utilisateur) est supprimée. */
     private void supprimerPhotoProfilStockage(Utilisateur utilisateur) {
         String cle = utilisateur.getPhotoProfilCle();
-        if (cle != null && !cle.isBlank()) {
+        if (cle != null && !cle.isBlank() && !stockageContenuAdresse.liberer(cle)) {
             objectStorageService.delete(cle);
+            for (int taille : VariantesPhotoProfil.TAILLES) {
+                objectStorageService.delete(VariantesPhotoProfil.cleVariante(cle, taille));
+            }
         }
     }
 
@@ -0,0 +1,355 @@
+package com.tarnof.enjoyrestapi.services.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cache disque en lecture devant un stockage distant (R2) : un fichier par objet lu, index LRU en mémoire
+ * (recopié dans {@code index.bin} à l'arrêt), éviction des moins récemment lus au-delà de {@code tailleMaxOctets}.
+ * <p>{@code upload} et {@code delete} passent au stockage puis invalident la clé. Plusieurs lectures simultanées
+ * d'une même clé absente du cache ne font qu'un seul téléchargement. Les objets servis depuis le cache sont des
+ * {@link FileInputStream} (envoi par {@code FileChannel.transferTo}, voir {@code PlagesOctets}).</p>
+ * <p>Un objet plus gros que {@code tailleMaxOctets} est servi sans être mis en cache. Une lecture partielle
+ * ({@link #downloadRange}) est servie depuis le fichier en cache s'il existe, sinon demandée au stockage distant
+ * sans remplir le cache (segments d'archive de l'historique).</p>
+ */
+public class CacheDisqueObjectStorageService implements ObjectStorageService, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheDisqueObjectStorageService.class);
+
+    private static final int VERSION_INDEX = 1;
+    private static final String FICHIER_INDEX = "index.bin";
+    private static final String SUFFIXE_OBJET = ".obj";
+    private static final String SUFFIXE_TEMPORAIRE = ".tmp";
+    private static final Remplissage NON_MIS_EN_CACHE = new Remplissage(null, false, null);
+
+    private final ObjectStorageService distant;
+    private final Path dossier;
+    private final long tailleMaxOctets;
+
+    /** Ordre d'accès : le premier élément est le moins récemment lu. Accès sous {@code synchronized (index)}. */
+    private final LinkedHashMap<String, Entree> index = new LinkedHashMap<>(64, 0.75f, true);
+    private long tailleTotale;
+
+    /** Téléchargements en cours, par clé ; retiré par l'invalidation pour que le résultat ne soit pas indexé. */
+    private final Map<String, CompletableFuture<Remplissage>> enCours = new ConcurrentHashMap<>();
+
+    private record Entree(String fichier, long taille, String contentType) {}
+
+    /**
+     * Résultat d'un téléchargement : objet en cache, absent du stockage, ou non mis en cache ({@code null},
+     * {@code false} : invalidé entre-temps ou trop gros). {@code direct} : l'objet trop gros, pour le seul appelant
+     * qui l'a téléchargé ; les lectures simultanées le relisent au stockage distant.
+     */
+    private record Remplissage(Entree entree, boolean absent, StoredObject direct) {}
+
+    public CacheDisqueObjectStorageService(ObjectStorageService distant, Path dossier, long tailleMaxOctets) {
+        this.distant = distant;
+        this.dossier = dossier.toAbsolutePath().normalize();
+        this.tailleMaxOctets = tailleMaxOctets;
+        try {
+            Files.createDirectories(this.dossier);
+        } catch (IOException e) {
+            throw new IllegalStateException("Impossible de créer le dossier du cache de stockage: " + this.dossier, e);
+        }
+        chargerIndex();
+    }
+
+    @Override
+    public void upload(String key, InputStream content, long size, String contentType) {
+        try {
+            distant.upload(key, content, size, contentType);
+        } finally {
+            invalider(key);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> uploadAsync(String key, Path source, String contentType) {
+        invalider(key);
+        return distant.uploadAsync(key, source, contentType).whenComplete((ok, erreur) -> invalider(key));
+    }
+
+    @Override
+    public Optional<StoredObject> download(String key) {
+        Entree entree;
+        synchronized (index) {
+            entree = index.get(key);
+        }
+        if (entree == null) {
+            Remplissage remplissage = remplir(key);
+            if (remplissage.absent()) {
+                return Optional.empty();
+            }
+            entree = remplissage.entree();
+            if (entree == null) {
+                return remplissage.direct() != null ? Optional.of(remplissage.direct()) : distant.download(key);
+            }
+        }
+        try {
+            return Optional.of(new StoredObject(
+                    new FileInputStream(dossier.resolve(entree.fichier()).toFile()), entree.taille(), entree.contentType()));
+        } catch (IOException e) {
+            // Fichier évincé ou supprimé entre l'index et l'ouverture : lecture directe.
+            oublier(key, entree);
+            return distant.download(key);
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> downloadRange(String key, long position, int length) {
+        Entree entree;
+        synchronized (index) {
+            entree = index.get(key);
+        }
+        if (entree != null) {
+            try (FileInputStream in = new FileInputStream(dossier.resolve(entree.fichier()).toFile())) {
+                in.getChannel().position(position);
+                byte[] plage = in.readNBytes(length);
+                return Optional.of(new StoredObject(new ByteArrayInputStream(plage), plage.length, entree.contentType()));
+            } catch (IOException e) {
+                oublier(key, entree);
+            }
+        }
+        return distant.downloadRange(key, position, length);
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            distant.delete(key);
+        } finally {
+            invalider(key);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        synchronized (index) {
+            if (index.containsKey(key)) {
+                return true;
+            }
+        }
+        return distant.exists(key);
+    }
+
+    /** Recopie l'index pour le prochain démarrage (les fichiers absents de l'index sont alors supprimés). */
+    @Override
+    public void close() {
+        List<Map.Entry<String, Entree>> entrees;
+        synchronized (index) {
+            entrees = new ArrayList<>(index.entrySet());
+        }
+        Path temporaire = dossier.resolve(FICHIER_INDEX + SUFFIXE_TEMPORAIRE);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temporaire))) {
+            out.writeByte(VERSION_INDEX);
+            out.writeInt(entrees.size());
+            for (Map.Entry<String, Entree> e : entrees) {
+                out.writeUTF(e.getKey());
+                out.writeUTF(e.getValue().contentType());
+                out.writeLong(e.getValue().taille());
+            }
+        } catch (IOException e) {
+            log.warn("Could not write storage cache index", e);
+            return;
+        }
+        try {
+            Files.move(temporaire, dossier.resolve(FICHIER_INDEX), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not replace storage cache index", e);
+        }
+    }
+
+    /** Taille des fichiers indexés, en octets. */
+    long tailleTotale() {
+        synchronized (index) {
+            return tailleTotale;
+        }
+    }
+
+    private Remplissage remplir(String key) {
+        CompletableFuture<Remplissage> nouveau = new CompletableFuture<>();
+        CompletableFuture<Remplissage> existant = enCours.putIfAbsent(key, nouveau);
+        if (existant != null) {
+            try {
+                return existant.join();
+            } catch (CompletionException e) {
+                // Même exception que pour le premier lecteur, pas l'enveloppe du futur.
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            Remplissage remplissage = telecharger(key, nouveau);
+            nouveau.complete(remplissage.direct() == null ? remplissage : NON_MIS_EN_CACHE);
+            return remplissage;
+        } catch (RuntimeException e) {
+            nouveau.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCours.remove(key, nouveau);
+        }
+    }
+
+    private Remplissage telecharger(String key, CompletableFuture<Remplissage> jeton) {
+        Optional<StoredObject> objet = distant.download(key);
+        if (objet.isEmpty()) {
+            return new Remplissage(null, true, null);
+        }
+        if (objet.get().size() > tailleMaxOctets) {
+            // Évincé dès son insertion : chaque lecture le téléchargerait deux fois.
+            return new Remplissage(null, false, objet.get());
+        }
+        String fichier = nomFichier(key);
+        Path cible = dossier.resolve(fichier);
+        Path temporaire = dossier.resolve(fichier + "." + Thread.currentThread().threadId() + SUFFIXE_TEMPORAIRE);
+        long taille;
+        try (InputStream in = objet.get().content()) {
+            Files.createDirectories(cible.getParent());
+            taille = Files.copy(in, temporaire, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            supprimer(temporaire);
+            throw new UncheckedIOException("Impossible de mettre l'objet en cache: " + key, e);
+        }
+        Entree entree = new Entree(fichier, taille, objet.get().contentType());
+        List<Entree> evincees = new ArrayList<>();
+        synchronized (index) {
+            if (enCours.get(key) != jeton) {
+                // Invalidé pendant le téléchargement (upload ou delete) : contenu peut-être périmé.
+                supprimer(temporaire);
+                return NON_MIS_EN_CACHE;
+            }
+            try {
+                Files.move(temporaire, cible, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                supprimer(temporaire);
+                throw new UncheckedIOException("Impossible de mettre l'objet en cache: " + key, e);
+            }
+            Entree precedente = index.put(key, entree);
+            if (precedente != null) {
+                tailleTotale -= precedente.taille();
+            }
+            tailleTotale += taille;
+            Iterator<Map.Entry<String, Entree>> it = index.entrySet().iterator();
+            while (tailleTotale > tailleMaxOctets && it.hasNext()) {
+                Map.Entry<String, Entree> plusAncienne = it.next();
+                it.remove();
+                tailleTotale -= plusAncienne.getValue().taille();
+                evincees.add(plusAncienne.getValue());
+            }
+        }
+        evincees.forEach(e -> supprimer(dossier.resolve(e.fichier())));
+        return new Remplissage(entree, false, null);
+    }
+
+    private void invalider(String key) {
+        Entree entree;
+        synchronized (index) {
+            enCours.remove(key);
+            entree = index.remove(key);
+            if (entree != null) {
+                tailleTotale -= entree.taille();
+            }
+        }
+        if (entree != null) {
+            supprimer(dossier.resolve(entree.fichier()));
+        }
+    }
+
+    private void oublier(String key, Entree entree) {
+        synchronized (index) {
+            if (index.remove(key, entree)) {
+                tailleTotale -= entree.taille();
+            }
+        }
+    }
+
+    private void chargerIndex() {
+        Path fichierIndex = dossier.resolve(FICHIER_INDEX);
+        if (Files.exists(fichierIndex)) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(fichierIndex))) {
+                if (in.readUnsignedByte() == VERSION_INDEX) {
+                    int nb = in.readInt();
+                    for (int i = 0; i < nb; i++) {
+                        String key = in.readUTF();
+                        String contentType = in.readUTF();
+                        long taille = in.readLong();
+                        String fichier = nomFichier(key);
+                        Path chemin = dossier.resolve(fichier);
+                        if (Files.isRegularFile(chemin) && Files.size(chemin) == taille) {
+                            index.put(key, new Entree(fichier, taille, contentType));
+                            tailleTotale += taille;
+                        }
+                    }
+                }
+            } catch (EOFException e) {
+                log.warn("Storage cache index truncated, keeping {} entries", index.size());
+            } catch (IOException e) {
+                log.warn("Could not read storage cache index, starting empty", e);
+                index.clear();
+                tailleTotale = 0;
+            }
+        }
+        // Fichiers hors index (arrêt brutal, téléchargement interrompu) : supprimés.
+        Set<Path> indexes = index.values().stream()
+                .map(e -> dossier.resolve(e.fichier()))
+                .collect(Collectors.toSet());
+        try (Stream<Path> fichiers = Files.walk(dossier, 2)) {
+            fichiers.filter(Files::isRegularFile)
+                    .filter(p -> !p.equals(fichierIndex) && !indexes.contains(p))
+                    .forEach(CacheDisqueObjectStorageService::supprimer);
+        } catch (IOException e) {
+            log.warn("Could not clean storage cache directory {}", dossier, e);
+        }
+    }
+
+    /** Sous-dossier de deux caractères puis SHA-256 de la clé : noms sûrs et répertoires de taille bornée. */
+    private static String nomFichier(String key) {
+        try {
+            String hash = HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+            return hash.substring(0, 2) + "/" + hash + SUFFIXE_OBJET;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private static void supprimer(Path fichier) {
+        try {
+            Files.deleteIfExists(fichier);
+        } catch (IOException e) {
+            log.warn("Could not delete storage cache file {}", fichier, e);
+        }
+    }
+}
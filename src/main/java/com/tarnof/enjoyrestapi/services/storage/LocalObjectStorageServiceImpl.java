@@ -4,13 +4,15 @@ import com.tarnof.enjoyrestapi.config.StorageProperties;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @ConditionalOnProperty(name = "application.storage.r2.enabled", havingValue = "false", matchIfMissing = true)
@@ -38,6 +40,19 @@ public class LocalObjectStorageServiceImpl implements ObjectStorageService {
         }
     }
 
+    @Override
+    public CompletableFuture<Void> uploadAsync(String key, Path source, String contentType) {
+        Path target = resolveKey(key);
+        return CompletableFuture.runAsync(() -> {
+            try {
+                Files.createDirectories(target.getParent());
+                Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Impossible d'enregistrer le fichier localement", e);
+            }
+        }, tache -> Thread.ofVirtual().name("stockage-local-upload").start(tache));
+    }
+
     @Override
     public Optional<StoredObject> download(String key) {
         Path target = resolveKey(key);
@@ -48,7 +63,8 @@ public class LocalObjectStorageServiceImpl implements ObjectStorageService {
             String contentType = Files.probeContentType(target);
             long size = Files.size(target);
             return Optional.of(new StoredObject(
-                    Objects.requireNonNull(Files.newInputStream(target)),
+                    // FileInputStream : son canal permet d'envoyer le fichier par FileChannel.transferTo (PlagesOctets).
+                    new FileInputStream(target.toFile()),
                     size,
                     contentType != null ? contentType : "application/octet-stream"));
         } catch (IOException e) {
@@ -71,11 +87,6 @@ public class LocalObjectStorageServiceImpl implements ObjectStorageService {
         return Files.exists(resolveKey(key));
     }
 
-    @Override
-    public String buildPhotoProfilUtilisateurKey(String tokenId, String extension) {
-        return "utilisateurs/" + tokenId + "/photo-profil" + extension;
-    }
-
     private Path resolveKey(String key) {
         Path resolved = uploadDir.resolve(key).normalize();
         if (!resolved.startsWith(uploadDir)) {
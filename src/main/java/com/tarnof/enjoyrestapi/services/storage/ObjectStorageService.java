@@ -2,25 +2,51 @@ package com.tarnof.enjoyrestapi.services.storage;
 
 import org.springframework.lang.NonNull;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Abstraction du stockage objet (Cloudflare R2 en prod, disque local en dev).
- * Les clés suivent la convention {@code utilisateurs/{tokenId}/photo-profil.ext}
- * ou, à terme, {@code enfants/{enfantId}/photo-profil.ext}.
+ * Les photos et fichiers partageables passent par {@link StockageContenuAdresse} (clés {@code contenus/...},
+ * dédupliquées) ; les anciennes photos gardent leur clé {@code utilisateurs/{tokenId}/photo-profil.ext}.
  */
 public interface ObjectStorageService {
 
     void upload(String key, InputStream content, long size, String contentType);
 
+    /**
+     * Téléversement hors du thread appelant (gros fichiers : pièces jointes, photos enfants). Le fichier
+     * {@code source} doit rester en place jusqu'à la fin du futur.
+     */
+    CompletableFuture<Void> uploadAsync(String key, Path source, String contentType);
+
     Optional<StoredObject> download(String key);
 
+    /**
+     * {@code length} octets lus à partir de {@code position} (moins en fin d'objet). Par défaut l'objet est lu puis
+     * positionné (déplacement dans le fichier pour le disque local) ; R2 n'envoie que la plage demandée et le cache disque
+     * lit la plage dans son fichier ou la demande à R2.
+     */
+    default Optional<StoredObject> downloadRange(String key, long position, int length) {
+        return download(key).map(objet -> {
+            try (InputStream contenu = objet.content()) {
+                contenu.skipNBytes(position);
+                byte[] plage = contenu.readNBytes(length);
+                return new StoredObject(new ByteArrayInputStream(plage), plage.length, objet.contentType());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Lecture partielle impossible: " + key, e);
+            }
+        });
+    }
+
     void delete(String key);
 
     boolean exists(String key);
 
-    String buildPhotoProfilUtilisateurKey(String tokenId, String extension);
-
     record StoredObject(@NonNull InputStream content, long size, @NonNull String contentType) {}
 }
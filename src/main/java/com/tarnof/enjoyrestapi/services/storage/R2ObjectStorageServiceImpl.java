@@ -1,30 +1,69 @@
 package com.tarnof.enjoyrestapi.services.storage;
 
 import com.tarnof.enjoyrestapi.config.StorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 @Service
 @ConditionalOnProperty(name = "application.storage.r2.enabled", havingValue = "true")
 public class R2ObjectStorageServiceImpl implements ObjectStorageService {
 
+    private static final Logger log = LoggerFactory.getLogger(R2ObjectStorageServiceImpl.class);
+
+    /** En dessous : un seul {@code PutObject}. */
+    static final long SEUIL_MULTIPART = 16L * 1024 * 1024;
+    /** Taille des parties ; R2 exige des parties de même taille (sauf la dernière) et d'au moins 5 Mio. */
+    static final int TAILLE_PARTIE = 8 * 1024 * 1024;
+
+    /** Chaque envoi asynchrone est orchestré sur son propre thread virtuel (attentes sur le sémaphore et les futurs). */
+    private static final Executor ORCHESTRATION = tache -> Thread.ofVirtual().name("r2-upload").start(tache);
+
     private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
     private final String bucket;
+    /** Parties (ou petits objets) en vol, tous envois confondus : borne aussi la mémoire tampon. */
+    private final Semaphore envoisEnCours;
 
-    public R2ObjectStorageServiceImpl(S3Client s3Client, StorageProperties storageProperties) {
+    public R2ObjectStorageServiceImpl(S3Client s3Client, S3AsyncClient s3AsyncClient,
+                                      StorageProperties storageProperties) {
         this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
         this.bucket = storageProperties.getR2().getBucket();
+        this.envoisEnCours = new Semaphore(Math.max(1, storageProperties.getR2().getUploadConcurrency()));
     }
 
     @Override
@@ -38,6 +77,123 @@ public class R2ObjectStorageServiceImpl implements ObjectStorageService {
         s3Client.putObject(request, RequestBody.fromInputStream(content, size));
     }
 
+    @Override
+    public CompletableFuture<Void> uploadAsync(String key, Path source, String contentType) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                long taille = Files.size(source);
+                if (taille < SEUIL_MULTIPART) {
+                    envoyerEnUneFois(key, source, contentType);
+                } else {
+                    envoyerEnParties(key, source, taille, contentType);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Impossible de lire le fichier à téléverser: " + source, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Téléversement interrompu: " + key, e);
+            }
+        }, ORCHESTRATION);
+    }
+
+    private void envoyerEnUneFois(String key, Path source, String contentType) throws InterruptedException {
+        envoisEnCours.acquire();
+        try {
+            s3AsyncClient.putObject(PutObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .contentType(contentType)
+                    .build(), AsyncRequestBody.fromFile(source)).join();
+        } finally {
+            envoisEnCours.release();
+        }
+    }
+
+    /**
+     * Multipart : chaque partie est lue à sa position dans le fichier puis envoyée sans attendre les précédentes,
+     * dans la limite du sémaphore. Un échec arrête la lecture et abandonne le téléversement côté R2.
+     */
+    private void envoyerEnParties(String key, Path source, long taille, String contentType)
+            throws IOException, InterruptedException {
+        String uploadId = s3AsyncClient.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .build()).join().uploadId();
+        List<CompletableFuture<CompletedPart>> parties = new ArrayList<>();
+        try {
+            try (FileChannel canal = FileChannel.open(source, StandardOpenOption.READ)) {
+                int numero = 1;
+                for (long position = 0; position < taille; position += TAILLE_PARTIE, numero++) {
+                    if (parties.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                        break;
+                    }
+                    envoisEnCours.acquire();
+                    ByteBuffer tampon;
+                    try {
+                        tampon = lirePartie(canal, position, (int) Math.min(TAILLE_PARTIE, taille - position));
+                    } catch (IOException e) {
+                        envoisEnCours.release();
+                        throw e;
+                    }
+                    parties.add(envoyerPartie(key, uploadId, numero, tampon));
+                }
+            }
+            List<CompletedPart> terminees = parties.stream().map(CompletableFuture::join).toList();
+            s3AsyncClient.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(terminees).build())
+                    .build()).join();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            // Parties encore en vol : attendues avant l'abandon, sinon R2 pourrait les garder.
+            CompletableFuture.allOf(parties.toArray(CompletableFuture[]::new)).exceptionally(x -> null).join();
+            abandonner(key, uploadId);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<CompletedPart> envoyerPartie(String key, String uploadId, int numero, ByteBuffer tampon) {
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(numero)
+                .contentLength((long) tampon.remaining())
+                .build();
+        CompletableFuture<CompletedPart> partie;
+        try {
+            partie = s3AsyncClient.uploadPart(request, AsyncRequestBody.fromByteBuffer(tampon))
+                    .thenApply(r -> CompletedPart.builder().partNumber(numero).eTag(r.eTag()).build());
+        } catch (RuntimeException e) {
+            partie = CompletableFuture.failedFuture(e);
+        }
+        return partie.whenComplete((r, e) -> envoisEnCours.release());
+    }
+
+    private void abandonner(String key, String uploadId) {
+        try {
+            s3AsyncClient.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build()).join();
+        } catch (RuntimeException e) {
+            log.warn("Could not abort multipart upload {} for key {}", uploadId, key, e);
+        }
+    }
+
+    private static ByteBuffer lirePartie(FileChannel canal, long position, int longueur) throws IOException {
+        ByteBuffer tampon = ByteBuffer.allocate(longueur);
+        while (tampon.hasRemaining()) {
+            if (canal.read(tampon, position + tampon.position()) < 0) {
+                throw new EOFException("Fichier tronqué pendant le téléversement");
+            }
+        }
+        return tampon.flip();
+    }
+
     @Override
     public Optional<StoredObject> download(String key) {
         try {
@@ -56,6 +212,26 @@ public class R2ObjectStorageServiceImpl implements ObjectStorageService {
         }
     }
 
+    /** Requête {@code Range} : seule la plage est transférée. */
+    @Override
+    public Optional<StoredObject> downloadRange(String key, long position, int length) {
+        try {
+            var response = s3Client.getObject(GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .range("bytes=" + position + "-" + (position + length - 1))
+                    .build());
+            Long contentLength = response.response().contentLength();
+            String contentType = response.response().contentType();
+            return Optional.of(new StoredObject(
+                    response,
+                    contentLength != null ? contentLength : length,
+                    contentType != null ? contentType : "application/octet-stream"));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
     @Override
     public void delete(String key) {
         try {
@@ -82,9 +258,4 @@ public class R2ObjectStorageServiceImpl implements ObjectStorageService {
             return false;
         }
     }
-
-    @Override
-    public String buildPhotoProfilUtilisateurKey(String tokenId, String extension) {
-        return "utilisateurs/" + tokenId + "/photo-profil" + extension;
-    }
 }
@@ -0,0 +1,193 @@
+package com.tarnof.enjoyrestapi.services.storage;
+
+import com.tarnof.enjoyrestapi.entities.ContenuStocke;
+import com.tarnof.enjoyrestapi.repositories.ContenuStockeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Stockage adressé par le contenu : clé {@code contenus/<2 car.>/<sha256><extension>}, métadonnées et compteur de
+ * références dans {@code contenu_stocke}. Un contenu déjà stocké n'est ni renvoyé ni recalculé (variantes) ;
+ * libérer une référence est une simple mise à jour en base.
+ * <p>{@link #acquerir} et {@link #liberer} s'exécutent dans la transaction de l'appelant, avec l'enregistrement de
+ * la référence. Le ramasse-miettes ({@code application.storage.contenus.gc.cron}, chaque nuit par défaut) supprime
+ * les contenus sans référence depuis plus de {@code application.storage.contenus.gc.delai-grace} ; chaque contenu
+ * est relu sous verrou et sa ligne supprimée avant ses objets, effacés après validation. Une nouvelle référence
+ * concurrente attend la fin de la suppression puis renvoie l'objet. Une transaction annulée après l'envoi d'un
+ * nouveau contenu, ou un objet dont l'effacement échoue, laisse au plus un objet non référencé.</p>
+ */
+@Component
+public class StockageContenuAdresse {
+
+    private static final Logger log = LoggerFactory.getLogger(StockageContenuAdresse.class);
+
+    static final String PREFIXE = "contenus/";
+    private static final int LOT_RAMASSAGE = 100;
+
+    private final ObjectStorageService objectStorageService;
+    private final ContenuStockeRepository contenuStockeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean ramassageActif;
+    private final Duration delaiGrace;
+
+    /**
+     * Clé du contenu dans le stockage, son empreinte SHA-256 (hexadécimal) et le type MIME sous lequel il a été
+     * envoyé. Pour un contenu déjà stocké, clé et type sont ceux du premier envoi, quelle que soit l'extension
+     * demandée.
+     */
+    public record Reference(String cle, String empreinte, String mimeType) {}
+
+    public StockageContenuAdresse(
+            ObjectStorageService objectStorageService,
+            ContenuStockeRepository contenuStockeRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.storage.contenus.gc.actif:true}") boolean ramassageActif,
+            @Value("${application.storage.contenus.gc.delai-grace:PT24H}") Duration delaiGrace) {
+        this.objectStorageService = objectStorageService;
+        this.contenuStockeRepository = contenuStockeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ramassageActif = ramassageActif;
+        this.delaiGrace = delaiGrace;
+    }
+
+    /**
+     * Ajoute une référence au contenu, en l'envoyant s'il n'est pas encore stocké. {@code derives} reçoit la clé du
+     * contenu et donne les objets calculés à partir de lui (clé → octets), envoyés et supprimés avec lui ; il n'est
+     * appelé que pour un nouveau contenu.
+     */
+    public Reference acquerir(byte[] contenu, String extension, String mimeType,
+                              Function<String, Map<String, byte[]>> derives) {
+        String empreinte = empreinte(contenu);
+        String cle = PREFIXE + empreinte.substring(0, 2) + "/" + empreinte + extension;
+        if (contenuStockeRepository.ajouterReference(empreinte) > 0) {
+            // L'empreinte ne couvre que les octets : la clé stockée peut porter une autre extension que celle demandée.
+            ContenuStocke existant = contenuStockeRepository.findByEmpreinte(empreinte)
+                    .orElseThrow(() -> new IllegalStateException("Contenu stocké introuvable : " + empreinte));
+            return new Reference(existant.getCle(), empreinte, existant.getMimeType());
+        }
+        Map<String, byte[]> objetsDerives = derives.apply(cle);
+        envoyer(cle, contenu, mimeType);
+        objetsDerives.forEach((cleDerivee, octets) -> envoyer(cleDerivee, octets, mimeType));
+        // Deux premiers envois simultanés du même contenu : le second échoue sur l'unicité de l'empreinte.
+        contenuStockeRepository.save(new ContenuStocke(
+                empreinte, cle, String.join(",", objetsDerives.keySet()), contenu.length, mimeType, Instant.now()));
+        return new Reference(cle, empreinte, mimeType);
+    }
+
+    /**
+     * Retire une référence ; le contenu reste stocké jusqu'au passage du ramasse-miettes. {@code false} pour une clé
+     * hors du stockage adressé (objet propre à l'appelant, à supprimer par lui).
+     */
+    public boolean liberer(String cle) {
+        if (!cle.startsWith(PREFIXE)) {
+            return false;
+        }
+        if (contenuStockeRepository.retirerReference(cle) > 0) {
+            contenuStockeRepository.marquerOrphelin(cle, Instant.now());
+        }
+        return true;
+    }
+
+    @Scheduled(cron = "${application.storage.contenus.gc.cron:0 0 4 * * *}")
+    public void ramasserPlanifie() {
+        if (ramassageActif) {
+            ramasser();
+        }
+    }
+
+    /** Nombre de contenus supprimés. Un contenu en échec est passé (retenté au passage suivant). */
+    public int ramasser() {
+        Instant limite = Instant.now().minus(delaiGrace);
+        int supprimes = 0;
+        int apresId = 0;
+        List<Integer> ids;
+        do {
+            ids = contenuStockeRepository.findIdsOrphelinsAvant(limite, apresId, PageRequest.of(0, LOT_RAMASSAGE));
+            for (Integer id : ids) {
+                try {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(statut -> supprimer(id)))) {
+                        supprimes++;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Stored content {} could not be collected, will retry on next run: {}", id, e.getMessage());
+                }
+                apresId = id;
+            }
+        } while (ids.size() == LOT_RAMASSAGE);
+        if (supprimes > 0) {
+            log.info("Stored content collection: {} object(s) removed", supprimes);
+        }
+        return supprimes;
+    }
+
+    /**
+     * Supprime la ligne, puis les objets une fois la suppression validée : une transaction annulée laisse le contenu
+     * intact, et un échec côté stockage ne laisse qu'un objet non référencé, jamais une ligne sans objet.
+     */
+    private boolean supprimer(Integer id) {
+        Optional<ContenuStocke> contenu = contenuStockeRepository.findOrphelinPourSuppression(id);
+        if (contenu.isEmpty()) {
+            return false;
+        }
+        List<String> cles = new ArrayList<>();
+        String derivees = contenu.get().getClesDerivees();
+        if (derivees != null && !derivees.isEmpty()) {
+            cles.addAll(List.of(derivees.split(",")));
+        }
+        cles.add(contenu.get().getCle());
+        contenuStockeRepository.delete(contenu.get());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    supprimerObjets(cles);
+                }
+            });
+        } else {
+            supprimerObjets(cles);
+        }
+        return true;
+    }
+
+    private void supprimerObjets(List<String> cles) {
+        for (String cle : cles) {
+            try {
+                objectStorageService.delete(cle);
+            } catch (RuntimeException e) {
+                log.warn("Stored object {} could not be deleted and is left unreferenced: {}", cle, e.getMessage());
+            }
+        }
+    }
+
+    private void envoyer(String cle, byte[] octets, String mimeType) {
+        objectStorageService.upload(cle, new ByteArrayInputStream(octets), octets.length, mimeType);
+    }
+
+    private static String empreinte(byte[] contenu) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(contenu));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Forme compacte des deux libellés d'une ligne d'historique (colonne {@code valeurs_compactes}).
+ * <p>Les libellés sont découpés en champs sur « | » : la nouvelle valeur ne garde que les champs modifiés par rapport
+ * à l'ancienne, et pour chacun seulement la partie changée (préfixe et suffixe communs retirés, ex. un occupant
+ * ajouté à une longue liste). Le tout est compressé (deflate) quand c'est plus court. Le texte est reconstruit
+ * à l'identique à la lecture.</p>
+ * <p>Format : un octet d'en-tête (version sur 4 bits, drapeau de compression), puis, si compressé, la taille
+ * décompressée ; ensuite un octet de présence, l'ancienne valeur en entier, la nouvelle en entier ou en différence.
+ * Entiers en varint, chaînes en UTF-8 précédées de leur taille.</p>
+ */
+public final class CodecHistorique {
+
+    private static final int VERSION = 1;
+    private static final int COMPRESSE = 0x01;
+
+    private static final int ANCIENNE = 0x01;
+    private static final int NOUVELLE = 0x02;
+    private static final int NOUVELLE_EN_DIFFERENCE = 0x04;
+
+    private static final String SEPARATEUR_CHAMPS = "|";
+    /** Garde-fou contre un en-tête corrompu (les libellés font quelques Ko). */
+    private static final int TAILLE_MAX_DECOMPRESSEE = 16 * 1024 * 1024;
+
+    private CodecHistorique() {}
+
+    /** Libellés lisibles d'une ligne d'historique ({@code null} si absents, ex. ancienne valeur d'une création). */
+    public record Valeurs(String ancienne, String nouvelle) {}
+
+    public static byte[] encoder(String ancienne, String nouvelle) {
+        ByteArrayOutputStream contenu = new ByteArrayOutputStream();
+        byte[] difference = ancienne != null && nouvelle != null ? difference(ancienne, nouvelle) : null;
+        byte[] complete = nouvelle != null ? chaine(nouvelle) : null;
+        boolean enDifference = difference != null && difference.length < complete.length;
+        contenu.write((ancienne != null ? ANCIENNE : 0)
+                | (nouvelle != null ? NOUVELLE : 0)
+                | (enDifference ? NOUVELLE_EN_DIFFERENCE : 0));
+        if (ancienne != null) {
+            contenu.writeBytes(chaine(ancienne));
+        }
+        if (nouvelle != null) {
+            contenu.writeBytes(enDifference ? difference : complete);
+        }
+        return envelopper(contenu.toByteArray());
+    }
+
+    public static Valeurs decoder(byte[] octets) {
+        Lecteur lecteur = new Lecteur(deballer(octets));
+        int presence = lecteur.octet();
+        String ancienne = (presence & ANCIENNE) != 0 ? lecteur.chaine() : null;
+        String nouvelle = null;
+        if ((presence & NOUVELLE) != 0) {
+            nouvelle = (presence & NOUVELLE_EN_DIFFERENCE) != 0 ? appliquer(ancienne, lecteur) : lecteur.chaine();
+        }
+        return new Valeurs(ancienne, nouvelle);
+    }
+
+    /**
+     * Par champ de la nouvelle valeur : 0 s'il est identique au champ de même rang de l'ancienne, sinon
+     * 1 + longueur du préfixe commun, longueur du suffixe commun et partie changée.
+     */
+    private static byte[] difference(String ancienne, String nouvelle) {
+        String[] anciens = ancienne.split("\\|", -1);
+        String[] nouveaux = nouvelle.split("\\|", -1);
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        ecrireVarint(sortie, nouveaux.length);
+        for (int i = 0; i < nouveaux.length; i++) {
+            String avant = i < anciens.length ? anciens[i] : "";
+            String apres = nouveaux[i];
+            if (i < anciens.length && avant.equals(apres)) {
+                ecrireVarint(sortie, 0);
+                continue;
+            }
+            int prefixe = prefixeCommun(avant, apres);
+            int suffixe = suffixeCommun(avant, apres, prefixe);
+            ecrireVarint(sortie, prefixe + 1);
+            ecrireVarint(sortie, suffixe);
+            sortie.writeBytes(chaine(apres.substring(prefixe, apres.length() - suffixe)));
+        }
+        return sortie.toByteArray();
+    }
+
+    private static String appliquer(String ancienne, Lecteur lecteur) {
+        String[] anciens = ancienne.split("\\|", -1);
+        int nbChamps = lecteur.varint();
+        StringBuilder nouvelle = new StringBuilder(ancienne.length() + 16);
+        for (int i = 0; i < nbChamps; i++) {
+            if (i > 0) {
+                nouvelle.append(SEPARATEUR_CHAMPS);
+            }
+            String avant = i < anciens.length ? anciens[i] : "";
+            int code = lecteur.varint();
+            if (code == 0) {
+                nouvelle.append(avant);
+                continue;
+            }
+            int prefixe = code - 1;
+            int suffixe = lecteur.varint();
+            if (prefixe + suffixe > avant.length()) {
+                throw new IllegalArgumentException("Historique compacté invalide (champ " + i + ")");
+            }
+            nouvelle.append(avant, 0, prefixe)
+                    .append(lecteur.chaine())
+                    .append(avant, avant.length() - suffixe, avant.length());
+        }
+        return nouvelle.toString();
+    }
+
+    /** Sans couper une paire de substitution (la partie changée doit rester de l'UTF-16 valide). */
+    private static int prefixeCommun(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int n = 0;
+        while (n < max && a.charAt(n) == b.charAt(n)) {
+            n++;
+        }
+        if (n > 0 && Character.isHighSurrogate(a.charAt(n - 1))) {
+            n--;
+        }
+        return n;
+    }
+
+    private static int suffixeCommun(String a, String b, int prefixe) {
+        int max = Math.min(a.length(), b.length()) - prefixe;
+        int n = 0;
+        while (n < max && a.charAt(a.length() - 1 - n) == b.charAt(b.length() - 1 - n)) {
+            n++;
+        }
+        if (n > 0 && Character.isLowSurrogate(a.charAt(a.length() - n))) {
+            n--;
+        }
+        return n;
+    }
+
+    private static byte[] envelopper(byte[] contenu) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(contenu);
+            deflater.finish();
+            ByteArrayOutputStream compresse = new ByteArrayOutputStream(contenu.length);
+            compresse.write(VERSION << 4 | COMPRESSE);
+            ecrireVarint(compresse, contenu.length);
+            byte[] tampon = new byte[Math.max(64, contenu.length)];
+            while (!deflater.finished()) {
+                compresse.write(tampon, 0, deflater.deflate(tampon));
+            }
+            if (compresse.size() < contenu.length + 1) {
+                return compresse.toByteArray();
+            }
+        } finally {
+            deflater.end();
+        }
+        byte[] brut = new byte[contenu.length + 1];
+        brut[0] = (byte) (VERSION << 4);
+        System.arraycopy(contenu, 0, brut, 1, contenu.length);
+        return brut;
+    }
+
+    private static byte[] deballer(byte[] octets) {
+        if (octets.length == 0 || (octets[0] & 0xFF) >> 4 != VERSION) {
+            throw new IllegalArgumentException("Version d'historique compacté non prise en charge");
+        }
+        if ((octets[0] & COMPRESSE) == 0) {
+            return Arrays.copyOfRange(octets, 1, octets.length);
+        }
+        Lecteur entete = new Lecteur(octets);
+        entete.octet();
+        int taille = entete.varint();
+        if (taille < 0 || taille > TAILLE_MAX_DECOMPRESSEE) {
+            throw new IllegalArgumentException("Historique compacté invalide (taille " + taille + ")");
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(octets, entete.position, octets.length - entete.position);
+            byte[] contenu = new byte[taille];
+            int lus = 0;
+            while (lus < taille) {
+                int n = inflater.inflate(contenu, lus, taille - lus);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                lus += n;
+            }
+            if (lus != taille) {
+                throw new IllegalArgumentException("Historique compacté tronqué");
+            }
+            return contenu;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Historique compacté invalide", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] chaine(String valeur) {
+        byte[] utf8 = valeur.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream(utf8.length + 3);
+        ecrireVarint(sortie, utf8.length);
+        sortie.writeBytes(utf8);
+        return sortie.toByteArray();
+    }
+
+    private static void ecrireVarint(ByteArrayOutputStream sortie, int valeur) {
+        while ((valeur & ~0x7F) != 0) {
+            sortie.write(valeur & 0x7F | 0x80);
+            valeur >>>= 7;
+        }
+        sortie.write(valeur);
+    }
+
+    private static final class Lecteur {
+        private final byte[] octets;
+        private int position;
+
+        Lecteur(byte[] octets) {
+            this.octets = octets;
+        }
+
+        int octet() {
+            if (position >= octets.length) {
+                throw new IllegalArgumentException("Historique compacté tronqué");
+            }
+            return octets[position++] & 0xFF;
+        }
+
+        int varint() {
+            int valeur = 0;
+            for (int decalage = 0; decalage < 32; decalage += 7) {
+                int o = octet();
+                valeur |= (o & 0x7F) << decalage;
+                if ((o & 0x80) == 0) {
+                    return valeur;
+                }
+            }
+            throw new IllegalArgumentException("Historique compacté invalide (entier)");
+        }
+
+        String chaine() {
+            int taille = varint();
+            if (taille < 0 || taille > octets.length - position) {
+                throw new IllegalArgumentException("Historique compacté tronqué");
+            }
+            String valeur = new String(octets, position, taille, StandardCharsets.UTF_8);
+            position += taille;
+            return valeur;
+        }
+    }
+}
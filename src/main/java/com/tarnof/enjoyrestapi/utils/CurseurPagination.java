@@ -0,0 +1,57 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Curseurs opaques de pagination par clé (« keyset ») : position = valeur de la clé de tri + id du dernier
+ * élément renvoyé, encodées en base64 URL. Le client renvoie tel quel le curseur reçu.
+ */
+public final class CurseurPagination {
+
+    /** Taille de page par défaut des listings paginés. */
+    public static final int TAILLE_PAR_DEFAUT = 50;
+    /** Taille de page maximale acceptée. */
+    public static final int TAILLE_MAX = 200;
+
+    private static final String SEPARATEUR = "|";
+
+    private CurseurPagination() {}
+
+    /** Dernière position lue : clé de tri sous forme texte (ex. {@code Instant#toString()}) et id. */
+    public record Position(String cle, int id) {}
+
+    public static String encoder(String cle, int id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((cle + SEPARATEUR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** {@code null} ou vide : première page. Curseur illisible : {@link IllegalArgumentException} (400). */
+    public static Position decoder(String curseur) {
+        if (curseur == null || curseur.isBlank()) {
+            return null;
+        }
+        try {
+            String brut = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+            int separateur = brut.lastIndexOf(SEPARATEUR);
+            if (separateur < 0) {
+                throw new IllegalArgumentException("Curseur de pagination invalide.");
+            }
+            return new Position(brut.substring(0, separateur), Integer.parseInt(brut.substring(separateur + 1)));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException et erreurs base64 incluses
+            throw new IllegalArgumentException("Curseur de pagination invalide.");
+        }
+    }
+
+    /** Taille demandée, par défaut {@link #TAILLE_PAR_DEFAUT} ; hors de 1..{@link #TAILLE_MAX} : 400. */
+    public static int taille(Integer demandee) {
+        if (demandee == null) {
+            return TAILLE_PAR_DEFAUT;
+        }
+        if (demandee < 1 || demandee > TAILLE_MAX) {
+            throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + TAILLE_MAX + ".");
+        }
+        return demandee;
+    }
+}
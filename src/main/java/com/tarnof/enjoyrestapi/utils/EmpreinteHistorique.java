@@ -0,0 +1,163 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Empreinte 64 bits du contenu métier d'un élément historisé, pour savoir si une écriture l'a réellement modifié
+ * sans construire de chaîne : on compare l'empreinte avant / après, et les libellés de l'historique ne sont
+ * construits qu'en cas de différence.
+ * <p>Les champs sont ajoutés dans un ordre fixe ; les collections sont des ensembles (l'ordre des éléments
+ * ne compte pas, pas de tri) décrits par une clé par élément (id, ou {@link #cle(long, long)} pour une clé
+ * composée). Texte {@code null} et texte vide sont équivalents, comme dans les libellés.</p>
+ */
+public final class EmpreinteHistorique {
+
+    /** Valeur absente ({@code null}), hors de la plage des ids et des valeurs entières. */
+    private static final long ABSENT = 0x6A09E667F3BCC909L;
+    private static final long GRAINE = 0x9E3779B97F4A7C15L;
+    private static final long FNV_BASE = 0xCBF29CE484222325L;
+    private static final long FNV_PREMIER = 0x100000001B3L;
+
+    private long etat = GRAINE;
+
+    private EmpreinteHistorique() {}
+
+    public static EmpreinteHistorique nouvelle() {
+        return new EmpreinteHistorique();
+    }
+
+    public long valeur() {
+        return etat;
+    }
+
+    public EmpreinteHistorique texte(String valeur) {
+        return ajouter(cle(valeur));
+    }
+
+    public EmpreinteHistorique entier(long valeur) {
+        return ajouter(valeur);
+    }
+
+    public EmpreinteHistorique entier(Integer valeur) {
+        return ajouter(cle(valeur));
+    }
+
+    public EmpreinteHistorique valeur(Enum<?> valeur) {
+        return ajouter(valeur == null ? ABSENT : valeur.ordinal());
+    }
+
+    public EmpreinteHistorique date(LocalDate valeur) {
+        return ajouter(valeur == null ? ABSENT : valeur.toEpochDay());
+    }
+
+    public EmpreinteHistorique heure(LocalTime valeur) {
+        return ajouter(valeur == null ? ABSENT : valeur.toNanoOfDay());
+    }
+
+    public EmpreinteHistorique instant(Instant valeur) {
+        ajouter(valeur == null ? ABSENT : valeur.getEpochSecond());
+        return ajouter(valeur == null ? ABSENT : valeur.getNano());
+    }
+
+    /** Valeur et échelle : {@code 37.0} et {@code 37.00} diffèrent, comme à l'affichage. */
+    public EmpreinteHistorique decimal(BigDecimal valeur) {
+        if (valeur == null) {
+            ajouter(ABSENT);
+            return ajouter(ABSENT);
+        }
+        BigInteger nonEchelonne = valeur.unscaledValue();
+        ajouter(nonEchelonne.bitLength() < 64 ? nonEchelonne.longValue() : nonEchelonne.hashCode());
+        return ajouter(valeur.scale());
+    }
+
+    /** Entité référencée (ex. {@code @ManyToOne}), par son id ; l'id d'un proxy se lit sans le charger. */
+    public <T> EmpreinteHistorique reference(T entite, Function<? super T, Integer> id) {
+        return ajouter(entite == null ? ABSENT : cle(id.apply(entite)));
+    }
+
+    /** Ensemble d'entités par leurs ids ; les ids {@code null} (éléments non enregistrés) sont ignorés. */
+    public <T> EmpreinteHistorique ids(Collection<? extends T> elements, Function<? super T, Integer> id) {
+        long somme = 0;
+        int taille = 0;
+        if (elements != null) {
+            for (T element : elements) {
+                Integer cle = id.apply(element);
+                if (cle != null) {
+                    somme += melanger(cle);
+                    taille++;
+                }
+            }
+        }
+        ajouter(somme);
+        return ajouter(taille);
+    }
+
+    /** Ensemble (multi-ensemble) d'éléments décrits par une clé ; {@code null} équivaut à vide. */
+    public <T> EmpreinteHistorique elements(Collection<? extends T> elements, ToLongFunction<? super T> cle) {
+        long somme = 0;
+        int taille = 0;
+        if (elements != null) {
+            for (T element : elements) {
+                somme += melanger(cle.applyAsLong(element));
+                taille++;
+            }
+        }
+        ajouter(somme);
+        return ajouter(taille);
+    }
+
+    /** Clé d'un id éventuellement absent. */
+    public static long cle(Integer valeur) {
+        return valeur == null ? ABSENT : valeur;
+    }
+
+    /**
+     * Clé d'un texte (FNV-1a sur les caractères, sans copie) ; {@code null} équivaut à vide et les blancs de début
+     * et de fin sont ignorés, comme par {@link String#trim()} dans les libellés.
+     */
+    public static long cle(String valeur) {
+        long h = FNV_BASE;
+        if (valeur == null) {
+            return melanger(h);
+        }
+        int debut = 0;
+        int fin = valeur.length();
+        while (debut < fin && valeur.charAt(debut) <= ' ') {
+            debut++;
+        }
+        while (fin > debut && valeur.charAt(fin - 1) <= ' ') {
+            fin--;
+        }
+        for (int i = debut; i < fin; i++) {
+            h = (h ^ valeur.charAt(i)) * FNV_PREMIER;
+        }
+        return melanger(h + fin - debut);
+    }
+
+    /** Clé composée de deux clés, dans cet ordre. */
+    public static long cle(long premiere, long seconde) {
+        return melanger(melanger(premiere) * 31 + seconde);
+    }
+
+    private EmpreinteHistorique ajouter(long valeur) {
+        etat = melanger((etat ^ valeur) * GRAINE + FNV_PREMIER);
+        return this;
+    }
+
+    /** Finaliseur de MurmurHash3 : chaque bit d'entrée change en moyenne la moitié des bits de sortie. */
+    private static long melanger(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
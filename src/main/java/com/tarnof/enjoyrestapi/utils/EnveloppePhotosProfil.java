@@ -0,0 +1,110 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.tarnof.enjoyrestapi.payload.response.PhotoProfilContenu;
+import com.tarnof.enjoyrestapi.payload.response.PhotoProfilLotEntree;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lot de photos en une réponse binaire : les images bout à bout, puis l'index JSON, puis la longueur de l'index
+ * sur 4 octets (big-endian). L'index est écrit à la fin : chaque photo est copiée dès sa lecture, sans garder le
+ * lot en mémoire ni plusieurs flux ouverts.
+ * <p>Index : {@code {"entrees":[{"tokenId","statut","etag","mimeType","offset","longueur"}]}} ; {@code offset}
+ * depuis le début de la réponse ; {@code statut} 200 (image présente), 304 (ETag connu du client, pas d'octets)
+ * ou 404 (utilisateur ou photo introuvable).</p>
+ */
+public final class EnveloppePhotosProfil {
+
+    public static final String MEDIA_TYPE = "application/vnd.enjoy.photos-profil+octet-stream";
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private record Entree(String tokenId, int statut, String etag, String mimeType, long offset, long longueur) {}
+
+    private final CompteurOctets sortie;
+    private final List<Entree> index = new ArrayList<>();
+
+    public EnveloppePhotosProfil(OutputStream sortie) {
+        this.sortie = new CompteurOctets(sortie);
+    }
+
+    /** Écrit la photo (et ferme son flux) ; à appeler dans l'ordre voulu pour l'index. */
+    public void ajouter(PhotoProfilLotEntree entree) throws IOException {
+        PhotoProfilContenu photo = entree.photo();
+        if (photo == null) {
+            index.add(new Entree(entree.tokenId(), 404, null, null, sortie.position, 0));
+            return;
+        }
+        if (photo.nonModifiee()) {
+            index.add(new Entree(entree.tokenId(), 304, photo.etag(), photo.mimeType(), sortie.position, 0));
+            return;
+        }
+        long offset = sortie.position;
+        try (InputStream contenu = photo.contenu()) {
+            contenu.transferTo(sortie);
+        }
+        index.add(new Entree(entree.tokenId(), 200, photo.etag(), photo.mimeType(), offset, sortie.position - offset));
+    }
+
+    /** Écrit l'index et sa longueur ; le flux de la réponse reste géré par Spring (non fermé ici). */
+    public void terminer() throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(64 + index.size() * 128);
+        try (JsonGenerator generateur = JSON.createGenerator(json, JsonEncoding.UTF8)) {
+            generateur.writeStartObject();
+            generateur.writeArrayFieldStart("entrees");
+            for (Entree e : index) {
+                generateur.writeStartObject();
+                generateur.writeStringField("tokenId", e.tokenId());
+                generateur.writeNumberField("statut", e.statut());
+                generateur.writeStringField("etag", e.etag());
+                generateur.writeStringField("mimeType", e.mimeType());
+                generateur.writeNumberField("offset", e.offset());
+                generateur.writeNumberField("longueur", e.longueur());
+                generateur.writeEndObject();
+            }
+            generateur.writeEndArray();
+            generateur.writeEndObject();
+        }
+        json.writeTo(sortie);
+        DataOutputStream fin = new DataOutputStream(sortie);
+        fin.writeInt(json.size());
+        fin.flush();
+    }
+
+    /** Position courante dans la réponse (offsets de l'index). */
+    private static final class CompteurOctets extends FilterOutputStream {
+
+        private long position;
+
+        CompteurOctets(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            position++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            position += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Validateurs HTTP des photos de profil, calculés depuis la base sans lire le stockage : l'empreinte de
+ * l'original (SHA-256, enregistrée à l'upload) change à chaque nouvelle photo ; l'ETag y ajoute la clé servie
+ * (original ou variante), dont le contenu est fixé pour une empreinte donnée.
+ */
+public final class EtagPhotoProfil {
+
+    /** Caractères de l'empreinte repris dans l'URL ({@code ?v=}) : 64 bits, sans collision à craindre par utilisateur. */
+    private static final int LONGUEUR_VERSION = 16;
+    private static final int LONGUEUR_ETAG = 32;
+
+    private EtagPhotoProfil() {}
+
+    public static String empreinte(byte[] contenu) {
+        return HexFormat.of().formatHex(sha256().digest(contenu));
+    }
+
+    /** Version de la photo dans l'URL, {@code null} sans empreinte (photo envoyée avant les validateurs). */
+    public static String version(String empreinte) {
+        return empreinte == null || empreinte.length() < LONGUEUR_VERSION ? null : empreinte.substring(0, LONGUEUR_VERSION);
+    }
+
+    /** ETag fort (entre guillemets) de la clé servie, {@code null} sans empreinte. */
+    public static String etag(String cleServie, String empreinte) {
+        if (empreinte == null) {
+            return null;
+        }
+        MessageDigest digest = sha256();
+        digest.update(cleServie.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(empreinte.getBytes(StandardCharsets.US_ASCII));
+        return '"' + HexFormat.of().formatHex(digest.digest()).substring(0, LONGUEUR_ETAG) + '"';
+    }
+
+    /**
+     * {@code true} si l'en-tête {@code If-None-Match} désigne l'ETag : liste séparée par
+     * des virgules, {@code *}, préfixe faible {@code W/} ignoré (comparaison faible, RFC 9110 §13.1.2).
+     */
+    public static boolean correspond(String entete, String etag) {
+        if (entete == null || etag == null) {
+            return false;
+        }
+        for (String candidat : entete.split(",")) {
+            String valeur = candidat.trim();
+            if (valeur.equals("*")) {
+                return true;
+            }
+            if (valeur.startsWith("W/")) {
+                valeur = valeur.substring(2);
+            }
+            if (valeur.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import java.io.IOException;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Réponses JSON en flux : un tableau écrit élément par élément via un {@link JsonGenerator},
+ * sans construire la liste complète en mémoire.
+ */
+public final class JsonFlux {
+
+    /** Nombre d'éléments chargés (puis détachés du contexte de persistance) par aller-retour en base. */
+    public static final int TAILLE_LOT = 200;
+
+    private JsonFlux() {}
+
+    /** Reçoit les éléments au fil de la lecture ; l'écriture peut échouer (client déconnecté). */
+    @FunctionalInterface
+    public interface Ecrivain<T> {
+        void ecrire(T element) throws IOException;
+    }
+
+    /** Parcourt une source (typiquement une méthode de service transactionnelle) vers un écrivain. */
+    @FunctionalInterface
+    public interface Source<T> {
+        void parcourir(Ecrivain<T> ecrivain) throws IOException;
+    }
+
+    /**
+     * Corps de réponse écrivant un tableau JSON. La source est appelée dans le thread d'écriture ;
+     * tant que le tampon du générateur n'a pas été vidé, une exception (403, 404…) remonte encore
+     * au gestionnaire d'erreurs. Le flux de la réponse reste géré par Spring (non fermé ici).
+     */
+    public static <T> StreamingResponseBody tableau(ObjectMapper objectMapper, Source<T> source) {
+        return out -> {
+            JsonGenerator generateur = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            generateur.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generateur.writeStartArray();
+            source.parcourir(generateur::writeObject);
+            generateur.writeEndArray();
+            generateur.close();
+        };
+    }
+}
@@ -9,9 +9,18 @@ public final class PhotoProfilUrls {
     }
 
     public static String urlPhotoProfilUtilisateur(String tokenId, String photoProfilCle) {
+        return urlPhotoProfilUtilisateur(tokenId, photoProfilCle, null);
+    }
+
+    /**
+     * Avec la version de la photo ({@code ?v=}) quand son empreinte est connue : l'URL change à chaque nouvelle
+     * photo, la réponse peut donc être mise en cache sans revalidation.
+     */
+    public static String urlPhotoProfilUtilisateur(String tokenId, String photoProfilCle, String photoProfilEmpreinte) {
         if (photoProfilCle == null || photoProfilCle.isBlank()) {
             return null;
         }
-        return urlPhotoProfilUtilisateur(tokenId);
+        String version = EtagPhotoProfil.version(photoProfilEmpreinte);
+        return version == null ? urlPhotoProfilUtilisateur(tokenId) : urlPhotoProfilUtilisateur(tokenId) + "?v=" + version;
     }
 }
@@ -0,0 +1,103 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Requêtes partielles ({@code Range: bytes=...}) sur un contenu binaire de taille connue. Une seule plage est
+ * servie ; plusieurs plages ou un en-tête illisible donnent la réponse complète, comme le permet la RFC 9110 §14.2.
+ */
+public final class PlagesOctets {
+
+    /** Plage demandée entièrement hors du contenu : réponse 416. */
+    public static final Plage NON_SATISFIABLE = new Plage(-1, 0);
+
+    private static final String UNITE = "bytes=";
+
+    private PlagesOctets() {}
+
+    public record Plage(long debut, long longueur) {
+
+        public String contentRange(long taille) {
+            return "bytes " + debut + "-" + (debut + longueur - 1) + "/" + taille;
+        }
+    }
+
+    /** Plage à servir, {@code null} pour le contenu complet. */
+    public static Plage lire(String entete, long taille) {
+        if (entete == null || !entete.regionMatches(true, 0, UNITE, 0, UNITE.length())) {
+            return null;
+        }
+        String spec = entete.substring(UNITE.length()).trim();
+        int tiret = spec.indexOf('-');
+        if (tiret < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+        try {
+            String debut = spec.substring(0, tiret).trim();
+            String fin = spec.substring(tiret + 1).trim();
+            if (debut.isEmpty()) {
+                // Suffixe : les n derniers octets.
+                long n = Long.parseLong(fin);
+                if (n < 0) {
+                    return null;
+                }
+                if (n == 0 || taille == 0) {
+                    return NON_SATISFIABLE;
+                }
+                long longueur = Math.min(n, taille);
+                return new Plage(taille - longueur, longueur);
+            }
+            long premier = Long.parseLong(debut);
+            long dernier = fin.isEmpty() ? Long.MAX_VALUE : Long.parseLong(fin);
+            if (premier < 0 || dernier < premier) {
+                return null;
+            }
+            if (premier >= taille) {
+                return NON_SATISFIABLE;
+            }
+            return new Plage(premier, Math.min(dernier, taille - 1) - premier + 1);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Copie {@code longueur} octets à partir de {@code debut}. Fichier local : {@link FileChannel#transferTo} depuis la
+     * position, sans lire les octets sautés ni passer par un tableau Java ; autre flux : octets sautés puis copie.
+     */
+    public static void copier(InputStream source, long debut, long longueur, OutputStream sortie) throws IOException {
+        if (source instanceof FileInputStream fichier) {
+            FileChannel canal = fichier.getChannel();
+            WritableByteChannel cible = Channels.newChannel(sortie);
+            long position = debut;
+            long reste = longueur;
+            while (reste > 0) {
+                long n = canal.transferTo(position, reste, cible);
+                if (n <= 0) {
+                    throw new EOFException("Fichier tronqué pendant l'envoi");
+                }
+                position += n;
+                reste -= n;
+            }
+            return;
+        }
+        source.skipNBytes(debut);
+        byte[] tampon = new byte[8192];
+        long reste = longueur;
+        while (reste > 0) {
+            int n = source.read(tampon, 0, (int) Math.min(tampon.length, reste));
+            if (n < 0) {
+                throw new EOFException("Flux tronqué pendant l'envoi");
+            }
+            sortie.write(tampon, 0, n);
+            reste -= n;
+        }
+    }
+}
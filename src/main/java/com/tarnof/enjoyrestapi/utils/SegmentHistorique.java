@@ -0,0 +1,258 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationAction;
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Segment d'archive de l'historique : lignes d'un séjour retirées de la table, écrites une fois et jamais modifiées.
+ * <p>Fichier de données : un bloc compressé (deflate) par élément modifié (type + id de l'élément), lignes de la plus
+ * récente à la plus ancienne. Index à part, quelques octets par bloc (élément, position, taille, dates extrêmes) :
+ * l'historique d'un élément se lit sans décompresser le reste du segment, et le fil du séjour écarte les blocs hors
+ * filtre sans les lire. Types et actions écrits par leur nom (indépendants de l'ordre des enums).</p>
+ */
+public final class SegmentHistorique {
+
+    private static final int VERSION = 1;
+    private static final Comparator<Ligne> ORDRE =
+            Comparator.comparing(Ligne::dateModification).thenComparingInt(Ligne::id).reversed();
+
+    private SegmentHistorique() {}
+
+    /**
+     * Ligne archivée : le modificateur est recopié (tokenId, nom, prénom) pour rester lisible sans la table
+     * utilisateur. {@code cibleId} : id de l'élément selon {@code type} (ligne de planning pour les cellules).
+     */
+    public record Ligne(
+            int id,
+            HistoriqueModificationType type,
+            int cibleId,
+            HistoriqueModificationAction action,
+            Instant dateModification,
+            String modificateurTokenId,
+            String modificateurNom,
+            String modificateurPrenom,
+            LocalDate planningJour,
+            Integer planningCelluleId,
+            byte[] valeursCompactes) {}
+
+    /** Bloc d'un élément dans le fichier de données ; dates de sa ligne la plus ancienne et la plus récente. */
+    public record Entree(
+            HistoriqueModificationType type, int cibleId, long position, int longueur, int tailleBrute, int nbLignes,
+            Instant plusAncienne, Instant plusRecente) {}
+
+    public record Segment(byte[] donnees, byte[] index) {}
+
+    public static Segment ecrire(List<Ligne> lignes) {
+        Map<Cle, List<Ligne>> parElement = new LinkedHashMap<>();
+        for (Ligne ligne : lignes) {
+            parElement.computeIfAbsent(new Cle(ligne.type(), ligne.cibleId()), c -> new ArrayList<>()).add(ligne);
+        }
+        ByteArrayOutputStream donnees = new ByteArrayOutputStream();
+        donnees.write(VERSION);
+        List<Entree> entrees = new ArrayList<>(parElement.size());
+        for (Map.Entry<Cle, List<Ligne>> element : parElement.entrySet()) {
+            List<Ligne> bloc = new ArrayList<>(element.getValue());
+            bloc.sort(ORDRE);
+            byte[] brut = encoderBloc(bloc);
+            byte[] compresse = compresser(brut);
+            entrees.add(new Entree(
+                    element.getKey().type(), element.getKey().cibleId(), donnees.size(), compresse.length, brut.length,
+                    bloc.size(), bloc.getLast().dateModification(), bloc.getFirst().dateModification()));
+            donnees.writeBytes(compresse);
+        }
+        return new Segment(donnees.toByteArray(), encoderIndex(entrees));
+    }
+
+    public static List<Entree> lireIndex(byte[] index) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(index))) {
+            verifierVersion(in.readUnsignedByte());
+            int nb = in.readInt();
+            List<Entree> entrees = new ArrayList<>(nb);
+            for (int i = 0; i < nb; i++) {
+                HistoriqueModificationType type = HistoriqueModificationType.valueOf(in.readUTF());
+                int cibleId = in.readInt();
+                long position = in.readLong();
+                int longueur = in.readInt();
+                int tailleBrute = in.readInt();
+                int nbLignes = in.readInt();
+                Instant plusAncienne = instant(in);
+                Instant plusRecente = instant(in);
+                entrees.add(new Entree(type, cibleId, position, longueur, tailleBrute, nbLignes, plusAncienne, plusRecente));
+            }
+            return entrees;
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("Index de segment d'historique tronqué", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** {@code bloc} : les {@link Entree#longueur()} octets lus à {@link Entree#position()} dans le fichier de données. */
+    public static List<Ligne> lireBloc(Entree entree, byte[] bloc) {
+        byte[] brut = decompresser(bloc, entree.tailleBrute());
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(brut))) {
+            List<Ligne> lignes = new ArrayList<>(entree.nbLignes());
+            for (int i = 0; i < entree.nbLignes(); i++) {
+                int id = in.readInt();
+                HistoriqueModificationAction action = HistoriqueModificationAction.valueOf(in.readUTF());
+                Instant date = Instant.ofEpochSecond(in.readLong(), in.readInt());
+                String tokenId = texte(in);
+                String nom = texte(in);
+                String prenom = texte(in);
+                LocalDate jour = in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+                Integer celluleId = in.readBoolean() ? in.readInt() : null;
+                byte[] valeurs = null;
+                if (in.readBoolean()) {
+                    valeurs = new byte[in.readInt()];
+                    in.readFully(valeurs);
+                }
+                lignes.add(new Ligne(
+                        id, entree.type(), entree.cibleId(), action, date, tokenId, nom, prenom, jour, celluleId, valeurs));
+            }
+            return lignes;
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("Bloc de segment d'historique invalide", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Cle(HistoriqueModificationType type, int cibleId) {}
+
+    private static byte[] encoderBloc(List<Ligne> bloc) {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(sortie)) {
+            for (Ligne l : bloc) {
+                out.writeInt(l.id());
+                out.writeUTF(l.action().name());
+                out.writeLong(l.dateModification().getEpochSecond());
+                out.writeInt(l.dateModification().getNano());
+                texte(out, l.modificateurTokenId());
+                texte(out, l.modificateurNom());
+                texte(out, l.modificateurPrenom());
+                out.writeBoolean(l.planningJour() != null);
+                if (l.planningJour() != null) {
+                    out.writeLong(l.planningJour().toEpochDay());
+                }
+                out.writeBoolean(l.planningCelluleId() != null);
+                if (l.planningCelluleId() != null) {
+                    out.writeInt(l.planningCelluleId());
+                }
+                out.writeBoolean(l.valeursCompactes() != null);
+                if (l.valeursCompactes() != null) {
+                    out.writeInt(l.valeursCompactes().length);
+                    out.write(l.valeursCompactes());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sortie.toByteArray();
+    }
+
+    private static byte[] encoderIndex(List<Entree> entrees) {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream(5 + entrees.size() * 64);
+        try (DataOutputStream out = new DataOutputStream(sortie)) {
+            out.writeByte(VERSION);
+            out.writeInt(entrees.size());
+            for (Entree e : entrees) {
+                out.writeUTF(e.type().name());
+                out.writeInt(e.cibleId());
+                out.writeLong(e.position());
+                out.writeInt(e.longueur());
+                out.writeInt(e.tailleBrute());
+                out.writeInt(e.nbLignes());
+                instant(out, e.plusAncienne());
+                instant(out, e.plusRecente());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sortie.toByteArray();
+    }
+
+    /** Texte court éventuellement {@code null} (tokenId, nom, prénom). */
+    private static void texte(DataOutputStream out, String valeur) throws IOException {
+        out.writeBoolean(valeur != null);
+        if (valeur != null) {
+            out.writeUTF(valeur);
+        }
+    }
+
+    private static String texte(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void instant(DataOutputStream out, Instant valeur) throws IOException {
+        out.writeLong(valeur.getEpochSecond());
+        out.writeInt(valeur.getNano());
+    }
+
+    private static Instant instant(DataInputStream in) throws IOException {
+        return Instant.ofEpochSecond(in.readLong(), in.readInt());
+    }
+
+    private static byte[] compresser(byte[] brut) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(brut);
+            deflater.finish();
+            ByteArrayOutputStream sortie = new ByteArrayOutputStream(Math.max(64, brut.length / 4));
+            byte[] tampon = new byte[8192];
+            while (!deflater.finished()) {
+                sortie.write(tampon, 0, deflater.deflate(tampon));
+            }
+            return sortie.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompresser(byte[] compresse, int tailleBrute) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compresse);
+            byte[] brut = new byte[tailleBrute];
+            int lus = 0;
+            while (lus < tailleBrute) {
+                int n = inflater.inflate(brut, lus, tailleBrute - lus);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                lus += n;
+            }
+            if (lus != tailleBrute) {
+                throw new IllegalArgumentException("Bloc de segment d'historique tronqué");
+            }
+            return brut;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Bloc de segment d'historique invalide", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void verifierVersion(int version) {
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Version de segment d'historique non prise en charge: " + version);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Découpage du texte pour la recherche plein texte : termes en minuscules sans accents
+ * (« Fièvre » → « fievre »), trigrammes pour retrouver un terme mal orthographié, extrait autour d'un terme trouvé.
+ */
+public final class TexteRecherche {
+
+    /** Les termes plus courts (« l », « d » des élisions…) ne sont pas indexés. */
+    public static final int LONGUEUR_MIN_TERME = 2;
+    /** Au-delà, le terme est tronqué (identifiants, URL collées…). */
+    public static final int LONGUEUR_MAX_TERME = 40;
+
+    private static final int LARGEUR_EXTRAIT = 160;
+    private static final int CONTEXTE_AVANT_EXTRAIT = 50;
+
+    private TexteRecherche() {}
+
+    /** Minuscules, diacritiques retirés, ligatures développées (« Œdème » → « oedeme »). */
+    public static String plier(String texte) {
+        StringBuilder plie = new StringBuilder(texte.length());
+        for (int i = 0; i < texte.length(); i++) {
+            plie.append(plier(texte.charAt(i)));
+        }
+        return plie.toString();
+    }
+
+    /** Termes pliés du texte, dans l'ordre et avec leurs répétitions (fréquences). */
+    public static List<String> termes(String texte) {
+        List<String> termes = new ArrayList<>();
+        if (texte == null || texte.isEmpty()) {
+            return termes;
+        }
+        String plie = plier(texte);
+        int debut = -1;
+        for (int i = 0; i <= plie.length(); i++) {
+            boolean dansTerme = i < plie.length() && Character.isLetterOrDigit(plie.charAt(i));
+            if (dansTerme && debut < 0) {
+                debut = i;
+            } else if (!dansTerme && debut >= 0) {
+                if (i - debut >= LONGUEUR_MIN_TERME) {
+                    termes.add(plie.substring(debut, Math.min(i, debut + LONGUEUR_MAX_TERME)));
+                }
+                debut = -1;
+            }
+        }
+        return termes;
+    }
+
+    /** Trigrammes du terme encadré d'espaces (« lait » → « ␣la », « lai », « ait », « it␣ »). */
+    public static Set<String> trigrammes(String terme) {
+        String encadre = " " + terme + " ";
+        Set<String> trigrammes = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= encadre.length(); i++) {
+            trigrammes.add(encadre.substring(i, i + 3));
+        }
+        return trigrammes;
+    }
+
+    /**
+     * Passage du texte autour de la première occurrence d'un des termes (pliés), blancs réduits,
+     * « … » aux coupures. Sans occurrence, le début du texte.
+     */
+    public static String extrait(String texte, Collection<String> termes) {
+        String compact = texte.replaceAll("\\s+", " ").trim();
+        StringBuilder plie = new StringBuilder(compact.length());
+        int[] origine = new int[compact.length() * 2 + 1];
+        for (int i = 0; i < compact.length(); i++) {
+            String caractere = plier(compact.charAt(i));
+            for (int k = 0; k < caractere.length(); k++) {
+                if (plie.length() >= origine.length) {
+                    origine = Arrays.copyOf(origine, origine.length * 2);
+                }
+                origine[plie.length()] = i;
+                plie.append(caractere.charAt(k));
+            }
+        }
+        int position = -1;
+        for (String terme : termes) {
+            int trouve = plie.indexOf(terme);
+            if (trouve >= 0 && (position < 0 || trouve < position)) {
+                position = trouve;
+            }
+        }
+        int debut = position < 0 ? 0 : Math.max(0, origine[position] - CONTEXTE_AVANT_EXTRAIT);
+        if (debut > 0) {
+            int espace = compact.indexOf(' ', debut);
+            if (espace >= 0 && espace < origine[position]) {
+                debut = espace + 1;
+            }
+        }
+        int fin = Math.min(compact.length(), debut + LARGEUR_EXTRAIT);
+        if (fin < compact.length()) {
+            int espace = compact.lastIndexOf(' ', fin);
+            if (espace > debut) {
+                fin = espace;
+            }
+        }
+        return (debut > 0 ? "…" : "") + compact.substring(debut, fin) + (fin < compact.length() ? "…" : "");
+    }
+
+    private static String plier(char c) {
+        if (c < 128) {
+            return String.valueOf(Character.toLowerCase(c));
+        }
+        return switch (c) {
+            case 'œ', 'Œ' -> "oe";
+            case 'æ', 'Æ' -> "ae";
+            case 'ß' -> "ss";
+            default -> sansDiacritique(c);
+        };
+    }
+
+    private static String sansDiacritique(char c) {
+        String decompose = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        StringBuilder sansAccent = new StringBuilder(1);
+        for (int i = 0; i < decompose.length(); i++) {
+            char d = decompose.charAt(i);
+            if (Character.getType(d) != Character.NON_SPACING_MARK) {
+                sansAccent.append(Character.toLowerCase(d));
+            }
+        }
+        return sansAccent.toString();
+    }
+}
@@ -0,0 +1,280 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Variantes réduites d'une photo de profil (vignettes d'équipe, avatars), générées une fois à l'upload avec
+ * ImageIO. Chaque variante tient dans un carré de {@code taille} pixels (proportions conservées, jamais agrandie)
+ * et garde le format de l'original : JPEG reste JPEG, PNG reste PNG (transparence conservée).
+ * <p>L'orientation EXIF d'un JPEG (photo de téléphone) est appliquée aux pixels des variantes, écrites sans
+ * métadonnées : elles s'affichent droites comme l'original, que les navigateurs redressent eux-mêmes.</p>
+ * <p>Formats non lisibles par ImageIO (WebP sans plugin) : aucune variante, l'original est servi à toutes les tailles.</p>
+ */
+public final class VariantesPhotoProfil {
+
+    /** Tailles générées, croissantes (côté du carré englobant, en pixels). */
+    public static final List<Integer> TAILLES = List.of(48, 128, 512);
+
+    /** Au-delà (image très compressée, ex. PNG uni), pas de décodage : l'image décodée ne tiendrait pas en mémoire. */
+    private static final long MAX_PIXELS = 25_000_000L;
+    private static final float QUALITE_JPEG = 0.85f;
+
+    private VariantesPhotoProfil() {}
+
+    /**
+     * Variantes de l'image, par taille. Vide si le format n'est pas lisible, si l'image est trop grande
+     * ou si le contenu n'est pas une image.
+     */
+    public static Map<Integer, byte[]> generer(byte[] original, String mimeType) {
+        String format = formatEcriture(mimeType);
+        if (format == null) {
+            return Map.of();
+        }
+        BufferedImage image = lire(original);
+        if (image == null) {
+            return Map.of();
+        }
+        int orientation = "jpeg".equals(format) ? orientationExif(original) : 1;
+        Map<Integer, byte[]> variantes = new LinkedHashMap<>();
+        BufferedImage source = image;
+        // De la plus grande à la plus petite : chaque réduction repart de la précédente (moins de pixels à lire).
+        for (int i = TAILLES.size() - 1; i >= 0; i--) {
+            int taille = TAILLES.get(i);
+            source = reduire(source, taille, "png".equals(format));
+            if (i == TAILLES.size() - 1) {
+                // Après la première réduction (le côté le plus long ne dépend pas de la rotation) : moins de pixels.
+                source = orienter(source, orientation);
+            }
+            variantes.put(taille, ecrire(source, format));
+        }
+        return variantes;
+    }
+
+    /**
+     * Taille de variante servie pour une taille demandée : la plus petite variante au moins aussi grande,
+     * {@code null} pour l'original (pas de taille demandée ou plus grande que toutes les variantes).
+     */
+    public static Integer tailleServie(Integer tailleDemandee) {
+        if (tailleDemandee == null) {
+            return null;
+        }
+        if (tailleDemandee <= 0) {
+            throw new IllegalArgumentException("La taille demandée doit être positive");
+        }
+        for (int taille : TAILLES) {
+            if (taille >= tailleDemandee) {
+                return taille;
+            }
+        }
+        return null;
+    }
+
+    /** Clé sœur de l'original : {@code contenus/ab/<sha256>.jpg} → {@code contenus/ab/<sha256>-128.jpg}. */
+    public static String cleVariante(String cleOriginale, int taille) {
+        int slash = cleOriginale.lastIndexOf('/');
+        int point = cleOriginale.lastIndexOf('.');
+        if (point <= slash) {
+            return cleOriginale + "-" + taille;
+        }
+        return cleOriginale.substring(0, point) + "-" + taille + cleOriginale.substring(point);
+    }
+
+    private static String formatEcriture(String mimeType) {
+        if (mimeType == null) {
+            return null;
+        }
+        return switch (mimeType) {
+            case "image/jpeg" -> "jpeg";
+            case "image/png" -> "png";
+            default -> null;
+        };
+    }
+
+    private static BufferedImage lire(byte[] original) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(original))) {
+            Iterator<ImageReader> lecteurs = in == null ? null : ImageIO.getImageReaders(in);
+            if (lecteurs == null || !lecteurs.hasNext()) {
+                return null;
+            }
+            ImageReader lecteur = lecteurs.next();
+            try {
+                lecteur.setInput(in, true, true);
+                if ((long) lecteur.getWidth(0) * lecteur.getHeight(0) > MAX_PIXELS) {
+                    return null;
+                }
+                return lecteur.read(0);
+            } finally {
+                lecteur.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Réduction par moitiés successives puis un dernier pas bilinéaire : un seul pas bilinéaire sur un grand
+     * rapport ignore la plupart des pixels (vignette crénelée).
+     */
+    private static BufferedImage reduire(BufferedImage image, int taille, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        double echelle = Math.min(1.0, (double) taille / Math.max(image.getWidth(), image.getHeight()));
+        int largeurCible = Math.max(1, (int) Math.round(image.getWidth() * echelle));
+        int hauteurCible = Math.max(1, (int) Math.round(image.getHeight() * echelle));
+        BufferedImage courante = image;
+        int largeur = image.getWidth();
+        int hauteur = image.getHeight();
+        do {
+            largeur = largeur / 2 >= largeurCible ? largeur / 2 : largeurCible;
+            hauteur = hauteur / 2 >= hauteurCible ? hauteur / 2 : hauteurCible;
+            courante = redessiner(courante, largeur, hauteur, type);
+        } while (largeur != largeurCible || hauteur != hauteurCible);
+        return courante;
+    }
+
+    private static BufferedImage redessiner(BufferedImage source, int largeur, int hauteur, int type) {
+        BufferedImage cible = new BufferedImage(largeur, hauteur, type);
+        Graphics2D g = cible.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (type == BufferedImage.TYPE_INT_RGB) {
+                // JPEG sans transparence : fond blanc plutôt que noir sous les pixels transparents.
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, largeur, hauteur);
+            }
+            g.drawImage(source, 0, 0, largeur, hauteur, null);
+        } finally {
+            g.dispose();
+        }
+        return cible;
+    }
+
+    /**
+     * Orientation EXIF (tag 0x0112 de l'IFD0, 1 à 8) d'un JPEG ; 1 (aucune transformation) si absente ou illisible.
+     */
+    static int orientationExif(byte[] jpeg) {
+        if (jpeg.length < 4 || (jpeg[0] & 0xFF) != 0xFF || (jpeg[1] & 0xFF) != 0xD8) {
+            return 1;
+        }
+        int i = 2;
+        while (i + 4 <= jpeg.length) {
+            if ((jpeg[i] & 0xFF) != 0xFF) {
+                return 1;
+            }
+            int marqueur = jpeg[i + 1] & 0xFF;
+            if (marqueur == 0xFF) {
+                i++;
+                continue;
+            }
+            if (marqueur == 0xDA || marqueur == 0xD9) {
+                return 1;
+            }
+            int fin = i + 2 + entier(jpeg, i + 2, 2, false);
+            if (marqueur == 0xE1 && i + 10 <= Math.min(fin, jpeg.length)
+                    && jpeg[i + 4] == 'E' && jpeg[i + 5] == 'x' && jpeg[i + 6] == 'i' && jpeg[i + 7] == 'f'
+                    && jpeg[i + 8] == 0 && jpeg[i + 9] == 0) {
+                return orientationTiff(jpeg, i + 10, Math.min(fin, jpeg.length));
+            }
+            i = fin;
+        }
+        return 1;
+    }
+
+    private static int orientationTiff(byte[] octets, int debut, int fin) {
+        if (debut + 8 > fin || octets[debut] != octets[debut + 1] || (octets[debut] != 'I' && octets[debut] != 'M')) {
+            return 1;
+        }
+        boolean intel = octets[debut] == 'I';
+        long ifd = debut + (entier(octets, debut + 4, 4, intel) & 0xFFFFFFFFL);
+        if (ifd + 2 > fin) {
+            return 1;
+        }
+        int nb = entier(octets, (int) ifd, 2, intel);
+        for (int k = 0; k < nb; k++) {
+            int e = (int) ifd + 2 + 12 * k;
+            if (e + 12 > fin) {
+                return 1;
+            }
+            if (entier(octets, e, 2, intel) == 0x0112) {
+                int orientation = entier(octets, e + 8, 2, intel);
+                return orientation >= 1 && orientation <= 8 ? orientation : 1;
+            }
+        }
+        return 1;
+    }
+
+    /** Entier non signé de {@code taille} octets (2 ou 4), petit-boutiste si {@code intel}. */
+    private static int entier(byte[] octets, int position, int taille, boolean intel) {
+        int valeur = 0;
+        for (int k = 0; k < taille; k++) {
+            int octet = octets[position + (intel ? taille - 1 - k : k)] & 0xFF;
+            valeur = (valeur << 8) | octet;
+        }
+        return valeur;
+    }
+
+    /** Redresse l'image selon l'orientation EXIF (miroirs et quarts de tour, pixels recopiés sans interpolation). */
+    private static BufferedImage orienter(BufferedImage image, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return image;
+        }
+        int l = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform transformation = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, l, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, l, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, l);
+            default -> new AffineTransform(0, -1, 1, 0, 0, l);
+        };
+        boolean quartDeTour = orientation >= 5;
+        BufferedImage cible = new BufferedImage(quartDeTour ? h : l, quartDeTour ? l : h, image.getType());
+        Graphics2D g = cible.createGraphics();
+        try {
+            g.drawImage(image, transformation, null);
+        } finally {
+            g.dispose();
+        }
+        return cible;
+    }
+
+    private static byte[] ecrire(BufferedImage image, String format) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(sortie)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if ("jpeg".equals(format)) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(QUALITE_JPEG);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writer.dispose();
+        }
+        return sortie.toByteArray();
+    }
+}
@@ -14,6 +14,7 @@ import com.tarnof.enjoyrestapi.payload.response.MomentDto;
 import com.tarnof.enjoyrestapi.payload.response.TypeActiviteDto;
 import com.tarnof.enjoyrestapi.services.ActiviteService;
 import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
+import com.tarnof.enjoyrestapi.utils.JsonFlux;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +26,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDate;
@@ -32,12 +34,17 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -91,6 +98,39 @@ class ActiviteControllerTest {
                 .andExpect(jsonPath("$[0].membres[0].tokenId").value("t1"));
     }
 
+    @Test
+    @DisplayName("GET /api/v1/sejours/{id}/activites?stream=true - tableau JSON écrit en flux")
+    void listerEnFlux_shouldStreamJsonArray() throws Exception {
+        MomentDto moment = new MomentDto(2, "Matin", 3, 0, null);
+        TypeActiviteDto typeActivite = new TypeActiviteDto(5, "Sport", true, 3);
+        ActiviteDto dto = new ActiviteDto(
+                1, LocalDate.of(2026, 7, 5), "Kayak", null, 3, moment, null, typeActivite,
+                List.of(), List.of(), null, List.of());
+        Utilisateur utilisateur = Utilisateur.builder().tokenId("user-token-123").build();
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                utilisateur, null, Collections.emptyList());
+        doAnswer(invocation -> {
+            JsonFlux.Ecrivain<ActiviteDto> ecrivain = invocation.getArgument(2);
+            ecrivain.ecrire(dto);
+            return null;
+        }).when(activiteService).parcourirActivitesDuSejour(eq(3), eq("user-token-123"), any());
+        MockMvc mockMvcFlux = MockMvcBuilders
+                .standaloneSetup(new ActiviteController(activiteService, historiqueModificationService, objectMapper))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        MvcResult resultat = mockMvcFlux
+                .perform(get("/api/v1/sejours/3/activites").param("stream", "true").principal(authentication))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvcFlux.perform(asyncDispatch(resultat))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nom").value("Kayak"))
+                .andExpect(jsonPath("$[0].date").value("2026-07-05"));
+        verify(activiteService, never()).listerActivitesDuSejour(3, "user-token-123");
+    }
+
     @Test
     @DisplayName("POST /api/v1/sejours/{id}/activites")
     void creer_shouldReturn201() throws Exception {
@@ -11,6 +11,7 @@ import com.tarnof.enjoyrestapi.handlers.GlobalExceptionHandler;
 import com.tarnof.enjoyrestapi.payload.request.AjouterReferentRequest;
 import com.tarnof.enjoyrestapi.payload.request.CreateGroupeRequest;
 import com.tarnof.enjoyrestapi.payload.response.GroupeDto;
+import com.tarnof.enjoyrestapi.payload.response.RecalculGroupesDto;
 import com.tarnof.enjoyrestapi.services.GroupeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -133,6 +134,18 @@ class GroupeControllerTest {
                 .andExpect(jsonPath("$.error").value("Groupe non trouvé"));
     }
 
+    @Test
+    @DisplayName("recalculerGroupesAutomatiques - 200 OK avec le bilan")
+    void recalculerGroupesAutomatiques_ShouldReturnBilan() throws Exception {
+        when(groupeService.recalculerGroupesAutomatiques(1)).thenReturn(new RecalculGroupesDto(2, 5, 1));
+
+        mockMvc.perform(post("/api/v1/sejours/1/groupes/recalcul"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groupesRecalcules").value(2))
+                .andExpect(jsonPath("$.enfantsAjoutes").value(5))
+                .andExpect(jsonPath("$.enfantsRetires").value(1));
+    }
+
     @Test
     @DisplayName("creerGroupe - 201 Created")
     void creerGroupe_ShouldReturn201() throws Exception {
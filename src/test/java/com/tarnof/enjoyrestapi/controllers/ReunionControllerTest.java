@@ -8,6 +8,7 @@ import com.tarnof.enjoyrestapi.entities.Utilisateur;
 import com.tarnof.enjoyrestapi.handlers.GlobalExceptionHandler;
 import com.tarnof.enjoyrestapi.payload.request.SaveReunionRequest;
 import com.tarnof.enjoyrestapi.payload.response.ReunionDto;
+import com.tarnof.enjoyrestapi.payload.response.ReunionResumeDto;
 import com.tarnof.enjoyrestapi.services.ReunionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -49,6 +50,8 @@ class ReunionControllerTest {
 
     private JsonNode contenuTipTap;
 
+    private String contenuTipTapEnBase;
+
     @BeforeEach
     void setUp() throws Exception {
         objectMapper = new ObjectMapper();
@@ -67,14 +70,15 @@ class ReunionControllerTest {
         contenuTipTap =
                 objectMapper.readTree(
                         "{\"type\":\"doc\",\"content\":[{\"type\":\"paragraph\",\"content\":[]}]}");
+        contenuTipTapEnBase = objectMapper.writeValueAsString(contenuTipTap);
     }
 
     @Test
     @DisplayName("GET liste delegue au service avec verification sejour via token")
     void lister_delegates() throws Exception {
         LocalDate jour = LocalDate.of(2026, 6, 1);
-        ReunionDto dto =
-                new ReunionDto(1, 10, jour, "Point A — Point B", contenuTipTap);
+        ReunionResumeDto dto =
+                new ReunionResumeDto(1, 10, jour, "Point A — Point B", "Bilan de la semaine");
         when(reunionService.listerReunionsDuSejour(eq(10), eq("tok-abc"))).thenReturn(List.of(dto));
 
         mockMvc.perform(
@@ -84,7 +88,9 @@ class ReunionControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].sejourId").value(10))
                 .andExpect(jsonPath("$[0].date").value("2026-06-01"))
-                .andExpect(jsonPath("$[0].ordreDuJour").value("Point A — Point B"));
+                .andExpect(jsonPath("$[0].ordreDuJour").value("Point A — Point B"))
+                .andExpect(jsonPath("$[0].extrait").value("Bilan de la semaine"))
+                .andExpect(jsonPath("$[0].contenu").doesNotExist());
     }
 
     @Test
@@ -93,7 +99,7 @@ class ReunionControllerTest {
         SaveReunionRequest req =
                 new SaveReunionRequest(LocalDate.of(2026, 5, 20), "ODJ test", contenuTipTap);
         ReunionDto created =
-                new ReunionDto(3, 2, LocalDate.of(2026, 5, 20), "ODJ test", contenuTipTap);
+                new ReunionDto(3, 2, LocalDate.of(2026, 5, 20), "ODJ test", contenuTipTapEnBase);
 
         when(reunionService.creerReunion(eq(2), any(SaveReunionRequest.class))).thenReturn(created);
 
@@ -103,6 +109,8 @@ class ReunionControllerTest {
                                 .content(objectMapper.writeValueAsString(req)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id").value(3))
-                .andExpect(jsonPath("$.date").value("2026-05-20"));
+                .andExpect(jsonPath("$.date").value("2026-05-20"))
+                .andExpect(jsonPath("$.contenu.type").value("doc"))
+                .andExpect(jsonPath("$.contenu.content[0].type").value("paragraph"));
     }
 }
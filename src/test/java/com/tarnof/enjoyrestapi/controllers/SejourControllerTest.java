@@ -4,16 +4,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.tarnof.enjoyrestapi.entities.Utilisateur;
+import com.tarnof.enjoyrestapi.enums.ChampDossierEnfant;
 import com.tarnof.enjoyrestapi.enums.Role;
 import com.tarnof.enjoyrestapi.enums.RoleSejour;
 import com.tarnof.enjoyrestapi.handlers.GlobalExceptionHandler;
 import com.tarnof.enjoyrestapi.exceptions.ResourceAlreadyExistsException;
 import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
 import com.tarnof.enjoyrestapi.payload.request.CreateSejourRequest;
+import com.tarnof.enjoyrestapi.payload.request.FiltreSejoursRequest;
 import com.tarnof.enjoyrestapi.payload.request.MembreEquipeRequest;
 import com.tarnof.enjoyrestapi.payload.request.RegisterRequest;
 import com.tarnof.enjoyrestapi.payload.request.UpdateMembreEquipeRoleRequest;
 import com.tarnof.enjoyrestapi.payload.response.EnfantDossierSanitaireLigneDto;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
+import com.tarnof.enjoyrestapi.payload.response.SejourCatalogueDto;
 import com.tarnof.enjoyrestapi.payload.response.SejourDto;
 import com.tarnof.enjoyrestapi.services.EnfantService;
 import com.tarnof.enjoyrestapi.services.SejourService;
@@ -31,9 +35,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -183,6 +189,40 @@ class SejourControllerTest {
         verify(sejourService).getAllSejours();
     }
 
+    // ========== Tests pour listerPageCatalogue() ==========
+
+    @Test
+    @DisplayName("listerPageCatalogue - Devrait retourner 200 OK avec la page et transmettre les filtres")
+    void listerPageCatalogue_ShouldReturn200WithPage() throws Exception {
+        // Given
+        Utilisateur utilisateur = Utilisateur.builder().tokenId("user-token-123").build();
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                utilisateur, null, Collections.emptyList());
+        SejourCatalogueDto ligne = new SejourCatalogueDto(1, "Séjour Test", "Description du séjour test",
+                dateDebut, dateFin, "Lieu Test", sejourDto.directeur(), 24L, 5L);
+        FiltreSejoursRequest filtre = new FiltreSejoursRequest(
+                LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 31), null, "mer");
+        when(sejourService.listerPageCatalogue(filtre, "abc", 20, "user-token-123"))
+                .thenReturn(new PageCurseurDto<>(List.of(ligne), "suivant"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/sejours/page")
+                        .param("curseur", "abc")
+                        .param("taille", "20")
+                        .param("du", "2026-07-01")
+                        .param("au", "2026-07-31")
+                        .param("texte", "mer")
+                        .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.elements.length()").value(1))
+                .andExpect(jsonPath("$.elements[0].directeur.tokenId").value("directeur-token-123"))
+                .andExpect(jsonPath("$.elements[0].nbEnfants").value(24))
+                .andExpect(jsonPath("$.elements[0].nbEquipe").value(5))
+                .andExpect(jsonPath("$.curseurSuivant").value("suivant"));
+
+        verify(sejourService).listerPageCatalogue(filtre, "abc", 20, "user-token-123");
+    }
+
     // ========== Tests pour getSejourById() ==========
 
     @Test
@@ -247,6 +287,41 @@ class SejourControllerTest {
         verify(enfantService).listerDossiersEnfantsDuSejour(1, "user-token-123");
     }
 
+    @Test
+    @DisplayName("listerDossiersEnfantsDuSejour - Devrait transmettre les parties demandées via fields")
+    void listerDossiersEnfantsDuSejour_AvecFields_ShouldPassChamps() throws Exception {
+        Utilisateur utilisateur = Utilisateur.builder().tokenId("user-token-123").build();
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                utilisateur, null, Collections.emptyList());
+        when(enfantService.listerDossiersEnfantsDuSejour(
+                1, "user-token-123", EnumSet.of(ChampDossierEnfant.ALLERGENES, ChampDossierEnfant.REGIMES)))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/api/v1/sejours/1/dossiers-enfants")
+                        .param("fields", "allergenes,regimes")
+                        .principal(authentication))
+                .andExpect(status().isOk());
+
+        verify(enfantService).listerDossiersEnfantsDuSejour(
+                1, "user-token-123", EnumSet.of(ChampDossierEnfant.ALLERGENES, ChampDossierEnfant.REGIMES));
+        verify(enfantService, never()).listerDossiersEnfantsDuSejour(anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("listerDossiersEnfantsDuSejour - Devrait retourner 400 pour une partie inconnue")
+    void listerDossiersEnfantsDuSejour_AvecFieldInconnu_ShouldReturn400() throws Exception {
+        Utilisateur utilisateur = Utilisateur.builder().tokenId("user-token-123").build();
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                utilisateur, null, Collections.emptyList());
+
+        mockMvc.perform(get("/api/v1/sejours/1/dossiers-enfants")
+                        .param("fields", "photo")
+                        .principal(authentication))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(enfantService);
+    }
+
     // ========== Tests pour creerSejour() ==========
 
     @Test
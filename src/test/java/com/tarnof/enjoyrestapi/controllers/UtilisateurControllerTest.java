@@ -9,6 +9,7 @@ import com.tarnof.enjoyrestapi.enums.Role;
 import com.tarnof.enjoyrestapi.handlers.GlobalExceptionHandler;
 import com.tarnof.enjoyrestapi.payload.request.ChangePasswordRequest;
 import com.tarnof.enjoyrestapi.payload.request.UpdateUserRequest;
+import com.tarnof.enjoyrestapi.payload.response.PhotoProfilContenu;
 import com.tarnof.enjoyrestapi.payload.response.ProfilDto;
 import com.tarnof.enjoyrestapi.services.UtilisateurService;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,12 +21,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
@@ -669,4 +674,50 @@ class UtilisateurControllerTest {
         verify(utilisateurService, never()).changerMotDePasseParUtilisateur(anyString(), anyString(), anyString());
         verify(utilisateurService, never()).changerMotDePasseParAdmin(anyString(), anyString());
     }
+
+    @Test
+    @DisplayName("chargerPhotoProfil - Devrait répondre 304 avec l'ETag quand le client a déjà la photo")
+    void chargerPhotoProfil_WithMatchingEtag_ShouldReturn304() throws Exception {
+        when(utilisateurService.chargerPhotoProfil("token-123", 48, "\"abc\""))
+                .thenReturn(new PhotoProfilContenu(null, 0, "image/jpeg", "\"abc\"", "0123456789abcdef"));
+
+        mockMvc.perform(get("/api/v1/utilisateurs/token-123/photo-profil")
+                        .param("taille", "48")
+                        .param("v", "0123456789abcdef")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable"));
+    }
+
+    @Test
+    @DisplayName("chargerPhotoProfil - Devrait servir la plage d'octets demandée en 206")
+    void chargerPhotoProfil_WithRange_ShouldReturnPartialContent() throws Exception {
+        byte[] contenu = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        when(utilisateurService.chargerPhotoProfil("token-123", null, null))
+                .thenReturn(new PhotoProfilContenu(
+                        new ByteArrayInputStream(contenu), contenu.length, "image/png", "\"abc\"", "0123456789abcdef"));
+
+        MvcResult resultat = mockMvc.perform(get("/api/v1/utilisateurs/token-123/photo-profil")
+                        .header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultat))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+                .andExpect(content().bytes("2345".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    @DisplayName("chargerPhotosProfil - Devrait refuser une taille invalide avant d'ouvrir le flux")
+    void chargerPhotosProfil_WithInvalidSize_ShouldReturn400BeforeStreaming() throws Exception {
+        mockMvc.perform(post("/api/v1/utilisateurs/photos-profil/lot")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tokenIds\": [\"token-1\"], \"taille\": 0}"))
+                .andExpect(status().isBadRequest());
+
+        verify(utilisateurService, never()).parcourirPhotosProfil(any(), any(), any(), any());
+    }
 }
@@ -0,0 +1,75 @@
+package com.tarnof.enjoyrestapi.excel;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Tests unitaires pour ExcelExportWriter")
+class ExcelExportWriterTest {
+
+    private record Personne(String nom, Integer age, LocalDate arrivee, List<String> groupes, boolean pai) {}
+
+    private static final ExcelExportSpec<Personne> SPEC = ExcelExportSpec.<Personne>feuille("Personnes")
+            .colonne("Nom", Personne::nom)
+            .colonne("Âge", Personne::age)
+            .colonne("Arrivée", Personne::arrivee)
+            .colonne("Groupes", Personne::groupes)
+            .colonne("PAI", Personne::pai)
+            .build();
+
+    @Test
+    @DisplayName("Devrait écrire l'en-tête puis une ligne par élément de la source")
+    void shouldWriteHeaderAndRows() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ExcelExportWriter.ecrire(out, SPEC, lignes -> {
+            lignes.ajouter(new Personne("Martin", 9, LocalDate.of(2026, 7, 6), List.of("Loups", "Chats"), true));
+            lignes.ajouter(new Personne("Durand", null, null, List.of(), false));
+        });
+
+        try (Workbook classeur = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet feuille = classeur.getSheet("Personnes");
+            assertThat(feuille).isNotNull();
+            assertThat(feuille.getLastRowNum()).isEqualTo(2);
+
+            Row entete = feuille.getRow(0);
+            assertThat(entete.getCell(0).getStringCellValue()).isEqualTo("Nom");
+            assertThat(entete.getCell(4).getStringCellValue()).isEqualTo("PAI");
+
+            Row premiere = feuille.getRow(1);
+            assertThat(premiere.getCell(0).getStringCellValue()).isEqualTo("Martin");
+            assertThat(premiere.getCell(1).getNumericCellValue()).isEqualTo(9.0);
+            assertThat(premiere.getCell(2).getLocalDateTimeCellValue().toLocalDate()).isEqualTo(LocalDate.of(2026, 7, 6));
+            assertThat(premiere.getCell(3).getStringCellValue()).isEqualTo("Loups, Chats");
+            assertThat(premiere.getCell(4).getStringCellValue()).isEqualTo("Oui");
+
+            Row seconde = feuille.getRow(2);
+            assertThat(seconde.getCell(1, Row.MissingCellPolicy.RETURN_BLANK_AS_NULL)).isNull();
+            assertThat(seconde.getCell(4).getStringCellValue()).isEqualTo("Non");
+        }
+    }
+
+    @Test
+    @DisplayName("Ne devrait rien écrire dans la sortie si la source échoue")
+    void shouldWriteNothingWhenSourceFails() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThatThrownBy(() -> ExcelExportWriter.ecrire(out, SPEC, lignes -> {
+            throw new IllegalArgumentException("Séjour introuvable");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(out.size()).isZero();
+    }
+}
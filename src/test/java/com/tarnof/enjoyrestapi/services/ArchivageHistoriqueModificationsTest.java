@@ -0,0 +1,134 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.tarnof.enjoyrestapi.entities.HistoriqueArchiveSegment;
+import com.tarnof.enjoyrestapi.entities.HistoriqueModification;
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationAction;
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationType;
+import com.tarnof.enjoyrestapi.repositories.HistoriqueArchiveSegmentRepository;
+import com.tarnof.enjoyrestapi.repositories.HistoriqueModificationRepository;
+import com.tarnof.enjoyrestapi.services.storage.ObjectStorageService;
+import com.tarnof.enjoyrestapi.utils.CodecHistorique;
+import com.tarnof.enjoyrestapi.utils.SegmentHistorique;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour ArchivageHistoriqueModifications (relecture des segments)")
+class ArchivageHistoriqueModificationsTest {
+
+    private static final ArchivageHistoriqueModifications.FiltreFil SANS_FILTRE =
+            new ArchivageHistoriqueModifications.FiltreFil(null, null, null, null, null, null);
+
+    @Mock
+    private HistoriqueModificationRepository historiqueModificationRepository;
+
+    @Mock
+    private HistoriqueArchiveSegmentRepository segmentRepository;
+
+    @Mock
+    private ObjectStorageService objectStorageService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ArchivageHistoriqueModifications archivage;
+
+    private final String cleDonnees = ArchivageHistoriqueModifications.cleDonnees(1, 1);
+
+    @BeforeEach
+    void setUp() {
+        archivage = new ArchivageHistoriqueModifications(
+                historiqueModificationRepository, segmentRepository, objectStorageService, transactionManager, true, 12);
+        SegmentHistorique.Segment segment = SegmentHistorique.ecrire(List.of(
+                ligne(1, HistoriqueModificationType.CHAMBRE, 7, "2025-07-01T08:00:00Z"),
+                ligne(2, HistoriqueModificationType.CHAMBRE, 7, "2025-07-02T08:00:00Z"),
+                ligne(3, HistoriqueModificationType.ACTIVITE, 4, "2025-07-10T08:00:00Z"),
+                ligne(4, HistoriqueModificationType.ACTIVITE, 4, "2025-07-11T08:00:00Z")));
+        when(segmentRepository.findBySejourIdOrderByNumeroAsc(1))
+                .thenReturn(List.of(new HistoriqueArchiveSegment(1, 1, 4, segment.donnees().length, Instant.EPOCH)));
+        when(objectStorageService.download(ArchivageHistoriqueModifications.cleIndex(1, 1)))
+                .thenReturn(Optional.of(objet(segment.index())));
+        lenient().when(objectStorageService.downloadRange(eq(cleDonnees), anyLong(), anyInt())).thenAnswer(invocation -> {
+            int position = (int) (long) invocation.getArgument(1);
+            int longueur = invocation.getArgument(2);
+            return Optional.of(objet(Arrays.copyOfRange(segment.donnees(), position, position + longueur)));
+        });
+    }
+
+    @Test
+    @DisplayName("Fil du séjour : ne lit que les blocs nécessaires à la page, du plus récent au plus ancien")
+    void lireSejour_ShouldStopOnceOlderBlocksCannotEnterThePage() {
+        List<HistoriqueModification> lues = archivage.lireSejour(1, SANS_FILTRE, 2);
+
+        assertThat(lues).extracting(HistoriqueModification::getId).containsExactly(4, 3);
+        verify(objectStorageService, times(1)).downloadRange(eq(cleDonnees), anyLong(), anyInt());
+        verify(objectStorageService, never()).download(cleDonnees);
+    }
+
+    @Test
+    @DisplayName("Fil du séjour : blocs hors type, hors fenêtre ou après le curseur écartés sans lecture")
+    void lireSejour_ShouldSkipBlocksOutsideFilterWithoutReadingThem() {
+        List<HistoriqueModification> parType = archivage.lireSejour(1,
+                new ArchivageHistoriqueModifications.FiltreFil(
+                        HistoriqueModificationType.CHAMBRE, null, null, null, null, null),
+                10);
+        List<HistoriqueModification> apresCurseur = archivage.lireSejour(1,
+                new ArchivageHistoriqueModifications.FiltreFil(
+                        null, null, null, null, Instant.parse("2025-07-09T08:00:00Z"), 0),
+                10);
+
+        assertThat(parType).extracting(HistoriqueModification::getId).containsExactly(2, 1);
+        assertThat(apresCurseur).extracting(HistoriqueModification::getId).containsExactly(2, 1);
+        verify(objectStorageService, times(2)).downloadRange(eq(cleDonnees), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Historique d'un élément : seul son bloc est téléchargé")
+    void lireElement_ShouldReadOnlyTheElementBlock() {
+        List<HistoriqueModification> lues = archivage.lireElement(1, HistoriqueModificationType.ACTIVITE, 4);
+
+        assertThat(lues).extracting(HistoriqueModification::getId).containsExactly(4, 3);
+        verify(objectStorageService, times(1)).downloadRange(eq(cleDonnees), anyLong(), anyInt());
+    }
+
+    private static ObjectStorageService.StoredObject objet(byte[] octets) {
+        return new ObjectStorageService.StoredObject(
+                new ByteArrayInputStream(octets), octets.length, "application/octet-stream");
+    }
+
+    private static SegmentHistorique.Ligne ligne(int id, HistoriqueModificationType type, int cibleId, String date) {
+        return new SegmentHistorique.Ligne(
+                id,
+                type,
+                cibleId,
+                HistoriqueModificationAction.MODIFICATION,
+                Instant.parse(date),
+                "dir-token",
+                "Martin",
+                "Alice",
+                null,
+                null,
+                CodecHistorique.encoder("avant", "après"));
+    }
+}
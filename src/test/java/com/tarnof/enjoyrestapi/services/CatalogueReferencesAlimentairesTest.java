@@ -0,0 +1,88 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.tarnof.enjoyrestapi.entities.ReferenceAlimentaire;
+import com.tarnof.enjoyrestapi.enums.TypeReferenceAlimentaire;
+import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
+import com.tarnof.enjoyrestapi.payload.response.ReferenceAlimentaireDto;
+import com.tarnof.enjoyrestapi.repositories.ReferenceAlimentaireRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour CatalogueReferencesAlimentaires")
+class CatalogueReferencesAlimentairesTest {
+
+    @Mock
+    private ReferenceAlimentaireRepository referenceAlimentaireRepository;
+
+    private CatalogueReferencesAlimentaires catalogue;
+
+    @BeforeEach
+    void setUp() {
+        catalogue = new CatalogueReferencesAlimentaires(referenceAlimentaireRepository);
+        when(referenceAlimentaireRepository.findAll()).thenReturn(List.of(
+                reference(2, TypeReferenceAlimentaire.ALLERGENE, "Lait", 70),
+                reference(1, TypeReferenceAlimentaire.ALLERGENE, "Gluten", 10),
+                reference(3, TypeReferenceAlimentaire.REGIME_PREFERENCE, "Sans porc", 10)));
+        catalogue.recharger();
+    }
+
+    @Test
+    @DisplayName("lister - Trié par type, ordre puis id, sans nouvelle lecture en base")
+    void lister_ShouldServeFromMemory() {
+        assertThat(catalogue.lister(null)).extracting(ReferenceAlimentaireDto::id).containsExactly(1, 2, 3);
+        assertThat(catalogue.lister(TypeReferenceAlimentaire.REGIME_PREFERENCE))
+                .extracting(ReferenceAlimentaireDto::libelle)
+                .containsExactly("Sans porc");
+        verify(referenceAlimentaireRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("verifierIds - Ids dédoublonnés ; id inconnu 404, type inattendu ou null 400")
+    void verifierIds_ShouldValidateAgainstCatalogue() {
+        assertThat(catalogue.verifierIds(List.of(2, 1, 2), TypeReferenceAlimentaire.ALLERGENE)).containsExactly(2, 1);
+        assertThatThrownBy(() -> catalogue.verifierIds(List.of(99), TypeReferenceAlimentaire.ALLERGENE))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> catalogue.verifierIds(List.of(3), TypeReferenceAlimentaire.ALLERGENE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> catalogue.verifierIds(Arrays.asList(1, null), TypeReferenceAlimentaire.ALLERGENE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("publier / retirer - Nouvel instantané ; une liste déjà lue reste inchangée")
+    void publierEtRetirer_ShouldSwapSnapshot() {
+        List<ReferenceAlimentaireDto> avant = catalogue.lister(TypeReferenceAlimentaire.ALLERGENE);
+
+        catalogue.publier(new ReferenceAlimentaireDto(4, TypeReferenceAlimentaire.ALLERGENE, "Soja", 60, true));
+        catalogue.publier(new ReferenceAlimentaireDto(2, TypeReferenceAlimentaire.ALLERGENE, "Lait de vache", 70, false));
+        catalogue.retirer(1);
+
+        assertThat(avant).extracting(ReferenceAlimentaireDto::id).containsExactly(1, 2);
+        assertThat(catalogue.lister(TypeReferenceAlimentaire.ALLERGENE))
+                .extracting(ReferenceAlimentaireDto::libelle)
+                .containsExactly("Soja", "Lait de vache");
+        assertThat(catalogue.trouver(1)).isEmpty();
+    }
+
+    private static ReferenceAlimentaire reference(int id, TypeReferenceAlimentaire type, String libelle, int ordre) {
+        ReferenceAlimentaire r = new ReferenceAlimentaire();
+        r.setId(id);
+        r.setType(type);
+        r.setLibelle(libelle);
+        r.setOrdre(ordre);
+        r.setActif(true);
+        return r;
+    }
+}
@@ -0,0 +1,149 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationAction;
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationType;
+import com.tarnof.enjoyrestapi.utils.CodecHistorique;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour EcrivainHistoriqueModifications")
+class EcrivainHistoriqueModificationsTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EcrivainHistoriqueModifications ecrivain;
+
+    @BeforeEach
+    void setUp() {
+        ecrivain = new EcrivainHistoriqueModifications(jdbcTemplate, transactionManager, Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("Devrait écrire les événements d'une transaction validée par lots de 200")
+    void publier_ShouldInsertCommittedEventsInBatches() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ArgumentCaptor<BatchPreparedStatementSetter> lots = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        when(jdbcTemplate.batchUpdate(anyString(), lots.capture())).thenReturn(new int[0]);
+
+        terminerTransaction(TransactionSynchronization.STATUS_COMMITTED, 250);
+
+        assertThat(lots.getAllValues()).extracting(BatchPreparedStatementSetter::getBatchSize).containsExactly(200, 50);
+    }
+
+    @Test
+    @DisplayName("Arrêt : le fil d'arrêt écrit la file restante quand le fil dédié dépasse l'attente, sans rien perdre")
+    void stop_WhenWorkerOutlivesTimeout_ShouldDrainQueueOnShutdownThread() throws Exception {
+        ecrivain = new EcrivainHistoriqueModifications(jdbcTemplate, transactionManager, Duration.ofMillis(50));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CountDownLatch premierLotCommence = new CountDownLatch(1);
+        CountDownLatch liberation = new CountDownLatch(1);
+        AtomicInteger ecrits = new AtomicInteger();
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            BatchPreparedStatementSetter lot = invocation.getArgument(1);
+            if (premierLotCommence.getCount() > 0) {
+                premierLotCommence.countDown();
+                liberation.await(5, TimeUnit.SECONDS);
+            }
+            ecrits.addAndGet(lot.getBatchSize());
+            return new int[0];
+        });
+        ecrivain.start();
+        ecrivain.publier(evenement(0));
+        assertThat(premierLotCommence.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i <= 450; i++) {
+            ecrivain.publier(evenement(i));
+        }
+        Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            liberation.countDown();
+        });
+
+        ecrivain.stop();
+
+        assertThat(ecrits.get()).isEqualTo(451);
+        assertThat(ecrivain.isRunning()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Ne devrait rien écrire si la transaction est annulée")
+    void publier_ShouldDropRolledBackEvents() {
+        terminerTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, 3);
+
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Devrait renseigner la colonne propre au type et laisser les autres à NULL")
+    void lier_ShouldBindTypeSpecificColumn() throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+
+        EcrivainHistoriqueModifications.lier(ps, new EcrivainHistoriqueModifications.Evenement(
+                HistoriqueModificationType.CHAMBRE, HistoriqueModificationAction.MODIFICATION, 5,
+                Instant.parse("2026-07-14T10:00:00Z"), 3, 42, null, null, "avant", "après"));
+
+        verify(ps).setString(1, "CHAMBRE");
+        verify(ps).setInt(4, 3);
+        verify(ps).setBytes(5, CodecHistorique.encoder("avant", "après"));
+        verify(ps).setInt(11, 42);
+        verify(ps).setNull(6, Types.INTEGER);
+        verify(ps).setNull(7, Types.DATE);
+        verify(ps).setNull(eq(12), eq(Types.INTEGER));
+        verify(ps).setInt(13, 5);
+    }
+
+    private void terminerTransaction(int statut, int nbEvenements) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int i = 0; i < nbEvenements; i++) {
+                ecrivain.publier(evenement(i));
+            }
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(statut));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static EcrivainHistoriqueModifications.Evenement evenement(int i) {
+        return new EcrivainHistoriqueModifications.Evenement(
+                HistoriqueModificationType.PLANNING_CELLULE, HistoriqueModificationAction.MODIFICATION, 5,
+                Instant.now(), 1, 7, LocalDate.of(2026, 7, 14), i, null, "valeur " + i);
+    }
+}
@@ -0,0 +1,85 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarnof.enjoyrestapi.enums.TypeDocumentRecherche;
+import com.tarnof.enjoyrestapi.services.IndexRechercheSejours.CleDocument;
+import com.tarnof.enjoyrestapi.services.IndexRechercheSejours.Resultat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour IndexRechercheSejours")
+class IndexRechercheSejoursTest {
+
+    private static final CleDocument ENTREE = new CleDocument(TypeDocumentRecherche.ENTREE_INFIRMERIE, 1);
+    private static final CleDocument REUNION = new CleDocument(TypeDocumentRecherche.REUNION, 2);
+
+    @TempDir
+    Path repertoire;
+
+    private final AtomicInteger constructions = new AtomicInteger();
+    private IndexRechercheSejours index;
+
+    @BeforeEach
+    void setUp() {
+        index = nouvelIndex();
+    }
+
+    @Test
+    @DisplayName("Devrait exiger tous les termes et tolérer accents, préfixes et fautes de frappe")
+    void rechercher_ShouldMatchAllTermsWithTolerance() {
+        assertThat(cles(index.rechercher(1, List.of("fievre"), 10, this::documents))).containsExactly(ENTREE);
+        assertThat(cles(index.rechercher(1, List.of("paracet"), 10, this::documents))).containsExactly(ENTREE);
+        assertThat(cles(index.rechercher(1, List.of("fivre", "paracetamol"), 10, this::documents))).containsExactly(ENTREE);
+        assertThat(index.rechercher(1, List.of("fievre", "sortie"), 10, this::documents)).isEmpty();
+        assertThat(constructions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Devrait relire l'index sur disque au redémarrage, mises à jour comprises, sans reconstruction")
+    void rechercher_ShouldReloadPersistedIndex() {
+        index.rechercher(1, List.of("fievre"), 10, this::documents);
+        index.retirer(1, TypeDocumentRecherche.ENTREE_INFIRMERIE, 1);
+
+        IndexRechercheSejours apresRedemarrage = nouvelIndex();
+
+        assertThat(apresRedemarrage.rechercher(1, List.of("fievre"), 10, this::documents)).isEmpty();
+        assertThat(cles(apresRedemarrage.rechercher(1, List.of("sortie"), 10, this::documents))).containsExactly(REUNION);
+        assertThat(constructions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Devrait extraire le texte du document TipTap d'une réunion")
+    void texteReunion_ShouldExtractTipTapText() {
+        String json = "{\"type\":\"doc\",\"content\":[{\"type\":\"paragraph\",\"content\":["
+                + "{\"type\":\"text\",\"text\":\"Sortie \"},{\"type\":\"text\",\"marks\":[{\"type\":\"bold\"}],"
+                + "\"text\":\"piscine\"}]}]}";
+
+        assertThat(index.texteReunion("Bilan", json)).isEqualTo("Bilan\nSortie piscine\n\n");
+    }
+
+    private IndexRechercheSejours nouvelIndex() {
+        return new IndexRechercheSejours(new ObjectMapper(), repertoire.toString());
+    }
+
+    private Map<CleDocument, String> documents() {
+        constructions.incrementAndGet();
+        Map<CleDocument, String> documents = new LinkedHashMap<>();
+        documents.put(ENTREE, "Fièvre 38,6 ; Paracétamol donné à 14h");
+        documents.put(REUNION, "Préparation de la sortie au lac");
+        return documents;
+    }
+
+    private static List<CleDocument> cles(List<Resultat> resultats) {
+        return resultats.stream().map(Resultat::cle).toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.tarnof.enjoyrestapi.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour InvalidationCache")
+class InvalidationCacheTest {
+
+    private final InvalidationCache invalidation = new InvalidationCache();
+    private final AtomicInteger suppressions = new AtomicInteger();
+
+    @Test
+    @DisplayName("Devrait supprimer immédiatement et signaler le changement de génération hors transaction")
+    void invalider_ShouldRunOnceOutsideTransaction() {
+        long avant = invalidation.generation();
+
+        invalidation.invalider(suppressions::incrementAndGet);
+
+        assertThat(suppressions).hasValue(1);
+        assertThat(invalidation.inchangee(avant)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Devrait rejouer la suppression et avancer la génération à la fin de la transaction")
+    void invalider_ShouldReplayAfterCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            invalidation.invalider(suppressions::incrementAndGet);
+            long pendantTransaction = invalidation.generation();
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            assertThat(suppressions).hasValue(2);
+            assertThat(invalidation.inchangee(pendantTransaction)).isFalse();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Devrait avancer la génération sans rien supprimer")
+    void avancer_ShouldOnlyChangeGeneration() {
+        long avant = invalidation.generation();
+
+        invalidation.avancer();
+
+        assertThat(invalidation.inchangee(avant)).isFalse();
+        assertThat(suppressions).hasValue(0);
+    }
+}
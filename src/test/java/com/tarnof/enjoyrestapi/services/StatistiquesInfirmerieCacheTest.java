@@ -0,0 +1,82 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.tarnof.enjoyrestapi.payload.response.StatistiquesJourInfirmerieDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour StatistiquesInfirmerieCache")
+class StatistiquesInfirmerieCacheTest {
+
+    private static final LocalDate JOUR = LocalDate.of(2026, 7, 14);
+
+    private final StatistiquesInfirmerieCache cache = new StatistiquesInfirmerieCache();
+    private final List<List<LocalDate>> calculs = new ArrayList<>();
+
+    @Test
+    @DisplayName("Devrait servir le même jour depuis le cache, quelle que soit l'écriture du seuil")
+    void obtenir_ShouldCachePerDayAndThreshold() {
+        StatistiquesJourInfirmerieDto premier = cache.obtenir(1, JOUR, JOUR, new BigDecimal("38.0"), this::calculer).get(0);
+        StatistiquesJourInfirmerieDto second = cache.obtenir(1, JOUR, JOUR, new BigDecimal("38"), this::calculer).get(0);
+        cache.obtenir(1, JOUR, JOUR, new BigDecimal("39.5"), this::calculer);
+        cache.obtenir(2, JOUR, JOUR, new BigDecimal("38.0"), this::calculer);
+
+        assertThat(second).isSameAs(premier);
+        assertThat(calculs).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Devrait calculer en un seul appel l'intervalle couvrant les jours manquants")
+    void obtenir_ShouldComputeMissingDaysInOneCall() {
+        cache.obtenir(1, JOUR.plusDays(2), JOUR.plusDays(2), new BigDecimal("38.0"), this::calculer);
+
+        List<StatistiquesJourInfirmerieDto> jours =
+                cache.obtenir(1, JOUR, JOUR.plusDays(4), new BigDecimal("38.0"), this::calculer);
+
+        assertThat(jours).extracting(StatistiquesJourInfirmerieDto::jour)
+                .containsExactly(JOUR, JOUR.plusDays(1), JOUR.plusDays(2), JOUR.plusDays(3), JOUR.plusDays(4));
+        assertThat(calculs).containsExactly(
+                List.of(JOUR.plusDays(2), JOUR.plusDays(2)), List.of(JOUR, JOUR.plusDays(4)));
+    }
+
+    @Test
+    @DisplayName("Devrait recalculer un jour invalidé sans toucher aux autres jours")
+    void invaliderJour_ShouldOnlyDropThatDay() {
+        cache.obtenir(1, JOUR, JOUR.plusDays(1), new BigDecimal("38.0"), this::calculer);
+
+        cache.invaliderJour(1, JOUR);
+        cache.obtenir(1, JOUR, JOUR.plusDays(1), new BigDecimal("38.0"), this::calculer);
+        cache.obtenir(1, JOUR.plusDays(1), JOUR.plusDays(1), new BigDecimal("38.0"), this::calculer);
+
+        assertThat(calculs).containsExactly(List.of(JOUR, JOUR.plusDays(1)), List.of(JOUR, JOUR));
+    }
+
+    @Test
+    @DisplayName("Devrait oublier les journées les moins récemment lues au-delà de la taille maximale")
+    void obtenir_ShouldEvictLeastRecentlyReadDays() {
+        LocalDate dernier = JOUR.plusDays(StatistiquesInfirmerieCache.NB_JOURS_MAX);
+        cache.obtenir(1, JOUR, dernier, new BigDecimal("38.0"), this::calculer);
+
+        cache.obtenir(1, dernier, dernier, new BigDecimal("38.0"), this::calculer);
+        cache.obtenir(1, JOUR, JOUR, new BigDecimal("38.0"), this::calculer);
+
+        assertThat(calculs).containsExactly(List.of(JOUR, dernier), List.of(JOUR, JOUR));
+    }
+
+    private Map<LocalDate, StatistiquesJourInfirmerieDto> calculer(LocalDate premierJour, LocalDate dernierJour) {
+        calculs.add(List.of(premierJour, dernierJour));
+        Map<LocalDate, StatistiquesJourInfirmerieDto> jours = new LinkedHashMap<>();
+        for (LocalDate jour = premierJour; !jour.isAfter(dernierJour); jour = jour.plusDays(1)) {
+            jours.put(jour, new StatistiquesJourInfirmerieDto(jour, 0, 0, Map.of(), Map.of()));
+        }
+        return jours;
+    }
+}
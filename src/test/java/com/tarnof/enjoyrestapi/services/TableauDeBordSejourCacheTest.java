@@ -0,0 +1,74 @@
+package com.tarnof.enjoyrestapi.services;
+
+import com.tarnof.enjoyrestapi.payload.response.TableauDeBordSejourDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Tests unitaires pour TableauDeBordSejourCache")
+class TableauDeBordSejourCacheTest {
+
+    private final AtomicInteger calculs = new AtomicInteger();
+
+    @Test
+    @DisplayName("Devrait servir le tableau de bord depuis le cache tant qu'il n'a pas expiré, par séjour")
+    void obtenir_ShouldCachePerSejourUntilExpiry() {
+        TableauDeBordSejourCache cache = new TableauDeBordSejourCache(Duration.ofMinutes(1));
+
+        TableauDeBordSejourDto premier = cache.obtenir(1, () -> calculer(1));
+        TableauDeBordSejourDto second = cache.obtenir(1, () -> calculer(1));
+        cache.obtenir(2, () -> calculer(2));
+
+        assertThat(second).isSameAs(premier);
+        assertThat(calculs).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Devrait recalculer une fois la durée écoulée")
+    void obtenir_WhenExpired_ShouldRecompute() {
+        TableauDeBordSejourCache cache = new TableauDeBordSejourCache(Duration.ZERO);
+
+        cache.obtenir(1, () -> calculer(1));
+        cache.obtenir(1, () -> calculer(1));
+
+        assertThat(calculs).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Devrait retirer les entrées expirées des séjours qui ne sont plus consultés")
+    void obtenir_ShouldEvictExpiredEntriesOfOtherSejours() {
+        TableauDeBordSejourCache cache = new TableauDeBordSejourCache(Duration.ZERO);
+
+        cache.obtenir(1, () -> calculer(1));
+        cache.obtenir(2, () -> calculer(2));
+        cache.obtenir(3, () -> calculer(3));
+
+        assertThat(cache.taille()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas conserver un calcul en échec")
+    void obtenir_WhenCalculFails_ShouldNotCache() {
+        TableauDeBordSejourCache cache = new TableauDeBordSejourCache(Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> cache.obtenir(1, () -> {
+            throw new IllegalStateException("base indisponible");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("base indisponible");
+        cache.obtenir(1, () -> calculer(1));
+
+        assertThat(calculs).hasValue(1);
+    }
+
+    private TableauDeBordSejourDto calculer(int sejourId) {
+        calculs.incrementAndGet();
+        return new TableauDeBordSejourDto(sejourId, Instant.now(), 0, 0, 0, 0, 0, 0, 0, 0, List.of(),
+                new TableauDeBordSejourDto.OccupationChambres(0, 0, 0), 0);
+    }
+}
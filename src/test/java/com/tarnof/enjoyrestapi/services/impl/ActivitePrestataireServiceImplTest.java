@@ -97,6 +97,7 @@ class ActivitePrestataireServiceImplTest {
 
         verify(historiqueModificationService)
                 .enregistrerActivitePrestataire(
+                        eq(10),
                         eq(MODIFICATEUR_TOKEN),
                         eq(HistoriqueModificationAction.CREATION),
                         eq(99),
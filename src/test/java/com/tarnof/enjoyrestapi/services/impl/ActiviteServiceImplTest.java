@@ -35,6 +35,7 @@ import com.tarnof.enjoyrestapi.repositories.TypeActiviteRepository;
 import com.tarnof.enjoyrestapi.repositories.UtilisateurRepository;
 import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
 import com.tarnof.enjoyrestapi.services.SejourVerificationService;
+import jakarta.persistence.EntityManager;
 import org.springframework.security.access.AccessDeniedException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -89,6 +90,8 @@ class ActiviteServiceImplTest {
     private TypeActiviteRepository typeActiviteRepository;
     @Mock
     private HistoriqueModificationService historiqueModificationService;
+    @Mock
+    private EntityManager entityManager;
 
     private ActiviteServiceImpl activiteService;
     private Sejour sejour;
@@ -110,7 +113,8 @@ class ActiviteServiceImplTest {
                 lieuRepository,
                 momentRepository,
                 typeActiviteRepository,
-                historiqueModificationService);
+                historiqueModificationService,
+                entityManager);
         sejour = Sejour.builder()
                 .id(1)
                 .nom("Colo")
@@ -167,6 +171,26 @@ class ActiviteServiceImplTest {
         assertThat(result.getFirst().membres().getFirst().tokenId()).isEqualTo("mem-1");
     }
 
+    @Test
+    @DisplayName("parcourirActivitesDuSejour - écrit les activités dans l'ordre du listing, par lots")
+    void parcourir_ShouldWriteInListingOrder() throws Exception {
+        Activite a3 = activitePersistee(3, List.of(membre));
+        Activite a4 = activitePersistee(4, List.of(membre));
+        when(utilisateurRepository.findByTokenId("appelant-token")).thenReturn(Optional.of(appelantAdmin));
+        when(activiteRepository.findIdsBySejourIdOrderByDateAscIdAsc(1)).thenReturn(List.of(4, 3));
+        when(activiteRepository.findByIdInFetchingMomentLieuType(List.of(4, 3))).thenReturn(List.of(a3, a4));
+
+        List<ActiviteDto> ecrites = new ArrayList<>();
+        activiteService.parcourirActivitesDuSejour(1, "appelant-token", ecrites::add);
+
+        assertThat(ecrites).extracting(ActiviteDto::id).containsExactly(4, 3);
+        verify(entityManager).clear();
+        verify(activiteRepository).fetchMembresByIds(List.of(4, 3));
+        verify(activiteRepository).fetchGroupesByIds(List.of(4, 3));
+        verify(activiteRepository).fetchEnfantsByIds(List.of(4, 3));
+        verify(activiteRepository, never()).findBySejourIdOrderByDateAscIdAsc(anyInt());
+    }
+
     @Test
     @DisplayName("listerActivitesDuSejour - séjour absent")
     void lister_whenSejourMissing_shouldThrow() {
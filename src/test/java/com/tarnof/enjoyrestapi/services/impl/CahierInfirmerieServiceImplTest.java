@@ -0,0 +1,255 @@
+package com.tarnof.enjoyrestapi.services.impl;
+
+import com.tarnof.enjoyrestapi.entities.CahierInfirmerieEntree;
+import com.tarnof.enjoyrestapi.entities.Enfant;
+import com.tarnof.enjoyrestapi.entities.Sejour;
+import com.tarnof.enjoyrestapi.enums.TypeAppelInfirmerie;
+import com.tarnof.enjoyrestapi.enums.TypeSoinInfirmerie;
+import com.tarnof.enjoyrestapi.payload.request.FiltreCahierInfirmerieRequest;
+import com.tarnof.enjoyrestapi.payload.response.CahierInfirmerieEntreeDto;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
+import com.tarnof.enjoyrestapi.payload.response.StatistiquesCahierInfirmerieDto;
+import com.tarnof.enjoyrestapi.payload.response.StatistiquesJourInfirmerieDto;
+import com.tarnof.enjoyrestapi.repositories.CahierInfirmerieEntreeRepository;
+import com.tarnof.enjoyrestapi.repositories.SejourEnfantRepository;
+import com.tarnof.enjoyrestapi.repositories.UtilisateurRepository;
+import com.tarnof.enjoyrestapi.repositories.projections.AppelInfirmerieCompteProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieAppelProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieSoinProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.CahierInfirmerieTotauxProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.EnfantPassagesInfirmerieProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.SoinInfirmerieCompteProjection;
+import com.tarnof.enjoyrestapi.services.HistoriqueModificationService;
+import com.tarnof.enjoyrestapi.services.IndexRechercheSejours;
+import com.tarnof.enjoyrestapi.services.SejourVerificationService;
+import com.tarnof.enjoyrestapi.services.StatistiquesInfirmerieCache;
+import com.tarnof.enjoyrestapi.utils.CurseurPagination;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour CahierInfirmerieServiceImpl")
+class CahierInfirmerieServiceImplTest {
+
+    private static final String TOKEN_ID = "token-directeur";
+    private static final LocalDate JOUR = LocalDate.of(2026, 7, 14);
+    private static final BigDecimal SEUIL = new BigDecimal("38.0");
+
+    @Mock
+    private CahierInfirmerieEntreeRepository cahierInfirmerieEntreeRepository;
+
+    @Mock
+    private SejourEnfantRepository sejourEnfantRepository;
+
+    @Mock
+    private UtilisateurRepository utilisateurRepository;
+
+    @Mock
+    private SejourVerificationService sejourVerificationService;
+
+    @Mock
+    private HistoriqueModificationService historiqueModificationService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private IndexRechercheSejours indexRechercheSejours;
+
+    private CahierInfirmerieServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CahierInfirmerieServiceImpl(
+                cahierInfirmerieEntreeRepository,
+                sejourEnfantRepository,
+                utilisateurRepository,
+                sejourVerificationService,
+                historiqueModificationService,
+                entityManager,
+                new StatistiquesInfirmerieCache(),
+                indexRechercheSejours);
+    }
+
+    @Test
+    @DisplayName("Devrait lire un id de plus que la taille et renvoyer le curseur de la dernière entrée")
+    void listerPageEntreesDuSejour_ShouldReturnNextCursorWhenMoreRows() {
+        // Given
+        CahierInfirmerieEntree recente = entree(3, Instant.parse("2026-07-14T10:00:00Z"));
+        CahierInfirmerieEntree ancienne = entree(2, Instant.parse("2026-07-14T08:00:00Z"));
+        when(cahierInfirmerieEntreeRepository.findPageIds(
+                1, null, null, null, null, null, null, null, PageRequest.of(0, 3)))
+                .thenReturn(List.of(3, 2, 1));
+        when(cahierInfirmerieEntreeRepository.findByIdInWithEnfantAndCreateur(List.of(3, 2)))
+                .thenReturn(List.of(ancienne, recente));
+        when(cahierInfirmerieEntreeRepository.findSoinsByEntreeIdIn(List.of(3, 2)))
+                .thenReturn(List.of(new CahierInfirmerieSoinProjection(3, TypeSoinInfirmerie.GLACE)));
+        when(cahierInfirmerieEntreeRepository.findAppelsByEntreeIdIn(List.of(3, 2)))
+                .thenReturn(List.of(new CahierInfirmerieAppelProjection(2, TypeAppelInfirmerie.PARENTS)));
+
+        // When
+        PageCurseurDto<CahierInfirmerieEntreeDto> page = service.listerPageEntreesDuSejour(
+                1, new FiltreCahierInfirmerieRequest(null, null, null, null, null), null, 2, TOKEN_ID);
+
+        // Then
+        assertThat(page.elements()).extracting(CahierInfirmerieEntreeDto::id).containsExactly(3, 2);
+        assertThat(page.elements().get(0).soins()).containsExactly(TypeSoinInfirmerie.GLACE);
+        assertThat(page.elements().get(1).appels()).containsExactly(TypeAppelInfirmerie.PARENTS);
+        assertThat(page.curseurSuivant())
+                .isEqualTo(CurseurPagination.encoder("2026-07-14T08:00:00Z", 2));
+        verify(cahierInfirmerieEntreeRepository, times(1)).findSoinsByEntreeIdIn(any());
+        verify(cahierInfirmerieEntreeRepository, times(1)).findAppelsByEntreeIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Devrait transmettre les filtres et la position du curseur, sans page suivante sur une page partielle")
+    void listerPageEntreesDuSejour_ShouldPassFiltersAndCursor() {
+        // Given
+        Instant du = Instant.parse("2026-07-10T00:00:00Z");
+        Instant au = Instant.parse("2026-07-20T00:00:00Z");
+        Instant apres = Instant.parse("2026-07-14T10:00:00Z");
+        CahierInfirmerieEntree entree = entree(41, Instant.parse("2026-07-14T09:00:00Z"));
+        when(cahierInfirmerieEntreeRepository.findPageIds(
+                1, 7, "token-soigneur", du, au, TypeSoinInfirmerie.PRISE_TEMPERATURE, apres, 42,
+                PageRequest.of(0, CurseurPagination.TAILLE_PAR_DEFAUT + 1)))
+                .thenReturn(List.of(41));
+        when(cahierInfirmerieEntreeRepository.findByIdInWithEnfantAndCreateur(List.of(41))).thenReturn(List.of(entree));
+        when(cahierInfirmerieEntreeRepository.findSoinsByEntreeIdIn(List.of(41))).thenReturn(List.of());
+        when(cahierInfirmerieEntreeRepository.findAppelsByEntreeIdIn(List.of(41))).thenReturn(List.of());
+
+        // When
+        PageCurseurDto<CahierInfirmerieEntreeDto> page = service.listerPageEntreesDuSejour(
+                1,
+                new FiltreCahierInfirmerieRequest(7, "token-soigneur", du, au, TypeSoinInfirmerie.PRISE_TEMPERATURE),
+                CurseurPagination.encoder(apres.toString(), 42),
+                null,
+                TOKEN_ID);
+
+        // Then
+        assertThat(page.elements()).extracting(CahierInfirmerieEntreeDto::id).containsExactly(41);
+        assertThat(page.curseurSuivant()).isNull();
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une fenêtre de dates inversée")
+    void listerPageEntreesDuSejour_ShouldRejectInvertedWindow() {
+        FiltreCahierInfirmerieRequest filtre = new FiltreCahierInfirmerieRequest(
+                null, null, Instant.parse("2026-07-20T00:00:00Z"), Instant.parse("2026-07-10T00:00:00Z"), null);
+
+        assertThatThrownBy(() -> service.listerPageEntreesDuSejour(1, filtre, null, null, TOKEN_ID))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(cahierInfirmerieEntreeRepository);
+    }
+
+    @Test
+    @DisplayName("Devrait replier les compteurs horaires en jours, à 0 pour les jours et types absents")
+    void statistiques_ShouldFoldHourlyCountsIntoDays() {
+        // Given
+        Instant debut = debutDuJour(JOUR);
+        Instant fin = debutDuJour(JOUR.plusDays(3));
+        when(cahierInfirmerieEntreeRepository.compterTotauxParHeure(1, debut, fin, SEUIL)).thenReturn(List.of(
+                new CahierInfirmerieTotauxProjection(heure(JOUR, 9), 2, 1),
+                new CahierInfirmerieTotauxProjection(heure(JOUR, 23), 1, 1),
+                new CahierInfirmerieTotauxProjection(heure(JOUR.plusDays(2), 0), 3, 0)));
+        when(cahierInfirmerieEntreeRepository.compterSoinsParHeureEtType(1, debut, fin)).thenReturn(List.of(
+                new SoinInfirmerieCompteProjection(heure(JOUR, 9), TypeSoinInfirmerie.PRISE_TEMPERATURE, 2),
+                new SoinInfirmerieCompteProjection(heure(JOUR, 23), TypeSoinInfirmerie.PRISE_TEMPERATURE, 1),
+                new SoinInfirmerieCompteProjection(heure(JOUR.plusDays(2), 0), TypeSoinInfirmerie.GLACE, 3)));
+        when(cahierInfirmerieEntreeRepository.compterAppelsParHeureEtType(1, debut, fin)).thenReturn(List.of(
+                new AppelInfirmerieCompteProjection(heure(JOUR, 23), TypeAppelInfirmerie.PARENTS, 1)));
+        when(cahierInfirmerieEntreeRepository.findEnfantsLesPlusVus(1, debut, fin, PageRequest.of(0, 10)))
+                .thenReturn(List.of(new EnfantPassagesInfirmerieProjection(7, "Léa", "Martin", 3)));
+
+        // When
+        StatistiquesCahierInfirmerieDto resultat =
+                service.statistiques(1, JOUR, JOUR.plusDays(2), null, null, TOKEN_ID);
+
+        // Then
+        assertThat(resultat.jours()).extracting(StatistiquesJourInfirmerieDto::jour)
+                .containsExactly(JOUR, JOUR.plusDays(1), JOUR.plusDays(2));
+        StatistiquesJourInfirmerieDto premier = resultat.jours().get(0);
+        assertThat(premier.entrees()).isEqualTo(3);
+        assertThat(premier.fievres()).isEqualTo(2);
+        assertThat(premier.soins()).hasSize(TypeSoinInfirmerie.values().length)
+                .containsEntry(TypeSoinInfirmerie.PRISE_TEMPERATURE, 3L)
+                .containsEntry(TypeSoinInfirmerie.GLACE, 0L);
+        assertThat(premier.appels()).hasSize(TypeAppelInfirmerie.values().length)
+                .containsEntry(TypeAppelInfirmerie.PARENTS, 1L);
+        StatistiquesJourInfirmerieDto vide = resultat.jours().get(1);
+        assertThat(vide.entrees()).isZero();
+        assertThat(vide.soins().values()).containsOnly(0L);
+        assertThat(resultat.jours().get(2).soins()).containsEntry(TypeSoinInfirmerie.GLACE, 3L);
+        assertThat(resultat.enfantsLesPlusVus()).hasSize(1);
+        verify(sejourVerificationService).verifierAppartenanceAuSejour(1, TOKEN_ID);
+    }
+
+    @Test
+    @DisplayName("Devrait ne relire que l'intervalle des jours absents du cache")
+    void statistiques_ShouldOnlyQueryMissingDays() {
+        // Given
+        when(cahierInfirmerieEntreeRepository.compterTotauxParHeure(eq(1), any(), any(), eq(SEUIL)))
+                .thenReturn(List.of());
+        when(cahierInfirmerieEntreeRepository.compterSoinsParHeureEtType(eq(1), any(), any())).thenReturn(List.of());
+        when(cahierInfirmerieEntreeRepository.compterAppelsParHeureEtType(eq(1), any(), any())).thenReturn(List.of());
+        when(cahierInfirmerieEntreeRepository.findEnfantsLesPlusVus(eq(1), any(), any(), any())).thenReturn(List.of());
+        service.statistiques(1, JOUR, JOUR.plusDays(1), SEUIL, 5, TOKEN_ID);
+
+        // When
+        service.statistiques(1, JOUR, JOUR.plusDays(3), SEUIL, 5, TOKEN_ID);
+
+        // Then
+        verify(cahierInfirmerieEntreeRepository, times(2)).compterTotauxParHeure(eq(1), any(), any(), eq(SEUIL));
+        verify(cahierInfirmerieEntreeRepository)
+                .compterTotauxParHeure(1, debutDuJour(JOUR), debutDuJour(JOUR.plusDays(2)), SEUIL);
+        verify(cahierInfirmerieEntreeRepository)
+                .compterTotauxParHeure(1, debutDuJour(JOUR.plusDays(2)), debutDuJour(JOUR.plusDays(4)), SEUIL);
+        verify(cahierInfirmerieEntreeRepository, times(2)).compterSoinsParHeureEtType(eq(1), any(), any());
+        verify(cahierInfirmerieEntreeRepository, times(2)).compterAppelsParHeureEtType(eq(1), any(), any());
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une période inversée sans interroger la base")
+    void statistiques_ShouldRejectInvertedPeriod() {
+        assertThatThrownBy(() -> service.statistiques(1, JOUR.plusDays(1), JOUR, null, null, TOKEN_ID))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(cahierInfirmerieEntreeRepository);
+    }
+
+    private static CahierInfirmerieEntree entree(int id, Instant dateHeure) {
+        CahierInfirmerieEntree entree = new CahierInfirmerieEntree();
+        entree.setId(id);
+        entree.setSejour(Sejour.builder().id(1).build());
+        entree.setEnfant(Enfant.builder().id(7).prenom("Léa").nom("Martin").build());
+        entree.setDateHeure(dateHeure);
+        entree.setDescription("Chute dans la cour");
+        return entree;
+    }
+
+    private static Instant debutDuJour(LocalDate jour) {
+        return jour.atStartOfDay(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static Instant heure(LocalDate jour, int heure) {
+        return jour.atTime(heure, 0).atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -11,6 +11,7 @@ import com.tarnof.enjoyrestapi.enums.Genre;
 import com.tarnof.enjoyrestapi.enums.GenreChambre;
 import com.tarnof.enjoyrestapi.enums.Role;
 import com.tarnof.enjoyrestapi.enums.TypeChambre;
+import com.tarnof.enjoyrestapi.excel.ExcelExportSpecs;
 import com.tarnof.enjoyrestapi.exceptions.ResourceAlreadyExistsException;
 import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
 import com.tarnof.enjoyrestapi.payload.request.AffecterOccupantChambreRequest;
@@ -355,6 +356,28 @@ class ChambreServiceImplTest {
         assertThat(chambreService.listerChambresDuSejour(1, APPELANT_TOKEN)).isEmpty();
     }
 
+    @Test
+    @DisplayName("parcourirOccupantsDesChambres - une ligne par occupant, une ligne vide par chambre inoccupée")
+    void parcourirOccupants_shouldFlattenRooms() throws Exception {
+        Chambre occupee = chambreEnfant(5);
+        ChambreOccupant occupant = new ChambreOccupant();
+        occupant.setId(50);
+        occupant.setChambre(occupee);
+        occupant.setEnfant(enfant(42, Genre.Féminin));
+        occupee.setOccupants(new ArrayList<>(List.of(occupant)));
+        Chambre vide = chambreEnfant(6);
+        when(chambreRepository.findBySejourIdOrderAffichageWithOccupants(1)).thenReturn(List.of(occupee, vide));
+        List<ExcelExportSpecs.OccupantChambreLigne> lignes = new ArrayList<>();
+
+        chambreService.parcourirOccupantsDesChambres(1, APPELANT_TOKEN, lignes::add);
+
+        assertThat(lignes).hasSize(2);
+        assertThat(lignes.get(0).chambre().id()).isEqualTo(5);
+        assertThat(lignes.get(0).occupant().id()).isEqualTo(50);
+        assertThat(lignes.get(1).chambre().id()).isEqualTo(6);
+        assertThat(lignes.get(1).occupant()).isNull();
+    }
+
     @Test
     @DisplayName("ajouterReferent - ajoute un référent à une chambre enfant")
     void ajouterReferent_success() {
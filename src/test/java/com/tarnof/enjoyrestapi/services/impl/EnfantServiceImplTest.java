@@ -5,22 +5,37 @@ import com.tarnof.enjoyrestapi.entities.Groupe;
 import com.tarnof.enjoyrestapi.entities.Sejour;
 import com.tarnof.enjoyrestapi.entities.SejourEnfant;
 import com.tarnof.enjoyrestapi.entities.SejourEnfantId;
+import com.tarnof.enjoyrestapi.enums.ChampDossierEnfant;
 import com.tarnof.enjoyrestapi.enums.Genre;
 import com.tarnof.enjoyrestapi.enums.NiveauScolaire;
 import com.tarnof.enjoyrestapi.enums.TypeGroupe;
+import com.tarnof.enjoyrestapi.enums.TypeReferenceAlimentaire;
 import com.tarnof.enjoyrestapi.exceptions.ResourceAlreadyExistsException;
 import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
 import com.tarnof.enjoyrestapi.payload.request.CreateEnfantRequest;
+import com.tarnof.enjoyrestapi.payload.response.DossierEnfantDto;
 import com.tarnof.enjoyrestapi.payload.response.EnfantDto;
 import com.tarnof.enjoyrestapi.payload.response.EnfantDossierSanitaireLigneDto;
 import com.tarnof.enjoyrestapi.payload.response.ExcelImportResponse;
+import com.tarnof.enjoyrestapi.payload.response.GroupeResumeDto;
+import com.tarnof.enjoyrestapi.payload.response.ReferenceAlimentaireDto;
 import com.tarnof.enjoyrestapi.repositories.DossierEnfantRepository;
 import com.tarnof.enjoyrestapi.repositories.ReferenceAlimentaireRepository;
 import com.tarnof.enjoyrestapi.repositories.EnfantRepository;
 import com.tarnof.enjoyrestapi.repositories.GroupeRepository;
 import com.tarnof.enjoyrestapi.repositories.SejourEnfantRepository;
 import com.tarnof.enjoyrestapi.repositories.SejourRepository;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantContactsProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantMedicalProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantReferenceProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.EnfantIdentiteProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.GroupeEnfantProjection;
+import com.tarnof.enjoyrestapi.services.GroupeService;
+import com.tarnof.enjoyrestapi.services.CatalogueReferencesAlimentaires;
+import com.tarnof.enjoyrestapi.services.DonneesAlimentairesSejourCache;
+import com.tarnof.enjoyrestapi.services.IndexRechercheSejours;
 import com.tarnof.enjoyrestapi.services.SejourVerificationService;
+import jakarta.persistence.EntityManager;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -72,6 +87,15 @@ class EnfantServiceImplTest {
     @Mock
     private SejourVerificationService sejourVerificationService;
 
+    @Mock
+    private GroupeService groupeService;
+
+    @Mock
+    private IndexRechercheSejours indexRechercheSejours;
+
+    @Mock
+    private EntityManager entityManager;
+
     private EnfantServiceImpl enfantService;
 
     private Sejour sejour;
@@ -91,7 +115,12 @@ class EnfantServiceImplTest {
                 groupeRepo,
                 dossierEnfantRepository,
                 referenceAlimentaireRepository,
-                sejourVerificationService
+                sejourVerificationService,
+                groupeService,
+                new DonneesAlimentairesSejourCache(),
+                new CatalogueReferencesAlimentaires(referenceAlimentaireRepository),
+                indexRechercheSejours,
+                entityManager
         );
 
         dateNaissance = new Date(System.currentTimeMillis() - 86400000L * 365 * 10); // 10 ans
@@ -594,6 +623,85 @@ class EnfantServiceImplTest {
                 .hasMessageContaining("Séjour non trouvé avec l'ID: 999");
     }
 
+    @Test
+    @DisplayName("listerDossiersEnfantsDuSejour (fields) - Ne devrait charger que les parties demandées")
+    void listerDossiersEnfantsDuSejour_AvecChamps_ShouldLoadOnlyRequestedParts() {
+        when(sejourRepository.findById(1)).thenReturn(Optional.of(Objects.requireNonNull(sejour)));
+        when(sejourEnfantRepository.findBySejourIdWithEnfant(1)).thenReturn(List.of(sejourEnfant));
+        when(dossierEnfantRepository.findContactsByEnfantIdIn(List.of(1))).thenReturn(List.of(
+                new DossierEnfantContactsProjection(5, 1, "parent@test.fr", "0600000000", null, null)));
+        when(dossierEnfantRepository.findAllergenesByEnfantIdIn(List.of(1))).thenReturn(List.of(
+                new DossierEnfantReferenceProjection(1, 3, TypeReferenceAlimentaire.ALLERGENE, "Arachide", 1, true)));
+        when(groupeRepo.findBySejourIdFetchingEnfants(1)).thenReturn(Collections.emptyList());
+
+        List<EnfantDossierSanitaireLigneDto> result = enfantService.listerDossiersEnfantsDuSejour(
+                1, "dir-token", EnumSet.of(ChampDossierEnfant.ALLERGENES));
+
+        DossierEnfantDto dossier = result.get(0).dossier();
+        assertThat(dossier.id()).isEqualTo(5);
+        assertThat(dossier.allergenes()).extracting(ReferenceAlimentaireDto::libelle).containsExactly("Arachide");
+        assertThat(dossier.emailParent1()).isNull();
+        assertThat(dossier.regimesEtPreferences()).isNull();
+        assertThat(dossier.informationsMedicales()).isNull();
+        verify(dossierEnfantRepository, never()).findByEnfantIdInFetchingReferences(any());
+        verify(dossierEnfantRepository, never()).findMedicalByEnfantIdIn(any());
+        verify(dossierEnfantRepository, never()).findTraitementsByEnfantIdIn(any());
+        verify(dossierEnfantRepository, never()).findRegimesByEnfantIdIn(any());
+    }
+
+    @Test
+    @DisplayName("listerDossiersEnfantsDuSejour (fields) - Devrait lire les textes médicaux demandés")
+    void listerDossiersEnfantsDuSejour_AvecChampMedical_ShouldFillMedicalTexts() {
+        when(sejourRepository.findById(1)).thenReturn(Optional.of(Objects.requireNonNull(sejour)));
+        when(sejourEnfantRepository.findBySejourIdWithEnfant(1)).thenReturn(List.of(sejourEnfant));
+        when(dossierEnfantRepository.findContactsByEnfantIdIn(List.of(1))).thenReturn(List.of(
+                new DossierEnfantContactsProjection(5, 1, "parent@test.fr", "0600000000", null, null)));
+        when(dossierEnfantRepository.findMedicalByEnfantIdIn(List.of(1))).thenReturn(List.of(
+                new DossierEnfantMedicalProjection(1, "Asthme", "PAI asthme")));
+        when(groupeRepo.findBySejourIdFetchingEnfants(1)).thenReturn(Collections.emptyList());
+
+        List<EnfantDossierSanitaireLigneDto> result = enfantService.listerDossiersEnfantsDuSejour(
+                1, "dir-token", EnumSet.of(ChampDossierEnfant.MEDICAL, ChampDossierEnfant.CONTACTS));
+
+        DossierEnfantDto dossier = result.get(0).dossier();
+        assertThat(dossier.informationsMedicales()).isEqualTo("Asthme");
+        assertThat(dossier.pai()).isEqualTo("PAI asthme");
+        assertThat(dossier.emailParent1()).isEqualTo("parent@test.fr");
+        assertThat(dossier.allergenes()).isNull();
+        assertThat(dossier.traitementMatin()).isNull();
+    }
+
+    @Test
+    @DisplayName("parcourirDossiersEnfantsDuSejour - Devrait écrire une ligne par enfant avec ses groupes")
+    void parcourirDossiersEnfantsDuSejour_ShouldWriteOneLinePerEnfant() throws Exception {
+        when(sejourRepository.findById(1)).thenReturn(Optional.of(Objects.requireNonNull(sejour)));
+        when(sejourEnfantRepository.findIdentitesBySejourId(1))
+                .thenReturn(List.of(new EnfantIdentiteProjection(1, "Emma", "Martin")));
+        when(dossierEnfantRepository.findByEnfantIdInFetchingReferences(List.of(1))).thenReturn(Collections.emptyList());
+        when(groupeRepo.findAppartenancesBySejourIdAndEnfantIdIn(1, List.of(1)))
+                .thenReturn(List.of(new GroupeEnfantProjection(1, 10, "Les Loups")));
+
+        List<EnfantDossierSanitaireLigneDto> ecrites = new ArrayList<>();
+        enfantService.parcourirDossiersEnfantsDuSejour(1, "dir-token", null, ecrites::add);
+
+        assertThat(ecrites).hasSize(1);
+        assertThat(ecrites.get(0).prenom()).isEqualTo("Emma");
+        assertThat(ecrites.get(0).groupes()).extracting(GroupeResumeDto::libelle).containsExactly("Les Loups");
+        assertThat(ecrites.get(0).dossier()).isNull();
+        verify(entityManager).clear();
+        verify(sejourEnfantRepository, never()).findBySejourIdWithEnfant(anyInt());
+    }
+
+    @Test
+    @DisplayName("parcourirDossiersEnfantsDuSejour - Devrait refuser un utilisateur qui ne participe pas au séjour")
+    void parcourirDossiersEnfantsDuSejour_WhenNotParticipant_ShouldDeny() {
+        when(sejourRepository.findById(1)).thenReturn(Optional.of(Objects.requireNonNull(sejour)));
+
+        assertThatThrownBy(() -> enfantService.parcourirDossiersEnfantsDuSejour(1, "inconnu", null, ligne -> {}))
+                .isInstanceOf(AccessDeniedException.class);
+        verifyNoInteractions(sejourEnfantRepository);
+    }
+
     // ==================== importerEnfantsDepuisExcel ====================
 
     @Test
@@ -619,6 +727,7 @@ class EnfantServiceImplTest {
         assertThat(result.enfantsDejaExistants()).isEqualTo(0);
         assertThat(result.erreurs()).isEqualTo(0);
         assertThat(result.messagesErreur()).isEmpty();
+        verify(groupeService).recalculerGroupesAutomatiques(1);
     }
 
     @Test
@@ -651,6 +760,7 @@ class EnfantServiceImplTest {
         assertThat(result.enfantsCrees()).isEqualTo(0);
         assertThat(result.enfantsDejaExistants()).isEqualTo(1);
         assertThat(result.erreurs()).isEqualTo(1);
+        verifyNoInteractions(groupeService);
     }
 
     @Test
@@ -9,7 +9,10 @@ import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
 import com.tarnof.enjoyrestapi.payload.request.AjouterReferentRequest;
 import com.tarnof.enjoyrestapi.payload.request.CreateGroupeRequest;
 import com.tarnof.enjoyrestapi.payload.response.GroupeDto;
+import com.tarnof.enjoyrestapi.payload.response.RecalculGroupesDto;
 import com.tarnof.enjoyrestapi.repositories.*;
+import com.tarnof.enjoyrestapi.repositories.projections.EnfantTrancheProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.GroupeEnfantProjection;
 import com.tarnof.enjoyrestapi.services.SejourVerificationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -27,6 +30,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -482,6 +486,45 @@ class GroupeServiceImplTest {
                 .hasMessageContaining("ne fait pas partie du groupe");
     }
 
+    // ---------- recalculerGroupesAutomatiques ----------
+
+    @Test
+    @DisplayName("recalculerGroupesAutomatiques - Ajoute les enfants dans la tranche et retire les autres")
+    void recalculerGroupesAutomatiques_ShouldApplyDiff() {
+        when(sejourRepository.findById(1)).thenReturn(Optional.of(sejour));
+        Groupe parAge = groupePersiste(5, TypeGroupe.AGE, sejour);
+        Groupe thematique = groupePersiste(6, TypeGroupe.THEMATIQUE, sejour);
+        when(groupeRepository.findBySejourId(1)).thenReturn(List.of(parAge, thematique));
+        when(sejourEnfantRepository.findTranchesBySejourId(1)).thenReturn(List.of(
+                new EnfantTrancheProjection(7, Date.valueOf(LocalDate.of(2018, 3, 20)), NiveauScolaire.CE2),
+                new EnfantTrancheProjection(8, Date.valueOf(LocalDate.of(2022, 1, 1)), NiveauScolaire.PS),
+                new EnfantTrancheProjection(9, Date.valueOf(LocalDate.of(2016, 6, 1)), NiveauScolaire.CM1)));
+        when(groupeRepository.findAppartenancesBySejourId(1)).thenReturn(List.of(
+                new GroupeEnfantProjection(8, 5, "Mon groupe"),
+                new GroupeEnfantProjection(9, 5, "Mon groupe"),
+                new GroupeEnfantProjection(8, 6, "Mon groupe")));
+        when(groupeRepository.retirerEnfantsDuGroupe(5, List.of(8))).thenReturn(1);
+        when(groupeRepository.insererEnfantsDansGroupe(5, List.of(7))).thenReturn(1);
+
+        RecalculGroupesDto bilan = groupeService.recalculerGroupesAutomatiques(1);
+
+        assertThat(bilan).isEqualTo(new RecalculGroupesDto(1, 1, 1));
+        verify(groupeRepository, never()).retirerEnfantsDuGroupe(eq(6), any());
+        verify(groupeRepository, never()).insererEnfantsDansGroupe(eq(6), any());
+    }
+
+    @Test
+    @DisplayName("recalculerGroupesAutomatiques - Sans groupe automatique, aucune requête sur les inscrits")
+    void recalculerGroupesAutomatiques_withoutAutoGroups_ShouldDoNothing() {
+        when(sejourRepository.findById(1)).thenReturn(Optional.of(sejour));
+        when(groupeRepository.findBySejourId(1)).thenReturn(List.of(groupePersiste(6, TypeGroupe.THEMATIQUE, sejour)));
+
+        RecalculGroupesDto bilan = groupeService.recalculerGroupesAutomatiques(1);
+
+        assertThat(bilan).isEqualTo(new RecalculGroupesDto(0, 0, 0));
+        verifyNoInteractions(sejourEnfantRepository);
+    }
+
     // ---------- référents ----------
 
     @Test
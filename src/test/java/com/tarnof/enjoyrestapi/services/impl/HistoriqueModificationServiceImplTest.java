@@ -0,0 +1,210 @@
+package com.tarnof.enjoyrestapi.services.impl;
+
+import com.tarnof.enjoyrestapi.entities.HistoriqueModificationChambre;
+import com.tarnof.enjoyrestapi.entities.Utilisateur;
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationAction;
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationType;
+import com.tarnof.enjoyrestapi.payload.request.FiltreHistoriqueSejourRequest;
+import com.tarnof.enjoyrestapi.payload.response.HistoriqueModificationSejourDto;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
+import com.tarnof.enjoyrestapi.repositories.ActivitePrestataireRepository;
+import com.tarnof.enjoyrestapi.repositories.ActiviteRepository;
+import com.tarnof.enjoyrestapi.repositories.CahierInfirmerieEntreeRepository;
+import com.tarnof.enjoyrestapi.repositories.ChambreRepository;
+import com.tarnof.enjoyrestapi.repositories.HistoriqueModificationRepository;
+import com.tarnof.enjoyrestapi.repositories.PlanningLigneRepository;
+import com.tarnof.enjoyrestapi.repositories.UtilisateurRepository;
+import com.tarnof.enjoyrestapi.services.ArchivageHistoriqueModifications;
+import com.tarnof.enjoyrestapi.services.EcrivainHistoriqueModifications;
+import com.tarnof.enjoyrestapi.services.SejourVerificationService;
+import com.tarnof.enjoyrestapi.utils.CodecHistorique;
+import com.tarnof.enjoyrestapi.utils.CurseurPagination;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour HistoriqueModificationServiceImpl")
+class HistoriqueModificationServiceImplTest {
+
+    private static final FiltreHistoriqueSejourRequest SANS_FILTRE =
+            new FiltreHistoriqueSejourRequest(null, null, null, null);
+
+    @Mock
+    private HistoriqueModificationRepository historiqueModificationRepository;
+
+    @Mock
+    private UtilisateurRepository utilisateurRepository;
+
+    @Mock
+    private PlanningLigneRepository planningLigneRepository;
+
+    @Mock
+    private ActiviteRepository activiteRepository;
+
+    @Mock
+    private CahierInfirmerieEntreeRepository cahierInfirmerieEntreeRepository;
+
+    @Mock
+    private ChambreRepository chambreRepository;
+
+    @Mock
+    private ActivitePrestataireRepository activitePrestataireRepository;
+
+    @Mock
+    private SejourVerificationService sejourVerificationService;
+
+    @Mock
+    private EcrivainHistoriqueModifications ecrivainHistoriqueModifications;
+
+    @Mock
+    private ArchivageHistoriqueModifications archivageHistoriqueModifications;
+
+    private HistoriqueModificationServiceImpl service;
+
+    private final Utilisateur directeur =
+            Utilisateur.builder().id(5).tokenId("dir-token").nom("Martin").prenom("Alice").build();
+
+    @BeforeEach
+    void setUp() {
+        service = new HistoriqueModificationServiceImpl(
+                historiqueModificationRepository,
+                utilisateurRepository,
+                planningLigneRepository,
+                activiteRepository,
+                cahierInfirmerieEntreeRepository,
+                chambreRepository,
+                activitePrestataireRepository,
+                sejourVerificationService,
+                ecrivainHistoriqueModifications,
+                archivageHistoriqueModifications);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Fil du séjour : une ligne de plus que la taille donne le curseur de la page suivante")
+    void listerHistoriqueSejour_ShouldReturnNextCursor() {
+        HistoriqueModificationChambre recente = chambre(12, "2026-07-14T10:00:00Z");
+        HistoriqueModificationChambre ancienne = chambre(11, "2026-07-14T09:00:00Z");
+        HistoriqueModificationChambre suivante = chambre(10, "2026-07-14T08:00:00Z");
+        when(historiqueModificationRepository.findPageBySejourId(
+                        1, null, null, null, null, null, null, PageRequest.of(0, 3)))
+                .thenReturn(List.of(recente, ancienne, suivante));
+
+        PageCurseurDto<HistoriqueModificationSejourDto> page =
+                service.listerHistoriqueSejour(1, SANS_FILTRE, null, 2, "dir-token");
+
+        assertThat(page.elements()).extracting(dto -> dto.base().id()).containsExactly(12, 11);
+        assertThat(page.elements().get(0).base().type()).isEqualTo(HistoriqueModificationType.CHAMBRE);
+        assertThat(page.elements().get(0).base().nouvelleValeur()).isEqualTo("Nom: Les Pins");
+        assertThat(page.elements().get(0).cibleId()).isEqualTo(7);
+        assertThat(CurseurPagination.decoder(page.curseurSuivant()))
+                .isEqualTo(new CurseurPagination.Position("2026-07-14T09:00:00Z", 11));
+    }
+
+    @Test
+    @DisplayName("Fil du séjour : reprend après la position du curseur, sans curseur sur la dernière page")
+    void listerHistoriqueSejour_ShouldResumeAfterCursor() {
+        String curseur = CurseurPagination.encoder("2026-07-14T09:00:00Z", 11);
+        when(historiqueModificationRepository.findPageBySejourId(
+                        1,
+                        HistoriqueModificationType.CHAMBRE,
+                        "dir-token",
+                        null,
+                        null,
+                        Instant.parse("2026-07-14T09:00:00Z"),
+                        11,
+                        PageRequest.of(0, 3)))
+                .thenReturn(List.of(chambre(10, "2026-07-14T08:00:00Z")));
+
+        PageCurseurDto<HistoriqueModificationSejourDto> page = service.listerHistoriqueSejour(
+                1,
+                new FiltreHistoriqueSejourRequest(HistoriqueModificationType.CHAMBRE, " dir-token ", null, null),
+                curseur,
+                2,
+                "dir-token");
+
+        assertThat(page.elements()).hasSize(1);
+        assertThat(page.curseurSuivant()).isNull();
+    }
+
+    @Test
+    @DisplayName("Fil du séjour : les lignes archivées suivent celles de la table, dans l'ordre des pages")
+    void listerHistoriqueSejour_ShouldContinueIntoArchives() {
+        when(historiqueModificationRepository.findPageBySejourId(
+                        1, null, null, null, null, null, null, PageRequest.of(0, 3)))
+                .thenReturn(List.of(chambre(12, "2026-07-14T10:00:00Z")));
+        when(archivageHistoriqueModifications.lireSejour(
+                        1, new ArchivageHistoriqueModifications.FiltreFil(null, null, null, null, null, null), 3))
+                .thenReturn(List.of(chambre(3, "2025-07-10T08:00:00Z"), chambre(4, "2025-07-12T08:00:00Z"),
+                        chambre(2, "2025-07-09T08:00:00Z")));
+
+        PageCurseurDto<HistoriqueModificationSejourDto> page =
+                service.listerHistoriqueSejour(1, SANS_FILTRE, null, 2, "dir-token");
+
+        assertThat(page.elements()).extracting(dto -> dto.base().id()).containsExactly(12, 4);
+        assertThat(CurseurPagination.decoder(page.curseurSuivant()))
+                .isEqualTo(new CurseurPagination.Position("2025-07-12T08:00:00Z", 4));
+    }
+
+    @Test
+    @DisplayName("Fil du séjour : fenêtre de dates inversée refusée")
+    void listerHistoriqueSejour_ShouldRejectInvertedWindow() {
+        FiltreHistoriqueSejourRequest filtre = new FiltreHistoriqueSejourRequest(
+                null, null, Instant.parse("2026-07-15T00:00:00Z"), Instant.parse("2026-07-14T00:00:00Z"));
+
+        assertThatThrownBy(() -> service.listerHistoriqueSejour(1, filtre, null, null, "dir-token"))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(historiqueModificationRepository);
+    }
+
+    @Test
+    @DisplayName("Enregistrement : modificateur et séjour repris sans requête quand il s'agit de l'utilisateur connecté")
+    void enregistrerChambre_ShouldUseAuthenticatedUser() {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(directeur, null, List.of()));
+
+        service.enregistrerChambre(1, "dir-token", HistoriqueModificationAction.MODIFICATION, 7, "avant", "après");
+
+        ArgumentCaptor<EcrivainHistoriqueModifications.Evenement> evenement =
+                ArgumentCaptor.forClass(EcrivainHistoriqueModifications.Evenement.class);
+        verify(ecrivainHistoriqueModifications).publier(evenement.capture());
+        assertThat(evenement.getValue().modificateurId()).isEqualTo(5);
+        assertThat(evenement.getValue().sejourId()).isEqualTo(1);
+        assertThat(evenement.getValue().cibleId()).isEqualTo(7);
+        verifyNoInteractions(utilisateurRepository);
+    }
+
+    private HistoriqueModificationChambre chambre(int id, String date) {
+        HistoriqueModificationChambre h = new HistoriqueModificationChambre();
+        h.setId(id);
+        h.setSejourId(1);
+        h.setChambreId(7);
+        h.setAction(HistoriqueModificationAction.MODIFICATION);
+        h.setDateModification(Instant.parse(date));
+        h.setModificateur(directeur);
+        h.setValeursCompactes(CodecHistorique.encoder("Nom: Les Chênes", "Nom: Les Pins"));
+        return h;
+    }
+}
@@ -0,0 +1,216 @@
+package com.tarnof.enjoyrestapi.services.impl;
+
+import com.tarnof.enjoyrestapi.entities.MenuRepas;
+import com.tarnof.enjoyrestapi.entities.Sejour;
+import com.tarnof.enjoyrestapi.enums.TypeReferenceAlimentaire;
+import com.tarnof.enjoyrestapi.enums.TypeRepas;
+import com.tarnof.enjoyrestapi.payload.request.AppliquerSemaineTypeMenusRequest;
+import com.tarnof.enjoyrestapi.payload.response.AppliquerSemaineTypeMenusDto;
+import com.tarnof.enjoyrestapi.payload.response.MenuEnfantsConcernesDto;
+import com.tarnof.enjoyrestapi.payload.response.MenuRepasDto;
+import com.tarnof.enjoyrestapi.repositories.DossierEnfantRepository;
+import com.tarnof.enjoyrestapi.repositories.GroupeRepository;
+import com.tarnof.enjoyrestapi.repositories.MenuRepasRepository;
+import com.tarnof.enjoyrestapi.repositories.ReferenceAlimentaireRepository;
+import com.tarnof.enjoyrestapi.repositories.SejourEnfantRepository;
+import com.tarnof.enjoyrestapi.repositories.projections.DossierEnfantReferenceProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.EnfantIdentiteProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.GroupeEnfantProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.MenuRepasCreneauProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.MenuRepasReferenceProjection;
+import com.tarnof.enjoyrestapi.services.CatalogueReferencesAlimentaires;
+import com.tarnof.enjoyrestapi.services.DonneesAlimentairesSejourCache;
+import com.tarnof.enjoyrestapi.services.SejourVerificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour MenuRepasServiceImpl")
+class MenuRepasServiceImplTest {
+
+    private static final LocalDate LUNDI = LocalDate.of(2026, 7, 6);
+    private static final LocalDate MARDI = LUNDI.plusDays(1);
+
+    @Mock
+    private MenuRepasRepository menuRepasRepository;
+
+    @Mock
+    private SejourVerificationService sejourVerificationService;
+
+    @Mock
+    private ReferenceAlimentaireRepository referenceAlimentaireRepository;
+
+    @Mock
+    private SejourEnfantRepository sejourEnfantRepository;
+
+    @Mock
+    private DossierEnfantRepository dossierEnfantRepository;
+
+    @Mock
+    private GroupeRepository groupeRepository;
+
+    private MenuRepasServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MenuRepasServiceImpl(
+                menuRepasRepository,
+                sejourVerificationService,
+                referenceAlimentaireRepository,
+                sejourEnfantRepository,
+                dossierEnfantRepository,
+                groupeRepository,
+                new DonneesAlimentairesSejourCache(),
+                new CatalogueReferencesAlimentaires(referenceAlimentaireRepository));
+    }
+
+    @Test
+    @DisplayName("croiserAvecDossiersEnfants - Seuls les enfants partageant une référence avec le menu, avec leurs groupes")
+    void croiserAvecDossiersEnfants_ShouldReturnMatchingChildren() {
+        when(sejourEnfantRepository.findIdentitesBySejourId(1)).thenReturn(List.of(
+                new EnfantIdentiteProjection(10, "Léa", "Martin"),
+                new EnfantIdentiteProjection(11, "Tom", "Petit")));
+        when(dossierEnfantRepository.findAllergenesByEnfantIdIn(List.of(10, 11))).thenReturn(List.of(
+                new DossierEnfantReferenceProjection(10, 3, TypeReferenceAlimentaire.ALLERGENE, "Arachide", 1, true)));
+        when(dossierEnfantRepository.findRegimesByEnfantIdIn(List.of(10, 11))).thenReturn(List.of(
+                new DossierEnfantReferenceProjection(11, 7, TypeReferenceAlimentaire.REGIME_PREFERENCE, "Sans porc", 1, true)));
+        when(menuRepasRepository.findCreneauxBySejourIdAndPeriode(1, LUNDI, MARDI)).thenReturn(List.of(
+                new MenuRepasCreneauProjection(100, LUNDI, TypeRepas.DEJEUNER),
+                new MenuRepasCreneauProjection(101, MARDI, TypeRepas.DEJEUNER)));
+        when(menuRepasRepository.findAllergenesBySejourIdAndPeriode(1, LUNDI, MARDI)).thenReturn(List.of(
+                new MenuRepasReferenceProjection(100, 3, TypeReferenceAlimentaire.ALLERGENE, "Arachide", 1, true),
+                new MenuRepasReferenceProjection(100, 4, TypeReferenceAlimentaire.ALLERGENE, "Gluten", 2, true)));
+        when(menuRepasRepository.findRegimesBySejourIdAndPeriode(1, LUNDI, MARDI)).thenReturn(List.of());
+        when(groupeRepository.findAppartenancesBySejourIdAndEnfantIdIn(1, Set.of(10))).thenReturn(List.of(
+                new GroupeEnfantProjection(10, 5, "Les petits")));
+
+        List<MenuEnfantsConcernesDto> resultat = service.croiserAvecDossiersEnfants(1, LUNDI, MARDI, "dir-token");
+
+        assertThat(resultat).hasSize(2);
+        assertThat(resultat.get(0).enfants()).singleElement().satisfies(e -> {
+            assertThat(e.enfantId()).isEqualTo(10);
+            assertThat(e.allergenes()).extracting("libelle").containsExactly("Arachide");
+            assertThat(e.regimesEtPreferences()).isEmpty();
+            assertThat(e.groupes()).extracting("libelle").containsExactly("Les petits");
+        });
+        assertThat(resultat.get(1).enfants()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("croiserAvecDossiersEnfants - Profils servis depuis le cache au second appel")
+    void croiserAvecDossiersEnfants_ShouldCacheProfiles() {
+        when(sejourEnfantRepository.findIdentitesBySejourId(1)).thenReturn(List.of());
+        when(menuRepasRepository.findCreneauxBySejourIdAndPeriode(1, LUNDI, LUNDI)).thenReturn(List.of(
+                new MenuRepasCreneauProjection(100, LUNDI, TypeRepas.DINER)));
+        when(menuRepasRepository.findAllergenesBySejourIdAndPeriode(1, LUNDI, LUNDI)).thenReturn(List.of());
+        when(menuRepasRepository.findRegimesBySejourIdAndPeriode(1, LUNDI, LUNDI)).thenReturn(List.of());
+
+        service.croiserAvecDossiersEnfants(1, LUNDI, LUNDI, "dir-token");
+        List<MenuEnfantsConcernesDto> second = service.croiserAvecDossiersEnfants(1, LUNDI, LUNDI, "dir-token");
+
+        assertThat(second).singleElement().satisfies(m -> assertThat(m.enfants()).isEmpty());
+        verify(sejourEnfantRepository, times(1)).findIdentitesBySejourId(1);
+        verifyNoInteractions(dossierEnfantRepository, groupeRepository);
+    }
+
+    @Test
+    @DisplayName("croiserAvecDossiersEnfants - Période inversée : 400 sans lecture")
+    void croiserAvecDossiersEnfants_whenInvertedPeriod_ShouldThrow() {
+        assertThatThrownBy(() -> service.croiserAvecDossiersEnfants(1, MARDI, LUNDI, "dir-token"))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(menuRepasRepository, sejourEnfantRepository);
+    }
+
+    @Test
+    @DisplayName("listerParPeriode - Menus puis une requête par table de références, sans graphe d'entités")
+    void listerParPeriode_ShouldAttachReferencesPerMenu() {
+        when(menuRepasRepository.findBySejour_IdAndDateRepasBetweenOrderByDateRepasAscTypeRepasAsc(1, LUNDI, MARDI))
+                .thenReturn(List.of(menu(100, LUNDI, TypeRepas.DEJEUNER), menu(101, MARDI, TypeRepas.DINER)));
+        when(menuRepasRepository.findAllergenesBySejourIdAndPeriode(1, LUNDI, MARDI)).thenReturn(List.of(
+                new MenuRepasReferenceProjection(100, 3, TypeReferenceAlimentaire.ALLERGENE, "Arachide", 1, true),
+                new MenuRepasReferenceProjection(100, 4, TypeReferenceAlimentaire.ALLERGENE, "Gluten", 2, true)));
+        when(menuRepasRepository.findRegimesBySejourIdAndPeriode(1, LUNDI, MARDI)).thenReturn(List.of(
+                new MenuRepasReferenceProjection(101, 7, TypeReferenceAlimentaire.REGIME_PREFERENCE, "Sans porc", 1, true)));
+
+        List<MenuRepasDto> menus = service.listerParPeriode(1, LUNDI, MARDI, "dir-token");
+
+        assertThat(menus).extracting(MenuRepasDto::id).containsExactly(100, 101);
+        assertThat(menus.get(0).allergenes()).extracting("libelle").containsExactly("Arachide", "Gluten");
+        assertThat(menus.get(0).regimesEtPreferences()).isEmpty();
+        assertThat(menus.get(1).regimesEtPreferences()).extracting("libelle").containsExactly("Sans porc");
+    }
+
+    @Test
+    @DisplayName("appliquerSemaineType - Recopie par jour de semaine ; créneaux existants conservés")
+    void appliquerSemaineType_ShouldCopyPerWeekdayAndKeepExisting() {
+        LocalDate lundiSuivant = LUNDI.plusWeeks(1);
+        LocalDate mardiSuivant = lundiSuivant.plusDays(1);
+        when(menuRepasRepository.findCreneauxBySejourIdAndPeriode(1, LUNDI, LUNDI.plusDays(6))).thenReturn(List.of(
+                new MenuRepasCreneauProjection(100, LUNDI, TypeRepas.DEJEUNER),
+                new MenuRepasCreneauProjection(101, LUNDI, TypeRepas.DINER)));
+        when(menuRepasRepository.findCreneauxBySejourIdAndPeriode(1, lundiSuivant, mardiSuivant)).thenReturn(List.of(
+                new MenuRepasCreneauProjection(200, lundiSuivant, TypeRepas.DINER)));
+        when(menuRepasRepository.copierMenus(1, LUNDI, lundiSuivant, List.of("DEJEUNER"))).thenReturn(1);
+
+        AppliquerSemaineTypeMenusDto bilan = service.appliquerSemaineType(
+                1, new AppliquerSemaineTypeMenusRequest(LUNDI, lundiSuivant, mardiSuivant, false));
+
+        assertThat(bilan).isEqualTo(new AppliquerSemaineTypeMenusDto(1, 0, 1));
+        verify(menuRepasRepository).copierAllergenes(1, LUNDI, lundiSuivant, List.of("DEJEUNER"));
+        verify(menuRepasRepository).copierRegimes(1, LUNDI, lundiSuivant, List.of("DEJEUNER"));
+        verify(menuRepasRepository, never()).supprimerMenus(anyCollection());
+    }
+
+    @Test
+    @DisplayName("appliquerSemaineType - Mode remplacement : menus existants supprimés puis recopiés")
+    void appliquerSemaineType_whenReplacing_ShouldDeleteExisting() {
+        LocalDate lundiSuivant = LUNDI.plusWeeks(1);
+        when(menuRepasRepository.findCreneauxBySejourIdAndPeriode(1, LUNDI, LUNDI.plusDays(6))).thenReturn(List.of(
+                new MenuRepasCreneauProjection(100, LUNDI, TypeRepas.DEJEUNER)));
+        when(menuRepasRepository.findCreneauxBySejourIdAndPeriode(1, lundiSuivant, lundiSuivant)).thenReturn(List.of(
+                new MenuRepasCreneauProjection(200, lundiSuivant, TypeRepas.DEJEUNER)));
+        when(menuRepasRepository.copierMenus(1, LUNDI, lundiSuivant, List.of("DEJEUNER"))).thenReturn(1);
+
+        AppliquerSemaineTypeMenusDto bilan = service.appliquerSemaineType(
+                1, new AppliquerSemaineTypeMenusRequest(LUNDI, lundiSuivant, lundiSuivant, true));
+
+        assertThat(bilan).isEqualTo(new AppliquerSemaineTypeMenusDto(1, 1, 0));
+        verify(menuRepasRepository).supprimerAllergenesDesMenus(List.of(200));
+        verify(menuRepasRepository).supprimerRegimesDesMenus(List.of(200));
+        verify(menuRepasRepository).supprimerMenus(List.of(200));
+    }
+
+    @Test
+    @DisplayName("appliquerSemaineType - Période cible chevauchant la semaine modèle : 400")
+    void appliquerSemaineType_whenOverlappingModel_ShouldThrow() {
+        assertThatThrownBy(() -> service.appliquerSemaineType(
+                        1, new AppliquerSemaineTypeMenusRequest(LUNDI, MARDI, MARDI.plusWeeks(2), false)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("chevaucher");
+        verifyNoInteractions(menuRepasRepository);
+    }
+
+    private static MenuRepas menu(int id, LocalDate date, TypeRepas type) {
+        Sejour sejour = new Sejour();
+        sejour.setId(1);
+        MenuRepas menu = new MenuRepas();
+        menu.setId(id);
+        menu.setSejour(sejour);
+        menu.setDateRepas(date);
+        menu.setTypeRepas(type);
+        return menu;
+    }
+}
@@ -382,6 +382,7 @@ class PlanningGrilleServiceImplTest {
 
         verify(historiqueModificationService)
                 .enregistrerPlanningCellule(
+                        eq(1),
                         eq("anim-token"),
                         eq(HistoriqueModificationAction.CREATION),
                         eq(20),
@@ -429,6 +430,7 @@ class PlanningGrilleServiceImplTest {
         verify(planningCelluleRepository).delete(cellule);
         verify(historiqueModificationService)
                 .enregistrerPlanningCellule(
+                        eq(1),
                         eq("anim-token"),
                         eq(HistoriqueModificationAction.SUPPRESSION),
                         eq(20),
@@ -0,0 +1,86 @@
+package com.tarnof.enjoyrestapi.services.impl;
+
+import com.tarnof.enjoyrestapi.enums.TypeReferenceAlimentaire;
+import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
+import com.tarnof.enjoyrestapi.payload.response.ReferencesAlimentairesAgregeesEnfantsDto;
+import com.tarnof.enjoyrestapi.repositories.DossierEnfantRepository;
+import com.tarnof.enjoyrestapi.repositories.projections.ReferenceAlimentaireCompteeProjection;
+import com.tarnof.enjoyrestapi.services.DonneesAlimentairesSejourCache;
+import com.tarnof.enjoyrestapi.services.SejourVerificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour ReferencesAlimentairesAgregeesEnfantsServiceImpl")
+class ReferencesAlimentairesAgregeesEnfantsServiceImplTest {
+
+    @Mock
+    private SejourVerificationService sejourVerificationService;
+
+    @Mock
+    private DossierEnfantRepository dossierEnfantRepository;
+
+    private DonneesAlimentairesSejourCache cache;
+    private ReferencesAlimentairesAgregeesEnfantsServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DonneesAlimentairesSejourCache();
+        service = new ReferencesAlimentairesAgregeesEnfantsServiceImpl(
+                sejourVerificationService, dossierEnfantRepository, cache);
+    }
+
+    @Test
+    @DisplayName("agregerPourSejour - Références avec nombre d'enfants, servies depuis le cache au second appel")
+    void agregerPourSejour_ShouldCountChildrenAndCache() {
+        when(dossierEnfantRepository.compterAllergenesParSejourId(1)).thenReturn(List.of(
+                new ReferenceAlimentaireCompteeProjection(3, TypeReferenceAlimentaire.ALLERGENE, "Arachide", 1, true, 4L)));
+        when(dossierEnfantRepository.compterRegimesParSejourId(1)).thenReturn(List.of());
+
+        ReferencesAlimentairesAgregeesEnfantsDto premier = service.agregerPourSejour(1, "dir-token");
+        ReferencesAlimentairesAgregeesEnfantsDto second = service.agregerPourSejour(1, "dir-token");
+
+        assertThat(premier.allergenes()).singleElement().satisfies(r -> {
+            assertThat(r.libelle()).isEqualTo("Arachide");
+            assertThat(r.nombreEnfants()).isEqualTo(4L);
+        });
+        assertThat(premier.regimesEtPreferences()).isEmpty();
+        assertThat(second).isSameAs(premier);
+        verify(sejourVerificationService, times(2)).verifierAppartenanceAuSejour(1, "dir-token");
+        verify(dossierEnfantRepository, times(1)).compterAllergenesParSejourId(1);
+    }
+
+    @Test
+    @DisplayName("agregerPourSejour - Recalcule après invalidation du séjour")
+    void agregerPourSejour_afterInvalidation_ShouldRecompute() {
+        when(dossierEnfantRepository.compterAllergenesParSejourId(1)).thenReturn(List.of());
+        when(dossierEnfantRepository.compterRegimesParSejourId(1)).thenReturn(List.of());
+
+        service.agregerPourSejour(1, "dir-token");
+        cache.invaliderSejour(1);
+        service.agregerPourSejour(1, "dir-token");
+
+        verify(dossierEnfantRepository, times(2)).compterAllergenesParSejourId(1);
+    }
+
+    @Test
+    @DisplayName("agregerPourSejour - Utilisateur hors séjour : rien n'est lu ni mis en cache")
+    void agregerPourSejour_whenNotParticipant_ShouldThrow() {
+        doThrow(new ResourceNotFoundException("Séjour non trouvé avec l'ID: 1"))
+                .when(sejourVerificationService).verifierAppartenanceAuSejour(1, "autre");
+
+        assertThatThrownBy(() -> service.agregerPourSejour(1, "autre"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(dossierEnfantRepository);
+    }
+}
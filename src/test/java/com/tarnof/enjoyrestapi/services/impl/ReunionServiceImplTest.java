@@ -9,7 +9,10 @@ import com.tarnof.enjoyrestapi.entities.Sejour;
 import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
 import com.tarnof.enjoyrestapi.payload.request.SaveReunionRequest;
 import com.tarnof.enjoyrestapi.payload.response.ReunionDto;
+import com.tarnof.enjoyrestapi.payload.response.ReunionResumeDto;
 import com.tarnof.enjoyrestapi.repositories.ReunionRepository;
+import com.tarnof.enjoyrestapi.repositories.projections.ReunionResumeProjection;
+import com.tarnof.enjoyrestapi.services.IndexRechercheSejours;
 import com.tarnof.enjoyrestapi.services.SejourVerificationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -26,6 +29,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,6 +44,9 @@ class ReunionServiceImplTest {
     @Mock
     private SejourVerificationService sejourVerificationService;
 
+    @Mock
+    private IndexRechercheSejours indexRechercheSejours;
+
     private ReunionServiceImpl reunionService;
 
     private ObjectMapper objectMapper;
@@ -54,7 +61,7 @@ class ReunionServiceImplTest {
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         reunionService =
-                new ReunionServiceImpl(reunionRepository, sejourVerificationService, objectMapper);
+                new ReunionServiceImpl(reunionRepository, sejourVerificationService, objectMapper, indexRechercheSejours);
 
         contenu = objectMapper.readTree("{\"type\":\"doc\",\"content\":[]}");
 
@@ -86,6 +93,7 @@ class ReunionServiceImplTest {
         assertThat(saved.getOrdreDuJour()).isEqualTo("Réunion projet");
         assertThat(saved.getDateReunion()).isEqualTo(LocalDate.of(2026, 4, 1));
         assertThat(saved.getContenuJson()).isEqualTo("{\"type\":\"doc\",\"content\":[]}");
+        assertThat(saved.getExtrait()).isEmpty();
         assertThat(saved.getSejour().getId()).isEqualTo(7);
     }
 
@@ -100,13 +108,34 @@ class ReunionServiceImplTest {
     @Test
     @DisplayName("liste appelle verification appartenance au sejour")
     void listeVerifAppartenance() {
-        when(reunionRepository.findBySejour_IdOrderByDateReunionAscIdAsc(7)).thenReturn(List.of());
+        when(reunionRepository.findResumesBySejourId(7)).thenReturn(List.of());
         reunionService.listerReunionsDuSejour(7, "tok");
         verify(sejourVerificationService).verifierAppartenanceAuSejour(7, "tok");
     }
 
     @Test
-    @DisplayName("dto retour parse le JSON persisté")
+    @DisplayName("liste sans document, extrait calcule une fois pour une reunion enregistree avant les extraits")
+    void listeResumesCompleteExtraitsManquants() {
+        Reunion ancienne = new Reunion();
+        ancienne.setId(2);
+        ancienne.setSejour(sejour);
+        ancienne.setContenuJson("{\"type\":\"doc\",\"content\":[{\"type\":\"paragraph\","
+                + "\"content\":[{\"type\":\"text\",\"text\":\"Sortie  piscine\"}]}]}");
+        when(reunionRepository.findResumesBySejourId(7)).thenReturn(List.of(
+                new ReunionResumeProjection(1, LocalDate.of(2026, 1, 2), "Pts", "Bilan de la semaine"),
+                new ReunionResumeProjection(2, LocalDate.of(2026, 1, 3), null, null)));
+        when(reunionRepository.findBySejour_IdAndIdIn(7, List.of(2))).thenReturn(List.of(ancienne));
+
+        List<ReunionResumeDto> resumes = reunionService.listerReunionsDuSejour(7, "tok");
+
+        assertThat(resumes).extracting(ReunionResumeDto::extrait)
+                .containsExactly("Bilan de la semaine", "Sortie piscine");
+        assertThat(ancienne.getExtrait()).isEqualTo("Sortie piscine");
+        verify(reunionRepository, never()).findBySejour_IdOrderByDateReunionAscIdAsc(7);
+    }
+
+    @Test
+    @DisplayName("dto retour recopie le JSON persisté sans le relire")
     void mapVersDtoLitJson() {
         Reunion r = new Reunion();
         r.setId(9);
@@ -121,7 +150,6 @@ class ReunionServiceImplTest {
         verify(sejourVerificationService).verifierAppartenanceAuSejour(7, "tok");
 
         assertThat(dto.id()).isEqualTo(9);
-        assertThat(dto.contenu().get("type").asText()).isEqualTo("doc");
-        assertThat(dto.contenu().path("content").get(0).path("type").asText()).isEqualTo("heading");
+        assertThat(dto.contenu()).isSameAs(r.getContenuJson());
     }
 }
@@ -16,15 +16,21 @@ import com.tarnof.enjoyrestapi.enums.TypeGroupe;
 import com.tarnof.enjoyrestapi.exceptions.ResourceAlreadyExistsException;
 import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
 import com.tarnof.enjoyrestapi.payload.request.CreateSejourRequest;
+import com.tarnof.enjoyrestapi.payload.request.FiltreSejoursRequest;
 import com.tarnof.enjoyrestapi.payload.request.MembreEquipeRequest;
+import com.tarnof.enjoyrestapi.payload.response.PageCurseurDto;
+import com.tarnof.enjoyrestapi.payload.response.SejourCatalogueDto;
 import com.tarnof.enjoyrestapi.repositories.GroupeRepository;
 import com.tarnof.enjoyrestapi.repositories.RefreshTokenRepository;
 import com.tarnof.enjoyrestapi.repositories.ActiviteRepository;
 import com.tarnof.enjoyrestapi.repositories.SejourEquipeRepository;
 import com.tarnof.enjoyrestapi.repositories.SejourRepository;
 import com.tarnof.enjoyrestapi.repositories.UtilisateurRepository;
+import com.tarnof.enjoyrestapi.repositories.projections.SejourCatalogueProjection;
 import com.tarnof.enjoyrestapi.services.AuthenticationService;
+import com.tarnof.enjoyrestapi.services.IndexRechercheSejours;
 import com.tarnof.enjoyrestapi.services.TypeActiviteService;
+import com.tarnof.enjoyrestapi.utils.CurseurPagination;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -32,8 +38,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.Date;
 
@@ -72,6 +81,9 @@ class SejourServiceImplTest {
     @Mock
     private TypeActiviteService typeActiviteService;
 
+    @Mock
+    private IndexRechercheSejours indexRechercheSejours;
+
     @InjectMocks
     private SejourServiceImpl sejourService;
 
@@ -145,7 +157,7 @@ class SejourServiceImplTest {
                 .lieuDuSejour("Lieu 2")
                 .directeur(directeur)
                 .build());
-        when(sejourRepository.findAll()).thenReturn(sejours);
+        when(sejourRepository.findAllAvecDirecteur()).thenReturn(sejours);
 
         // When
         List<SejourDto> result = sejourService.getAllSejours();
@@ -154,14 +166,14 @@ class SejourServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result).hasSize(2);
         assertThat(result.get(0).nom()).isEqualTo("Séjour Test");
-        verify(sejourRepository).findAll();
+        verify(sejourRepository).findAllAvecDirecteur();
     }
 
     @Test
     @DisplayName("getAllSejours - Devrait retourner une liste vide si aucun séjour")
     void getAllSejours_WhenNoSejours_ShouldReturnEmptyList() {
         // Given
-        when(sejourRepository.findAll()).thenReturn(Collections.emptyList());
+        when(sejourRepository.findAllAvecDirecteur()).thenReturn(Collections.emptyList());
 
         // When
         List<SejourDto> result = sejourService.getAllSejours();
@@ -169,7 +181,7 @@ class SejourServiceImplTest {
         // Then
         assertThat(result).isNotNull();
         assertThat(result).isEmpty();
-        verify(sejourRepository).findAll();
+        verify(sejourRepository).findAllAvecDirecteur();
     }
 
     @Test
@@ -888,7 +900,7 @@ class SejourServiceImplTest {
         List<Sejour> allSejours = Arrays.asList(sejour);
         when(utilisateurRepository.findByTokenId("admin-token-456"))
                 .thenReturn(Optional.of(admin));
-        when(sejourRepository.findAll()).thenReturn(allSejours);
+        when(sejourRepository.findAllAvecDirecteur()).thenReturn(allSejours);
 
         // When
         List<SejourDto> result = sejourService.getSejoursByUtilisateur("admin-token-456");
@@ -897,10 +909,78 @@ class SejourServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result).hasSize(1);
         verify(utilisateurRepository).findByTokenId("admin-token-456");
-        verify(sejourRepository).findAll();
+        verify(sejourRepository).findAllAvecDirecteur();
         verify(sejourRepository, never()).findSejoursByUtilisateur(any(Utilisateur.class));
     }
 
+    // ========== Tests pour listerPageCatalogue() ==========
+
+    @Test
+    @DisplayName("listerPageCatalogue - Devrait retourner tous les séjours pour un ADMIN avec le curseur suivant")
+    void listerPageCatalogue_WithAdmin_ShouldReturnPageAndNextCursor() {
+        // Given
+        Date debutPlusAncien = new Date(dateDebut.getTime() - 86400000L);
+        when(utilisateurRepository.findByTokenId("admin-token")).thenReturn(Optional.of(admin));
+        when(sejourRepository.findPageCatalogue(null, null, null, null, null, null, null, PageRequest.of(0, 2)))
+                .thenReturn(List.of(
+                        new SejourCatalogueProjection(1, "Séjour Test", "Description", dateDebut, dateFin, "Lieu Test",
+                                "directeur-token-123", "Dupont", "Jean", 12L, 3L),
+                        new SejourCatalogueProjection(2, "Séjour Ancien", "Description", debutPlusAncien, dateFin,
+                                "Lieu", null, null, null, 0L, 0L)));
+
+        // When
+        PageCurseurDto<SejourCatalogueDto> page = sejourService.listerPageCatalogue(
+                new FiltreSejoursRequest(null, null, null, null), null, 1, "admin-token");
+
+        // Then
+        assertThat(page.elements()).hasSize(1);
+        SejourCatalogueDto ligne = page.elements().get(0);
+        assertThat(ligne.directeur().tokenId()).isEqualTo("directeur-token-123");
+        assertThat(ligne.nbEnfants()).isEqualTo(12L);
+        assertThat(ligne.nbEquipe()).isEqualTo(3L);
+        assertThat(CurseurPagination.decoder(page.curseurSuivant()))
+                .isEqualTo(new CurseurPagination.Position(dateDebut.toInstant().toString(), 1));
+    }
+
+    @Test
+    @DisplayName("listerPageCatalogue - Devrait restreindre un non-admin à ses séjours et traduire les filtres")
+    void listerPageCatalogue_WithNonAdminAndFilters_ShouldScopeToUtilisateur() {
+        // Given
+        LocalDate du = LocalDate.of(2026, 7, 1);
+        LocalDate au = LocalDate.of(2026, 7, 31);
+        Date debutPeriode = Date.from(du.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Date finPeriode = Date.from(au.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        String curseur = CurseurPagination.encoder(dateDebut.toInstant().toString(), 7);
+        when(utilisateurRepository.findByTokenId("directeur-token-123")).thenReturn(Optional.of(directeur));
+        when(sejourRepository.findPageCatalogue(debutPeriode, finPeriode, "directeur-token-123", "%été!_50!%%", 1,
+                dateDebut, 7, PageRequest.of(0, CurseurPagination.TAILLE_PAR_DEFAUT + 1)))
+                .thenReturn(Collections.emptyList());
+
+        // When
+        PageCurseurDto<SejourCatalogueDto> page = sejourService.listerPageCatalogue(
+                new FiltreSejoursRequest(du, au, " directeur-token-123 ", " Été_50% "), curseur, null,
+                "directeur-token-123");
+
+        // Then
+        assertThat(page.elements()).isEmpty();
+        assertThat(page.curseurSuivant()).isNull();
+    }
+
+    @Test
+    @DisplayName("listerPageCatalogue - Devrait lancer une exception si la période est inversée")
+    void listerPageCatalogue_WhenPeriodeInversee_ShouldThrowException() {
+        // Given
+        when(utilisateurRepository.findByTokenId("admin-token")).thenReturn(Optional.of(admin));
+
+        // When & Then
+        assertThatThrownBy(() -> sejourService.listerPageCatalogue(
+                new FiltreSejoursRequest(LocalDate.of(2026, 8, 1), LocalDate.of(2026, 7, 1), null, null),
+                null, null, "admin-token"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("La date de début doit être antérieure ou égale à la date de fin.");
+        verifyNoInteractions(sejourRepository);
+    }
+
     // ========== Tests de conversion DTO (mapToDTO) ==========
 
     @Test
@@ -984,7 +1064,7 @@ class SejourServiceImplTest {
     void mapToDTO_WithDirecteurWithoutEquipe_ShouldMapCorrectly() {
         // Given - séjour avec directeur mais sans équipe
         sejour.setEquipeRoles(new ArrayList<>());
-        when(sejourRepository.findAll()).thenReturn(Collections.singletonList(sejour));
+        when(sejourRepository.findAllAvecDirecteur()).thenReturn(Collections.singletonList(sejour));
 
         // When - getAllSejours utilise mapToDTO(sejour, false) sans équipe
         List<SejourDto> result = sejourService.getAllSejours();
@@ -1084,7 +1164,7 @@ class SejourServiceImplTest {
                 .equipeRoles(new ArrayList<>())
                 .build();
 
-        when(sejourRepository.findAll()).thenReturn(Collections.singletonList(sejourSansDirecteur));
+        when(sejourRepository.findAllAvecDirecteur()).thenReturn(Collections.singletonList(sejourSansDirecteur));
 
         // When - getAllSejours utilise mapToDTO(sejour, false) sans équipe
         List<SejourDto> result = sejourService.getAllSejours();
@@ -1175,7 +1255,7 @@ class SejourServiceImplTest {
                 .build();
 
         sejour.setEquipeRoles(Collections.singletonList(sejourEquipe));
-        when(sejourRepository.findAll()).thenReturn(Collections.singletonList(sejour));
+        when(sejourRepository.findAllAvecDirecteur()).thenReturn(Collections.singletonList(sejour));
 
         // When - getAllSejours utilise mapToDTO(sejour, false) sans équipe
         List<SejourDto> result = sejourService.getAllSejours();
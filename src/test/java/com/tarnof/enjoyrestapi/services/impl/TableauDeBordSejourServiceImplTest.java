@@ -0,0 +1,142 @@
+package com.tarnof.enjoyrestapi.services.impl;
+
+import com.tarnof.enjoyrestapi.exceptions.ResourceNotFoundException;
+import com.tarnof.enjoyrestapi.payload.response.TableauDeBordSejourDto;
+import com.tarnof.enjoyrestapi.repositories.ActiviteRepository;
+import com.tarnof.enjoyrestapi.repositories.CahierInfirmerieEntreeRepository;
+import com.tarnof.enjoyrestapi.repositories.ChambreRepository;
+import com.tarnof.enjoyrestapi.repositories.SejourRepository;
+import com.tarnof.enjoyrestapi.repositories.projections.ActivitesMomentCompteProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.OccupationChambresProjection;
+import com.tarnof.enjoyrestapi.repositories.projections.SejourCompteursProjection;
+import com.tarnof.enjoyrestapi.services.SejourVerificationService;
+import com.tarnof.enjoyrestapi.services.TableauDeBordSejourCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour TableauDeBordSejourServiceImpl")
+class TableauDeBordSejourServiceImplTest {
+
+    @Mock
+    private SejourRepository sejourRepository;
+
+    @Mock
+    private ActiviteRepository activiteRepository;
+
+    @Mock
+    private ChambreRepository chambreRepository;
+
+    @Mock
+    private CahierInfirmerieEntreeRepository cahierInfirmerieEntreeRepository;
+
+    @Mock
+    private SejourVerificationService sejourVerificationService;
+
+    private TableauDeBordSejourServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TableauDeBordSejourServiceImpl(
+                sejourRepository,
+                activiteRepository,
+                chambreRepository,
+                cahierInfirmerieEntreeRepository,
+                sejourVerificationService,
+                new TableauDeBordSejourCache(Duration.ofMinutes(1)));
+    }
+
+    @Test
+    @DisplayName("Devrait assembler les quatre agrégats puis servir le second appel depuis le cache")
+    void obtenirTableauDeBord_ShouldAggregateAndCache() {
+        // Given
+        when(sejourRepository.findCompteurs(1))
+                .thenReturn(Optional.of(new SejourCompteursProjection(40, 8, 4, 12, 30, 2, 21, 3)));
+        when(activiteRepository.compterParMomentPourDate(eq(1), any(LocalDate.class)))
+                .thenReturn(List.of(new ActivitesMomentCompteProjection(5, "Matin", 3),
+                        new ActivitesMomentCompteProjection(6, "Après-midi", 2)));
+        when(chambreRepository.findOccupationBySejourId(1)).thenReturn(new OccupationChambresProjection(50, 40));
+        when(cahierInfirmerieEntreeRepository.countBySejourIdAndDateHeureGreaterThanEqual(eq(1), any(Instant.class)))
+                .thenReturn(6L);
+
+        // When
+        TableauDeBordSejourDto tableau = service.obtenirTableauDeBord(1, "user-token");
+        TableauDeBordSejourDto enCache = service.obtenirTableauDeBord(1, "user-token");
+
+        // Then
+        assertThat(tableau.nbEnfants()).isEqualTo(40);
+        assertThat(tableau.nbMembresEquipe()).isEqualTo(8);
+        assertThat(tableau.nbReunions()).isEqualTo(3);
+        assertThat(tableau.activitesDuJour()).extracting(TableauDeBordSejourDto.ActivitesMoment::nom)
+                .containsExactly("Matin", "Après-midi");
+        assertThat(tableau.occupationChambres().tauxOccupation()).isEqualTo(0.8);
+        assertThat(tableau.nbEntreesInfirmerie24h()).isEqualTo(6);
+        assertThat(enCache).isSameAs(tableau);
+        verify(sejourVerificationService, times(2)).verifierAppartenanceAuSejour(1, "user-token");
+        verify(sejourRepository, times(1)).findCompteurs(1);
+
+        ArgumentCaptor<Instant> depuis = ArgumentCaptor.forClass(Instant.class);
+        verify(cahierInfirmerieEntreeRepository).countBySejourIdAndDateHeureGreaterThanEqual(eq(1), depuis.capture());
+        assertThat(Duration.between(depuis.getValue(), tableau.calculeLe())).isEqualTo(Duration.ofHours(24));
+    }
+
+    @Test
+    @DisplayName("Devrait retourner un taux d'occupation nul sans chambre")
+    void obtenirTableauDeBord_WithoutChambre_ShouldReturnZeroRate() {
+        // Given
+        when(sejourRepository.findCompteurs(1))
+                .thenReturn(Optional.of(new SejourCompteursProjection(0, 0, 0, 0, 0, 0, 0, 0)));
+        when(activiteRepository.compterParMomentPourDate(eq(1), any(LocalDate.class))).thenReturn(List.of());
+        when(chambreRepository.findOccupationBySejourId(1)).thenReturn(new OccupationChambresProjection(0, 0));
+
+        // When
+        TableauDeBordSejourDto tableau = service.obtenirTableauDeBord(1, "user-token");
+
+        // Then
+        assertThat(tableau.occupationChambres().tauxOccupation()).isZero();
+        assertThat(tableau.activitesDuJour()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Devrait lancer une ResourceNotFoundException si le séjour n'existe pas")
+    void obtenirTableauDeBord_WhenSejourNotFound_ShouldThrowException() {
+        // Given
+        when(sejourRepository.findCompteurs(999)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> service.obtenirTableauDeBord(999, "admin-token"))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Séjour non trouvé avec l'ID: 999");
+    }
+
+    @Test
+    @DisplayName("Ne devrait lancer aucune requête sans accès au séjour")
+    void obtenirTableauDeBord_WithoutAccess_ShouldNotQuery() {
+        // Given
+        doThrow(new AccessDeniedException("Vous n'avez pas accès à ce séjour"))
+                .when(sejourVerificationService).verifierAppartenanceAuSejour(1, "intrus");
+
+        // When & Then
+        assertThatThrownBy(() -> service.obtenirTableauDeBord(1, "intrus"))
+                .isInstanceOf(AccessDeniedException.class);
+        verifyNoInteractions(sejourRepository, activiteRepository, chambreRepository, cahierInfirmerieEntreeRepository);
+    }
+}
@@ -8,15 +8,20 @@ import com.tarnof.enjoyrestapi.enums.Role;
 import com.tarnof.enjoyrestapi.exceptions.EmailDejaUtiliseException;
 import com.tarnof.enjoyrestapi.exceptions.UtilisateurException;
 import com.tarnof.enjoyrestapi.payload.request.UpdateUserRequest;
+import com.tarnof.enjoyrestapi.payload.response.PhotoProfilContenu;
+import com.tarnof.enjoyrestapi.payload.response.PhotoProfilLotEntree;
 import com.tarnof.enjoyrestapi.payload.response.ProfilDto;
 import com.tarnof.enjoyrestapi.repositories.RefreshTokenRepository;
 import com.tarnof.enjoyrestapi.repositories.SejourRepository;
 import com.tarnof.enjoyrestapi.repositories.UtilisateurRepository;
 import com.tarnof.enjoyrestapi.services.storage.ObjectStorageService;
+import com.tarnof.enjoyrestapi.services.storage.StockageContenuAdresse;
+import com.tarnof.enjoyrestapi.utils.EtagPhotoProfil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -50,6 +55,9 @@ public class UtilisateurServiceImplTest {
 
     @Mock
     private ObjectStorageService objectStorageService;
+
+    @Mock
+    private StockageContenuAdresse stockageContenuAdresse;
     
     @InjectMocks
     private UtilisateurServiceImpl utilisateurService;
@@ -949,6 +957,42 @@ public class UtilisateurServiceImplTest {
                 .isInstanceOf(AccessDeniedException.class);
     }
 
+    @Test
+    @DisplayName("mettreAJourPhotoProfil - Devrait référencer le contenu adressé puis libérer l'ancienne photo")
+    void mettreAJourPhotoProfil_ShouldAcquireContentThenReleaseOldPhoto() {
+        utilisateur.setPhotoProfilCle("contenus/aa/ancienne.jpg");
+        org.springframework.mock.web.MockMultipartFile file = new org.springframework.mock.web.MockMultipartFile(
+                "file", "photo.jpg", "image/jpeg", new byte[]{1, 2, 3});
+        when(utilisateurRepository.findByTokenId("user-token-123")).thenReturn(Optional.of(utilisateur));
+        when(stockageContenuAdresse.acquerir(any(byte[].class), eq(".jpg"), eq("image/jpeg"), any()))
+                .thenReturn(new StockageContenuAdresse.Reference("contenus/03/0390.jpg", "0390", "image/jpeg"));
+        when(stockageContenuAdresse.liberer("contenus/aa/ancienne.jpg")).thenReturn(true);
+        when(utilisateurRepository.save(utilisateur)).thenReturn(utilisateur);
+
+        utilisateurService.mettreAJourPhotoProfil("user-token-123", file, "user-token-123", false);
+
+        InOrder ordre = inOrder(stockageContenuAdresse);
+        ordre.verify(stockageContenuAdresse).acquerir(any(byte[].class), eq(".jpg"), eq("image/jpeg"), any());
+        ordre.verify(stockageContenuAdresse).liberer("contenus/aa/ancienne.jpg");
+        assertThat(utilisateur.getPhotoProfilCle()).isEqualTo("contenus/03/0390.jpg");
+        assertThat(utilisateur.getPhotoProfilEmpreinte()).isEqualTo("0390");
+        verifyNoInteractions(objectStorageService);
+    }
+
+    @Test
+    @DisplayName("supprimerPhotoProfil - Devrait supprimer directement une photo antérieure au stockage adressé")
+    void supprimerPhotoProfil_WithLegacyKey_ShouldDeleteObjectAndVariants() {
+        utilisateur.setPhotoProfilCle("utilisateurs/user-token-123/photo-profil.jpg");
+        when(utilisateurRepository.findByTokenId("user-token-123")).thenReturn(Optional.of(utilisateur));
+        when(stockageContenuAdresse.liberer("utilisateurs/user-token-123/photo-profil.jpg")).thenReturn(false);
+
+        utilisateurService.supprimerPhotoProfil("user-token-123", "user-token-123", false);
+
+        verify(objectStorageService).delete("utilisateurs/user-token-123/photo-profil.jpg");
+        verify(objectStorageService).delete("utilisateurs/user-token-123/photo-profil-128.jpg");
+        assertThat(utilisateur.getPhotoProfilCle()).isNull();
+    }
+
     @Test
     @DisplayName("mapUtilisateurToProfilDTO - Devrait exposer l'URL photo quand une clé est présente")
     void mapUtilisateurToProfilDTO_WhenPhotoPresent_ShouldExposeUrl() {
@@ -958,4 +1002,70 @@ public class UtilisateurServiceImplTest {
 
         assertThat(result.photoProfilUrl()).isEqualTo("/api/v1/utilisateurs/user-token-123/photo-profil");
     }
+
+    @Test
+    @DisplayName("chargerPhotoProfil - Devrait servir la variante demandée et l'original quand elle n'existe pas")
+    void chargerPhotoProfil_WithTaille_ShouldServeVariantOrFallBackToOriginal() {
+        utilisateur.setPhotoProfilCle("utilisateurs/user-token-123/photo-profil.jpg");
+        utilisateur.setPhotoProfilMimeType("image/jpeg");
+        when(utilisateurRepository.findByTokenId("user-token-123")).thenReturn(Optional.of(utilisateur));
+        when(objectStorageService.download("utilisateurs/user-token-123/photo-profil-48.jpg"))
+                .thenReturn(Optional.of(new ObjectStorageService.StoredObject(
+                        new java.io.ByteArrayInputStream(new byte[600]), 600, "image/jpeg")));
+        when(objectStorageService.download("utilisateurs/user-token-123/photo-profil-128.jpg"))
+                .thenReturn(Optional.empty());
+        when(objectStorageService.download("utilisateurs/user-token-123/photo-profil.jpg"))
+                .thenReturn(Optional.of(new ObjectStorageService.StoredObject(
+                        new java.io.ByteArrayInputStream(new byte[2000]), 2000, "image/jpeg")));
+
+        assertThat(utilisateurService.chargerPhotoProfil("user-token-123", 40, null).taille()).isEqualTo(600);
+        assertThat(utilisateurService.chargerPhotoProfil("user-token-123", 100, null).taille()).isEqualTo(2000);
+    }
+
+    @Test
+    @DisplayName("chargerPhotoProfil - Ne devrait pas lire le stockage quand l'ETag envoyé correspond")
+    void chargerPhotoProfil_WithMatchingEtag_ShouldNotTouchStorage() {
+        utilisateur.setPhotoProfilCle("utilisateurs/user-token-123/photo-profil.jpg");
+        utilisateur.setPhotoProfilMimeType("image/jpeg");
+        utilisateur.setPhotoProfilEmpreinte(EtagPhotoProfil.empreinte(new byte[]{1, 2, 3}));
+        when(utilisateurRepository.findByTokenId("user-token-123")).thenReturn(Optional.of(utilisateur));
+        String etag = EtagPhotoProfil.etag("utilisateurs/user-token-123/photo-profil-128.jpg",
+                utilisateur.getPhotoProfilEmpreinte());
+
+        PhotoProfilContenu photo = utilisateurService.chargerPhotoProfil("user-token-123", 128, "W/" + etag);
+
+        assertThat(photo.nonModifiee()).isTrue();
+        assertThat(photo.etag()).isEqualTo(etag);
+        assertThat(utilisateurService.mapUtilisateurToProfilDTO(utilisateur).photoProfilUrl())
+                .isEqualTo("/api/v1/utilisateurs/user-token-123/photo-profil?v=" + photo.version());
+        verifyNoInteractions(objectStorageService);
+    }
+
+    @Test
+    @DisplayName("parcourirPhotosProfil - Devrait lire le lot en une requête, sans renvoyer les photos déjà connues")
+    void parcourirPhotosProfil_ShouldLoadUsersOnceAndSkipKnownEtags() throws Exception {
+        utilisateur.setPhotoProfilCle("utilisateurs/user-token-123/photo-profil.jpg");
+        utilisateur.setPhotoProfilMimeType("image/jpeg");
+        utilisateur.setPhotoProfilEmpreinte(EtagPhotoProfil.empreinte(new byte[]{1, 2, 3}));
+        Utilisateur sansPhoto = Utilisateur.builder().id(2).tokenId("sans-photo").build();
+        when(utilisateurRepository.findByTokenIdIn(List.of("user-token-123", "sans-photo", "inconnu")))
+                .thenReturn(List.of(utilisateur, sansPhoto));
+        String etag = EtagPhotoProfil.etag("utilisateurs/user-token-123/photo-profil-48.jpg",
+                utilisateur.getPhotoProfilEmpreinte());
+        List<PhotoProfilLotEntree> entrees = new ArrayList<>();
+
+        utilisateurService.parcourirPhotosProfil(
+                List.of("user-token-123", "sans-photo", "inconnu", "sans-photo"),
+                48,
+                Map.of("user-token-123", etag),
+                entrees::add);
+
+        assertThat(entrees).extracting(PhotoProfilLotEntree::tokenId)
+                .containsExactly("user-token-123", "sans-photo", "inconnu");
+        assertThat(entrees.get(0).photo().nonModifiee()).isTrue();
+        assertThat(entrees.get(1).photo()).isNull();
+        assertThat(entrees.get(2).photo()).isNull();
+        verify(utilisateurRepository, never()).findByTokenId(anyString());
+        verifyNoInteractions(objectStorageService);
+    }
 }
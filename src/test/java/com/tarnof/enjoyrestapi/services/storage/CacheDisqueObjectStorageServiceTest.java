@@ -0,0 +1,228 @@
+package com.tarnof.enjoyrestapi.services.storage;
+
+import com.tarnof.enjoyrestapi.config.StorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("Tests unitaires pour CacheDisqueObjectStorageService")
+class CacheDisqueObjectStorageServiceTest {
+
+    @TempDir
+    Path dossier;
+
+    /** Le stockage local tient le rôle du stockage distant ; l'espion compte les téléchargements. */
+    private LocalObjectStorageServiceImpl distant;
+
+    @BeforeEach
+    void setUp() {
+        StorageProperties proprietes = new StorageProperties();
+        proprietes.getLocal().setUploadDir(dossier.resolve("distant").toString());
+        distant = spy(new LocalObjectStorageServiceImpl(proprietes));
+    }
+
+    @Test
+    @DisplayName("Devrait servir la deuxième lecture depuis le disque et relire après un upload")
+    void download_ShouldHitCacheUntilUpload() throws IOException {
+        CacheDisqueObjectStorageService cache = cache(1024);
+        cache.upload("a.jpg", flux("v1"), 2, "image/jpeg");
+
+        assertThat(lire(cache, "a.jpg")).isEqualTo("v1");
+        assertThat(lire(cache, "a.jpg")).isEqualTo("v1");
+        cache.upload("a.jpg", flux("v2"), 2, "image/jpeg");
+
+        assertThat(lire(cache, "a.jpg")).isEqualTo("v2");
+        verify(distant, times(2)).download("a.jpg");
+        assertThat(cache.exists("a.jpg")).isTrue();
+        cache.delete("a.jpg");
+        assertThat(cache.download("a.jpg")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Devrait invalider la clé à la fin d'un téléversement asynchrone")
+    void uploadAsync_ShouldInvalidateOnCompletion() throws Exception {
+        CacheDisqueObjectStorageService cache = cache(1024);
+        cache.upload("a.pdf", flux("v1"), 2, "application/pdf");
+        assertThat(lire(cache, "a.pdf")).isEqualTo("v1");
+        Path source = Files.writeString(dossier.resolve("source.pdf"), "v2");
+
+        cache.uploadAsync("a.pdf", source, "application/pdf").get(5, TimeUnit.SECONDS);
+
+        assertThat(cache.tailleTotale()).isZero();
+        assertThat(lire(cache, "a.pdf")).isEqualTo("v2");
+        verify(distant, times(2)).download("a.pdf");
+    }
+
+    @Test
+    @DisplayName("Devrait évincer les objets les moins récemment lus au-delà de la taille maximale")
+    void download_ShouldEvictLeastRecentlyReadBeyondMaxBytes() throws IOException {
+        CacheDisqueObjectStorageService cache = cache(10);
+        for (String cle : List.of("a", "b", "c")) {
+            cache.upload(cle, flux("1234"), 4, "image/png");
+        }
+
+        lire(cache, "a");
+        lire(cache, "b");
+        lire(cache, "a");
+        lire(cache, "c");
+        lire(cache, "a");
+        lire(cache, "b");
+
+        assertThat(cache.tailleTotale()).isLessThanOrEqualTo(10);
+        verify(distant, times(1)).download("a");
+        verify(distant, times(2)).download("b");
+    }
+
+    @Test
+    @DisplayName("Devrait ne faire qu'un téléchargement pour des lectures simultanées d'une même clé")
+    void download_ShouldCollapseConcurrentMisses() throws Exception {
+        CacheDisqueObjectStorageService cache = cache(1024);
+        cache.upload("a.jpg", flux("v1"), 2, "image/jpeg");
+        CountDownLatch lecturesLancees = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            lecturesLancees.await(5, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(distant).download("a.jpg");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> lectures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                lectures.add(executor.submit(() -> lire(cache, "a.jpg")));
+            }
+            Thread.sleep(100);
+            lecturesLancees.countDown();
+            for (Future<String> lecture : lectures) {
+                assertThat(lecture.get(5, TimeUnit.SECONDS)).isEqualTo("v1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(distant, times(1)).download("a.jpg");
+    }
+
+    @Test
+    @DisplayName("Devrait remonter aux lectures simultanées l'exception du téléchargement, sans enveloppe")
+    void download_ShouldRethrowOriginalExceptionToWaitingReaders() throws Exception {
+        CacheDisqueObjectStorageService cache = cache(1024);
+        CountDownLatch lecturesLancees = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            lecturesLancees.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("réseau");
+        }).when(distant).download("a.jpg");
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<String>> lectures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                lectures.add(executor.submit(() -> lire(cache, "a.jpg")));
+            }
+            Thread.sleep(100);
+            lecturesLancees.countDown();
+            for (Future<String> lecture : lectures) {
+                assertThatThrownBy(() -> lecture.get(5, TimeUnit.SECONDS))
+                        .isInstanceOf(ExecutionException.class)
+                        .cause()
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessage("réseau");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Devrait servir un objet plus gros que le cache sans l'y mettre ni le télécharger deux fois")
+    void download_ShouldNotCacheObjectLargerThanMaxBytes() throws IOException {
+        CacheDisqueObjectStorageService cache = cache(3);
+        cache.upload("gros.bin", flux("1234"), 4, "application/octet-stream");
+
+        assertThat(lire(cache, "gros.bin")).isEqualTo("1234");
+        assertThat(lire(cache, "gros.bin")).isEqualTo("1234");
+
+        assertThat(cache.tailleTotale()).isZero();
+        verify(distant, times(2)).download("gros.bin");
+    }
+
+    @Test
+    @DisplayName("Devrait lire une plage dans le fichier en cache, ou la demander au distant sans remplir le cache")
+    void downloadRange_ShouldReadCachedFileOrDelegateWithoutFilling() throws IOException {
+        CacheDisqueObjectStorageService cache = cache(1024);
+        cache.upload("segment.dat", flux("0123456789"), 10, "application/octet-stream");
+        cache.upload("photo.jpg", flux("abcdef"), 6, "image/jpeg");
+        lire(cache, "photo.jpg");
+
+        assertThat(lirePlage(cache, "segment.dat", 2, 3)).isEqualTo("234");
+        assertThat(lirePlage(cache, "photo.jpg", 4, 10)).isEqualTo("ef");
+
+        assertThat(cache.tailleTotale()).isEqualTo(6);
+        verify(distant).downloadRange("segment.dat", 2, 3);
+        verify(distant, never()).downloadRange("photo.jpg", 4, 10);
+        verify(distant, times(1)).download("photo.jpg");
+    }
+
+    @Test
+    @DisplayName("Devrait retrouver les objets en cache après redémarrage grâce à l'index")
+    void close_ShouldPersistIndexAcrossRestart() throws IOException {
+        CacheDisqueObjectStorageService cache = cache(1024);
+        cache.upload("a.jpg", flux("v1"), 2, "image/jpeg");
+        lire(cache, "a.jpg");
+        cache.close();
+
+        CacheDisqueObjectStorageService redemarre = cache(1024);
+
+        assertThat(redemarre.tailleTotale()).isEqualTo(2);
+        assertThat(lire(redemarre, "a.jpg")).isEqualTo("v1");
+        verify(distant, times(1)).download("a.jpg");
+    }
+
+    private CacheDisqueObjectStorageService cache(long tailleMax) {
+        return new CacheDisqueObjectStorageService(distant, dossier.resolve("cache"), tailleMax);
+    }
+
+    private static InputStream flux(String contenu) {
+        return new ByteArrayInputStream(contenu.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String lirePlage(ObjectStorageService stockage, String cle, long position, int longueur)
+            throws IOException {
+        Optional<ObjectStorageService.StoredObject> objet = stockage.downloadRange(cle, position, longueur);
+        assertThat(objet).isPresent();
+        try (InputStream in = objet.get().content()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String lire(ObjectStorageService stockage, String cle) throws IOException {
+        Optional<ObjectStorageService.StoredObject> objet = stockage.download(cle);
+        assertThat(objet).isPresent();
+        try (InputStream in = objet.get().content()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
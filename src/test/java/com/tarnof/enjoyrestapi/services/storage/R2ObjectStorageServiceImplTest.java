@@ -0,0 +1,151 @@
+package com.tarnof.enjoyrestapi.services.storage;
+
+import com.tarnof.enjoyrestapi.config.StorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour R2ObjectStorageServiceImpl (téléversement asynchrone)")
+class R2ObjectStorageServiceImplTest {
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private S3AsyncClient s3AsyncClient;
+
+    @TempDir
+    Path dossier;
+
+    private R2ObjectStorageServiceImpl stockage;
+
+    @BeforeEach
+    void setUp() {
+        StorageProperties proprietes = new StorageProperties();
+        proprietes.getR2().setBucket("enjoy");
+        proprietes.getR2().setUploadConcurrency(2);
+        stockage = new R2ObjectStorageServiceImpl(s3Client, s3AsyncClient, proprietes);
+    }
+
+    @Test
+    @DisplayName("Devrait envoyer un petit fichier en un seul PutObject")
+    void uploadAsync_ShouldPutSmallFileAtOnce() throws Exception {
+        Path fichier = Files.write(dossier.resolve("petit.pdf"), new byte[1024]);
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().build()));
+
+        stockage.uploadAsync("docs/petit.pdf", fichier, "application/pdf").get(5, TimeUnit.SECONDS);
+
+        verify(s3AsyncClient).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+        verify(s3AsyncClient, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    @DisplayName("Devrait découper un gros fichier en parties de même taille puis terminer le multipart")
+    void uploadAsync_ShouldUploadLargeFileInParts() throws Exception {
+        long taille = 2L * R2ObjectStorageServiceImpl.TAILLE_PARTIE + 1000;
+        Path fichier = fichier("gros.bin", taille);
+        when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CreateMultipartUploadResponse.builder().uploadId("u1").build()));
+        when(s3AsyncClient.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class)))
+                .thenAnswer(invocation -> {
+                    UploadPartRequest request = invocation.getArgument(0);
+                    return CompletableFuture.supplyAsync(() ->
+                            UploadPartResponse.builder().eTag("e" + request.partNumber()).build());
+                });
+        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CompleteMultipartUploadResponse.builder().build()));
+
+        stockage.uploadAsync("docs/gros.bin", fichier, "application/octet-stream").get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<UploadPartRequest> parties = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3AsyncClient, times(3)).uploadPart(parties.capture(), any(AsyncRequestBody.class));
+        assertThat(parties.getAllValues()).extracting(UploadPartRequest::contentLength)
+                .containsExactly((long) R2ObjectStorageServiceImpl.TAILLE_PARTIE,
+                        (long) R2ObjectStorageServiceImpl.TAILLE_PARTIE, 1000L);
+        ArgumentCaptor<CompleteMultipartUploadRequest> fin = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3AsyncClient).completeMultipartUpload(fin.capture());
+        assertThat(fin.getValue().uploadId()).isEqualTo("u1");
+        assertThat(fin.getValue().multipartUpload().parts()).extracting(CompletedPart::eTag)
+                .containsExactly("e1", "e2", "e3");
+    }
+
+    @Test
+    @DisplayName("Devrait abandonner le multipart quand une partie échoue")
+    void uploadAsync_ShouldAbortWhenPartFails() throws Exception {
+        Path fichier = fichier("gros.bin", 2L * R2ObjectStorageServiceImpl.TAILLE_PARTIE);
+        when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CreateMultipartUploadResponse.builder().uploadId("u1").build()));
+        when(s3AsyncClient.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("réseau")));
+        when(s3AsyncClient.abortMultipartUpload(any(AbortMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(AbortMultipartUploadResponse.builder().build()));
+
+        CompletableFuture<Void> envoi = stockage.uploadAsync("docs/gros.bin", fichier, "application/octet-stream");
+
+        assertThatThrownBy(() -> envoi.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("réseau");
+        verify(s3AsyncClient).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3AsyncClient, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    @DisplayName("Devrait ne demander que la plage voulue à R2")
+    void downloadRange_ShouldSendRangeHeader() throws Exception {
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().contentLength(3L).build(),
+                AbortableInputStream.create(new ByteArrayInputStream(new byte[]{1, 2, 3}))));
+
+        ObjectStorageService.StoredObject plage = stockage.downloadRange("historique/segment-1.dat", 10, 3).orElseThrow();
+
+        ArgumentCaptor<GetObjectRequest> requete = ArgumentCaptor.forClass(GetObjectRequest.class);
+        verify(s3Client).getObject(requete.capture());
+        assertThat(requete.getValue().range()).isEqualTo("bytes=10-12");
+        assertThat(plage.content().readAllBytes()).containsExactly(1, 2, 3);
+    }
+
+    /** Fichier creux de la taille voulue (lu comme des zéros). */
+    private Path fichier(String nom, long taille) throws IOException {
+        Path fichier = dossier.resolve(nom);
+        try (RandomAccessFile raf = new RandomAccessFile(fichier.toFile(), "rw")) {
+            raf.setLength(taille);
+        }
+        return fichier;
+    }
+}
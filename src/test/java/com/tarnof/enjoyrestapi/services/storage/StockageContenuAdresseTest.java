@@ -0,0 +1,173 @@
+package com.tarnof.enjoyrestapi.services.storage;
+
+import com.tarnof.enjoyrestapi.entities.ContenuStocke;
+import com.tarnof.enjoyrestapi.repositories.ContenuStockeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires pour StockageContenuAdresse")
+class StockageContenuAdresseTest {
+
+    @Mock
+    private ObjectStorageService objectStorageService;
+
+    @Mock
+    private ContenuStockeRepository contenuStockeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StockageContenuAdresse stockage;
+
+    @BeforeEach
+    void setUp() {
+        stockage = new StockageContenuAdresse(
+                objectStorageService, contenuStockeRepository, transactionManager, true, Duration.ofHours(24));
+    }
+
+    @Test
+    @DisplayName("Devrait seulement incrémenter le compteur pour un contenu déjà stocké")
+    void acquerir_WhenContentExists_ShouldNotUpload() {
+        when(contenuStockeRepository.ajouterReference(anyString())).thenReturn(1);
+        when(contenuStockeRepository.findByEmpreinte(anyString())).thenAnswer(invocation -> {
+            String empreinte = invocation.getArgument(0);
+            return Optional.of(new ContenuStocke(empreinte, "contenus/" + empreinte.substring(0, 2) + "/" + empreinte
+                    + ".jpg", null, 5, "image/jpeg", Instant.EPOCH));
+        });
+
+        StockageContenuAdresse.Reference reference = stockage.acquerir(octets("photo"), ".jpg", "image/jpeg", cle -> {
+            throw new AssertionError("variantes recalculées");
+        });
+
+        assertThat(reference.cle()).isEqualTo(
+                "contenus/" + reference.empreinte().substring(0, 2) + "/" + reference.empreinte() + ".jpg");
+        verifyNoInteractions(objectStorageService);
+        verify(contenuStockeRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Devrait renvoyer la clé et le type stockés quand le même contenu arrive avec une autre extension")
+    void acquerir_WhenContentExistsWithOtherExtension_ShouldReturnStoredKey() {
+        when(contenuStockeRepository.ajouterReference(anyString())).thenReturn(1);
+        when(contenuStockeRepository.findByEmpreinte(anyString())).thenAnswer(invocation -> {
+            String empreinte = invocation.getArgument(0);
+            return Optional.of(new ContenuStocke(empreinte, "contenus/" + empreinte.substring(0, 2) + "/" + empreinte
+                    + ".png", null, 5, "image/png", Instant.EPOCH));
+        });
+
+        StockageContenuAdresse.Reference reference = stockage.acquerir(octets("photo"), ".jpg", "image/jpeg", cle -> {
+            throw new AssertionError("variantes recalculées");
+        });
+
+        assertThat(reference.cle()).endsWith(reference.empreinte() + ".png");
+        assertThat(reference.mimeType()).isEqualTo("image/png");
+        verifyNoInteractions(objectStorageService);
+    }
+
+    @Test
+    @DisplayName("Devrait envoyer un nouveau contenu et ses dérivés puis enregistrer une référence")
+    void acquerir_WhenContentIsNew_ShouldUploadAndRecord() {
+        when(contenuStockeRepository.ajouterReference(anyString())).thenReturn(0);
+
+        StockageContenuAdresse.Reference reference = stockage.acquerir(octets("photo"), ".jpg", "image/jpeg", cle -> {
+            Map<String, byte[]> derives = new LinkedHashMap<>();
+            derives.put(cle + "-48", octets("p"));
+            derives.put(cle + "-128", octets("ph"));
+            return derives;
+        });
+
+        assertThat(reference.mimeType()).isEqualTo("image/jpeg");
+        verify(objectStorageService).upload(eq(reference.cle()), any(InputStream.class), eq(5L), eq("image/jpeg"));
+        verify(objectStorageService).upload(eq(reference.cle() + "-48"), any(InputStream.class), anyLong(), anyString());
+        verify(objectStorageService).upload(eq(reference.cle() + "-128"), any(InputStream.class), anyLong(), anyString());
+        ArgumentCaptor<ContenuStocke> ligne = ArgumentCaptor.forClass(ContenuStocke.class);
+        verify(contenuStockeRepository).save(ligne.capture());
+        assertThat(ligne.getValue().getNbReferences()).isEqualTo(1);
+        assertThat(ligne.getValue().getClesDerivees()).isEqualTo(reference.cle() + "-48," + reference.cle() + "-128");
+    }
+
+    @Test
+    @DisplayName("Devrait marquer orphelin le contenu libéré et laisser les clés hors stockage adressé à l'appelant")
+    void liberer_ShouldOnlyUpdateMetadata() {
+        when(contenuStockeRepository.retirerReference("contenus/ab/ab12.jpg")).thenReturn(1);
+
+        assertThat(stockage.liberer("contenus/ab/ab12.jpg")).isTrue();
+        assertThat(stockage.liberer("utilisateurs/tok/photo-profil.jpg")).isFalse();
+
+        verify(contenuStockeRepository).marquerOrphelin(eq("contenus/ab/ab12.jpg"), any(Instant.class));
+        verify(contenuStockeRepository, never()).retirerReference("utilisateurs/tok/photo-profil.jpg");
+        verifyNoInteractions(objectStorageService);
+    }
+
+    @Test
+    @DisplayName("Devrait supprimer les orphelins et leurs dérivés, sauf ceux référencés à nouveau entre-temps")
+    void ramasser_ShouldDeleteOrphansStillUnreferenced() {
+        ContenuStocke orphelin = new ContenuStocke(
+                "ab12", "contenus/ab/ab12.jpg", "contenus/ab/ab12-48.jpg", 5, "image/jpeg", Instant.EPOCH);
+        orphelin.setNbReferences(0);
+        when(contenuStockeRepository.findIdsOrphelinsAvant(any(Instant.class), eq(0), any(Pageable.class)))
+                .thenReturn(List.of(5, 6));
+        when(contenuStockeRepository.findOrphelinPourSuppression(5)).thenReturn(Optional.of(orphelin));
+        when(contenuStockeRepository.findOrphelinPourSuppression(6)).thenReturn(Optional.empty());
+
+        assertThat(stockage.ramasser()).isEqualTo(1);
+
+        InOrder ordre = inOrder(contenuStockeRepository, objectStorageService);
+        ordre.verify(contenuStockeRepository).delete(orphelin);
+        ordre.verify(objectStorageService).delete("contenus/ab/ab12-48.jpg");
+        ordre.verify(objectStorageService).delete("contenus/ab/ab12.jpg");
+        verifyNoMoreInteractions(objectStorageService);
+    }
+
+    @Test
+    @DisplayName("Devrait n'effacer les objets d'un orphelin qu'après la validation de la suppression de sa ligne")
+    void ramasser_ShouldDeleteObjectsAfterCommit() {
+        ContenuStocke orphelin = new ContenuStocke(
+                "ab12", "contenus/ab/ab12.jpg", null, 5, "image/jpeg", Instant.EPOCH);
+        orphelin.setNbReferences(0);
+        when(contenuStockeRepository.findIdsOrphelinsAvant(any(Instant.class), eq(0), any(Pageable.class)))
+                .thenReturn(List.of(5));
+        when(contenuStockeRepository.findOrphelinPourSuppression(5)).thenReturn(Optional.of(orphelin));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(stockage.ramasser()).isEqualTo(1);
+
+            verify(contenuStockeRepository).delete(orphelin);
+            verifyNoInteractions(objectStorageService);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(objectStorageService).delete("contenus/ab/ab12.jpg");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static byte[] octets(String texte) {
+        return texte.getBytes(StandardCharsets.UTF_8);
+    }
+}
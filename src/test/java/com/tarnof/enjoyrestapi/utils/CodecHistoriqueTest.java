@@ -0,0 +1,62 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Tests unitaires pour CodecHistorique")
+class CodecHistoriqueTest {
+
+    private static final String CHAMBRE = "Type: CHAMBRE | Identifiant: B12 | Nom: Les Pins | Capacité: 12 | Genre: MIXTE"
+            + " | Description: - | Bâtiment: Principal | Groupe: Les Grands | Référents: Alice Martin, Jean Dupont"
+            + " | Occupants: "
+            + IntStream.rangeClosed(1, 12)
+                    .mapToObj(i -> "Prénom" + i + " Nom" + i + " (lit " + i + ")")
+                    .collect(Collectors.joining(", "));
+
+    @Test
+    @DisplayName("Devrait restituer les libellés à l'identique, valeurs absentes comprises")
+    void decoder_ShouldRestoreOriginalValues() {
+        String[][] cas = {
+            {CHAMBRE, CHAMBRE.replace("Prénom7 Nom7", "Zoé Durand")},
+            {null, CHAMBRE},
+            {CHAMBRE, null},
+            {"a|b|c", "a|b|c|d"},
+            {"a|b|c|d", "a|x"},
+            {"", ""},
+            {"x😀|y", "x😁|y"},
+        };
+        for (String[] valeurs : cas) {
+            CodecHistorique.Valeurs decode = CodecHistorique.decoder(CodecHistorique.encoder(valeurs[0], valeurs[1]));
+
+            assertThat(decode).isEqualTo(new CodecHistorique.Valeurs(valeurs[0], valeurs[1]));
+        }
+    }
+
+    @Test
+    @DisplayName("Devrait réduire nettement une modification d'occupant sur une chambre remplie")
+    void encoder_ShouldShrinkRealisticModification() {
+        String apres = CHAMBRE.replace("Prénom7 Nom7", "Zoé Durand");
+        int texte = CHAMBRE.getBytes(StandardCharsets.UTF_8).length + apres.getBytes(StandardCharsets.UTF_8).length;
+
+        byte[] compacte = CodecHistorique.encoder(CHAMBRE, apres);
+
+        assertThat(compacte.length).isLessThan(texte * 40 / 100);
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une forme compacte tronquée")
+    void decoder_ShouldRejectTruncatedInput() {
+        byte[] compacte = CodecHistorique.encoder(CHAMBRE, CHAMBRE + " | Note: -");
+        byte[] tronque = Arrays.copyOf(compacte, compacte.length / 2);
+
+        assertThatThrownBy(() -> CodecHistorique.decoder(tronque)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,44 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Tests unitaires pour CurseurPagination")
+class CurseurPaginationTest {
+
+    @Test
+    @DisplayName("Devrait retrouver la clé et l'id encodés")
+    void encoderPuisDecoder_ShouldRoundTrip() {
+        String cle = Instant.parse("2026-07-14T10:15:30.123Z").toString();
+
+        CurseurPagination.Position position = CurseurPagination.decoder(CurseurPagination.encoder(cle, 42));
+
+        assertThat(position).isEqualTo(new CurseurPagination.Position(cle, 42));
+    }
+
+    @Test
+    @DisplayName("Devrait traiter un curseur absent comme la première page et refuser un curseur illisible")
+    void decoder_ShouldHandleMissingAndInvalid() {
+        assertThat(CurseurPagination.decoder(null)).isNull();
+        assertThat(CurseurPagination.decoder(" ")).isNull();
+        assertThatThrownBy(() -> CurseurPagination.decoder("%%%"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Curseur de pagination invalide.");
+        assertThatThrownBy(() -> CurseurPagination.decoder(CurseurPagination.encoder("cle", 1).substring(2)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Devrait appliquer la taille par défaut et refuser une taille hors bornes")
+    void taille_ShouldApplyDefaultAndBounds() {
+        assertThat(CurseurPagination.taille(null)).isEqualTo(CurseurPagination.TAILLE_PAR_DEFAUT);
+        assertThat(CurseurPagination.taille(200)).isEqualTo(200);
+        assertThatThrownBy(() -> CurseurPagination.taille(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CurseurPagination.taille(201)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,56 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour EmpreinteHistorique")
+class EmpreinteHistoriqueTest {
+
+    @Test
+    @DisplayName("Devrait ignorer l'ordre des éléments d'une collection, les blancs autour du texte et null / vide")
+    void valeur_ShouldIgnoreCollectionOrderAndBlankVariants() {
+        long avant = EmpreinteHistorique.nouvelle()
+                .texte("Les Pins")
+                .texte(null)
+                .ids(List.of(3, 1, 2), Function.identity())
+                .valeur();
+        long apres = EmpreinteHistorique.nouvelle()
+                .texte(" Les Pins ")
+                .texte("")
+                .ids(Set.of(2, 3, 1), Function.identity())
+                .valeur();
+
+        assertThat(apres).isEqualTo(avant);
+    }
+
+    @Test
+    @DisplayName("Devrait changer quand un champ, un élément ou la limite entre deux champs change")
+    void valeur_ShouldChangeWithContent() {
+        long reference = empreinte("ab", "c", List.of(1, 2), 12);
+
+        assertThat(empreinte("a", "bc", List.of(1, 2), 12)).isNotEqualTo(reference);
+        assertThat(empreinte("ab", "c", List.of(1, 3), 12)).isNotEqualTo(reference);
+        assertThat(empreinte("ab", "c", List.of(1, 2, 2), 12)).isNotEqualTo(reference);
+        assertThat(empreinte("ab", "c", List.of(1, 2), null)).isNotEqualTo(reference);
+        assertThat(empreinte("ab", "c", List.of(1, 2), 12)).isEqualTo(reference);
+    }
+
+    @Test
+    @DisplayName("Devrait distinguer les clés composées selon l'ordre de leurs parties")
+    void cle_ShouldDependOnPartOrder() {
+        assertThat(EmpreinteHistorique.cle(1, 2)).isNotEqualTo(EmpreinteHistorique.cle(2, 1));
+        assertThat(EmpreinteHistorique.nouvelle().decimal(new BigDecimal("37.0")).valeur())
+                .isNotEqualTo(EmpreinteHistorique.nouvelle().decimal(new BigDecimal("37.5")).valeur());
+    }
+
+    private static long empreinte(String a, String b, List<Integer> ids, Integer entier) {
+        return EmpreinteHistorique.nouvelle().texte(a).texte(b).ids(ids, Function.identity()).entier(entier).valeur();
+    }
+}
@@ -0,0 +1,52 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarnof.enjoyrestapi.payload.response.PhotoProfilContenu;
+import com.tarnof.enjoyrestapi.payload.response.PhotoProfilLotEntree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour EnveloppePhotosProfil")
+class EnveloppePhotosProfilTest {
+
+    @Test
+    @DisplayName("Devrait placer les images bout à bout et les retrouver par l'index écrit en fin de réponse")
+    void terminer_ShouldWriteTrailingIndexWithOffsets() throws IOException {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        EnveloppePhotosProfil enveloppe = new EnveloppePhotosProfil(sortie);
+
+        enveloppe.ajouter(new PhotoProfilLotEntree("a", photo("AAAA", "\"ea\"")));
+        enveloppe.ajouter(new PhotoProfilLotEntree("b", new PhotoProfilContenu(null, 0, "image/png", "\"eb\"", null)));
+        enveloppe.ajouter(new PhotoProfilLotEntree("c", null));
+        enveloppe.ajouter(new PhotoProfilLotEntree("d", photo("DD", "\"ed\"")));
+        enveloppe.terminer();
+
+        byte[] octets = sortie.toByteArray();
+        int longueurIndex = ByteBuffer.wrap(octets, octets.length - 4, 4).getInt();
+        JsonNode entrees = new ObjectMapper()
+                .readTree(new String(octets, octets.length - 4 - longueurIndex, longueurIndex, StandardCharsets.UTF_8))
+                .get("entrees");
+        assertThat(entrees).extracting(e -> e.get("statut").asInt()).containsExactly(200, 304, 404, 200);
+        JsonNode d = entrees.get(3);
+        int offset = d.get("offset").asInt();
+        assertThat(new String(Arrays.copyOfRange(octets, offset, offset + d.get("longueur").asInt()), StandardCharsets.UTF_8))
+                .isEqualTo("DD");
+        assertThat(d.get("etag").asText()).isEqualTo("\"ed\"");
+        assertThat(entrees.get(1).get("etag").asText()).isEqualTo("\"eb\"");
+    }
+
+    private static PhotoProfilContenu photo(String contenu, String etag) {
+        byte[] octets = contenu.getBytes(StandardCharsets.UTF_8);
+        return new PhotoProfilContenu(new ByteArrayInputStream(octets), octets.length, "image/jpeg", etag, null);
+    }
+}
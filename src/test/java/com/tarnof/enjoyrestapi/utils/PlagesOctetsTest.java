@@ -0,0 +1,56 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour PlagesOctets")
+class PlagesOctetsTest {
+
+    @Test
+    @DisplayName("Devrait lire les plages bornées, ouvertes et suffixes, bornées à la taille du contenu")
+    void lire_ShouldParseSingleRanges() {
+        assertThat(PlagesOctets.lire("bytes=2-5", 10)).isEqualTo(new PlagesOctets.Plage(2, 4));
+        assertThat(PlagesOctets.lire("bytes=7-", 10)).isEqualTo(new PlagesOctets.Plage(7, 3));
+        assertThat(PlagesOctets.lire("bytes=-3", 10)).isEqualTo(new PlagesOctets.Plage(7, 3));
+        assertThat(PlagesOctets.lire("bytes=4-99", 10)).isEqualTo(new PlagesOctets.Plage(4, 6));
+        assertThat(PlagesOctets.lire("bytes=2-5", 10).contentRange(10)).isEqualTo("bytes 2-5/10");
+    }
+
+    @Test
+    @DisplayName("Devrait servir le contenu complet pour un en-tête absent, illisible ou à plusieurs plages")
+    void lire_ShouldFallBackToFullContent() {
+        assertThat(PlagesOctets.lire(null, 10)).isNull();
+        assertThat(PlagesOctets.lire("items=0-1", 10)).isNull();
+        assertThat(PlagesOctets.lire("bytes=5-2", 10)).isNull();
+        assertThat(PlagesOctets.lire("bytes=0-1,4-5", 10)).isNull();
+        assertThat(PlagesOctets.lire("bytes=10-", 10)).isSameAs(PlagesOctets.NON_SATISFIABLE);
+    }
+
+    @Test
+    @DisplayName("Devrait copier la même plage depuis un fichier (canal) et depuis un flux quelconque")
+    void copier_ShouldCopyRangeFromFileAndStream(@TempDir Path dossier) throws IOException {
+        byte[] contenu = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        Path fichier = Files.write(dossier.resolve("photo.bin"), contenu);
+        ByteArrayOutputStream depuisFichier = new ByteArrayOutputStream();
+        ByteArrayOutputStream depuisFlux = new ByteArrayOutputStream();
+
+        try (FileInputStream in = new FileInputStream(fichier.toFile())) {
+            PlagesOctets.copier(in, 3, 4, depuisFichier);
+        }
+        PlagesOctets.copier(new ByteArrayInputStream(contenu), 3, 4, depuisFlux);
+
+        assertThat(depuisFichier.toString(StandardCharsets.US_ASCII)).isEqualTo("3456");
+        assertThat(depuisFlux.toString(StandardCharsets.US_ASCII)).isEqualTo("3456");
+    }
+}
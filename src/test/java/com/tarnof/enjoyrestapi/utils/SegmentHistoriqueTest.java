@@ -0,0 +1,94 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationAction;
+import com.tarnof.enjoyrestapi.enums.HistoriqueModificationType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Tests unitaires pour SegmentHistorique")
+class SegmentHistoriqueTest {
+
+    @Test
+    @DisplayName("Devrait relire le bloc d'un élément par l'index, lignes de la plus récente à la plus ancienne")
+    void lireBloc_ShouldRestoreLinesOfOneElement() {
+        List<SegmentHistorique.Ligne> lignes = List.of(
+                ligne(1, HistoriqueModificationType.CHAMBRE, 7, "2025-07-01T08:00:00Z"),
+                ligne(2, HistoriqueModificationType.PLANNING_CELLULE, 7, "2025-07-01T09:00:00Z"),
+                ligne(3, HistoriqueModificationType.CHAMBRE, 7, "2025-07-02T08:00:00Z"),
+                ligne(4, HistoriqueModificationType.CHAMBRE, 8, "2025-07-03T08:00:00Z"));
+
+        SegmentHistorique.Segment segment = SegmentHistorique.ecrire(lignes);
+        List<SegmentHistorique.Entree> index = SegmentHistorique.lireIndex(segment.index());
+        SegmentHistorique.Entree chambre7 = index.stream()
+                .filter(e -> e.type() == HistoriqueModificationType.CHAMBRE && e.cibleId() == 7)
+                .findFirst()
+                .orElseThrow();
+        byte[] bloc = Arrays.copyOfRange(
+                segment.donnees(), (int) chambre7.position(), (int) chambre7.position() + chambre7.longueur());
+        List<SegmentHistorique.Ligne> relues = SegmentHistorique.lireBloc(chambre7, bloc);
+
+        assertThat(index).hasSize(3);
+        assertThat(chambre7.plusAncienne()).isEqualTo(Instant.parse("2025-07-01T08:00:00Z"));
+        assertThat(chambre7.plusRecente()).isEqualTo(Instant.parse("2025-07-02T08:00:00Z"));
+        assertThat(relues).extracting(SegmentHistorique.Ligne::id).containsExactly(3, 1);
+        SegmentHistorique.Ligne premiere = relues.get(1);
+        assertThat(premiere.dateModification()).isEqualTo(Instant.parse("2025-07-01T08:00:00Z"));
+        assertThat(premiere.modificateurTokenId()).isEqualTo("dir-token");
+        assertThat(premiere.modificateurNom()).isNull();
+        assertThat(premiere.planningJour()).isEqualTo(LocalDate.of(2025, 7, 1));
+        assertThat(CodecHistorique.decoder(premiere.valeursCompactes()))
+                .isEqualTo(new CodecHistorique.Valeurs("Nom: Les Chênes", "Nom: Les Pins 1"));
+    }
+
+    @Test
+    @DisplayName("Devrait refuser un index d'une version inconnue")
+    void lireIndex_ShouldRejectUnknownVersion() throws Exception {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(sortie)) {
+            out.writeByte(2);
+            out.writeInt(0);
+        }
+
+        assertThatThrownBy(() -> SegmentHistorique.lireIndex(sortie.toByteArray()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Version");
+    }
+
+    @Test
+    @DisplayName("Devrait refuser un bloc tronqué")
+    void lireBloc_ShouldRejectTruncatedBlock() {
+        SegmentHistorique.Segment segment =
+                SegmentHistorique.ecrire(List.of(ligne(1, HistoriqueModificationType.ACTIVITE, 3, "2025-07-01T08:00:00Z")));
+        SegmentHistorique.Entree entree = SegmentHistorique.lireIndex(segment.index()).getFirst();
+        byte[] tronque = Arrays.copyOfRange(
+                segment.donnees(), (int) entree.position(), (int) entree.position() + entree.longueur() / 2);
+
+        assertThatThrownBy(() -> SegmentHistorique.lireBloc(entree, tronque))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static SegmentHistorique.Ligne ligne(int id, HistoriqueModificationType type, int cibleId, String date) {
+        return new SegmentHistorique.Ligne(
+                id,
+                type,
+                cibleId,
+                HistoriqueModificationAction.MODIFICATION,
+                Instant.parse(date),
+                "dir-token",
+                null,
+                "Alice",
+                LocalDate.of(2025, 7, 1),
+                id,
+                CodecHistorique.encoder("Nom: Les Chênes", "Nom: Les Pins " + id));
+    }
+}
@@ -0,0 +1,30 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests unitaires pour TexteRecherche")
+class TexteRechercheTest {
+
+    @Test
+    @DisplayName("Devrait découper en termes minuscules sans accents, sans les élisions")
+    void termes_ShouldFoldAccentsAndSkipShortWords() {
+        assertThat(TexteRecherche.termes("Fièvre à 38,5 — l'Œdème du GENOU"))
+                .containsExactly("fievre", "38", "oedeme", "du", "genou");
+    }
+
+    @Test
+    @DisplayName("Devrait centrer l'extrait sur le premier terme trouvé, quelle que soit l'accentuation")
+    void extrait_ShouldStartNearFirstMatch() {
+        String texte = "Début du compte rendu. " + "Sans rapport. ".repeat(10)
+                + "Léa s'est plainte de   maux de tête\naprès le repas.";
+
+        String extrait = TexteRecherche.extrait(texte, List.of("tete"));
+
+        assertThat(extrait).startsWith("…").contains("maux de tête après le repas.").doesNotContain("Début");
+    }
+}
@@ -0,0 +1,111 @@
+package com.tarnof.enjoyrestapi.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Tests unitaires pour VariantesPhotoProfil")
+class VariantesPhotoProfilTest {
+
+    @Test
+    @DisplayName("Devrait générer chaque taille dans le format de l'original, proportions conservées")
+    void generer_ShouldResizeKeepingRatioAndFormat() throws IOException {
+        byte[] original = image(1000, 600, "jpeg");
+
+        Map<Integer, byte[]> variantes = VariantesPhotoProfil.generer(original, "image/jpeg");
+
+        assertThat(variantes).containsOnlyKeys(48, 128, 512);
+        BufferedImage moyenne = ImageIO.read(new ByteArrayInputStream(variantes.get(128)));
+        assertThat(moyenne.getWidth()).isEqualTo(128);
+        assertThat(moyenne.getHeight()).isEqualTo(77);
+        assertThat(variantes.get(48).length).isLessThan(variantes.get(512).length);
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas agrandir une petite image ni générer de variante pour un contenu illisible")
+    void generer_ShouldNotUpscaleNorFailOnUnreadableContent() throws IOException {
+        Map<Integer, byte[]> variantes = VariantesPhotoProfil.generer(image(100, 100, "png"), "image/png");
+
+        BufferedImage grande = ImageIO.read(new ByteArrayInputStream(variantes.get(512)));
+        assertThat(grande.getWidth()).isEqualTo(100);
+        assertThat(VariantesPhotoProfil.generer(new byte[]{1, 2, 3}, "image/jpeg")).isEmpty();
+        assertThat(VariantesPhotoProfil.generer(new byte[]{1, 2, 3}, "image/webp")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Devrait appliquer l'orientation EXIF d'un JPEG avant de réduire")
+    void generer_ShouldApplyExifOrientation() throws IOException {
+        BufferedImage image = new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 40; x++) {
+            for (int y = 0; y < 20; y++) {
+                image.setRGB(x, y, x < 20 ? 0xFF0000 : 0x0000FF);
+            }
+        }
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", sortie);
+        // Orientation 6 : l'appareil était tourné d'un quart de tour, l'image s'affiche tournée à droite.
+        byte[] original = avecOrientationExif(sortie.toByteArray(), 6);
+
+        BufferedImage variante = ImageIO.read(new ByteArrayInputStream(
+                VariantesPhotoProfil.generer(original, "image/jpeg").get(48)));
+
+        assertThat(VariantesPhotoProfil.orientationExif(original)).isEqualTo(6);
+        assertThat(variante.getWidth()).isEqualTo(20);
+        assertThat(variante.getHeight()).isEqualTo(40);
+        assertThat((variante.getRGB(10, 5) >> 16) & 0xFF).isGreaterThan(200);
+        assertThat(variante.getRGB(10, 35) & 0xFF).isGreaterThan(200);
+    }
+
+    @Test
+    @DisplayName("Devrait servir la plus petite variante suffisante, l'original au-delà, sous une clé sœur")
+    void tailleServieEtCleVariante_ShouldPickSmallestSufficientVariant() {
+        assertThat(VariantesPhotoProfil.tailleServie(null)).isNull();
+        assertThat(VariantesPhotoProfil.tailleServie(40)).isEqualTo(48);
+        assertThat(VariantesPhotoProfil.tailleServie(128)).isEqualTo(128);
+        assertThat(VariantesPhotoProfil.tailleServie(800)).isNull();
+        assertThatThrownBy(() -> VariantesPhotoProfil.tailleServie(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(VariantesPhotoProfil.cleVariante("utilisateurs/tok/photo-profil.jpg", 48))
+                .isEqualTo("utilisateurs/tok/photo-profil-48.jpg");
+    }
+
+    private static byte[] image(int largeur, int hauteur, String format) throws IOException {
+        BufferedImage image = new BufferedImage(largeur, hauteur, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < largeur; x++) {
+            for (int y = 0; y < hauteur; y++) {
+                image.setRGB(x, y, (x * 255 / largeur) << 16 | (y * 255 / hauteur) << 8);
+            }
+        }
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        ImageIO.write(image, format, sortie);
+        return sortie.toByteArray();
+    }
+
+    /** Insère après le SOI un segment APP1 Exif (TIFF gros-boutiste) ne contenant que le tag d'orientation. */
+    private static byte[] avecOrientationExif(byte[] jpeg, int orientation) {
+        byte[] tiff = {
+                'M', 'M', 0, 42, 0, 0, 0, 8,
+                0, 1,
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                0, 0, 0, 0};
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        sortie.write(jpeg, 0, 2);
+        int longueur = 2 + 6 + tiff.length;
+        sortie.write(0xFF);
+        sortie.write(0xE1);
+        sortie.write(longueur >> 8);
+        sortie.write(longueur & 0xFF);
+        sortie.writeBytes(new byte[]{'E', 'x', 'i', 'f', 0, 0});
+        sortie.writeBytes(tiff);
+        sortie.write(jpeg, 2, jpeg.length - 2);
+        return sortie.toByteArray();
+    }
+}